@@ -0,0 +1,218 @@
+package com.lilim.ecotracker.common.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Caché en memoria acotada por tamaño y por tiempo de vida.
+ * <p>
+ * Las entradas se desalojan en orden LRU cuando se supera el tamaño máximo y se descartan al
+ * leerlas si su tiempo de vida expiró. Si una entrada se invalida mientras se calcula su valor,
+ * el resultado se devuelve pero no se guarda, para no volver a cachear datos anteriores a la
+ * invalidación. Cada cálculo en curso registra una marca por clave que las invalidaciones de esa
+ * clave retiran, de modo que invalidar una clave no descarta los cálculos de las demás.
+ * </p>
+ *
+ * @param <K> Tipo de la clave
+ * @param <V> Tipo del valor
+ */
+public class BoundedTtlCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private final Map<K, Object> pendingLoads = new HashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public BoundedTtlCache(int maxSize, Duration ttl) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("El tamaño máximo de la caché debe ser positivo");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Obtiene el valor de una clave, calculándolo si no está en caché o expiró.
+     *
+     * @param key Clave buscada
+     * @param loader Función que calcula el valor en caso de fallo
+     * @return Valor cacheado o recién calculado
+     */
+    public V get(K key, Supplier<V> loader) {
+        V cached = getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        Object token;
+        synchronized (entries) {
+            // Los cálculos simultáneos de la misma clave comparten la marca; el primero que termina la consume
+            token = pendingLoads.computeIfAbsent(key, k -> new Object());
+        }
+        V value = null;
+        try {
+            value = loader.get();
+        } finally {
+            putIfNotInvalidated(key, value, token);
+        }
+        return value;
+    }
+
+    /**
+     * Obtiene el valor de una clave sin calcularlo.
+     *
+     * @param key Clave buscada
+     * @return Valor cacheado o {@code null} si no existe o expiró
+     */
+    public V getIfPresent(K key) {
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && System.nanoTime() - entry.expiresAt < 0) {
+                hits.incrementAndGet();
+                return entry.value;
+            }
+            if (entry != null) {
+                entries.remove(key);
+                evictions.incrementAndGet();
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Guarda un valor, desalojando la entrada menos usada si se supera el tamaño máximo.
+     *
+     * @param key Clave
+     * @param value Valor a guardar
+     */
+    public void put(K key, V value) {
+        synchronized (entries) {
+            store(key, value, ttlNanos);
+        }
+    }
+
+    /**
+     * Guarda un valor que caduca antes que el tiempo de vida de la caché.
+     *
+     * @param key Clave
+     * @param value Valor a guardar
+     * @param ttl Tiempo de vida de la entrada, limitado al de la caché
+     */
+    public void put(K key, V value, Duration ttl) {
+        long entryTtlNanos = Math.min(ttl.toNanos(), ttlNanos);
+        if (entryTtlNanos <= 0) {
+            return;
+        }
+        synchronized (entries) {
+            store(key, value, entryTtlNanos);
+        }
+    }
+
+    private void putIfNotInvalidated(K key, V value, Object token) {
+        synchronized (entries) {
+            if (pendingLoads.remove(key, token) && value != null) {
+                store(key, value, ttlNanos);
+            }
+        }
+    }
+
+    private void store(K key, V value, long entryTtlNanos) {
+        entries.put(key, new Entry<>(value, System.nanoTime() + entryTtlNanos));
+        if (entries.size() > maxSize) {
+            Iterator<K> eldest = entries.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Elimina una clave de la caché.
+     *
+     * @param key Clave a invalidar
+     */
+    public void invalidate(K key) {
+        synchronized (entries) {
+            pendingLoads.remove(key);
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Elimina todas las claves que cumplen una condición.
+     *
+     * @param condition Condición sobre la clave
+     */
+    public void invalidateIf(Predicate<K> condition) {
+        synchronized (entries) {
+            pendingLoads.keySet().removeIf(condition);
+            entries.keySet().removeIf(condition);
+        }
+    }
+
+    /**
+     * Elimina todas las entradas.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            pendingLoads.clear();
+            entries.clear();
+        }
+    }
+
+    /**
+     * Obtiene las claves vigentes sin modificar el orden de uso.
+     *
+     * @return Copia de las claves no expiradas
+     */
+    public List<K> keys() {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            List<K> keys = new ArrayList<>(entries.size());
+            entries.forEach((key, entry) -> {
+                if (now - entry.expiresAt < 0) {
+                    keys.add(key);
+                }
+            });
+            return keys;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Obtiene los contadores de uso de la caché.
+     *
+     * @return Instantánea de aciertos, fallos, desalojos y tamaño
+     */
+    public CacheStats stats() {
+        return new CacheStats(hits.get(), misses.get(), evictions.get(), size(), maxSize);
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.lilim.ecotracker.common.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Contadores de uso de una {@link BoundedTtlCache}.
+ */
+@Getter
+@AllArgsConstructor
+public class CacheStats {
+    private long hits;
+    private long misses;
+    private long evictions;
+    private int size;
+    private int maxSize;
+
+    /**
+     * Proporción de aciertos sobre el total de lecturas.
+     *
+     * @return Valor entre 0 y 1
+     */
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,17 @@
+package com.lilim.ecotracker.common.event;
+
+import com.lilim.ecotracker.common.model.ResourceType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Evento publicado cuando se guarda, modifica o elimina un registro de consumo.
+ */
+@Getter
+@AllArgsConstructor
+public class ConsumptionChangedEvent {
+
+    private final Long userId;
+
+    private final ResourceType resource;
+}
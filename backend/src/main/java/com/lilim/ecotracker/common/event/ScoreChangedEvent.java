@@ -0,0 +1,16 @@
+package com.lilim.ecotracker.common.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Collection;
+
+/**
+ * Evento publicado cuando cambia la puntuación de uno o varios usuarios.
+ */
+@Getter
+@AllArgsConstructor
+public class ScoreChangedEvent {
+
+    private final Collection<Long> userIds;
+}
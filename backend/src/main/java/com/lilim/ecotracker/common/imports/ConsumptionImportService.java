@@ -0,0 +1,352 @@
+package com.lilim.ecotracker.common.imports;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lilim.ecotracker.common.event.ConsumptionChangedEvent;
+import com.lilim.ecotracker.common.model.BaseEntity;
+import com.lilim.ecotracker.common.model.ConsumptionEntityListener;
+import com.lilim.ecotracker.features.summary.service.ConsumptionRollupService;
+import com.lilim.ecotracker.features.summary.service.analytics.BimonthlySeries;
+import com.lilim.ecotracker.security.model.User;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Servicio de importación masiva de registros de consumo.
+ * <p>
+ * Lee el contenido de forma incremental (un elemento JSON o una línea CSV a la vez), valida cada
+ * registro y lo inserta en lotes JDBC, vaciando el contexto de persistencia en cada lote para que
+ * la memoria no crezca con el tamaño del archivo. Toda la importación se ejecuta en una sola
+ * transacción: si algún registro es inválido no se guarda ninguno. Los totales bimestrales se
+ * acumulan en memoria y se escriben una vez por período. Los registros se insertan sin publicar
+ * eventos por fila; al terminar se publica un único {@link ConsumptionChangedEvent} para el usuario
+ * y el recurso, de modo que la caché de análisis se invalida y las metas se recalculan una sola vez.
+ * </p>
+ *
+ * @author EcoTracker Team
+ * @version 1.0
+ */
+@Service
+public class ConsumptionImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsumptionImportService.class);
+
+    private static final String DATE_FIELD = "date";
+    private static final String COST_FIELD = "cost";
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final ConsumptionRollupService rollupService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final int maxErrors;
+
+    @Autowired
+    public ConsumptionImportService(
+            EntityManager entityManager,
+            ObjectMapper objectMapper,
+            ConsumptionRollupService rollupService,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize,
+            @Value("${ecotracker.import.max-errors:100}") int maxErrors) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.rollupService = rollupService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Importa los registros de un recurso para un usuario.
+     *
+     * @param input Contenido a importar
+     * @param format Formato del contenido
+     * @param spec Descripción del recurso importado
+     * @param user Usuario propietario de los registros
+     * @return Resultado con el número de registros importados o los errores encontrados
+     */
+    public <T extends BaseEntity> ImportResultDTO importRecords(InputStream input, ImportFormat format,
+                                                                ConsumptionImportSpec<T> spec, User user) {
+        long start = System.nanoTime();
+        ImportResultDTO result = transactionTemplate.execute(status -> {
+            Batch<T> batch = new Batch<>(spec, entityManager.getReference(User.class, user.getId()));
+            ConsumptionEntityListener.withoutEvents(() -> {
+                read(input, format, batch);
+                if (!batch.hasErrors()) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+                return null;
+            });
+
+            if (batch.hasErrors()) {
+                status.setRollbackOnly();
+                return batch.toResult(0);
+            }
+            batch.periods.forEach((period, totals) -> rollupService.recordPeriod(user, spec.getResource(), period,
+                    totals.amount, totals.cost, totals.records, totals.firstDate));
+            if (batch.imported > 0) {
+                eventPublisher.publishEvent(new ConsumptionChangedEvent(user.getId(), spec.getResource()));
+            }
+            return batch.toResult(batch.imported);
+        });
+
+        logger.info("Importación de {} para usuario {}: {} registros importados, {} rechazados en {} ms",
+                spec.getResource(), user.getId(), result.getImported(), result.getRejected(),
+                (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+
+    private <T extends BaseEntity> void read(InputStream input, ImportFormat format, Batch<T> batch) {
+        try {
+            if (format == ImportFormat.CSV) {
+                readCsv(input, batch);
+            } else {
+                readJson(input, batch);
+            }
+        } catch (IOException e) {
+            batch.reject(batch.row, "Contenido mal formado: " + e.getMessage());
+        }
+    }
+
+    private <T extends BaseEntity> void readJson(InputStream input, Batch<T> batch) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                batch.reject(0, "Se esperaba un arreglo JSON de registros");
+                return;
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY && !batch.isFull()) {
+                if (token == null) {
+                    batch.reject(batch.row, "El arreglo JSON está incompleto");
+                    return;
+                }
+                batch.row++;
+                if (token != JsonToken.START_OBJECT) {
+                    batch.reject(batch.row, "Se esperaba un objeto JSON");
+                    parser.skipChildren();
+                    continue;
+                }
+                batch.accept(objectMapper.readValue(parser, batch.spec.getEntityType()));
+            }
+        }
+    }
+
+    private <T extends BaseEntity> void readCsv(InputStream input, Batch<T> batch) throws IOException {
+        ConsumptionImportSpec<T> spec = batch.spec;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            batch.row = 1;
+            if (header == null) {
+                batch.reject(1, "El archivo CSV está vacío");
+                return;
+            }
+
+            Map<String, Integer> columns = new HashMap<>();
+            List<String> names = splitCsvLine(header.startsWith("\uFEFF") ? header.substring(1) : header);
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(names.get(i), i);
+            }
+            List<String> required = new ArrayList<>(List.of(DATE_FIELD, spec.getAmountField(), COST_FIELD));
+            required.addAll(spec.getTextFields().keySet());
+            for (String column : required) {
+                if (!columns.containsKey(column)) {
+                    batch.reject(1, "Falta la columna '" + column + "' en el encabezado");
+                }
+            }
+            if (batch.hasErrors()) {
+                return;
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null && !batch.isFull()) {
+                batch.row++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> values = splitCsvLine(line);
+                try {
+                    T entity = spec.getFactory().get();
+                    entity.setDate(parseDate(value(values, columns, DATE_FIELD)));
+                    spec.getAmountSetter().accept(entity, parseNumber(value(values, columns, spec.getAmountField())));
+                    entity.setCost(parseNumber(value(values, columns, COST_FIELD)));
+                    spec.getTextFields().forEach((name, field) ->
+                            field.getSetter().accept(entity, value(values, columns, name)));
+                    batch.accept(entity);
+                } catch (DateTimeParseException | NumberFormatException e) {
+                    batch.reject(batch.row, "Valor inválido: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static String value(List<String> values, Map<String, Integer> columns, String name) {
+        int index = columns.get(name);
+        return index < values.size() ? values.get(index) : "";
+    }
+
+    private static LocalDateTime parseDate(String value) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        return value.length() <= 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+    }
+
+    private static Double parseNumber(String value) {
+        return value.isEmpty() ? null : Double.valueOf(value);
+    }
+
+    /**
+     * Separa una línea CSV por comas, respetando los valores entre comillas dobles
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString().trim());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString().trim());
+        return values;
+    }
+
+    /**
+     * Estado de una importación en curso: registros guardados, errores y totales por período
+     */
+    private final class Batch<T extends BaseEntity> {
+        private final ConsumptionImportSpec<T> spec;
+        private final User user;
+        private final List<ImportResultDTO.ImportErrorDTO> errors = new ArrayList<>();
+        private final Map<Integer, PeriodTotals> periods = new TreeMap<>();
+        private long row;
+        private int imported;
+        private int rejected;
+
+        private Batch(ConsumptionImportSpec<T> spec, User user) {
+            this.spec = spec;
+            this.user = user;
+        }
+
+        void accept(T entity) {
+            String error = validate(entity);
+            if (error != null) {
+                reject(row, error);
+                return;
+            }
+            if (hasErrors()) {
+                // La importación ya no se aplicará; solo se siguen validando registros
+                return;
+            }
+
+            entity.setId(null);
+            entity.setUser(user);
+            entityManager.persist(entity);
+            imported++;
+            if (imported % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+
+            double amount = spec.getAmountGetter().apply(entity);
+            periods.computeIfAbsent(BimonthlySeries.bimonthKey(entity.getDate()), key -> new PeriodTotals())
+                    .add(entity.getDate(), amount, entity.getCost());
+        }
+
+        void reject(long errorRow, String message) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ImportResultDTO.ImportErrorDTO(errorRow, message));
+            }
+        }
+
+        boolean hasErrors() {
+            return rejected > 0;
+        }
+
+        boolean isFull() {
+            return rejected >= maxErrors;
+        }
+
+        ImportResultDTO toResult(int importedCount) {
+            return new ImportResultDTO(spec.getResource().getTipoMeta(), importedCount, rejected, errors);
+        }
+
+        private String validate(T entity) {
+            if (entity.getDate() == null) {
+                return "El campo 'date' es obligatorio";
+            }
+            Double amount = spec.getAmountGetter().apply(entity);
+            if (amount == null || amount.isNaN() || amount.isInfinite() || amount < 0) {
+                return "El campo '" + spec.getAmountField() + "' debe ser un número mayor o igual a 0";
+            }
+            Double cost = entity.getCost();
+            if (cost == null || cost.isNaN() || cost.isInfinite() || cost < 0) {
+                return "El campo 'cost' debe ser un número mayor o igual a 0";
+            }
+            for (Map.Entry<String, ConsumptionImportSpec.TextField<T>> field : spec.getTextFields().entrySet()) {
+                if (!field.getValue().accepts(field.getValue().getGetter().apply(entity))) {
+                    return "Valor no válido para el campo '" + field.getKey() + "'";
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class PeriodTotals {
+        private double amount;
+        private double cost;
+        private long records;
+        private LocalDateTime firstDate;
+
+        void add(LocalDateTime date, double recordAmount, double recordCost) {
+            amount += recordAmount;
+            cost += recordCost;
+            records++;
+            if (firstDate == null || date.isBefore(firstDate)) {
+                firstDate = date;
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.lilim.ecotracker.common.imports;
+
+import com.lilim.ecotracker.common.model.BaseEntity;
+import com.lilim.ecotracker.common.model.ResourceType;
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Describe cómo importar los registros de un recurso: la entidad, el campo de cantidad y los
+ * campos de texto adicionales obligatorios (por ejemplo el tipo de transporte).
+ * <p>
+ * Los nombres de los campos coinciden con los de la entidad, por lo que sirven tanto para las
+ * propiedades JSON como para los encabezados del CSV.
+ * </p>
+ *
+ * @param <T> Entidad de consumo
+ */
+@Getter
+public final class ConsumptionImportSpec<T extends BaseEntity> {
+
+    private final ResourceType resource;
+    private final Class<T> entityType;
+    private final Supplier<T> factory;
+    private final String amountField;
+    private final Function<T, Double> amountGetter;
+    private final BiConsumer<T, Double> amountSetter;
+    private final Map<String, TextField<T>> textFields;
+
+    private ConsumptionImportSpec(ResourceType resource, Class<T> entityType, Supplier<T> factory, String amountField,
+                                  Function<T, Double> amountGetter, BiConsumer<T, Double> amountSetter,
+                                  Map<String, TextField<T>> textFields) {
+        this.resource = resource;
+        this.entityType = entityType;
+        this.factory = factory;
+        this.amountField = amountField;
+        this.amountGetter = amountGetter;
+        this.amountSetter = amountSetter;
+        this.textFields = Collections.unmodifiableMap(textFields);
+    }
+
+    /**
+     * Crea la especificación de un recurso cuyo único dato propio es la cantidad consumida.
+     *
+     * @param resource Recurso importado
+     * @param entityType Clase de la entidad
+     * @param factory Constructor de la entidad
+     * @param amountField Nombre del campo de cantidad
+     * @param amountGetter Lectura de la cantidad
+     * @param amountSetter Asignación de la cantidad
+     * @return Especificación sin campos de texto adicionales
+     */
+    public static <T extends BaseEntity> ConsumptionImportSpec<T> of(
+            ResourceType resource, Class<T> entityType, Supplier<T> factory, String amountField,
+            Function<T, Double> amountGetter, BiConsumer<T, Double> amountSetter) {
+        return new ConsumptionImportSpec<>(resource, entityType, factory, amountField, amountGetter, amountSetter,
+                new LinkedHashMap<>());
+    }
+
+    /**
+     * Devuelve una copia de la especificación con un campo de texto obligatorio más.
+     *
+     * @param name Nombre del campo
+     * @param getter Lectura del campo
+     * @param setter Asignación del campo
+     * @param allowedValues Valores permitidos, o vacío para aceptar cualquiera no vacío
+     * @return Nueva especificación
+     */
+    public ConsumptionImportSpec<T> withTextField(String name, Function<T, String> getter, BiConsumer<T, String> setter,
+                                                  String... allowedValues) {
+        Map<String, TextField<T>> fields = new LinkedHashMap<>(textFields);
+        fields.put(name, new TextField<>(getter, setter, allowedValues));
+        return new ConsumptionImportSpec<>(resource, entityType, factory, amountField, amountGetter, amountSetter, fields);
+    }
+
+    @Getter
+    public static final class TextField<T> {
+        private final Function<T, String> getter;
+        private final BiConsumer<T, String> setter;
+        private final String[] allowedValues;
+
+        private TextField(Function<T, String> getter, BiConsumer<T, String> setter, String[] allowedValues) {
+            this.getter = getter;
+            this.setter = setter;
+            this.allowedValues = allowedValues;
+        }
+
+        boolean accepts(String value) {
+            if (value == null || value.isBlank()) {
+                return false;
+            }
+            if (allowedValues.length == 0) {
+                return true;
+            }
+            for (String allowed : allowedValues) {
+                if (allowed.equals(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.lilim.ecotracker.common.imports;
+
+/**
+ * Formatos aceptados por la importación masiva de consumos.
+ */
+public enum ImportFormat {
+    /**
+     * Arreglo JSON de registros con los mismos campos que el alta individual
+     */
+    JSON,
+
+    /**
+     * Archivo CSV con fila de encabezados
+     */
+    CSV
+}
@@ -0,0 +1,39 @@
+package com.lilim.ecotracker.common.imports;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de una importación masiva de consumos.
+ * <p>
+ * La importación es completa o no se aplica: si algún registro es inválido no se guarda ninguno
+ * y {@code errors} describe los registros rechazados.
+ * </p>
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResultDTO {
+    private String resource;
+    private int imported;
+    private int rejected;
+    private List<ImportErrorDTO> errors = new ArrayList<>();
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ImportErrorDTO {
+        /**
+         * Línea del CSV o posición (desde 1) del elemento en el arreglo JSON
+         */
+        private long row;
+        private String message;
+    }
+}
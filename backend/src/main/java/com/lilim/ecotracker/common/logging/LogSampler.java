@@ -0,0 +1,28 @@
+package com.lilim.ecotracker.common.logging;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Muestreo de eventos de log frecuentes.
+ * <p>
+ * Los eventos que ocurren en cada petición solo se registran en una fracción de los casos. La
+ * decisión se toma antes de construir el mensaje, sin bloqueos ni reserva de memoria, por lo que
+ * debe comprobarse junto con el nivel del logger:
+ * {@code if (logger.isDebugEnabled() && sampler.sample()) logger.debug(...)}.
+ * </p>
+ */
+public final class LogSampler {
+
+    private final double rate;
+
+    /**
+     * @param rate Fracción de eventos que se registran, entre 0 (ninguno) y 1 (todos)
+     */
+    public LogSampler(double rate) {
+        this.rate = rate;
+    }
+
+    public boolean sample() {
+        return rate >= 1 || (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+}
@@ -0,0 +1,34 @@
+package com.lilim.ecotracker.common.logging;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Cuenta las sentencias SQL que Hibernate prepara en el hilo actual.
+ * <p>
+ * Se registra con {@code hibernate.session_factory.statement_inspector} y no modifica las
+ * sentencias. El contador es un arreglo por hilo que se reutiliza entre peticiones, de modo que
+ * contar no reserva memoria; {@link RequestLoggingFilter} lo reinicia al empezar cada petición y
+ * lo lee al terminar.
+ * </p>
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNTER = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNTER.get()[0]++;
+        return sql;
+    }
+
+    public static void reset() {
+        COUNTER.get()[0] = 0;
+    }
+
+    /**
+     * @return Sentencias preparadas en el hilo actual desde el último {@link #reset()}
+     */
+    public static long current() {
+        return COUNTER.get()[0];
+    }
+}
@@ -0,0 +1,117 @@
+package com.lilim.ecotracker.common.logging;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Registra una línea estructurada por petición con su identificador de correlación, la latencia
+ * y el número de sentencias SQL ejecutadas.
+ * <p>
+ * El identificador se toma de la cabecera {@value #CORRELATION_ID_HEADER} o se genera, se
+ * devuelve en la respuesta y se deja en el MDC para que aparezca en el resto de líneas de la
+ * petición. Las peticiones se muestrean con {@code ecotracker.logging.requests.sample-rate}; las
+ * que fallan con 5xx o superan {@code ecotracker.logging.requests.slow-threshold} se registran
+ * siempre. Las peticiones asíncronas se registran al completarse.
+ * </p>
+ *
+ * @author EcoTracker Team
+ * @version 1.0
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    public static final String CORRELATION_ID_HEADER = "X-Correlation-Id";
+    public static final String CORRELATION_ID_MDC = "correlationId";
+
+    private static final Logger requestLogger = LoggerFactory.getLogger("ecotracker.requests");
+    private static final int MAX_CORRELATION_ID_LENGTH = 64;
+
+    private final LogSampler sampler;
+    private final long slowThresholdNanos;
+
+    @Autowired
+    public RequestLoggingFilter(
+            @Value("${ecotracker.logging.requests.sample-rate:1.0}") double sampleRate,
+            @Value("${ecotracker.logging.requests.slow-threshold:1s}") Duration slowThreshold) {
+        this.sampler = new LogSampler(sampleRate);
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String correlationId = correlationId(request.getHeader(CORRELATION_ID_HEADER));
+        MDC.put(CORRELATION_ID_MDC, correlationId);
+        response.setHeader(CORRELATION_ID_HEADER, correlationId);
+        QueryCountInspector.reset();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long queries = QueryCountInspector.current();
+            if (request.isAsyncStarted()) {
+                // La respuesta se completa en otro hilo; solo se cuentan las consultas de este
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        log(request, response.getStatus(), System.nanoTime() - start, queries, correlationId);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                log(request, response.getStatus(), System.nanoTime() - start, queries, correlationId);
+            }
+            MDC.remove(CORRELATION_ID_MDC);
+        }
+    }
+
+    private void log(HttpServletRequest request, int status, long latencyNanos, long queries, String correlationId) {
+        // Nivel y muestreo se comprueban antes de construir los argumentos del mensaje
+        if (!requestLogger.isInfoEnabled()) {
+            return;
+        }
+        if (status < 500 && latencyNanos < slowThresholdNanos && !sampler.sample()) {
+            return;
+        }
+        requestLogger.info("correlationId={} method={} path={} status={} latencyMs={} queries={}",
+                correlationId, request.getMethod(), request.getRequestURI(), status,
+                latencyNanos / 1_000_000, queries);
+    }
+
+    private static String correlationId(String header) {
+        if (header != null && !header.isEmpty() && header.length() <= MAX_CORRELATION_ID_LENGTH
+                && header.chars().allMatch(c -> Character.isLetterOrDigit(c) || c == '-' || c == '_')) {
+            return header;
+        }
+        return Long.toHexString(ThreadLocalRandom.current().nextLong());
+    }
+}
@@ -10,10 +10,13 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @MappedSuperclass
+@EntityListeners(ConsumptionEntityListener.class)
 public abstract class BaseEntity {
 
+    // Secuencia con asignación en bloques para que Hibernate pueda agrupar los INSERT en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "consumption_seq")
+    @SequenceGenerator(name = "consumption_seq", sequenceName = "consumption_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -33,4 +36,11 @@ public abstract class BaseEntity {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
     }
+
+    /**
+     * Recurso de consumo que representa el registro.
+     *
+     * @return Tipo de recurso
+     */
+    public abstract ResourceType resourceType();
 }
@@ -0,0 +1,66 @@
+package com.lilim.ecotracker.common.model;
+
+import com.lilim.ecotracker.common.event.ConsumptionChangedEvent;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Listener JPA de los registros de consumo.
+ * <p>
+ * Publica un {@link ConsumptionChangedEvent} cada vez que un registro de agua, electricidad
+ * o transporte se inserta, modifica o elimina, sin importar si el cambio llega desde un servicio
+ * o directamente desde un repositorio.
+ * </p>
+ * <p>
+ * Las operaciones masivas pueden ejecutarse con {@link #withoutEvents(Supplier)} para no publicar
+ * un evento por fila; en ese caso son ellas las que publican un único evento por usuario y recurso
+ * al terminar.
+ * </p>
+ */
+@Component
+public class ConsumptionEntityListener {
+
+    private static final ThreadLocal<Boolean> SUPPRESSED = new ThreadLocal<>();
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    public ConsumptionEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(BaseEntity entity) {
+        if (SUPPRESSED.get() == null && entity.getUser() != null && entity.getUser().getId() != null) {
+            eventPublisher.publishEvent(new ConsumptionChangedEvent(entity.getUser().getId(), entity.resourceType()));
+        }
+    }
+
+    /**
+     * Ejecuta una operación sin publicar eventos por los registros que inserte, modifique o
+     * elimine en el hilo actual, incluidos los que Hibernate escriba al vaciar el contexto dentro
+     * de ella.
+     *
+     * @param action Operación a ejecutar
+     * @return Resultado de la operación
+     */
+    public static <T> T withoutEvents(Supplier<T> action) {
+        if (SUPPRESSED.get() != null) {
+            return action.get();
+        }
+        SUPPRESSED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            SUPPRESSED.remove();
+        }
+    }
+}
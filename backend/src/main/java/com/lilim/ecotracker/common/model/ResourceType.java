@@ -0,0 +1,43 @@
+package com.lilim.ecotracker.common.model;
+
+import lombok.Getter;
+
+/**
+ * Recursos de consumo registrados por los usuarios.
+ * <p>
+ * Cada recurso conserva el tipo de meta con el que se relaciona ("agua", "electricidad",
+ * "transporte") para poder traducir entre ambos sin cadenas repetidas.
+ * </p>
+ */
+@Getter
+public enum ResourceType {
+
+    WATER("agua"),
+    ELECTRICITY("electricidad"),
+    TRANSPORT("transporte");
+
+    /**
+     * Tipo de meta asociado al recurso
+     */
+    private final String tipoMeta;
+
+    ResourceType(String tipoMeta) {
+        this.tipoMeta = tipoMeta;
+    }
+
+    /**
+     * Obtiene el recurso correspondiente a un tipo de meta.
+     *
+     * @param tipoMeta Tipo de meta ("agua", "electricidad" o "transporte")
+     * @return Recurso asociado
+     * @throws IllegalArgumentException si el tipo no corresponde a un recurso de consumo
+     */
+    public static ResourceType fromTipoMeta(String tipoMeta) {
+        for (ResourceType resource : values()) {
+            if (resource.tipoMeta.equalsIgnoreCase(tipoMeta)) {
+                return resource;
+            }
+        }
+        throw new IllegalArgumentException("Tipo de recurso no soportado: " + tipoMeta);
+    }
+}
@@ -0,0 +1,47 @@
+package com.lilim.ecotracker.common.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Página de resultados con paginación por clave (keyset).
+ * <p>
+ * {@code nextCursor} identifica el último elemento devuelto; se envía en la siguiente petición
+ * para continuar a partir de él. Es {@code null} cuando no hay más resultados.
+ * </p>
+ *
+ * @param <T> Tipo de los elementos
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> items;
+    private String nextCursor;
+
+    /**
+     * Construye la página a partir de una porción ordenada por fecha e ID descendentes.
+     *
+     * @param slice Porción de resultados
+     * @param date Fecha de un elemento
+     * @param id ID de un elemento
+     * @return Página con el cursor del último elemento si hay más resultados
+     */
+    public static <T> CursorPage<T> of(Slice<T> slice, Function<T, LocalDateTime> date, Function<T, Long> id) {
+        List<T> items = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext() && !items.isEmpty()) {
+            T last = items.get(items.size() - 1);
+            nextCursor = KeysetPageRequest.encodeCursor(date.apply(last), id.apply(last));
+        }
+        return new CursorPage<>(items, nextCursor);
+    }
+}
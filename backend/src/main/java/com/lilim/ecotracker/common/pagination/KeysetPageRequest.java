@@ -0,0 +1,98 @@
+package com.lilim.ecotracker.common.pagination;
+
+import lombok.Getter;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Parámetros de una consulta paginada por clave (fecha, ID) en orden descendente.
+ * <p>
+ * Traduce el rango de fechas y el cursor recibidos en la petición a los límites de la consulta:
+ * se devuelven los registros con fecha desde {@code from} y anteriores a la posición
+ * ({@code beforeDate}, {@code beforeId}). Sin cursor, la posición es el final del rango, de modo
+ * que la misma consulta sirve para la primera página y las siguientes y siempre recorre el
+ * índice (user_id, date) en lugar de contar o saltar filas.
+ * </p>
+ */
+@Getter
+public final class KeysetPageRequest {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 500;
+
+    private static final LocalDateTime RANGE_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime RANGE_END = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final String SEPARATOR = "_";
+
+    private final LocalDateTime from;
+    private final LocalDateTime beforeDate;
+    private final Long beforeId;
+    private final int limit;
+
+    private KeysetPageRequest(LocalDateTime from, LocalDateTime beforeDate, Long beforeId, int limit) {
+        this.from = from;
+        this.beforeDate = beforeDate;
+        this.beforeId = beforeId;
+        this.limit = limit;
+    }
+
+    /**
+     * Crea la consulta de una página.
+     *
+     * @param from Fecha inicial (inclusive), o {@code null}
+     * @param to Fecha final (inclusive), o {@code null}
+     * @param cursor Cursor devuelto en la página anterior, o {@code null} para la primera
+     * @param limit Número máximo de elementos; se ajusta al rango [1, {@value #MAX_LIMIT}]
+     * @return Parámetros de la consulta
+     * @throws IllegalArgumentException si el cursor no es válido
+     */
+    public static KeysetPageRequest of(LocalDate from, LocalDate to, String cursor, Integer limit) {
+        LocalDateTime start = from != null ? from.atStartOfDay() : RANGE_START;
+        LocalDateTime end = to != null ? to.plusDays(1).atStartOfDay() : RANGE_END;
+        int size = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        LocalDateTime beforeDate = end;
+        Long beforeId = 0L;
+        if (cursor != null && !cursor.isEmpty()) {
+            String[] parts = decode(cursor).split(SEPARATOR, 2);
+            try {
+                LocalDateTime cursorDate = LocalDateTime.parse(parts[0]);
+                if (cursorDate.isBefore(end)) {
+                    beforeDate = cursorDate;
+                    beforeId = Long.valueOf(parts[1]);
+                }
+            } catch (DateTimeParseException | NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Cursor de paginación no válido");
+            }
+        }
+        return new KeysetPageRequest(start, beforeDate, beforeId, size);
+    }
+
+    /**
+     * Límite de la consulta para obtener una porción ({@code Slice}) del tamaño de la página
+     *
+     * @return Primera página del tamaño solicitado
+     */
+    public Pageable pageable() {
+        return PageRequest.of(0, limit);
+    }
+
+    static String encodeCursor(LocalDateTime date, Long id) {
+        String value = date + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor de paginación no válido");
+        }
+    }
+}
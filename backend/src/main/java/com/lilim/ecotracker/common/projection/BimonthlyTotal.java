@@ -0,0 +1,32 @@
+package com.lilim.ecotracker.common.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Proyección con los totales de consumo de un usuario en un período bimestral.
+ * <p>
+ * La calculan en SQL las consultas agregadas de los repositorios de agua, electricidad
+ * y transporte. El período usa la misma clave que el análisis de consumo:
+ * {@code año * 6 + mes / 2}.
+ * </p>
+ */
+public interface BimonthlyTotal {
+
+    Long getUserId();
+
+    Integer getPeriod();
+
+    /**
+     * Suma de la cantidad consumida (litros, kilowatts o kilómetros)
+     */
+    Double getTotal();
+
+    Double getCost();
+
+    Long getRecords();
+
+    /**
+     * Fecha del primer registro del período
+     */
+    LocalDateTime getFirstDate();
+}
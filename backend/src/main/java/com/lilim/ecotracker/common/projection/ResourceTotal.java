@@ -0,0 +1,16 @@
+package com.lilim.ecotracker.common.projection;
+
+import com.lilim.ecotracker.common.model.ResourceType;
+
+/**
+ * Proyección con la cantidad total consumida de un recurso.
+ */
+public interface ResourceTotal {
+
+    ResourceType getResource();
+
+    /**
+     * Suma de la cantidad consumida (litros, kilowatts o kilómetros)
+     */
+    Double getTotal();
+}
@@ -0,0 +1,10 @@
+package com.lilim.ecotracker.common.projection;
+
+/**
+ * Proyección con los totales de transporte de un usuario en un período bimestral
+ * para un tipo de transporte, calculados en SQL.
+ */
+public interface TransportBimonthlyTotal extends BimonthlyTotal {
+
+    String getTransportType();
+}
@@ -0,0 +1,26 @@
+package com.lilim.ecotracker.common.projection;
+
+/**
+ * Proyección con los totales de transporte de un usuario para un tipo de transporte
+ * en una ventana de tiempo, calculados en SQL.
+ */
+public interface TransportTypeTotal {
+
+    String getTransportType();
+
+    Double getKilometers();
+
+    Double getCost();
+
+    Long getTrips();
+
+    /**
+     * Suma de costo / kilómetros de los viajes con costo y kilómetros positivos
+     */
+    Double getCostPerKmSum();
+
+    /**
+     * Número de viajes incluidos en {@link #getCostPerKmSum()}
+     */
+    Long getCostPerKmTrips();
+}
@@ -0,0 +1,13 @@
+package com.lilim.ecotracker.common.projection;
+
+/**
+ * Proyección con la puntuación de un usuario para la tabla de clasificación.
+ */
+public interface UserScore {
+
+    Long getId();
+
+    String getUsername();
+
+    Integer getPuntuacion();
+}
@@ -1,5 +1,6 @@
 package com.lilim.ecotracker.config;
 
+import com.lilim.ecotracker.features.summary.service.ConsumptionRollupService;
 import com.lilim.ecotracker.security.model.User;
 import com.lilim.ecotracker.security.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,15 +19,18 @@ public class InitialDataConfig {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final TestDataGeneratorService testDataGeneratorService;
+    private final ConsumptionRollupService rollupService;
 
     @Autowired
     public InitialDataConfig(
             UserRepository userRepository,
             PasswordEncoder passwordEncoder,
-            TestDataGeneratorService testDataGeneratorService) {
+            TestDataGeneratorService testDataGeneratorService,
+            ConsumptionRollupService rollupService) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.testDataGeneratorService = testDataGeneratorService;
+        this.rollupService = rollupService;
     }
 
     @Bean
@@ -64,6 +68,15 @@ public class InitialDataConfig {
                 testDataGeneratorService.generateDataForAdmin();
                 System.out.println("Datos de prueba generados con éxito.");
             }
+
+            // Reconstruir los totales bimestrales: los datos de prueba se guardan directamente
+            // en los repositorios y una base existente puede no tener aún la tabla poblada
+            if (Boolean.getBoolean("ecotracker.rebuildRollups")) {
+                rollupService.rebuildAll();
+            } else if (isNewAdminUser || Boolean.getBoolean("ecotracker.generateTestData")) {
+                userRepository.findByUsername("admin")
+                        .ifPresent(admin -> rollupService.rebuildForUser(admin.getId()));
+            }
         };
     }
 }
\ No newline at end of file
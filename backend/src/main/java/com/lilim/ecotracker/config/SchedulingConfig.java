@@ -0,0 +1,16 @@
+package com.lilim.ecotracker.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita las tareas programadas de la aplicación (procesos por lotes de metas, mantenimiento).
+ * <p>
+ * La programación de cada tarea se define con propiedades {@code ecotracker.*.cron} para
+ * poder ajustarla o desactivarla ("-") por entorno.
+ * </p>
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,5 +1,7 @@
 package com.lilim.ecotracker.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
@@ -11,6 +13,7 @@ import java.io.IOException;
 
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
+    private static final Logger logger = LoggerFactory.getLogger(WebMvcConfig.class);
 
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
@@ -27,7 +30,7 @@ public class WebMvcConfig implements WebMvcConfigurer {
                         }
 
                         // Para todas las demás rutas, devolver index.html
-                        System.out.println("Recurso no encontrado, sirviendo index.html: " + resourcePath);
+                        WebMvcConfig.logger.debug("Recurso no encontrado, sirviendo index.html: {}", resourcePath);
                         return new ClassPathResource("/static/index.html");
                     }
                 });
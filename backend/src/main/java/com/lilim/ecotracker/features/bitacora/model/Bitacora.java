@@ -14,7 +14,12 @@ import java.time.LocalDateTime;
  * Stores user activities with positive environmental impact
  */
 @Entity
-@Table(name = "bitacoras")
+@Table(name = "bitacoras", indexes = {
+        // User timeline, newest first
+        @Index(name = "idx_bitacoras_user_fecha", columnList = "user_id, fecha"),
+        // User timeline filtered by category
+        @Index(name = "idx_bitacoras_user_categoria_fecha", columnList = "user_id, categoria, fecha")
+})
 @Getter
 @Setter
 @NoArgsConstructor
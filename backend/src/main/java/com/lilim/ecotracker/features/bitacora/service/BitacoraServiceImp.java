@@ -70,8 +70,7 @@ public class BitacoraServiceImp {
      * @return List of bitácora DTOs
      */
     public List<BitacoraDTO> getAllBitacoras() {
-        User currentUser = userService.getCurrentUser();
-        List<Bitacora> bitacoras = bitacoraRepository.findByUserIdOrderByFechaDesc(currentUser.getId());
+        List<Bitacora> bitacoras = bitacoraRepository.findByUserIdOrderByFechaDesc(userService.getCurrentUserId());
         return bitacoras.stream()
                 .map(this::convertToDTO)
                 .toList();
@@ -83,9 +82,8 @@ public class BitacoraServiceImp {
      * @return List of filtered bitácora DTOs
      */
     public List<BitacoraDTO> getBitacorasByCategoria(String categoria) {
-        User currentUser = userService.getCurrentUser();
         List<Bitacora> bitacoras = bitacoraRepository.findByUserIdAndCategoriaOrderByFechaDesc(
-                currentUser.getId(), categoria);
+                userService.getCurrentUserId(), categoria);
         return bitacoras.stream()
                 .map(this::convertToDTO)
                 .toList();
@@ -97,8 +95,7 @@ public class BitacoraServiceImp {
      * @return BitácoraDTO if found, or empty Optional
      */
     public Optional<BitacoraDTO> getBitacoraById(Long id) {
-        User currentUser = userService.getCurrentUser();
-        return bitacoraRepository.findByIdAndUserId(id, currentUser.getId())
+        return bitacoraRepository.findByIdAndUserId(id, userService.getCurrentUserId())
                 .map(this::convertToDTO);
     }
     
@@ -111,7 +108,7 @@ public class BitacoraServiceImp {
      */
     @Transactional
     public BitacoraDTO createBitacora(BitacoraDTO bitacoraDTO, MultipartFile imagen) throws IOException {
-        User currentUser = userService.getCurrentUser();
+        User currentUser = userService.getCurrentUserReference();
         
         Bitacora bitacora = new Bitacora();
         bitacora.setTitulo(bitacoraDTO.getTitulo());
@@ -151,10 +148,8 @@ public class BitacoraServiceImp {
     @Transactional
     public BitacoraDTO updateBitacora(Long id, BitacoraDTO bitacoraDTO, MultipartFile imagen) 
             throws IOException, IllegalArgumentException {
-        User currentUser = userService.getCurrentUser();
-        
         // Find and validate ownership
-        Bitacora bitacora = bitacoraRepository.findByIdAndUserId(id, currentUser.getId())
+        Bitacora bitacora = bitacoraRepository.findByIdAndUserId(id, userService.getCurrentUserId())
                 .orElseThrow(() -> new IllegalArgumentException("Bitácora no encontrada o acceso denegado"));
         
         // Update fields
@@ -195,10 +190,8 @@ public class BitacoraServiceImp {
      */
     @Transactional
     public boolean deleteBitacora(Long id) throws IllegalArgumentException {
-        User currentUser = userService.getCurrentUser();
-        
         // Find and validate ownership
-        Bitacora bitacora = bitacoraRepository.findByIdAndUserId(id, currentUser.getId())
+        Bitacora bitacora = bitacoraRepository.findByIdAndUserId(id, userService.getCurrentUserId())
                 .orElseThrow(() -> new IllegalArgumentException("Bitácora no encontrada o acceso denegado"));
         
         // Delete associated image if exists
@@ -1,13 +1,20 @@
 package com.lilim.ecotracker.features.electricity.controller;
 
+import com.lilim.ecotracker.common.imports.ImportFormat;
+import com.lilim.ecotracker.common.imports.ImportResultDTO;
+import com.lilim.ecotracker.common.pagination.CursorPage;
+import com.lilim.ecotracker.features.electricity.dto.ElectricityRecordDTO;
 import com.lilim.ecotracker.features.electricity.model.Electricity;
 import com.lilim.ecotracker.features.electricity.service.ElectricityService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.InputStream;
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/api/electricity")
@@ -21,14 +28,49 @@ public class ElectricityController {
     }
 
     @PostMapping
-    public ResponseEntity<Electricity> saveConsumption(@RequestBody Electricity electricity) {
-        Electricity savedConsumption = electricityService.saveConsumption(electricity);
-        return new ResponseEntity<>(savedConsumption, HttpStatus.CREATED);
+    public ResponseEntity<ElectricityRecordDTO> saveConsumption(@RequestBody Electricity electricity) {
+        try {
+            Electricity savedConsumption = electricityService.saveConsumption(electricity);
+            return new ResponseEntity<>(ElectricityRecordDTO.of(savedConsumption), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
+    /**
+     * Lista los registros del usuario del más reciente al más antiguo, por páginas.
+     *
+     * @param from Fecha inicial (inclusive), opcional
+     * @param to Fecha final (inclusive), opcional
+     * @param cursor Cursor devuelto en la página anterior; se omite para la primera página
+     * @param limit Tamaño de la página (por defecto 100, máximo 500)
+     * @return Página de registros y cursor de la siguiente, o 400 si el cursor no es válido
+     */
     @GetMapping
-    public ResponseEntity<List<Electricity>> getAllConsumption() {
-        List<Electricity> consumptions = electricityService.getAllConsumption();
-        return new ResponseEntity<>(consumptions, HttpStatus.OK);
+    public ResponseEntity<CursorPage<ElectricityRecordDTO>> getConsumption(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return new ResponseEntity<>(electricityService.getConsumption(from, to, cursor, limit), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportResultDTO> importJson(InputStream body) {
+        return importResponse(electricityService.importConsumption(body, ImportFormat.JSON));
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ImportResultDTO> importCsv(InputStream body) {
+        return importResponse(electricityService.importConsumption(body, ImportFormat.CSV));
+    }
+
+    private ResponseEntity<ImportResultDTO> importResponse(ImportResultDTO result) {
+        HttpStatus status = result.getErrors().isEmpty() ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST;
+        return new ResponseEntity<>(result, status);
     }
 }
@@ -0,0 +1,30 @@
+package com.lilim.ecotracker.features.electricity.dto;
+
+import com.lilim.ecotracker.features.electricity.model.Electricity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de electricidad devuelto en los listados y al guardarlo, sin las relaciones de la entidad
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ElectricityRecordDTO {
+    private Long id;
+    private LocalDateTime date;
+    private Double kilowatts;
+    private Double cost;
+
+    /**
+     * Crea el DTO a partir de un registro guardado, sin acceder a su usuario
+     */
+    public static ElectricityRecordDTO of(Electricity electricity) {
+        return new ElectricityRecordDTO(electricity.getId(), electricity.getDate(), electricity.getKilowatts(), electricity.getCost());
+    }
+}
@@ -1,8 +1,10 @@
 package com.lilim.ecotracker.features.electricity.model;
 
 import com.lilim.ecotracker.common.model.BaseEntity;
+import com.lilim.ecotracker.common.model.ResourceType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -10,7 +12,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "electricity_consumption")
+@Table(name = "electricity_consumption", indexes = @Index(name = "idx_electricity_consumption_user_date", columnList = "user_id, date"))
 @Getter
 @Setter
 @AllArgsConstructor
@@ -19,4 +21,9 @@ public class Electricity extends BaseEntity {
     
     @Column(nullable = false)
     private Double kilowatts;
-}
\ No newline at end of file
+
+    @Override
+    public ResourceType resourceType() {
+        return ResourceType.ELECTRICITY;
+    }
+}
@@ -1,11 +1,18 @@
 package com.lilim.ecotracker.features.electricity.repository;
 
+import com.lilim.ecotracker.common.projection.BimonthlyTotal;
+import com.lilim.ecotracker.features.electricity.dto.ElectricityRecordDTO;
 import com.lilim.ecotracker.features.electricity.model.Electricity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ElectricityRepository extends JpaRepository<Electricity, Long> {
@@ -13,4 +20,23 @@ public interface ElectricityRepository extends JpaRepository<Electricity, Long>
     List<Electricity> findByUserIdAndDateBetween(Long userId, LocalDateTime dateStart, LocalDateTime dateEnd);
 
     List<Electricity> findByUserIdOrderByDateDesc(Long id);
-}
\ No newline at end of file
+
+    Optional<Electricity> findFirstByUserIdOrderByDateDesc(Long userId);
+
+    // Totales por período bimestral (año * 6 + mes / 2) calculados en la base de datos
+    @Query("SELECT e.user.id AS userId, YEAR(e.date) * 6 + FLOOR(MONTH(e.date) / 2) AS period, " +
+            "SUM(e.kilowatts) AS total, SUM(e.cost) AS cost, COUNT(e) AS records, MIN(e.date) AS firstDate " +
+            "FROM Electricity e WHERE e.user.id = :userId " +
+            "GROUP BY e.user.id, YEAR(e.date) * 6 + FLOOR(MONTH(e.date) / 2) " +
+            "ORDER BY MIN(e.date)")
+    List<BimonthlyTotal> findBimonthlyTotalsByUserId(@Param("userId") Long userId);
+
+    // Página de registros anteriores a la posición (beforeDate, beforeId), del más reciente al más antiguo
+    @Query("SELECT new com.lilim.ecotracker.features.electricity.dto.ElectricityRecordDTO(e.id, e.date, e.kilowatts, e.cost) " +
+            "FROM Electricity e WHERE e.user.id = :userId AND e.date >= :from " +
+            "AND (e.date < :beforeDate OR (e.date = :beforeDate AND e.id < :beforeId)) " +
+            "ORDER BY e.date DESC, e.id DESC")
+    Slice<ElectricityRecordDTO> findSliceByUserIdAndDateBefore(@Param("userId") Long userId, @Param("from") LocalDateTime from,
+                                                     @Param("beforeDate") LocalDateTime beforeDate,
+                                                     @Param("beforeId") Long beforeId, Pageable pageable);
+}
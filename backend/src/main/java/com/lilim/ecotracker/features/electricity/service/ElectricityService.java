@@ -1,9 +1,16 @@
 package com.lilim.ecotracker.features.electricity.service;
 
+import com.lilim.ecotracker.common.imports.ImportFormat;
+import com.lilim.ecotracker.common.imports.ImportResultDTO;
+import com.lilim.ecotracker.common.pagination.CursorPage;
+import com.lilim.ecotracker.features.electricity.dto.ElectricityRecordDTO;
 import com.lilim.ecotracker.features.electricity.model.Electricity;
-import java.util.List;
+
+import java.io.InputStream;
+import java.time.LocalDate;
 
 public interface ElectricityService {
     Electricity saveConsumption(Electricity electricity);
-    List<Electricity> getAllConsumption();
+    CursorPage<ElectricityRecordDTO> getConsumption(LocalDate from, LocalDate to, String cursor, Integer limit);
+    ImportResultDTO importConsumption(InputStream input, ImportFormat format);
 }
\ No newline at end of file
@@ -1,52 +1,82 @@
 package com.lilim.ecotracker.features.electricity.service;
 
+import com.lilim.ecotracker.common.imports.ConsumptionImportService;
+import com.lilim.ecotracker.common.imports.ConsumptionImportSpec;
+import com.lilim.ecotracker.common.imports.ImportFormat;
+import com.lilim.ecotracker.common.imports.ImportResultDTO;
+import com.lilim.ecotracker.common.model.ResourceType;
+import com.lilim.ecotracker.common.pagination.CursorPage;
+import com.lilim.ecotracker.common.pagination.KeysetPageRequest;
+import com.lilim.ecotracker.features.electricity.dto.ElectricityRecordDTO;
 import com.lilim.ecotracker.features.electricity.model.Electricity;
 import com.lilim.ecotracker.features.electricity.repository.ElectricityRepository;
-import com.lilim.ecotracker.features.metas.service.MetaService;
+import com.lilim.ecotracker.features.summary.service.ConsumptionRollupService;
 import com.lilim.ecotracker.security.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.List;
+import java.io.InputStream;
+import java.time.LocalDate;
 
 // En backend/src/main/java/com/lilim/ecotracker/features/electricity/service/ElectricityServiceImpl.java
 
 @Service
 public class ElectricityServiceImpl implements ElectricityService {
 
+    private static final ConsumptionImportSpec<Electricity> IMPORT_SPEC = ConsumptionImportSpec.of(
+            ResourceType.ELECTRICITY, Electricity.class, Electricity::new, "kilowatts", Electricity::getKilowatts, Electricity::setKilowatts);
+
     private final ElectricityRepository electricityRepository;
     private final UserService userService;
-    private final MetaService metaService;
+    private final ConsumptionRollupService rollupService;
+    private final TransactionTemplate transactionTemplate;
+    private final ConsumptionImportService importService;
 
     @Autowired
     public ElectricityServiceImpl(
             ElectricityRepository electricityRepository,
             UserService userService,
-            MetaService metaService) {
+            ConsumptionRollupService rollupService,
+            TransactionTemplate transactionTemplate,
+            ConsumptionImportService importService) {
         this.electricityRepository = electricityRepository;
         this.userService = userService;
-        this.metaService = metaService;
+        this.rollupService = rollupService;
+        this.transactionTemplate = transactionTemplate;
+        this.importService = importService;
     }
 
     @Override
     public Electricity saveConsumption(Electricity electricity) {
-        electricity.setUser(userService.getCurrentUser());
-        Electricity savedElectricity = electricityRepository.save(electricity);
-
-        // Actualizar automáticamente las metas de electricidad
-        try {
-            metaService.updateAutomaticMetasForType("electricidad");
-            System.out.println("Metas de electricidad actualizadas automáticamente tras nuevo registro");
-        } catch (Exception e) {
-            System.err.println("Error al actualizar metas de electricidad: " + e.getMessage());
-            e.printStackTrace();
+        // Se valida antes de guardar: la base de datos rechaza estos campos nulos y el total bimestral los necesita
+        if (electricity.getDate() == null || electricity.getKilowatts() == null || electricity.getCost() == null) {
+            throw new IllegalArgumentException("Los campos 'date', 'kilowatts' y 'cost' son obligatorios");
         }
+        electricity.setUser(userService.getCurrentUserReference());
+
+        // Guardar el registro y acumularlo en su total bimestral en la misma transacción
+        // Las metas automáticas se recalculan en segundo plano al confirmarse (MetaRefreshScheduler)
+        Electricity savedElectricity = transactionTemplate.execute(status -> {
+            Electricity saved = electricityRepository.save(electricity);
+            rollupService.record(saved.getUser(), ResourceType.ELECTRICITY, saved.getDate(), saved.getKilowatts(), saved.getCost());
+            return saved;
+        });
 
         return savedElectricity;
     }
 
     @Override
-    public List<Electricity> getAllConsumption() {
-        return electricityRepository.findByUserId(userService.getCurrentUser().getId());
+    public CursorPage<ElectricityRecordDTO> getConsumption(LocalDate from, LocalDate to, String cursor, Integer limit) {
+        KeysetPageRequest page = KeysetPageRequest.of(from, to, cursor, limit);
+        Slice<ElectricityRecordDTO> slice = electricityRepository.findSliceByUserIdAndDateBefore(userService.getCurrentUserId(),
+                page.getFrom(), page.getBeforeDate(), page.getBeforeId(), page.pageable());
+        return CursorPage.of(slice, ElectricityRecordDTO::getDate, ElectricityRecordDTO::getId);
+    }
+
+    @Override
+    public ImportResultDTO importConsumption(InputStream input, ImportFormat format) {
+        return importService.importRecords(input, format, IMPORT_SPEC, userService.getCurrentUserReference());
     }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+package com.lilim.ecotracker.features.leaderboard.controller;
+
+import com.lilim.ecotracker.features.leaderboard.dto.LeaderboardDTO;
+import com.lilim.ecotracker.features.leaderboard.service.LeaderboardService;
+import com.lilim.ecotracker.security.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Controlador de la tabla de clasificación de usuarios por puntuación.
+ */
+@RestController
+@RequestMapping("/api/leaderboard")
+public class LeaderboardController {
+
+    private final LeaderboardService leaderboardService;
+    private final UserService userService;
+
+    @Autowired
+    public LeaderboardController(
+            LeaderboardService leaderboardService,
+            UserService userService) {
+        this.leaderboardService = leaderboardService;
+        this.userService = userService;
+    }
+
+    /**
+     * Obtiene los usuarios con mayor puntuación.
+     *
+     * @param limit Número de usuarios (máximo 100)
+     * @return Primeros usuarios de la clasificación
+     */
+    @GetMapping("/top")
+    public ResponseEntity<LeaderboardDTO> getTop(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(leaderboardService.getTop(limit, userService.getCurrentUserId()));
+    }
+
+    /**
+     * Obtiene la posición del usuario actual y los usuarios que lo rodean.
+     *
+     * @param neighbors Usuarios a cada lado (máximo 50)
+     * @return Usuarios alrededor del usuario actual
+     */
+    @GetMapping("/me")
+    public ResponseEntity<LeaderboardDTO> getAroundCurrentUser(@RequestParam(defaultValue = "5") int neighbors) {
+        return ResponseEntity.ok(leaderboardService.getAround(userService.getCurrentUserId(), neighbors));
+    }
+}
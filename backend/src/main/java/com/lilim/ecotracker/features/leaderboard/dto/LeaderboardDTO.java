@@ -0,0 +1,21 @@
+package com.lilim.ecotracker.features.leaderboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * DTO for a slice of the leaderboard: the global top or the users around the current user.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardDTO {
+    /** Number of ranked users */
+    private int totalUsers;
+    private List<LeaderboardEntryDTO> entries;
+}
@@ -0,0 +1,21 @@
+package com.lilim.ecotracker.features.leaderboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO for a user's position in the leaderboard.
+ * Users with the same score share the same rank.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntryDTO {
+    private int rank;
+    private String username;
+    private int puntuacion;
+    private boolean currentUser;
+}
@@ -0,0 +1,190 @@
+package com.lilim.ecotracker.features.leaderboard.service;
+
+import com.lilim.ecotracker.common.event.ScoreChangedEvent;
+import com.lilim.ecotracker.common.projection.UserScore;
+import com.lilim.ecotracker.features.leaderboard.dto.LeaderboardDTO;
+import com.lilim.ecotracker.features.leaderboard.dto.LeaderboardEntryDTO;
+import com.lilim.ecotracker.security.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Tabla de clasificación de usuarios por puntuación.
+ * <p>
+ * Se sirve desde un {@link RankedScoreIndex} en memoria que se construye al arrancar recorriendo
+ * los usuarios por lotes de IDs y se actualiza de forma incremental: cuando se confirma un cambio
+ * de puntuación ({@link ScoreChangedEvent}) se releen de la base de datos solo las puntuaciones
+ * de los usuarios afectados. Las relecturas y la reconstrucción se serializan, de modo que la
+ * última aplicada siempre es la más reciente y un cambio confirmado durante la reconstrucción se
+ * aplica sobre el índice nuevo. Un usuario que aún no está en el índice (recién registrado) se
+ * incorpora la primera vez que consulta su posición.
+ * </p>
+ *
+ * @author EcoTracker Team
+ * @version 1.0
+ */
+@Service
+public class LeaderboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardService.class);
+
+    public static final int MAX_LIMIT = 100;
+    public static final int MAX_NEIGHBORS = 50;
+
+    private final UserRepository userRepository;
+    private final int rebuildBatchSize;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object refreshLock = new Object();
+    private RankedScoreIndex index = new RankedScoreIndex();
+
+    @Autowired
+    public LeaderboardService(
+            UserRepository userRepository,
+            @Value("${ecotracker.leaderboard.rebuild-batch-size:1000}") int rebuildBatchSize) {
+        this.userRepository = userRepository;
+        this.rebuildBatchSize = rebuildBatchSize;
+    }
+
+    /**
+     * Reconstruye el índice con las puntuaciones de todos los usuarios
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (refreshLock) {
+            long start = System.nanoTime();
+            RankedScoreIndex rebuilt = new RankedScoreIndex();
+            long afterId = 0L;
+            List<UserScore> batch = userRepository.findScoresAfter(afterId, PageRequest.of(0, rebuildBatchSize));
+            while (!batch.isEmpty()) {
+                batch.forEach(score -> put(rebuilt, score));
+                afterId = batch.get(batch.size() - 1).getId();
+                batch = userRepository.findScoresAfter(afterId, PageRequest.of(0, rebuildBatchSize));
+            }
+
+            lock.writeLock().lock();
+            try {
+                index = rebuilt;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Tabla de clasificación construida con {} usuarios en {} ms",
+                    rebuilt.size(), (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /**
+     * Aplica las puntuaciones confirmadas de los usuarios afectados
+     *
+     * @param event Cambio de puntuación confirmado
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onScoreChanged(ScoreChangedEvent event) {
+        refresh(event.getUserIds());
+    }
+
+    /**
+     * Obtiene los usuarios con mayor puntuación
+     *
+     * @param limit Número de usuarios (como máximo {@link #MAX_LIMIT})
+     * @param currentUserId ID del usuario que consulta, para marcar su entrada
+     * @return Primeros usuarios de la clasificación
+     */
+    public LeaderboardDTO getTop(int limit, Long currentUserId) {
+        lock.readLock().lock();
+        try {
+            return slice(0, Math.min(Math.max(limit, 1), MAX_LIMIT), currentUserId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Obtiene la posición de un usuario junto con los usuarios inmediatamente por encima y por debajo
+     *
+     * @param userId ID del usuario
+     * @param neighbors Usuarios a cada lado (como máximo {@link #MAX_NEIGHBORS})
+     * @return Usuarios alrededor del usuario, o la clasificación vacía si el usuario no existe
+     */
+    public LeaderboardDTO getAround(Long userId, int neighbors) {
+        int n = Math.min(Math.max(neighbors, 0), MAX_NEIGHBORS);
+        lock.readLock().lock();
+        try {
+            if (index.contains(userId)) {
+                return around(userId, n);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        refresh(List.of(userId));
+        lock.readLock().lock();
+        try {
+            return index.contains(userId) ? around(userId, n) : new LeaderboardDTO(index.size(), List.of());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void refresh(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        synchronized (refreshLock) {
+            List<UserScore> scores = userRepository.findScoresByIdIn(userIds);
+            lock.writeLock().lock();
+            try {
+                scores.forEach(score -> put(index, score));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private LeaderboardDTO around(Long userId, int neighbors) {
+        int position = index.indexOf(userId);
+        int from = Math.max(0, position - neighbors);
+        return slice(from, position - from + neighbors + 1, userId);
+    }
+
+    /**
+     * Convierte un rango del índice en entradas con su posición: las puntuaciones empatadas
+     * comparten la posición del primero de ellos
+     */
+    private LeaderboardDTO slice(int from, int count, Long currentUserId) {
+        List<RankedScoreIndex.Entry> range = index.range(from, count);
+        List<LeaderboardEntryDTO> entries = new ArrayList<>(range.size());
+        int rank = 0;
+        int previousScore = 0;
+        for (int i = 0; i < range.size(); i++) {
+            RankedScoreIndex.Entry entry = range.get(i);
+            if (i == 0) {
+                rank = index.countAbove(entry.getScore()) + 1;
+            } else if (entry.getScore() != previousScore) {
+                rank = from + i + 1;
+            }
+            previousScore = entry.getScore();
+            entries.add(new LeaderboardEntryDTO(rank, entry.getUsername(), entry.getScore(),
+                    currentUserId != null && currentUserId == entry.getUserId()));
+        }
+        return new LeaderboardDTO(index.size(), entries);
+    }
+
+    private static void put(RankedScoreIndex index, UserScore score) {
+        index.put(score.getId(), score.getUsername(), score.getPuntuacion() != null ? score.getPuntuacion() : 0);
+    }
+}
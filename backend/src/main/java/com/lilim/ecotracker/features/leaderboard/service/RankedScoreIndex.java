@@ -0,0 +1,274 @@
+package com.lilim.ecotracker.features.leaderboard.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Índice en memoria de usuarios ordenados por puntuación (treap de estadísticos de orden).
+ * <p>
+ * Los usuarios se ordenan por puntuación descendente y, a igual puntuación, por ID ascendente.
+ * Cada nodo guarda el tamaño de su subárbol, de modo que insertar, actualizar, eliminar, obtener
+ * la posición de un usuario y localizar la posición inicial de un rango cuestan O(log n) en
+ * promedio; recorrer un rango de k usuarios cuesta O(log n + k).
+ * </p>
+ * <p>
+ * No es seguro para hilos: quien lo comparte debe sincronizar los accesos.
+ * </p>
+ *
+ * @author EcoTracker Team
+ * @version 1.0
+ */
+public class RankedScoreIndex {
+
+    private final Map<Long, Node> byUser = new HashMap<>();
+    private final SplittableRandom random = new SplittableRandom();
+    private Node root;
+
+    public int size() {
+        return byUser.size();
+    }
+
+    public boolean contains(long userId) {
+        return byUser.containsKey(userId);
+    }
+
+    /**
+     * Inserta un usuario o actualiza su puntuación
+     *
+     * @param userId ID del usuario
+     * @param username Nombre de usuario
+     * @param score Puntuación
+     */
+    public void put(long userId, String username, int score) {
+        Node current = byUser.get(userId);
+        if (current != null) {
+            if (current.score == score && current.username.equals(username)) {
+                return;
+            }
+            remove(userId);
+        }
+        Node node = new Node(userId, username, score, random.nextInt());
+        Node[] parts = splitBefore(root, score, userId);
+        root = merge(merge(parts[0], node), parts[1]);
+        byUser.put(userId, node);
+    }
+
+    /**
+     * Elimina un usuario del índice
+     *
+     * @return true si el usuario estaba en el índice
+     */
+    public boolean remove(long userId) {
+        Node node = byUser.remove(userId);
+        if (node == null) {
+            return false;
+        }
+        Node[] parts = splitBefore(root, node.score, userId);
+        // El primer nodo de la parte derecha es el del usuario
+        root = merge(parts[0], splitFirst(parts[1], 1)[1]);
+        return true;
+    }
+
+    /**
+     * Posición del usuario en el orden del índice, empezando en 0
+     *
+     * @return Posición, o -1 si el usuario no está en el índice
+     */
+    public int indexOf(long userId) {
+        Node node = byUser.get(userId);
+        if (node == null) {
+            return -1;
+        }
+        int index = 0;
+        Node t = root;
+        while (t != null) {
+            int c = compare(node.score, userId, t);
+            if (c == 0) {
+                return index + size(t.left);
+            }
+            if (c < 0) {
+                t = t.left;
+            } else {
+                index += size(t.left) + 1;
+                t = t.right;
+            }
+        }
+        throw new IllegalStateException("Usuario " + userId + " indexado pero ausente del árbol");
+    }
+
+    /**
+     * Número de usuarios con una puntuación estrictamente mayor. Más uno, es la posición
+     * compartida por todos los usuarios con esa puntuación.
+     */
+    public int countAbove(int score) {
+        int count = 0;
+        Node t = root;
+        while (t != null) {
+            if (t.score > score) {
+                count += size(t.left) + 1;
+                t = t.right;
+            } else {
+                t = t.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Obtiene los usuarios a partir de una posición
+     *
+     * @param from Posición inicial, empezando en 0
+     * @param count Número máximo de usuarios
+     * @return Usuarios en orden de clasificación
+     */
+    public List<Entry> range(int from, int count) {
+        List<Entry> entries = new ArrayList<>(Math.max(0, Math.min(count, size() - from)));
+        collect(root, Math.max(0, from), count, entries);
+        return entries;
+    }
+
+    public Integer scoreOf(long userId) {
+        Node node = byUser.get(userId);
+        return node != null ? node.score : null;
+    }
+
+    /**
+     * Agrega al resultado hasta {@code count} nodos del subárbol a partir de la posición {@code skip}
+     */
+    private static void collect(Node t, int skip, int count, List<Entry> out) {
+        if (t == null || out.size() >= count) {
+            return;
+        }
+        int leftSize = size(t.left);
+        if (skip < leftSize) {
+            collect(t.left, skip, count, out);
+        }
+        if (skip <= leftSize && out.size() < count) {
+            out.add(new Entry(t.userId, t.username, t.score));
+        }
+        collect(t.right, Math.max(0, skip - leftSize - 1), count, out);
+    }
+
+    /**
+     * Divide el árbol en los nodos anteriores a la clave (puntuación, ID) y el resto
+     */
+    private static Node[] splitBefore(Node t, int score, long userId) {
+        if (t == null) {
+            return new Node[]{null, null};
+        }
+        if (compare(score, userId, t) > 0) {
+            Node[] parts = splitBefore(t.right, score, userId);
+            t.right = parts[0];
+            update(t);
+            return new Node[]{t, parts[1]};
+        }
+        Node[] parts = splitBefore(t.left, score, userId);
+        t.left = parts[1];
+        update(t);
+        return new Node[]{parts[0], t};
+    }
+
+    /**
+     * Divide el árbol en sus primeros {@code count} nodos y el resto
+     */
+    private static Node[] splitFirst(Node t, int count) {
+        if (t == null) {
+            return new Node[]{null, null};
+        }
+        if (size(t.left) < count) {
+            Node[] parts = splitFirst(t.right, count - size(t.left) - 1);
+            t.right = parts[0];
+            update(t);
+            return new Node[]{t, parts[1]};
+        }
+        Node[] parts = splitFirst(t.left, count);
+        t.left = parts[1];
+        update(t);
+        return new Node[]{parts[0], t};
+    }
+
+    /**
+     * Une dos árboles en los que todos los nodos de {@code a} preceden a los de {@code b}
+     */
+    private static Node merge(Node a, Node b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.priority > b.priority) {
+            a.right = merge(a.right, b);
+            update(a);
+            return a;
+        }
+        b.left = merge(a, b.left);
+        update(b);
+        return b;
+    }
+
+    /**
+     * Compara la clave (puntuación, ID) con la de un nodo: negativo si la clave va antes
+     */
+    private static int compare(int score, long userId, Node node) {
+        if (score != node.score) {
+            return score > node.score ? -1 : 1;
+        }
+        return Long.compare(userId, node.userId);
+    }
+
+    private static int size(Node t) {
+        return t != null ? t.size : 0;
+    }
+
+    private static void update(Node t) {
+        t.size = size(t.left) + size(t.right) + 1;
+    }
+
+    private static final class Node {
+        private final long userId;
+        private final String username;
+        private final int score;
+        private final int priority;
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(long userId, String username, int score, int priority) {
+            this.userId = userId;
+            this.username = username;
+            this.score = score;
+            this.priority = priority;
+        }
+    }
+
+    /**
+     * Usuario del índice
+     */
+    public static final class Entry {
+        private final long userId;
+        private final String username;
+        private final int score;
+
+        private Entry(long userId, String username, int score) {
+            this.userId = userId;
+            this.username = username;
+            this.score = score;
+        }
+
+        public long getUserId() {
+            return userId;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public int getScore() {
+            return score;
+        }
+    }
+}
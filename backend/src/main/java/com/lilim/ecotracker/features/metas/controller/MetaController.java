@@ -8,16 +8,21 @@ import com.lilim.ecotracker.features.metas.dto.MetaUpdateProgresoDTO;
 import com.lilim.ecotracker.features.metas.model.Meta;
 import com.lilim.ecotracker.features.metas.repository.MetaRepository;
 import com.lilim.ecotracker.features.metas.service.MetaService;
+import com.lilim.ecotracker.features.metas.service.automation.MetaAutomationBatchService;
+import com.lilim.ecotracker.features.metas.service.automation.MetaAutomationRunStats;
+import com.lilim.ecotracker.features.metas.service.automation.MetaExpirationRunStats;
+import com.lilim.ecotracker.features.metas.service.automation.MetaExpirationSweeper;
+import com.lilim.ecotracker.features.metas.service.registry.UnknownMetricException;
 import com.lilim.ecotracker.features.transport.model.Transport;
 import com.lilim.ecotracker.features.transport.repository.TransportRepository;
 import com.lilim.ecotracker.features.water.model.Water;
 import com.lilim.ecotracker.features.water.repository.WaterRepository;
-import com.lilim.ecotracker.security.model.User;
 import com.lilim.ecotracker.security.service.UserService;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
@@ -44,16 +49,21 @@ public class MetaController {
     private final ElectricityRepository electricityRepository;
     private final TransportRepository transportRepository;
 
+    private final MetaAutomationBatchService automationBatchService;
+    private final MetaExpirationSweeper expirationSweeper;
+
 
 
     @Autowired
-    public MetaController(MetaService metaService, UserService userService, MetaRepository metaRepository, WaterRepository waterRepository, ElectricityRepository electricityRepository, TransportRepository transportRepository) {
+    public MetaController(MetaService metaService, UserService userService, MetaRepository metaRepository, WaterRepository waterRepository, ElectricityRepository electricityRepository, TransportRepository transportRepository, MetaAutomationBatchService automationBatchService, MetaExpirationSweeper expirationSweeper) {
         this.metaService = metaService;
         this.userService = userService;
         this.metaRepository = metaRepository;
         this.waterRepository = waterRepository;
         this.electricityRepository = electricityRepository;
         this.transportRepository = transportRepository;
+        this.automationBatchService = automationBatchService;
+        this.expirationSweeper = expirationSweeper;
     }
 
     /**
@@ -94,8 +104,12 @@ public class MetaController {
      */
     @PostMapping
     public ResponseEntity<MetaDTO> createMeta(@RequestBody MetaDTO metaDTO) {
-        MetaDTO createdMeta = metaService.createMeta(metaDTO);
-        return new ResponseEntity<>(createdMeta, HttpStatus.CREATED);
+        try {
+            MetaDTO createdMeta = metaService.createMeta(metaDTO);
+            return new ResponseEntity<>(createdMeta, HttpStatus.CREATED);
+        } catch (UnknownMetricException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -112,6 +126,8 @@ public class MetaController {
         try {
             MetaDTO updatedMeta = metaService.updateMeta(id, metaDTO);
             return ResponseEntity.ok(updatedMeta);
+        } catch (UnknownMetricException e) {
+            return ResponseEntity.badRequest().build();
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
         }
@@ -168,19 +184,19 @@ public class MetaController {
 
     @GetMapping("/{id}/refresh")
     public ResponseEntity<MetaDTO> refreshMetaProgress(@PathVariable Long id) {
-        User currentUser = userService.getCurrentUser();
+        Long currentUserId = userService.getCurrentUserId();
 
 
-        Meta meta = metaRepository.findByIdAndUserId(id, currentUser.getId())
+        Meta meta = metaRepository.findByIdAndUserId(id, currentUserId)
                 .orElseThrow(() -> new IllegalArgumentException("Meta no encontrada o acceso denegado"));
 
         logger.info("Iniciando actualización forzada de meta {} para usuario {}. Valores iniciales: valorActual={}, estado={}",
-                id, currentUser.getUsername(), meta.getValorActual(), meta.getEstado());
+                id, userService.getCurrentUsername(), meta.getValorActual(), meta.getEstado());
 
         try {
             // Consultar todos los registros sin filtro para diagnóstico
             if ("electricidad".equals(meta.getTipo())) {
-                List<Electricity> allRecords = electricityRepository.findByUserId(currentUser.getId());
+                List<Electricity> allRecords = electricityRepository.findByUserId(currentUserId);
                 logger.info("Registros totales de electricidad para el usuario: {}", allRecords.size());
 
                 if (!allRecords.isEmpty()) {
@@ -199,7 +215,7 @@ public class MetaController {
                 }
             }
             else if ("agua".equals(meta.getTipo())) {
-                List<Water> allRecords = waterRepository.findByUserId(currentUser.getId());
+                List<Water> allRecords = waterRepository.findByUserId(currentUserId);
                 logger.info("Registros totales de agua para el usuario: {}", allRecords.size());
 
                 if (!allRecords.isEmpty()) {
@@ -217,7 +233,7 @@ public class MetaController {
                     logger.info("Actualizando directamente valorActual a {} litros (último registro)", last.getLiters());
                 }
             } else if ("transporte".equals(meta.getTipo())) {
-                List<Transport> allRecords = transportRepository.findByUserId(currentUser.getId());
+                List<Transport> allRecords = transportRepository.findByUserId(currentUserId);
                 logger.info("Registros totales de transporte para el usuario: {}", allRecords.size());
 
                 if (!allRecords.isEmpty()) {
@@ -275,8 +291,6 @@ public class MetaController {
 
     @GetMapping("/refresh-by-type/{tipo}")
     public ResponseEntity<List<MetaDTO>> refreshMetasByType(@PathVariable String tipo) {
-        User currentUser = userService.getCurrentUser();
-
         try {
             List<MetaDTO> updatedMetas = metaService.updateAutomaticMetasForType(tipo);
             return ResponseEntity.ok(updatedMetas);
@@ -297,8 +311,6 @@ public class MetaController {
     public ResponseEntity<List<MetaDTO>> refreshAllMetas(
             @RequestParam(required = false) String tipo) {
 
-        User currentUser = userService.getCurrentUser();
-
         try {
             List<MetaDTO> updatedMetas;
 
@@ -319,4 +331,52 @@ public class MetaController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
     }
+
+    /**
+     * Ejecutar el proceso por lotes que actualiza las metas automáticas de todos los usuarios
+     * @return Estadísticas de la ejecución, o 409 si ya hay una ejecución en curso
+     */
+    @PostMapping("/automation/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MetaAutomationRunStats> runAutomationBatch() {
+        return automationBatchService.runBatch()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    /**
+     * Obtener las estadísticas de la última ejecución del proceso por lotes
+     * @return Estadísticas, o 204 si el proceso aún no se ha ejecutado
+     */
+    @GetMapping("/automation/last-run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MetaAutomationRunStats> getLastAutomationRun() {
+        return automationBatchService.getLastRun()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    /**
+     * Ejecutar el cierre de las metas en progreso vencidas de todos los usuarios
+     * @return Estadísticas de la ejecución, o 409 si ya hay una ejecución en curso
+     */
+    @PostMapping("/expiration/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MetaExpirationRunStats> runExpirationSweep() {
+        return expirationSweeper.sweep()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+    }
+
+    /**
+     * Obtener las estadísticas de la última ejecución del cierre de metas vencidas
+     * @return Estadísticas, o 204 si el cierre aún no se ha ejecutado
+     */
+    @GetMapping("/expiration/last-run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MetaExpirationRunStats> getLastExpirationSweep() {
+        return expirationSweeper.getLastRun()
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
 }
\ No newline at end of file
@@ -33,6 +33,7 @@ public class MetaDTO {
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime updatedAt;
     private Double progreso;
+    private Boolean esReduccion;
 }
 
 /**
@@ -14,7 +14,13 @@ import java.time.LocalDateTime;
  * Almacena desafíos personales para mejorar hábitos con impacto ambiental
  */
 @Entity
-@Table(name = "metas")
+@Table(name = "metas", indexes = {
+        // Metas de un usuario por tipo, evaluación y estado (listados y recálculo automático)
+        @Index(name = "idx_metas_user_tipo_evaluacion_estado", columnList = "user_id, tipo, tipo_evaluacion, estado"),
+        // Recorrido por lotes de los usuarios con metas automáticas en progreso
+        @Index(name = "idx_metas_evaluacion_estado_user", columnList = "tipo_evaluacion, estado, user_id")
+})
+@EntityListeners(MetaProgressListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -87,6 +93,20 @@ public class Meta {
     @Column(nullable = false)
     private Double valorActual;
 
+    /**
+     * Progreso hacia el objetivo (0-100)
+     * Lo calcula {@link MetaProgressListener} cada vez que cambian los valores de la meta
+     */
+    @Column
+    private Double progreso;
+
+    /**
+     * Indica si la métrica es de reducción (menor es mejor) o de incremento
+     * Lo calcula {@link MetaProgressListener} junto con el progreso
+     */
+    @Column
+    private Boolean esReduccion;
+
     /**
      * Tipo de evaluación (automática o manual)
      * Automática: Se calcula a partir de los registros de consumo
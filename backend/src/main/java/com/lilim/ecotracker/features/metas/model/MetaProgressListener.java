@@ -0,0 +1,35 @@
+package com.lilim.ecotracker.features.metas.model;
+
+import com.lilim.ecotracker.features.metas.service.calculation.MetaProgressCalculator;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listener JPA de las metas.
+ * <p>
+ * Recalcula el progreso y el indicador de reducción justo antes de insertar o actualizar una
+ * meta, es decir, solo cuando cambian sus valores, sin importar si el cambio llega desde un
+ * servicio, la automatización o directamente desde un repositorio.
+ * </p>
+ */
+@Component
+public class MetaProgressListener {
+
+    private final MetaProgressCalculator progressCalculator;
+
+    // Hibernate crea el listener al construir la SessionFactory; la dependencia se resuelve al
+    // primer uso para que los contextos parciales (p. ej. @DataJpaTest) que no escriben metas no la necesiten
+    @Autowired
+    public MetaProgressListener(@Lazy MetaProgressCalculator progressCalculator) {
+        this.progressCalculator = progressCalculator;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void onChange(Meta meta) {
+        progressCalculator.refresh(meta);
+    }
+}
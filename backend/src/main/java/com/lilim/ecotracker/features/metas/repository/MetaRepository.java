@@ -1,10 +1,18 @@
 package com.lilim.ecotracker.features.metas.repository;
 
+import com.lilim.ecotracker.features.metas.dto.MetaDTO;
 import com.lilim.ecotracker.features.metas.model.Meta;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +30,55 @@ public interface MetaRepository extends JpaRepository<Meta, Long> {
      */
     List<Meta> findByUserIdOrderByCreatedAtDesc(Long userId);
 
+    /**
+     * Proyección de una meta directamente a DTO, con el progreso ya persistido
+     * Los valores se redondean a 2 decimales en la consulta
+     */
+    String META_DTO_SELECT = "SELECT new com.lilim.ecotracker.features.metas.dto.MetaDTO(" +
+            "m.id, m.titulo, m.descripcion, m.tipo, ROUND(m.valorObjetivo, 2), m.unidad, m.metrica, " +
+            "m.fechaInicio, m.fechaFin, m.estado, ROUND(m.valorActual, 2), ROUND(m.valorInicial, 2), " +
+            "m.tipoEvaluacion, m.createdAt, m.updatedAt, m.progreso, m.esReduccion) FROM Meta m ";
+
+    /**
+     * Lista las metas de un usuario como DTOs, ordenadas por fecha de creación descendente
+     *
+     * @param userId ID del usuario
+     * @return Lista de metas sin cargar las entidades
+     */
+    @Query(META_DTO_SELECT + "WHERE m.user.id = :userId ORDER BY m.createdAt DESC")
+    List<MetaDTO> findDTOsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Lista las metas de un usuario de un tipo como DTOs, ordenadas por fecha de creación descendente
+     *
+     * @param userId ID del usuario
+     * @param tipo   Tipo de meta
+     * @return Lista de metas sin cargar las entidades
+     */
+    @Query(META_DTO_SELECT + "WHERE m.user.id = :userId AND m.tipo = :tipo ORDER BY m.createdAt DESC")
+    List<MetaDTO> findDTOsByUserIdAndTipo(@Param("userId") Long userId, @Param("tipo") String tipo);
+
+    /**
+     * Obtiene una meta de un usuario como DTO
+     *
+     * @param id     ID de la meta
+     * @param userId ID del usuario
+     * @return Meta si existe y pertenece al usuario
+     */
+    @Query(META_DTO_SELECT + "WHERE m.id = :id AND m.user.id = :userId")
+    Optional<MetaDTO> findDTOByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    /**
+     * Obtiene una página de IDs de metas sin progreso persistido (creadas antes de que existiera
+     * la columna), a partir del último ID procesado (paginación por clave)
+     *
+     * @param afterId  Último ID de meta procesado (0 para empezar)
+     * @param pageable Tamaño de la página
+     * @return IDs de metas sin progreso en orden ascendente
+     */
+    @Query("SELECT m.id FROM Meta m WHERE m.progreso IS NULL AND m.id > :afterId ORDER BY m.id")
+    List<Long> findIdsWithoutProgresoAfter(@Param("afterId") Long afterId, Pageable pageable);
+
     /**
      * Encuentra todas las metas de un usuario filtradas por tipo y ordenadas por fecha de creación
      *
@@ -129,4 +186,94 @@ public interface MetaRepository extends JpaRepository<Meta, Long> {
      * @return Lista de metas
      */
     List<Meta> findByUserIdAndTipoEvaluacion(Long userId, String tipoEvaluacion);
+
+    /**
+     * Obtiene una página de IDs de usuarios con metas por tipo de evaluación y estado,
+     * a partir del último ID procesado (paginación por clave)
+     *
+     * @param tipoEvaluacion Tipo de evaluación
+     * @param estado         Estado de la meta
+     * @param afterUserId    Último ID de usuario procesado (0 para empezar)
+     * @param pageable       Tamaño de la página
+     * @return IDs de usuarios en orden ascendente
+     */
+    @Query("SELECT DISTINCT m.user.id FROM Meta m " +
+            "WHERE m.tipoEvaluacion = :tipoEvaluacion AND m.estado = :estado AND m.user.id > :afterUserId " +
+            "ORDER BY m.user.id")
+    List<Long> findUserIdsByTipoEvaluacionAndEstadoAfter(@Param("tipoEvaluacion") String tipoEvaluacion,
+                                                        @Param("estado") String estado,
+                                                        @Param("afterUserId") Long afterUserId,
+                                                        Pageable pageable);
+
+    /**
+     * Encuentra las metas de varios usuarios por tipo de evaluación y estado, agrupadas por usuario
+     *
+     * @param userIds        IDs de los usuarios
+     * @param tipoEvaluacion Tipo de evaluación
+     * @param estado         Estado de la meta
+     * @return Lista de metas ordenada por usuario
+     */
+    @Query("SELECT m FROM Meta m JOIN FETCH m.user " +
+            "WHERE m.user.id IN :userIds AND m.tipoEvaluacion = :tipoEvaluacion AND m.estado = :estado " +
+            "ORDER BY m.user.id, m.id")
+    List<Meta> findByUserIdInAndTipoEvaluacionAndEstado(@Param("userIds") Collection<Long> userIds,
+                                                        @Param("tipoEvaluacion") String tipoEvaluacion,
+                                                        @Param("estado") String estado);
+
+    /**
+     * Obtiene una página de IDs de metas en progreso cuya fecha de fin ya pasó,
+     * a partir del último ID procesado (paginación por clave)
+     * Solo incluye metas con la dirección de la métrica persistida
+     *
+     * @param ahora     Fecha de referencia
+     * @param afterId   Último ID de meta procesado (0 para empezar)
+     * @param pageable  Tamaño de la página
+     * @return IDs de metas vencidas en orden ascendente
+     */
+    @Query("SELECT m.id FROM Meta m " +
+            "WHERE m.estado = 'en_progreso' AND m.fechaFin < :ahora AND m.esReduccion IS NOT NULL AND m.id > :afterId " +
+            "ORDER BY m.id")
+    List<Long> findExpiredIdsAfter(@Param("ahora") LocalDateTime ahora,
+                                   @Param("afterId") Long afterId,
+                                   Pageable pageable);
+
+    /**
+     * Bloquea hasta el fin de la transacción las metas del lote que siguen en progreso y alcanzaron
+     * su objetivo, para que solo el cierre que las completa otorgue sus puntos
+     *
+     * @param ids IDs de las metas vencidas
+     * @return IDs de las metas que se completarán
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m.id FROM Meta m " +
+            "WHERE m.id IN :ids AND m.estado = 'en_progreso' AND (" +
+            "(m.esReduccion = true AND m.valorActual <= m.valorObjetivo) OR " +
+            "(m.esReduccion = false AND m.valorActual >= m.valorObjetivo))")
+    List<Long> lockCompletableIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Marca como completadas, en una sola sentencia, las metas en progreso del lote que alcanzaron su objetivo
+     *
+     * @param ids   IDs de las metas vencidas
+     * @param ahora Fecha de actualización
+     * @return Número de metas completadas
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Meta m SET m.estado = 'completada', m.updatedAt = :ahora " +
+            "WHERE m.id IN :ids AND m.estado = 'en_progreso' AND (" +
+            "(m.esReduccion = true AND m.valorActual <= m.valorObjetivo) OR " +
+            "(m.esReduccion = false AND m.valorActual >= m.valorObjetivo))")
+    int completeExpired(@Param("ids") Collection<Long> ids, @Param("ahora") LocalDateTime ahora);
+
+    /**
+     * Marca como fallidas, en una sola sentencia, las metas del lote que siguen en progreso
+     *
+     * @param ids   IDs de las metas vencidas
+     * @param ahora Fecha de actualización
+     * @return Número de metas fallidas
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Meta m SET m.estado = 'fallida', m.updatedAt = :ahora " +
+            "WHERE m.id IN :ids AND m.estado = 'en_progreso'")
+    int failExpired(@Param("ids") Collection<Long> ids, @Param("ahora") LocalDateTime ahora);
 }
\ No newline at end of file
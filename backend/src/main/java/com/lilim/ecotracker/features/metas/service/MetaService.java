@@ -38,6 +38,7 @@ public interface MetaService {
      * Crear una nueva meta
      * @param metaDTO Datos de la meta
      * @return Meta creada
+     * @throws com.lilim.ecotracker.features.metas.service.registry.UnknownMetricException si el tipo y la métrica no son una combinación válida
      */
     MetaDTO createMeta(MetaDTO metaDTO);
     
@@ -47,6 +48,7 @@ public interface MetaService {
      * @param metaDTO Datos actualizados
      * @return Meta actualizada
      * @throws IllegalArgumentException si la meta no existe o no pertenece al usuario actual
+     * @throws com.lilim.ecotracker.features.metas.service.registry.UnknownMetricException si el tipo y la métrica no son una combinación válida
      */
     MetaDTO updateMeta(Long id, MetaDTO metaDTO) throws IllegalArgumentException;
     
@@ -7,7 +7,9 @@ import com.lilim.ecotracker.features.metas.model.Meta;
 import com.lilim.ecotracker.features.metas.repository.MetaRepository;
 import com.lilim.ecotracker.features.metas.service.automation.MetaAutomationCoordinator;
 import com.lilim.ecotracker.features.metas.service.calculation.MetaCalculationCoordinator;
-import com.lilim.ecotracker.features.metas.service.recommendation.MetaRecommendationCoordinator;
+import com.lilim.ecotracker.features.metas.service.recommendation.MetaRecommendationStore;
+import com.lilim.ecotracker.features.metas.service.registry.MetaMetricRegistry;
+import com.lilim.ecotracker.features.metas.service.registry.MetricDescriptor;
 import com.lilim.ecotracker.security.model.User;
 import com.lilim.ecotracker.security.service.UserService;
 import org.slf4j.Logger;
@@ -27,8 +29,9 @@ import java.util.*;
  * 
  * - MetaMapper: Conversión entre entidades y DTOs
  * - MetaCalculationCoordinator: Cálculos de progreso y valores
- * - MetaRecommendationCoordinator: Generación de recomendaciones
+ * - MetaRecommendationStore: Recomendaciones precalculadas por usuario y tipo
  * - MetaAutomationCoordinator: Automatización y evaluación de estados
+ * - MetaMetricRegistry: Combinaciones (tipo, métrica) admitidas y su dirección
  * 
  * Después de la refactorización, este servicio se enfoca únicamente en:
  * - Operaciones CRUD básicas
@@ -47,8 +50,9 @@ public class MetaServiceImp implements MetaService {
     private final UserService userService;
     private final MetaMapper metaMapper;
     private final MetaCalculationCoordinator calculationCoordinator;
-    private final MetaRecommendationCoordinator recommendationCoordinator;
+    private final MetaRecommendationStore recommendationStore;
     private final MetaAutomationCoordinator automationCoordinator;
+    private final MetaMetricRegistry metricRegistry;
 
     @Autowired
     public MetaServiceImp(
@@ -56,14 +60,16 @@ public class MetaServiceImp implements MetaService {
             UserService userService,
             MetaMapper metaMapper,
             MetaCalculationCoordinator calculationCoordinator,
-            MetaRecommendationCoordinator recommendationCoordinator,
-            MetaAutomationCoordinator automationCoordinator) {
+            MetaRecommendationStore recommendationStore,
+            MetaAutomationCoordinator automationCoordinator,
+            MetaMetricRegistry metricRegistry) {
         this.metaRepository = metaRepository;
         this.userService = userService;
         this.metaMapper = metaMapper;
         this.calculationCoordinator = calculationCoordinator;
-        this.recommendationCoordinator = recommendationCoordinator;
+        this.recommendationStore = recommendationStore;
         this.automationCoordinator = automationCoordinator;
+        this.metricRegistry = metricRegistry;
     }
 
     /**
@@ -72,9 +78,8 @@ public class MetaServiceImp implements MetaService {
      */
     @Override
     public List<MetaDTO> getAllMetas() {
-        User currentUser = userService.getCurrentUser();
-        List<Meta> metas = metaRepository.findByUserIdOrderByCreatedAtDesc(currentUser.getId());
-        return metaMapper.convertToDTOList(metas);
+        // Proyección directa a DTO: el progreso ya está persistido en la meta
+        return metaRepository.findDTOsByUserId(userService.getCurrentUserId());
     }
 
     /**
@@ -83,9 +88,7 @@ public class MetaServiceImp implements MetaService {
      */
     @Override
     public List<MetaDTO> getMetasByTipo(String tipo) {
-        User currentUser = userService.getCurrentUser();
-        List<Meta> metas = metaRepository.findByUserIdAndTipoOrderByCreatedAtDesc(currentUser.getId(), tipo);
-        return metaMapper.convertToDTOList(metas);
+        return metaRepository.findDTOsByUserIdAndTipo(userService.getCurrentUserId(), tipo);
     }
 
     /**
@@ -94,9 +97,7 @@ public class MetaServiceImp implements MetaService {
      */
     @Override
     public Optional<MetaDTO> getMetaById(Long id) {
-        User currentUser = userService.getCurrentUser();
-        return metaRepository.findByIdAndUserId(id, currentUser.getId())
-                .map(metaMapper::convertToDTO);
+        return metaRepository.findDTOByIdAndUserId(id, userService.getCurrentUserId());
     }
 
     /**
@@ -106,11 +107,13 @@ public class MetaServiceImp implements MetaService {
     @Override
     @Transactional
     public MetaDTO createMeta(MetaDTO metaDTO) {
-        User currentUser = userService.getCurrentUser();
+        // Rechazar combinaciones tipo/métrica desconocidas antes de consultar el historial
+        MetricDescriptor descriptor = metricRegistry.get(metaDTO.getTipo(), metaDTO.getMetrica());
+        User currentUser = userService.getCurrentUserReference();
 
         Meta meta = new Meta();
-        configureBasicProperties(meta, metaDTO);
-        initializeMetaValues(meta, metaDTO, currentUser);
+        configureBasicProperties(meta, metaDTO, descriptor);
+        initializeMetaValues(meta, metaDTO, currentUser, descriptor);
         meta.setUser(currentUser);
 
         Meta savedMeta = metaRepository.save(meta);
@@ -127,11 +130,11 @@ public class MetaServiceImp implements MetaService {
      * Configura las propiedades básicas de una meta a partir del DTO recibido.
      * Responsabilidad: Asignar los valores simples (título, descripción, fechas, etc.) a la entidad Meta.
      */
-    private void configureBasicProperties(Meta meta, MetaDTO metaDTO) {
+    private void configureBasicProperties(Meta meta, MetaDTO metaDTO, MetricDescriptor descriptor) {
         meta.setTitulo(metaDTO.getTitulo());
         meta.setDescripcion(metaDTO.getDescripcion());
         meta.setTipo(metaDTO.getTipo());
-        meta.setUnidad(metaDTO.getUnidad());
+        meta.setUnidad(metaDTO.getUnidad() != null ? metaDTO.getUnidad() : descriptor.getUnidad());
         meta.setMetrica(metaDTO.getMetrica());
         meta.setFechaInicio(metaDTO.getFechaInicio());
         meta.setFechaFin(metaDTO.getFechaFin());
@@ -142,9 +145,9 @@ public class MetaServiceImp implements MetaService {
      * Inicializa los valores de la meta (valor inicial, objetivo, tipo de evaluación, etc.)
      * Responsabilidad: Aplicar reglas de negocio y cálculos históricos para dejar la meta lista para ser guardada.
      */
-    private void initializeMetaValues(Meta meta, MetaDTO metaDTO, User currentUser) {
+    private void initializeMetaValues(Meta meta, MetaDTO metaDTO, User currentUser, MetricDescriptor descriptor) {
         // Determinar el valor inicial basado en datos históricos
-        Double valorInicial = obtenerValorInicial(metaDTO.getTipo(), metaDTO.getMetrica());
+        Double valorInicial = obtenerValorInicial(currentUser, metaDTO.getTipo(), metaDTO.getMetrica());
         meta.setValorInicial(valorInicial);
 
         // Establecer valor objetivo proporcionado por el usuario
@@ -152,7 +155,7 @@ public class MetaServiceImp implements MetaService {
         logger.info("Estableciendo valor objetivo de la meta: {}", metaDTO.getValorObjetivo());
 
         // Configurar valor actual inicial según el tipo de meta
-        configureInitialCurrentValue(meta, metaDTO.getTipo(), metaDTO.getMetrica(), valorInicial);
+        configureInitialCurrentValue(meta, descriptor, valorInicial);
 
         // Determinar tipo de evaluación
         meta.setTipoEvaluacion(metaDTO.getTipoEvaluacion() != null ?
@@ -163,11 +166,11 @@ public class MetaServiceImp implements MetaService {
      * Configura el valor actual inicial de la meta según su tipo y métrica.
      * Responsabilidad: Asegurar que el valorActual inicial sea coherente con el tipo de meta (reducción/incremento/transporte).
      */
-    private void configureInitialCurrentValue(Meta meta, String tipo, String metrica, Double valorInicial) {
-        if ("transporte".equals(tipo)) {
+    private void configureInitialCurrentValue(Meta meta, MetricDescriptor descriptor, Double valorInicial) {
+        if ("transporte".equals(descriptor.getTipo())) {
             meta.setValorActual(0.0);
             logger.info("Meta de transporte: valor actual inicial = 0");
-        } else if (isIncrementMetric(tipo, metrica)) {
+        } else if (!descriptor.isReduction()) {
             meta.setValorActual(0.0);
             logger.info("Meta de incremento: valor actual inicial = 0");
         } else {
@@ -177,22 +180,11 @@ public class MetaServiceImp implements MetaService {
         }
     }
 
-    /**
-     * Determina si una métrica es de incremento (más es mejor) usando el coordinador de cálculos.
-     * Responsabilidad: Abstraer la lógica de negocio para distinguir entre metas de reducción e incremento.
-     */
-    private boolean isIncrementMetric(String tipo, String metrica) {
-        // Delegar al coordinador - negar el resultado de isReductionMetric
-        return !calculationCoordinator.isReductionMetric(tipo, metrica);
-    }
-
     /**
      * Obtiene el valor inicial de consumo basado en datos históricos del usuario.
      * Responsabilidad: Consultar el coordinador de cálculos para obtener el punto de partida de la meta.
      */
-    private Double obtenerValorInicial(String tipo, String metrica) {
-        User currentUser = userService.getCurrentUser();
-        
+    private Double obtenerValorInicial(User currentUser, String tipo, String metrica) {
         try {
             // Delegar al coordinador de cálculos
             return calculationCoordinator.obtenerValorInicial(currentUser, tipo, metrica);
@@ -211,9 +203,8 @@ public class MetaServiceImp implements MetaService {
     @Override
     @Transactional
     public MetaDTO updateMeta(Long id, MetaDTO metaDTO) throws IllegalArgumentException {
-        User currentUser = userService.getCurrentUser();
-
-        Meta meta = metaRepository.findByIdAndUserId(id, currentUser.getId())
+        metricRegistry.get(metaDTO.getTipo(), metaDTO.getMetrica());
+        Meta meta = metaRepository.findByIdAndUserId(id, userService.getCurrentUserId())
                 .orElseThrow(() -> new IllegalArgumentException("Meta no encontrada o acceso denegado"));
 
         // Actualizar propiedades de la meta
@@ -253,9 +244,7 @@ public class MetaServiceImp implements MetaService {
     @Override
     @Transactional
     public MetaDTO updateMetaProgreso(Long id, double valorActual) throws IllegalArgumentException {
-        User currentUser = userService.getCurrentUser();
-
-        Meta meta = metaRepository.findByIdAndUserId(id, currentUser.getId())
+        Meta meta = metaRepository.findByIdAndUserId(id, userService.getCurrentUserId())
                 .orElseThrow(() -> new IllegalArgumentException("Meta no encontrada o acceso denegado"));
 
         meta.setValorActual(valorActual);
@@ -286,9 +275,7 @@ public class MetaServiceImp implements MetaService {
     @Override
     @Transactional
     public boolean deleteMeta(Long id) {
-        User currentUser = userService.getCurrentUser();
-
-        if (!metaRepository.existsByIdAndUserId(id, currentUser.getId())) {
+        if (!metaRepository.existsByIdAndUserId(id, userService.getCurrentUserId())) {
             return false;
         }
 
@@ -302,10 +289,10 @@ public class MetaServiceImp implements MetaService {
      */
     @Override
     public Map<String, List<MetaRecommendationDTO>> getRecommendationsForTipo(String tipo) {
-        User currentUser = userService.getCurrentUser();
-        
-        // Delegar al coordinador de recomendaciones
-        return recommendationCoordinator.getRecommendationsForTipo(tipo, currentUser);
+        User currentUser = userService.getCurrentUserReference();
+
+        // Lectura del almacén precalculado; se recalcula en segundo plano si está desactualizado
+        return recommendationStore.get(currentUser, tipo);
     }
 
     /**
@@ -315,9 +302,10 @@ public class MetaServiceImp implements MetaService {
     @Override
     @Transactional
     public void updateAllAutomaticMetas() {
-        logger.info("Iniciando actualización masiva de todas las metas automáticas");
-        // Delegar completamente al coordinador de automatización
-        automationCoordinator.updateAllAutomaticMetas();
+        User currentUser = userService.getCurrentUserReference();
+        logger.info("Actualizando todas las metas automáticas del usuario '{}'", userService.getCurrentUsername());
+        // La actualización de todos los usuarios la realiza el proceso por lotes (MetaAutomationBatchService)
+        automationCoordinator.updateAllUserMetas(currentUser);
     }
 
     /**
@@ -327,8 +315,8 @@ public class MetaServiceImp implements MetaService {
     @Override
     @Transactional
     public List<MetaDTO> updateAutomaticMetasForType(String tipo) {
-        User currentUser = userService.getCurrentUser();
-        logger.info("Actualizando metas automáticas de tipo '{}' para usuario '{}'", tipo, currentUser.getUsername());
+        User currentUser = userService.getCurrentUserReference();
+        logger.info("Actualizando metas automáticas de tipo '{}' para usuario '{}'", tipo, userService.getCurrentUsername());
         
         // Delegar al coordinador de automatización
         return automationCoordinator.updateMetasByType(currentUser, tipo);
@@ -3,6 +3,7 @@ package com.lilim.ecotracker.features.metas.service.automation;
 import com.lilim.ecotracker.features.metas.model.Meta;
 import com.lilim.ecotracker.features.metas.repository.MetaRepository;
 import com.lilim.ecotracker.features.metas.service.recommendation.MetaRecommendationCoordinator;
+import com.lilim.ecotracker.features.metas.service.registry.MetaMetricRegistry;
 import com.lilim.ecotracker.features.summary.dto.ConsumptionAnalyticsDTO;
 import com.lilim.ecotracker.features.summary.service.ConsumptionAnalyticsService;
 import com.lilim.ecotracker.security.model.User;
@@ -27,15 +28,18 @@ public class CombinedMetaAutomationService implements MetaAutomationService {
     private final MetaRepository metaRepository;
     private final ConsumptionAnalyticsService analyticsService;
     private final MetaRecommendationCoordinator recommendationCoordinator;
+    private final MetaMetricRegistry metricRegistry;
 
     @Autowired
     public CombinedMetaAutomationService(
             MetaRepository metaRepository,
             ConsumptionAnalyticsService analyticsService,
-            MetaRecommendationCoordinator recommendationCoordinator) {
+            MetaRecommendationCoordinator recommendationCoordinator,
+            MetaMetricRegistry metricRegistry) {
         this.metaRepository = metaRepository;
         this.analyticsService = analyticsService;
         this.recommendationCoordinator = recommendationCoordinator;
+        this.metricRegistry = metricRegistry;
     }
 
     @Override
@@ -134,7 +138,7 @@ public class CombinedMetaAutomationService implements MetaAutomationService {
         }
 
         // Para metas combinadas, generalmente son de incremento (mejora)
-        boolean esIncremento = isIncrementMetric(meta.getMetrica());
+        boolean esIncremento = !metricRegistry.get(meta.getTipo(), meta.getMetrica()).isReduction();
         
         if (esIncremento) {
             // Meta de incremento: más es mejor
@@ -310,13 +314,4 @@ public class CombinedMetaAutomationService implements MetaAutomationService {
 
         return 0.0;
     }
-
-    /**
-     * Determina si una métrica combinada es de incremento
-     */
-    private boolean isIncrementMetric(String metrica) {
-        return "sostenibilidad".equals(metrica) || 
-               "ahorro_total".equals(metrica) ||
-               "reduccion_total".equals(metrica);
-    }
 } 
\ No newline at end of file
@@ -0,0 +1,226 @@
+package com.lilim.ecotracker.features.metas.service.automation;
+
+import com.lilim.ecotracker.features.metas.model.Meta;
+import com.lilim.ecotracker.features.metas.repository.MetaRepository;
+import com.lilim.ecotracker.security.service.UserService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Proceso por lotes que actualiza el progreso de todas las metas automáticas en progreso.
+ * <p>
+ * Los usuarios con metas pendientes se recorren por páginas ordenadas por ID y se reparten en
+ * grupos; cada grupo se procesa en un hilo del pool propio del servicio cargando de una vez las
+ * metas de sus usuarios, y cada meta se actualiza en su propia transacción, de modo que el error de
+ * una meta no revierte las demás del grupo. Los puntos de las metas que el grupo completa se
+ * otorgan al final del grupo en una sola transacción, con sentencias sobre el conjunto de metas
+ * (ver {@link UserService#awardPointsForCompletedMetas}). Las metas de un mismo usuario se procesan
+ * seguidas, de modo que sus datos de consumo se leen una sola vez (caché de análisis). El pool y
+ * su cola están acotados: cuando la cola se llena, el hilo que reparte los grupos procesa el
+ * siguiente, lo que frena la lectura de páginas en lugar de acumular trabajo en memoria.
+ * </p>
+ *
+ * @author EcoTracker Team
+ * @version 1.0
+ */
+@Service
+public class MetaAutomationBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetaAutomationBatchService.class);
+
+    private static final String TIPO_EVALUACION = "automatica";
+    private static final String ESTADO = "en_progreso";
+    private static final String ESTADO_COMPLETADA = "completada";
+
+    private final MetaRepository metaRepository;
+    private final MetaAutomationCoordinator automationCoordinator;
+    private final UserService userService;
+    private final TransactionTemplate goalTransactionTemplate;
+    private final int pageSize;
+    private final int chunkSize;
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicReference<MetaAutomationRunStats> lastRun = new AtomicReference<>();
+
+    @Autowired
+    public MetaAutomationBatchService(
+            MetaRepository metaRepository,
+            MetaAutomationCoordinator automationCoordinator,
+            UserService userService,
+            PlatformTransactionManager transactionManager,
+            @Value("${ecotracker.metas.automation.threads:4}") int threads,
+            @Value("${ecotracker.metas.automation.page-size:500}") int pageSize,
+            @Value("${ecotracker.metas.automation.chunk-size:50}") int chunkSize) {
+        this.metaRepository = metaRepository;
+        this.automationCoordinator = automationCoordinator;
+        this.userService = userService;
+        // Transacción nueva por meta aunque quien llama ya tenga una: la que falla no marca las demás para rollback
+        this.goalTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.goalTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.pageSize = pageSize;
+        this.chunkSize = chunkSize;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * 2),
+                runnable -> new Thread(runnable, "meta-batch-" + threadNumber.incrementAndGet()),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Ejecución programada del proceso (por defecto todos los días a las 3:00)
+     */
+    @Scheduled(cron = "${ecotracker.metas.automation.cron:0 0 3 * * *}")
+    public void scheduledRun() {
+        runBatch();
+    }
+
+    /**
+     * Actualiza todas las metas automáticas en progreso de todos los usuarios.
+     * <p>
+     * Si ya hay una ejecución en curso no se inicia otra.
+     * </p>
+     *
+     * @return Estadísticas de la ejecución, o vacío si ya había una ejecución en curso
+     */
+    public Optional<MetaAutomationRunStats> runBatch() {
+        if (!running.compareAndSet(false, true)) {
+            logger.warn("Actualización por lotes de metas ya en curso, se omite esta ejecución");
+            return Optional.empty();
+        }
+
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            long start = System.nanoTime();
+            AtomicInteger goals = new AtomicInteger();
+            AtomicInteger failures = new AtomicInteger();
+            int users = 0;
+
+            long afterUserId = 0L;
+            List<Long> userIds = nextUserPage(afterUserId);
+            while (!userIds.isEmpty()) {
+                List<Future<?>> chunks = new ArrayList<>();
+                for (int from = 0; from < userIds.size(); from += chunkSize) {
+                    List<Long> chunk = userIds.subList(from, Math.min(from + chunkSize, userIds.size()));
+                    chunks.add(executor.submit(() -> processChunk(chunk, goals, failures)));
+                }
+                if (!awaitAll(chunks)) {
+                    break;
+                }
+
+                users += userIds.size();
+                afterUserId = userIds.get(userIds.size() - 1);
+                userIds = nextUserPage(afterUserId);
+            }
+
+            MetaAutomationRunStats stats = new MetaAutomationRunStats(startedAt,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), users, goals.get(), failures.get());
+            lastRun.set(stats);
+            logger.info("Actualización por lotes de metas finalizada: {}", stats);
+            return Optional.of(stats);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Obtiene las estadísticas de la última ejecución finalizada
+     *
+     * @return Estadísticas, o vacío si el proceso aún no se ha ejecutado
+     */
+    public Optional<MetaAutomationRunStats> getLastRun() {
+        return Optional.ofNullable(lastRun.get());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private List<Long> nextUserPage(long afterUserId) {
+        return metaRepository.findUserIdsByTipoEvaluacionAndEstadoAfter(
+                TIPO_EVALUACION, ESTADO, afterUserId, PageRequest.of(0, pageSize));
+    }
+
+    /**
+     * Actualiza las metas de un grupo de usuarios, cada una en su propia transacción.
+     * <p>
+     * Las metas se cargan con su usuario en una sola consulta y se actualizan separadas de la
+     * sesión que las leyó. Una meta cuenta como procesada solo si su transacción confirma; si su
+     * actualización o su confirmación fallan, cuenta como fallida. Las metas confirmadas como
+     * completadas reciben sus puntos al final, todas en una transacción.
+     * </p>
+     */
+    private void processChunk(List<Long> userIds, AtomicInteger goals, AtomicInteger failures) {
+        List<Meta> metas;
+        try {
+            metas = metaRepository.findByUserIdInAndTipoEvaluacionAndEstado(userIds, TIPO_EVALUACION, ESTADO);
+        } catch (RuntimeException e) {
+            logger.error("Error cargando las metas del grupo de usuarios {}..{}: {}",
+                    userIds.get(0), userIds.get(userIds.size() - 1), e.getMessage());
+            return;
+        }
+
+        List<Long> completadas = new ArrayList<>();
+        for (Meta meta : metas) {
+            try {
+                goalTransactionTemplate.executeWithoutResult(status -> automationCoordinator.updateMetaProgress(meta));
+                goals.incrementAndGet();
+                if (ESTADO_COMPLETADA.equals(meta.getEstado())) {
+                    completadas.add(meta.getId());
+                }
+            } catch (RuntimeException e) {
+                failures.incrementAndGet();
+                logger.error("Error actualizando meta ID {}: {}", meta.getId(), e.getMessage());
+            }
+        }
+
+        if (!completadas.isEmpty()) {
+            try {
+                goalTransactionTemplate.executeWithoutResult(status ->
+                        userService.awardPointsForCompletedMetas(completadas, LocalDateTime.now()));
+            } catch (RuntimeException e) {
+                logger.error("Error otorgando los puntos de {} metas completadas del grupo de usuarios {}..{}: {}",
+                        completadas.size(), userIds.get(0), userIds.get(userIds.size() - 1), e.getMessage());
+            }
+        }
+    }
+
+    private boolean awaitAll(List<Future<?>> chunks) {
+        for (Future<?> chunk : chunks) {
+            try {
+                chunk.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Actualización por lotes de metas interrumpida");
+                return false;
+            } catch (ExecutionException e) {
+                logger.error("Error inesperado en un grupo de metas: {}", e.getCause().getMessage());
+            }
+        }
+        return true;
+    }
+}
@@ -4,6 +4,8 @@ import com.lilim.ecotracker.features.metas.dto.MetaDTO;
 import com.lilim.ecotracker.features.metas.mapper.MetaMapper;
 import com.lilim.ecotracker.features.metas.model.Meta;
 import com.lilim.ecotracker.features.metas.repository.MetaRepository;
+import com.lilim.ecotracker.features.metas.service.registry.MetaMetricRegistry;
+import com.lilim.ecotracker.features.metas.service.registry.MetricDescriptor;
 import com.lilim.ecotracker.security.model.User;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,6 +20,7 @@ import java.util.stream.Collectors;
 /**
  * Servicio coordinador que orquesta las llamadas a los servicios de automatización especializados
  * Actúa como punto de entrada único para todas las operaciones de automatización de metas
+ * El servicio de cada (tipo, métrica) se resuelve con {@link MetaMetricRegistry}
  */
 @Service
 public class MetaAutomationCoordinator {
@@ -25,15 +28,18 @@ public class MetaAutomationCoordinator {
     private static final Logger logger = LoggerFactory.getLogger(MetaAutomationCoordinator.class);
 
     private final List<MetaAutomationService> automationServices;
+    private final MetaMetricRegistry metricRegistry;
     private final MetaRepository metaRepository;
     private final MetaMapper metaMapper;
 
     @Autowired
     public MetaAutomationCoordinator(
             List<MetaAutomationService> automationServices,
+            MetaMetricRegistry metricRegistry,
             MetaRepository metaRepository,
             MetaMapper metaMapper) {
         this.automationServices = automationServices;
+        this.metricRegistry = metricRegistry;
         this.metaRepository = metaRepository;
         this.metaMapper = metaMapper;
     }
@@ -49,7 +55,7 @@ public class MetaAutomationCoordinator {
             return;
         }
 
-        MetaAutomationService service = findServiceForType(meta.getTipo());
+        MetaAutomationService service = metricRegistry.get(meta.getTipo(), meta.getMetrica()).getStateEvaluator();
         if (service != null) {
             logger.info("Delegando actualización de progreso de meta ID {} al servicio {}", 
                     meta.getId(), service.getClass().getSimpleName());
@@ -61,31 +67,6 @@ public class MetaAutomationCoordinator {
         }
     }
 
-    /**
-     * Actualiza todas las metas automáticas en progreso de todos los tipos
-     * @return Número total de metas actualizadas
-     */
-    @Transactional
-    public int updateAllAutomaticMetas() {
-        logger.info("Iniciando actualización automática masiva de metas...");
-
-        List<Meta> automaticMetas = metaRepository.findByTipoEvaluacionAndEstado("automatica", "en_progreso");
-        
-        int totalUpdated = 0;
-        for (Meta meta : automaticMetas) {
-            try {
-                updateMetaProgress(meta);
-                totalUpdated++;
-            } catch (Exception e) {
-                logger.error("Error actualizando meta ID {}: {}", meta.getId(), e.getMessage());
-            }
-        }
-
-        logger.info("Actualización automática masiva finalizada. {} metas actualizadas de {} encontradas.", 
-                totalUpdated, automaticMetas.size());
-        return totalUpdated;
-    }
-
     /**
      * Actualiza todas las metas automáticas de un usuario específico
      * @param user Usuario
@@ -151,7 +132,7 @@ public class MetaAutomationCoordinator {
             return "en_progreso";
         }
 
-        MetaAutomationService service = findServiceForType(meta.getTipo());
+        MetaAutomationService service = metricRegistry.get(meta.getTipo(), meta.getMetrica()).getStateEvaluator();
         if (service != null) {
             return service.evaluateMetaState(meta);
         } else {
@@ -220,10 +201,8 @@ public class MetaAutomationCoordinator {
      * @return Servicio de automatización o null si no se encuentra
      */
     private MetaAutomationService findServiceForType(String tipo) {
-        return automationServices.stream()
-                .filter(service -> service.canHandle(tipo))
-                .findFirst()
-                .orElse(null);
+        MetricDescriptor descriptor = metricRegistry.findByTipo(tipo);
+        return descriptor != null ? descriptor.getStateEvaluator() : null;
     }
 
     /**
@@ -0,0 +1,34 @@
+package com.lilim.ecotracker.features.metas.service.automation;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resultado de una ejecución del proceso por lotes de metas automáticas.
+ */
+@Getter
+@AllArgsConstructor
+public class MetaAutomationRunStats {
+    private LocalDateTime startedAt;
+    private long durationMs;
+    private int users;
+    private int goals;
+    private int failures;
+
+    /**
+     * Metas procesadas por segundo durante la ejecución.
+     *
+     * @return Rendimiento de la ejecución; 0 si no duró lo suficiente para medirse
+     */
+    public double getGoalsPerSecond() {
+        return durationMs == 0 ? 0 : goals * 1000.0 / durationMs;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("usuarios=%d, metas=%d, fallos=%d, duración=%d ms, %.1f metas/s",
+                users, goals, failures, durationMs, getGoalsPerSecond());
+    }
+}
@@ -0,0 +1,48 @@
+package com.lilim.ecotracker.features.metas.service.automation;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resultado de una ejecución del cierre de metas vencidas.
+ */
+@Getter
+@AllArgsConstructor
+public class MetaExpirationRunStats {
+    private LocalDateTime startedAt;
+    private long durationMs;
+    private int batches;
+    private int completed;
+    private int failed;
+
+    /**
+     * Puntuaciones de usuario actualizadas (un usuario cuenta una vez por cada lote con metas completadas suyas)
+     */
+    private int scoreUpdates;
+
+    /**
+     * Metas cerradas (completadas y fallidas)
+     *
+     * @return Filas actualizadas durante la ejecución
+     */
+    public int getRows() {
+        return completed + failed;
+    }
+
+    /**
+     * Metas cerradas por segundo durante la ejecución.
+     *
+     * @return Rendimiento de la ejecución; 0 si no duró lo suficiente para medirse
+     */
+    public double getRowsPerSecond() {
+        return durationMs == 0 ? 0 : getRows() * 1000.0 / durationMs;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("lotes=%d, completadas=%d, fallidas=%d, puntuaciones actualizadas=%d, duración=%d ms, %.1f filas/s",
+                batches, completed, failed, scoreUpdates, durationMs, getRowsPerSecond());
+    }
+}
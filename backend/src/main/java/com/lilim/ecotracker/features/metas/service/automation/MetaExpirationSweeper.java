@@ -0,0 +1,156 @@
+package com.lilim.ecotracker.features.metas.service.automation;
+
+import com.lilim.ecotracker.features.metas.repository.MetaRepository;
+import com.lilim.ecotracker.security.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Cierra las metas en progreso cuya fecha de fin ya pasó.
+ * <p>
+ * Las metas vencidas se recorren por lotes acotados de IDs ordenados (paginación por clave) y cada
+ * lote se cierra en su propia transacción con sentencias {@code UPDATE} sobre el conjunto: primero
+ * se bloquean y marcan como completadas las que alcanzaron su objetivo según la dirección de su
+ * métrica, luego se registran los premios de esas metas en el libro de puntos
+ * ({@code INSERT ... SELECT}), se suman a sus usuarios a partir de esos movimientos y por último se
+ * marcan como fallidas las demás.
+ * Ninguna meta se carga como entidad, de modo que el costo de un cierre de mes depende del número
+ * de lotes y no del número de metas.
+ * </p>
+ * <p>
+ * Las sentencias solo afectan a metas que siguen en progreso, por lo que una meta cerrada entre la
+ * lectura del lote y su actualización conserva el estado que ya tenía, y sus puntos quedan a cargo
+ * de quien la completó.
+ * </p>
+ *
+ * @author EcoTracker Team
+ * @version 1.0
+ */
+@Service
+public class MetaExpirationSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetaExpirationSweeper.class);
+
+    private final MetaRepository metaRepository;
+    private final UserService userService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicReference<MetaExpirationRunStats> lastRun = new AtomicReference<>();
+
+    @Autowired
+    public MetaExpirationSweeper(
+            MetaRepository metaRepository,
+            UserService userService,
+            TransactionTemplate transactionTemplate,
+            @Value("${ecotracker.metas.expiration.batch-size:1000}") int batchSize) {
+        this.metaRepository = metaRepository;
+        this.userService = userService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Ejecución programada del cierre (por defecto cada hora)
+     */
+    @Scheduled(cron = "${ecotracker.metas.expiration.cron:0 5 * * * *}")
+    public void scheduledRun() {
+        sweep();
+    }
+
+    /**
+     * Cierra todas las metas en progreso vencidas.
+     * <p>
+     * Si ya hay una ejecución en curso no se inicia otra.
+     * </p>
+     *
+     * @return Estadísticas de la ejecución, o vacío si ya había una ejecución en curso
+     */
+    public Optional<MetaExpirationRunStats> sweep() {
+        if (!running.compareAndSet(false, true)) {
+            logger.warn("Cierre de metas vencidas ya en curso, se omite esta ejecución");
+            return Optional.empty();
+        }
+
+        try {
+            LocalDateTime startedAt = LocalDateTime.now();
+            long start = System.nanoTime();
+            int[] totals = new int[4]; // [lotes, completadas, fallidas, puntuaciones actualizadas]
+
+            long afterId = 0L;
+            List<Long> ids = nextBatch(startedAt, afterId);
+            while (!ids.isEmpty()) {
+                List<Long> batch = ids;
+                try {
+                    transactionTemplate.executeWithoutResult(status -> closeBatch(batch, startedAt, totals));
+                } catch (RuntimeException e) {
+                    logger.error("Error cerrando el lote de metas {}..{}: {}",
+                            batch.get(0), batch.get(batch.size() - 1), e.getMessage());
+                }
+                afterId = batch.get(batch.size() - 1);
+                ids = nextBatch(startedAt, afterId);
+            }
+
+            MetaExpirationRunStats stats = new MetaExpirationRunStats(startedAt,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                    totals[0], totals[1], totals[2], totals[3]);
+            lastRun.set(stats);
+            if (stats.getRows() > 0) {
+                logger.info("Cierre de metas vencidas finalizado: {}", stats);
+            } else {
+                logger.debug("Cierre de metas vencidas finalizado sin metas pendientes");
+            }
+            return Optional.of(stats);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Obtiene las estadísticas de la última ejecución finalizada
+     *
+     * @return Estadísticas, o vacío si el cierre aún no se ha ejecutado
+     */
+    public Optional<MetaExpirationRunStats> getLastRun() {
+        return Optional.ofNullable(lastRun.get());
+    }
+
+    private List<Long> nextBatch(LocalDateTime ahora, long afterId) {
+        return metaRepository.findExpiredIdsAfter(ahora, afterId, PageRequest.of(0, batchSize));
+    }
+
+    /**
+     * Cierra un lote de metas vencidas. Solo se premian las metas que este cierre completó, que
+     * quedan bloqueadas desde que se seleccionan hasta el fin de la transacción. Los totales solo se
+     * acumulan si todas las sentencias se ejecutan; si alguna falla la transacción se revierte completa.
+     */
+    private void closeBatch(List<Long> ids, LocalDateTime ahora, int[] totals) {
+        List<Long> completables = metaRepository.lockCompletableIds(ids);
+        int completed = 0;
+        int scoreUpdates = 0;
+        if (!completables.isEmpty()) {
+            completed = metaRepository.completeExpired(completables, ahora);
+            scoreUpdates = userService.awardPointsForCompletedMetas(completables, ahora);
+        }
+        int failed = metaRepository.failExpired(ids, ahora);
+
+        totals[0]++;
+        totals[1] += completed;
+        totals[2] += failed;
+        totals[3] += scoreUpdates;
+    }
+}
@@ -0,0 +1,148 @@
+package com.lilim.ecotracker.features.metas.service.automation;
+
+import com.lilim.ecotracker.common.event.ConsumptionChangedEvent;
+import com.lilim.ecotracker.common.model.ResourceType;
+import com.lilim.ecotracker.features.metas.dto.MetaDTO;
+import com.lilim.ecotracker.security.repository.UserRepository;
+import com.lilim.ecotracker.security.service.UserService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recalcula en segundo plano las metas automáticas afectadas por cambios de consumo.
+ * <p>
+ * Cuando se confirma una transacción que guarda, modifica o elimina registros de consumo, el
+ * par (usuario, tipo de meta) queda pendiente y se programa un único recálculo al cabo de una
+ * ventana corta. Los cambios que llegan durante esa ventana se agrupan en el mismo recálculo,
+ * de modo que una importación de cientos de registros actualiza las metas una sola vez y el
+ * tiempo de respuesta de un guardado no depende del número de metas del usuario. Los puntos de las
+ * metas que el recálculo completa se otorgan en bloque dentro de su misma transacción.
+ * </p>
+ *
+ * @author EcoTracker Team
+ * @version 1.0
+ */
+@Component
+public class MetaRefreshScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetaRefreshScheduler.class);
+
+    private final MetaAutomationCoordinator automationCoordinator;
+    private final UserRepository userRepository;
+    private final UserService userService;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration window;
+    private final ScheduledThreadPoolExecutor executor;
+
+    private final Set<Key> pending = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public MetaRefreshScheduler(
+            MetaAutomationCoordinator automationCoordinator,
+            UserRepository userRepository,
+            UserService userService,
+            TransactionTemplate transactionTemplate,
+            @Value("${ecotracker.metas.refresh.window:2s}") Duration window,
+            @Value("${ecotracker.metas.refresh.threads:2}") int threads) {
+        this.automationCoordinator = automationCoordinator;
+        this.userRepository = userRepository;
+        this.userService = userService;
+        this.transactionTemplate = transactionTemplate;
+        this.window = window;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(threads,
+                runnable -> new Thread(runnable, "meta-refresh-" + threadNumber.incrementAndGet()));
+    }
+
+    /**
+     * Programa el recálculo de las metas del usuario y recurso tras confirmarse el cambio.
+     * <p>
+     * Si ya hay un recálculo pendiente para el mismo par, el evento se agrupa con él.
+     * </p>
+     *
+     * @param event Cambio de consumo confirmado
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onConsumptionChanged(ConsumptionChangedEvent event) {
+        Key key = new Key(event.getUserId(), event.getResource());
+        if (pending.add(key)) {
+            executor.schedule(() -> refresh(key), window.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Número de pares (usuario, recurso) con recálculo pendiente
+     *
+     * @return Recálculos programados que aún no han comenzado
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void refresh(Key key) {
+        // Se retira antes de recalcular: un cambio confirmado durante el recálculo programa otro
+        pending.remove(key);
+        String tipo = key.resource.getTipoMeta();
+        try {
+            transactionTemplate.executeWithoutResult(status -> userRepository.findById(key.userId)
+                    .ifPresent(user -> {
+                        List<MetaDTO> updated = automationCoordinator.updateMetasByType(user, tipo);
+                        // Solo se recalculan metas en progreso: las completadas lo fueron en este recálculo
+                        List<Long> completadas = updated.stream()
+                                .filter(meta -> "completada".equals(meta.getEstado()))
+                                .map(MetaDTO::getId)
+                                .toList();
+                        userService.awardPointsForCompletedMetas(completadas, LocalDateTime.now());
+                        logger.debug("Metas de tipo '{}' recalculadas para usuario {}: {}", tipo, key.userId, updated.size());
+                    }));
+        } catch (RuntimeException e) {
+            logger.error("Error recalculando metas de tipo '{}' para usuario {}: {}", tipo, key.userId, e.getMessage());
+        }
+    }
+
+    private static final class Key {
+        private final Long userId;
+        private final ResourceType resource;
+
+        private Key(Long userId, ResourceType resource) {
+            this.userId = userId;
+            this.resource = resource;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return userId.equals(other.userId) && resource == other.resource;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, resource);
+        }
+    }
+}
@@ -13,7 +13,7 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.List;
+import java.util.Optional;
 
 /**
  * Servicio de cálculo específico para metas de electricidad
@@ -55,9 +55,9 @@ public class ElectricityMetaCalculationService implements MetaProgressCalculatio
     public Double obtenerValorInicial(User user, String metrica) {
         try {
             // Obtener solo el último registro de electricidad
-            List<Electricity> ultimosConsumoElectricidad = electricityRepository.findByUserIdOrderByDateDesc(user.getId());
-            if (!ultimosConsumoElectricidad.isEmpty()) {
-                Double valorActual = ultimosConsumoElectricidad.get(0).getKilowatts();
+            Optional<Electricity> ultimoConsumoElectricidad = electricityRepository.findFirstByUserIdOrderByDateDesc(user.getId());
+            if (ultimoConsumoElectricidad.isPresent()) {
+                Double valorActual = ultimoConsumoElectricidad.get().getKilowatts();
                 logger.info("Valor inicial para electricidad (último registro): {} kWh", valorActual);
                 return valorActual;
             }
@@ -71,11 +71,9 @@ public class ElectricityMetaCalculationService implements MetaProgressCalculatio
     @Override
     public Double obtenerValorActual(User user, String metrica) {
         // Buscar el último registro de consumo de electricidad
-        List<Electricity> consumos = electricityRepository.findByUserIdOrderByDateDesc(user.getId());
-        if (!consumos.isEmpty()) {
-            return consumos.get(0).getKilowatts();
-        }
-        return 0.0; // Valor por defecto si no hay datos
+        return electricityRepository.findFirstByUserIdOrderByDateDesc(user.getId())
+                .map(Electricity::getKilowatts)
+                .orElse(0.0); // Valor por defecto si no hay datos
     }
 
     @Override
@@ -83,23 +81,16 @@ public class ElectricityMetaCalculationService implements MetaProgressCalculatio
         return "electricidad".equals(tipo);
     }
 
-    @Override
-    public boolean isReductionMetric(String metrica) {
-        // La mayoría de métricas de electricidad son de reducción
-        // Excepto benchmarks que pueden ser "mantener por debajo de"
-        return !"benchmark".equals(metrica);
-    }
-
     /**
      * Actualiza el progreso para métrica de consumo total
      */
     private void updateConsumoTotalProgress(Meta meta, User user) {
-        // Obtener todos los registros ordenados por fecha (el más reciente primero)
-        List<Electricity> registros = electricityRepository.findByUserIdOrderByDateDesc(user.getId());
+        // Obtener solo el registro más reciente
+        Optional<Electricity> registro = electricityRepository.findFirstByUserIdOrderByDateDesc(user.getId());
 
         // Imprimir información detallada para diagnóstico
-        if (!registros.isEmpty()) {
-            Electricity ultimoRegistro = registros.get(0);
+        if (registro.isPresent()) {
+            Electricity ultimoRegistro = registro.get();
             logger.info("Meta ID {}: Último registro de electricidad encontrado - fecha={}, valor={}",
                     meta.getId(), ultimoRegistro.getDate(), ultimoRegistro.getKilowatts());
 
@@ -1,31 +1,31 @@
 package com.lilim.ecotracker.features.metas.service.calculation;
 
 import com.lilim.ecotracker.features.metas.model.Meta;
+import com.lilim.ecotracker.features.metas.service.registry.MetaMetricRegistry;
 import com.lilim.ecotracker.security.model.User;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-
 /**
  * Servicio coordinador que orquesta las llamadas a los servicios de cálculo especializados
  * Actúa como punto de entrada único para todas las operaciones de cálculo de metas
+ * El servicio de cada (tipo, métrica) se resuelve con {@link MetaMetricRegistry}
  */
 @Service
 public class MetaCalculationCoordinator {
 
     private static final Logger logger = LoggerFactory.getLogger(MetaCalculationCoordinator.class);
 
-    private final List<MetaProgressCalculationService> calculationServices;
+    private final MetaMetricRegistry metricRegistry;
     private final TransportMetaCalculationService transportService;
 
     @Autowired
     public MetaCalculationCoordinator(
-            List<MetaProgressCalculationService> calculationServices,
+            MetaMetricRegistry metricRegistry,
             TransportMetaCalculationService transportService) {
-        this.calculationServices = calculationServices;
+        this.metricRegistry = metricRegistry;
         this.transportService = transportService;
     }
 
@@ -39,7 +39,7 @@ public class MetaCalculationCoordinator {
             return;
         }
 
-        MetaProgressCalculationService service = findServiceForType(meta.getTipo());
+        MetaProgressCalculationService service = metricRegistry.get(meta.getTipo(), meta.getMetrica()).getCalculator();
         if (service != null) {
             logger.info("Delegando actualización de progreso de meta ID {} al servicio {}", 
                     meta.getId(), service.getClass().getSimpleName());
@@ -57,7 +57,7 @@ public class MetaCalculationCoordinator {
      * @return Valor inicial calculado
      */
     public Double obtenerValorInicial(User user, String tipo, String metrica) {
-        MetaProgressCalculationService service = findServiceForType(tipo);
+        MetaProgressCalculationService service = metricRegistry.get(tipo, metrica).getCalculator();
         if (service != null) {
             logger.info("Delegando obtención de valor inicial para tipo {} al servicio {}", 
                     tipo, service.getClass().getSimpleName());
@@ -76,7 +76,7 @@ public class MetaCalculationCoordinator {
      * @return Valor actual calculado
      */
     public Double obtenerValorActual(User user, String tipo, String metrica) {
-        MetaProgressCalculationService service = findServiceForType(tipo);
+        MetaProgressCalculationService service = metricRegistry.get(tipo, metrica).getCalculator();
         if (service != null) {
             logger.info("Delegando obtención de valor actual para tipo {} al servicio {}", 
                     tipo, service.getClass().getSimpleName());
@@ -92,15 +92,10 @@ public class MetaCalculationCoordinator {
      * @param tipo Tipo de meta
      * @param metrica Métrica específica
      * @return true si es de reducción, false si es de incremento
+     * @throws com.lilim.ecotracker.features.metas.service.registry.UnknownMetricException si la combinación no existe
      */
     public boolean isReductionMetric(String tipo, String metrica) {
-        MetaProgressCalculationService service = findServiceForType(tipo);
-        if (service != null) {
-            return service.isReductionMetric(metrica);
-        } else {
-            logger.error("No se encontró servicio de cálculo para tipo: {}", tipo);
-            return false; // Valor por defecto
-        }
+        return metricRegistry.get(tipo, metrica).isReduction();
     }
 
     /**
@@ -126,16 +121,4 @@ public class MetaCalculationCoordinator {
     public String determinarMetricaPorDefectoTransporte(String unidad) {
         return transportService.determinarMetricaPorDefecto(unidad);
     }
-
-    /**
-     * Busca el servicio de cálculo apropiado para un tipo de meta
-     * @param tipo Tipo de meta
-     * @return Servicio de cálculo o null si no se encuentra
-     */
-    private MetaProgressCalculationService findServiceForType(String tipo) {
-        return calculationServices.stream()
-                .filter(service -> service.canHandle(tipo))
-                .findFirst()
-                .orElse(null);
-    }
 } 
\ No newline at end of file
@@ -0,0 +1,69 @@
+package com.lilim.ecotracker.features.metas.service.calculation;
+
+import com.lilim.ecotracker.features.metas.repository.MetaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Calcula al arrancar el progreso de las metas que aún no lo tienen persistido
+ * (metas creadas antes de existir la columna), para que los listados proyectados lo incluyan.
+ * Recorre los IDs pendientes por lotes acotados, cada uno en su propia transacción.
+ */
+@Component
+public class MetaProgressBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetaProgressBackfill.class);
+
+    private final MetaRepository metaRepository;
+    private final MetaProgressCalculator progressCalculator;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    @Autowired
+    public MetaProgressBackfill(
+            MetaRepository metaRepository,
+            MetaProgressCalculator progressCalculator,
+            TransactionTemplate transactionTemplate,
+            @Value("${ecotracker.metas.progress-backfill.batch-size:500}") int batchSize) {
+        this.metaRepository = metaRepository;
+        this.progressCalculator = progressCalculator;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int total = 0;
+        long afterId = 0L;
+        List<Long> ids = nextBatch(afterId);
+        while (!ids.isEmpty()) {
+            List<Long> batch = ids;
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        metaRepository.findAllById(batch).forEach(progressCalculator::refresh));
+                total += batch.size();
+            } catch (RuntimeException e) {
+                logger.error("Error calculando el progreso del lote de metas {}..{}: {}",
+                        batch.get(0), batch.get(batch.size() - 1), e.getMessage());
+            }
+            afterId = batch.get(batch.size() - 1);
+            ids = nextBatch(afterId);
+        }
+        if (total > 0) {
+            logger.info("Progreso calculado para {} metas sin progreso persistido", total);
+        }
+    }
+
+    private List<Long> nextBatch(long afterId) {
+        return metaRepository.findIdsWithoutProgresoAfter(afterId, PageRequest.of(0, batchSize));
+    }
+}
@@ -37,11 +37,4 @@ public interface MetaProgressCalculationService {
      * @return true si puede manejar el tipo, false en caso contrario
      */
     boolean canHandle(String tipo);
-
-    /**
-     * Determina si una métrica específica es de reducción (menor es mejor)
-     * @param metrica Métrica a evaluar
-     * @return true si es de reducción, false si es de incremento
-     */
-    boolean isReductionMetric(String metrica);
 } 
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.lilim.ecotracker.features.metas.service.calculation;
+
+import com.lilim.ecotracker.features.metas.model.Meta;
+import com.lilim.ecotracker.features.metas.service.registry.MetaMetricRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Calcula el progreso de una meta hacia su objetivo y si su métrica es de reducción.
+ * <p>
+ * Lo invoca {@link com.lilim.ecotracker.features.metas.model.MetaProgressListener} cada vez que
+ * se inserta o modifica una meta, y el resultado se guarda en la propia meta, de modo que los
+ * listados lo leen directamente sin recalcularlo por fila.
+ * </p>
+ */
+@Component
+public class MetaProgressCalculator {
+
+    private final MetaMetricRegistry metricRegistry;
+
+    @Autowired
+    public MetaProgressCalculator(MetaMetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+    }
+
+    /**
+     * Recalcula y asigna el progreso y el indicador de reducción de la meta
+     * @param meta Meta con sus valores actuales
+     * @throws com.lilim.ecotracker.features.metas.service.registry.UnknownMetricException si su tipo y métrica no están registrados
+     */
+    public void refresh(Meta meta) {
+        boolean esReduccion = metricRegistry.get(meta.getTipo(), meta.getMetrica()).isReduction();
+        meta.setEsReduccion(esReduccion);
+        meta.setProgreso(roundToTwoDecimals(calcularProgreso(meta, esReduccion)));
+    }
+
+    /**
+     * Calcula el progreso de una meta según su tipo
+     * @param meta Entidad Meta
+     * @param esReduccion Si la métrica es de reducción
+     * @return Progreso calculado (0-100)
+     */
+    private double calcularProgreso(Meta meta, boolean esReduccion) {
+        if ("transporte".equals(meta.getTipo())) {
+            return calcularProgresoTransporte(meta);
+        }
+
+        // Para agua y electricidad, sobre los valores redondeados que se muestran
+        Double valorActual = roundToTwoDecimals(meta.getValorActual());
+        Double valorObjetivo = roundToTwoDecimals(meta.getValorObjetivo());
+        Double valorInicial = roundToTwoDecimals(meta.getValorInicial());
+        if (valorActual == null || valorObjetivo == null || valorInicial == null || valorInicial <= 0) {
+            return 0.0;
+        }
+
+        if (esReduccion) {
+            // Para reducción: calcular cuánto se ha reducido
+            double reduccionTotal = valorInicial - valorObjetivo;
+            double reduccionActual = valorInicial - valorActual;
+            if (reduccionTotal > 0) {
+                return Math.min(100, Math.max(0, (reduccionActual / reduccionTotal) * 100));
+            }
+        } else if (valorObjetivo > 0) {
+            // Para incremento
+            return Math.min(100, Math.max(0, (valorActual / valorObjetivo) * 100));
+        }
+        return 0.0;
+    }
+
+    /**
+     * Calcula el progreso específicamente para metas de transporte
+     * Tanto en reducción (cuánto se ha usado del límite permitido, ej: 50 de 250 km en auto = 20%)
+     * como en incremento (cuánto se ha alcanzado del objetivo) el progreso es
+     * (valorActual / valorObjetivo) * 100, limitado a 100% aunque se exceda el objetivo
+     * @param meta Meta de transporte
+     * @return Progreso calculado (0-100)
+     */
+    private double calcularProgresoTransporte(Meta meta) {
+        if (meta.getValorActual() == null || meta.getValorObjetivo() == null || meta.getValorObjetivo() <= 0) {
+            return 0.0;
+        }
+        double porcentaje = (meta.getValorActual() / meta.getValorObjetivo()) * 100;
+        return Math.min(100, Math.max(0, porcentaje));
+    }
+
+    private static Double roundToTwoDecimals(Double value) {
+        return value != null ? Math.round(value * 100.0) / 100.0 : null;
+    }
+}
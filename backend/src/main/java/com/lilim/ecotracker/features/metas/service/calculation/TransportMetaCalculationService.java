@@ -1,7 +1,8 @@
 package com.lilim.ecotracker.features.metas.service.calculation;
 
 import com.lilim.ecotracker.features.metas.model.Meta;
-import com.lilim.ecotracker.features.transport.model.Transport;
+import com.lilim.ecotracker.features.metas.service.registry.MetaMetricRegistry;
+import com.lilim.ecotracker.features.transport.dto.TransportBreakdown;
 import com.lilim.ecotracker.features.transport.repository.TransportRepository;
 import com.lilim.ecotracker.security.model.User;
 import org.slf4j.Logger;
@@ -11,22 +12,27 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.List;
 
 /**
  * Servicio de cálculo específico para metas de transporte
  * Maneja la lógica compleja de actualización de progreso y cálculo de valores para transporte
+ * Todas las métricas se calculan sobre un {@link TransportBreakdown} obtenido con una consulta agrupada
  */
 @Service
 public class TransportMetaCalculationService implements MetaProgressCalculationService {
 
     private static final Logger logger = LoggerFactory.getLogger(TransportMetaCalculationService.class);
 
+    // Inicio de la ventana para las métricas que abarcan todo el historial del usuario
+    private static final LocalDateTime INICIO_HISTORIAL = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     private final TransportRepository transportRepository;
+    private final MetaMetricRegistry metricRegistry;
 
     @Autowired
-    public TransportMetaCalculationService(TransportRepository transportRepository) {
+    public TransportMetaCalculationService(TransportRepository transportRepository, MetaMetricRegistry metricRegistry) {
         this.transportRepository = transportRepository;
+        this.metricRegistry = metricRegistry;
     }
 
     @Override
@@ -61,17 +67,16 @@ public class TransportMetaCalculationService implements MetaProgressCalculationS
                 logger.info("Valor inicial calculado y establecido: {} {}", valorInicial, meta.getUnidad());
             }
 
-            // Obtener registros SOLO desde la creación de la meta
-            List<Transport> registrosDesdeCreacion = transportRepository.findByUserIdAndDateAfter(
-                    user.getId(), fechaCreacionMeta);
+            // Totales SOLO desde la creación de la meta
+            TransportBreakdown desdeCreacion = breakdown(user, fechaCreacionMeta, LocalDateTime.now());
             logger.info("Encontrados {} registros posteriores a la creación de la meta ({})",
-                    registrosDesdeCreacion.size(), fechaCreacionMeta);
+                    desdeCreacion.getTrips(), fechaCreacionMeta);
 
             // Calcular el valor actual como suma de registros posteriores a la creación
-            double valorActual = calcularValorSegunMetrica(registrosDesdeCreacion, metrica);
+            double valorActual = calcularValorSegunMetrica(desdeCreacion, metrica);
             meta.setValorActual(valorActual);
             logger.info("Valor actual actualizado a: {} {} (suma de {} registros)",
-                    valorActual, meta.getUnidad(), registrosDesdeCreacion.size());
+                    valorActual, meta.getUnidad(), desdeCreacion.getTrips());
 
         } catch (Exception e) {
             logger.error("Error al actualizar meta de transporte ID {}: {}", meta.getId(), e.getMessage(), e);
@@ -83,43 +88,26 @@ public class TransportMetaCalculationService implements MetaProgressCalculationS
         try {
             LocalDateTime ahora = LocalDateTime.now();
             LocalDateTime unMesAtras = ahora.minus(1, ChronoUnit.MONTHS);
+            TransportBreakdown ultimoMes = breakdown(user, unMesAtras, ahora);
 
             if ("reduccion_combustion".equals(metrica)) {
-                // Obtener kilómetros recorridos en vehículos de combustión en el último mes
-                Double kmCombustion = transportRepository.sumKilometersByUserIdAndTransportTypeAndDateBetween(
-                        user.getId(), "car", unMesAtras, ahora);
+                // Kilómetros recorridos en vehículos de combustión en el último mes
+                double kmCombustion = ultimoMes.getKilometers(TransportBreakdown.COMBUSTION);
 
-                if (kmCombustion != null && kmCombustion > 0) {
+                if (kmCombustion > 0) {
                     logger.info("Valor inicial (último mes) para reducción combustión: {} km", kmCombustion);
                     return kmCombustion;
                 }
             } else if ("porcentaje_sostenible".equals(metrica)) {
-                // Calcular porcentaje actual de transporte sostenible
-                List<Transport> transportesUltimoMes = transportRepository.findByUserIdAndDateBetween(
-                        user.getId(), unMesAtras, ahora);
-
-                double kmTotales = transportesUltimoMes.stream()
-                        .mapToDouble(Transport::getKilometers)
-                        .sum();
-
-                double kmSostenibles = transportesUltimoMes.stream()
-                        .filter(t -> "bicycle".equals(t.getTransportType()) || "walk".equals(t.getTransportType()))
-                        .mapToDouble(Transport::getKilometers)
-                        .sum();
-
-                if (kmTotales > 0) {
-                    Double porcentaje = (kmSostenibles / kmTotales) * 100;
-                    logger.info("Valor inicial (último mes) para transporte sostenible: {}%", porcentaje);
-                    return porcentaje;
-                } else {
-                    return 0.0;
-                }
+                // Porcentaje actual de transporte sostenible
+                double porcentaje = ultimoMes.getSustainablePercentage();
+                logger.info("Valor inicial (último mes) para transporte sostenible: {}%", porcentaje);
+                return porcentaje;
             } else if ("costo".equals(metrica)) {
-                // Obtener costo total de transporte del último mes
-                Double costoUltimoMes = transportRepository.sumCostByUserIdAndDateBetween(
-                        user.getId(), unMesAtras, ahora);
+                // Costo total de transporte del último mes
+                double costoUltimoMes = ultimoMes.getCost();
 
-                if (costoUltimoMes != null && costoUltimoMes > 0) {
+                if (costoUltimoMes > 0) {
                     logger.info("Valor inicial (último mes) para costo de transporte: {} MXN", costoUltimoMes);
                     return costoUltimoMes;
                 }
@@ -133,17 +121,9 @@ public class TransportMetaCalculationService implements MetaProgressCalculationS
 
     @Override
     public Double obtenerValorActual(User user, String metrica) {
-        // Para métricas de reducción como "reduccion_combustion"
-        List<Transport> consumos = transportRepository.findByUserIdOrderByDateDesc(user.getId());
-        if (!consumos.isEmpty()) {
-            // Filtrar según la métrica específica
-            // Por ejemplo, para reducción de combustión, sumar solo viajes en carro
-            return consumos.stream()
-                    .filter(t -> "car".equals(t.getTransportType()))
-                    .mapToDouble(Transport::getKilometers)
-                    .sum();
-        }
-        return 0.0; // Valor por defecto si no hay datos
+        // Para métricas de reducción como "reduccion_combustion", sumar solo viajes en carro
+        // (0 si no hay datos)
+        return breakdown(user, INICIO_HISTORIAL, LocalDateTime.now()).getKilometers(TransportBreakdown.COMBUSTION);
     }
 
     @Override
@@ -151,71 +131,42 @@ public class TransportMetaCalculationService implements MetaProgressCalculationS
         return "transporte".equals(tipo);
     }
 
-    @Override
-    public boolean isReductionMetric(String metrica) {
-        // Métricas específicas de reducción
-        boolean esReduccion = "reduccion_combustion".equals(metrica) ||
-                "emisiones".equals(metrica) ||
-                "costo".equals(metrica);
-
-        // Métricas específicas de incremento (como uso de bicicleta)
-        boolean esIncremento = "porcentaje_sostenible".equals(metrica) ||
-                "km_bicicleta".equals(metrica) ||
-                "uso_bicicleta".equals(metrica);
-
-        if (esReduccion) return true;
-        if (esIncremento) return false;
-
-        // Si no es una métrica específica, usar heurística
-        return true; // Por defecto asumimos reducción para transporte
+    /**
+     * Determina si una métrica de transporte es de reducción según el registro de métricas
+     */
+    private boolean isReductionMetric(String metrica) {
+        return metricRegistry.get("transporte", metrica).isReduction();
     }
 
     /**
      * Calcula el valor según la métrica especificada
      */
-    public double calcularValorSegunMetrica(List<Transport> registros, String metrica) {
-        if (registros.isEmpty()) {
+    public double calcularValorSegunMetrica(TransportBreakdown totales, String metrica) {
+        if (totales.isEmpty()) {
             return 0.0;
         }
 
         switch (metrica) {
             case "reduccion_combustion":
                 // Kilómetros en vehículos de combustión
-                return registros.stream()
-                        .filter(t -> "car".equals(t.getTransportType()))
-                        .mapToDouble(Transport::getKilometers)
-                        .sum();
+                return totales.getKilometers(TransportBreakdown.COMBUSTION);
 
             case "porcentaje_sostenible":
                 // Porcentaje de transporte sostenible
-                double kmTotales = registros.stream()
-                        .mapToDouble(Transport::getKilometers)
-                        .sum();
-                double kmSostenibles = registros.stream()
-                        .filter(t -> "bicycle".equals(t.getTransportType()) || "walk".equals(t.getTransportType()))
-                        .mapToDouble(Transport::getKilometers)
-                        .sum();
-                return kmTotales > 0 ? (kmSostenibles / kmTotales) * 100 : 0.0;
+                return totales.getSustainablePercentage();
 
             case "km_bicicleta":
             case "uso_bicicleta":
                 // Kilómetros en bicicleta
-                return registros.stream()
-                        .filter(t -> "bicycle".equals(t.getTransportType()))
-                        .mapToDouble(Transport::getKilometers)
-                        .sum();
+                return totales.getKilometers(TransportBreakdown.BICICLETA);
 
             case "costo":
                 // Costo total
-                return registros.stream()
-                        .mapToDouble(Transport::getCost)
-                        .sum();
+                return totales.getCost();
 
             default:
                 // Por defecto, kilómetros totales
-                return registros.stream()
-                        .mapToDouble(Transport::getKilometers)
-                        .sum();
+                return totales.getKilometers();
         }
     }
 
@@ -316,10 +267,9 @@ public class TransportMetaCalculationService implements MetaProgressCalculationS
     private Double calcularValorInicial(User user, LocalDateTime fechaCreacionMeta, String metrica, Double valorObjetivo) {
         // Calcular del último mes antes de crear la meta
         LocalDateTime unMesAtras = fechaCreacionMeta.minus(1, ChronoUnit.MONTHS);
-        List<Transport> transportesUltimoMes = transportRepository.findByUserIdAndDateBetween(
-                user.getId(), unMesAtras, fechaCreacionMeta);
+        TransportBreakdown ultimoMes = breakdown(user, unMesAtras, fechaCreacionMeta);
 
-        Double valorInicial = calcularValorInicialTransporte(transportesUltimoMes, metrica);
+        Double valorInicial = calcularValorInicialTransporte(ultimoMes, metrica);
 
         // Para metas de reducción, asegurar un valor inicial mínimo razonable
         if (isReductionMetric(metrica) && valorInicial < valorObjetivo) {
@@ -339,37 +289,28 @@ public class TransportMetaCalculationService implements MetaProgressCalculationS
     /**
      * Calcula el valor inicial para una meta de transporte basado en registros anteriores
      */
-    private double calcularValorInicialTransporte(List<Transport> registrosAnteriores, String metrica) {
-        if (registrosAnteriores.isEmpty()) {
+    private double calcularValorInicialTransporte(TransportBreakdown anteriores, String metrica) {
+        if (anteriores.isEmpty()) {
             return 0.1; // Valor por defecto si no hay datos previos
         }
 
         if ("reduccion_combustion".equals(metrica)) {
             // Usar kilómetros totales de vehículos de combustión
-            return registrosAnteriores.stream()
-                    .filter(t -> "car".equals(t.getTransportType()))
-                    .mapToDouble(Transport::getKilometers)
-                    .sum();
+            return anteriores.getKilometers(TransportBreakdown.COMBUSTION);
         } else if ("porcentaje_sostenible".equals(metrica)) {
-            double kmTotales = registrosAnteriores.stream()
-                    .mapToDouble(Transport::getKilometers)
-                    .sum();
-
-            double kmSostenibles = registrosAnteriores.stream()
-                    .filter(t -> "bicycle".equals(t.getTransportType()) || "walk".equals(t.getTransportType()))
-                    .mapToDouble(Transport::getKilometers)
-                    .sum();
-
-            return kmTotales > 0 ? (kmSostenibles / kmTotales) * 100 : 0.0;
+            return anteriores.getSustainablePercentage();
         } else if ("costo".equals(metrica)) {
-            return registrosAnteriores.stream()
-                    .mapToDouble(Transport::getCost)
-                    .sum();
+            return anteriores.getCost();
         }
 
         // Valor por defecto
-        return registrosAnteriores.stream()
-                .mapToDouble(Transport::getKilometers)
-                .sum();
+        return anteriores.getKilometers();
+    }
+
+    /**
+     * Totales de transporte del usuario por tipo en la ventana indicada (una sola consulta agrupada)
+     */
+    private TransportBreakdown breakdown(User user, LocalDateTime desde, LocalDateTime hasta) {
+        return TransportBreakdown.of(transportRepository.sumByTransportType(user.getId(), desde, hasta));
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
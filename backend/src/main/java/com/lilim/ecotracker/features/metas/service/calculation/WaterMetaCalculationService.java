@@ -13,7 +13,7 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.List;
+import java.util.Optional;
 
 /**
  * Servicio de cálculo específico para metas de agua
@@ -58,9 +58,9 @@ public class WaterMetaCalculationService implements MetaProgressCalculationServi
             LocalDateTime unMesAtras = ahora.minus(1, ChronoUnit.MONTHS);
 
             // Obtener solo el último registro de agua
-            List<Water> ultimosConsumoAgua = waterRepository.findByUserIdOrderByDateDesc(user.getId());
-            if (!ultimosConsumoAgua.isEmpty()) {
-                Double valorActual = ultimosConsumoAgua.get(0).getLiters();
+            Optional<Water> ultimoConsumoAgua = waterRepository.findFirstByUserIdOrderByDateDesc(user.getId());
+            if (ultimoConsumoAgua.isPresent()) {
+                Double valorActual = ultimoConsumoAgua.get().getLiters();
                 logger.info("Valor inicial para agua (último registro): {} m³", valorActual);
                 return valorActual;
             }
@@ -74,11 +74,9 @@ public class WaterMetaCalculationService implements MetaProgressCalculationServi
     @Override
     public Double obtenerValorActual(User user, String metrica) {
         // Buscar el último registro de consumo de agua
-        List<Water> consumos = waterRepository.findByUserIdOrderByDateDesc(user.getId());
-        if (!consumos.isEmpty()) {
-            return consumos.get(0).getLiters();
-        }
-        return 0.0; // Valor por defecto si no hay datos
+        return waterRepository.findFirstByUserIdOrderByDateDesc(user.getId())
+                .map(Water::getLiters)
+                .orElse(0.0); // Valor por defecto si no hay datos
     }
 
     @Override
@@ -86,23 +84,16 @@ public class WaterMetaCalculationService implements MetaProgressCalculationServi
         return "agua".equals(tipo);
     }
 
-    @Override
-    public boolean isReductionMetric(String metrica) {
-        // La mayoría de métricas de agua son de reducción
-        // Excepto benchmarks que pueden ser "mantener por debajo de"
-        return !"benchmark".equals(metrica);
-    }
-
     /**
      * Actualiza el progreso para métrica de consumo total
      */
     private void updateConsumoTotalProgress(Meta meta, User user) {
         // Obtener el último registro por fecha
-        List<Water> registros = waterRepository.findByUserIdOrderByDateDesc(user.getId());
+        Optional<Water> registro = waterRepository.findFirstByUserIdOrderByDateDesc(user.getId());
 
-        if (!registros.isEmpty()) {
+        if (registro.isPresent()) {
             // Usar el valor del último registro
-            Water ultimoRegistro = registros.get(0);
+            Water ultimoRegistro = registro.get();
             logger.info("Meta ID {}: Último registro de agua - fecha={}, valor={} m³",
                     meta.getId(), ultimoRegistro.getDate(), ultimoRegistro.getLiters());
 
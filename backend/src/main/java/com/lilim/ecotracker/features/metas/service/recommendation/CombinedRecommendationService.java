@@ -17,6 +17,7 @@ import java.util.List;
 /**
  * Servicio especializado para generar recomendaciones de metas combinadas
  * Combina datos de múltiples tipos de consumo para generar recomendaciones integradas
+ * Los análisis y ahorros de cada tipo son independientes y se calculan en paralelo con {@link RecommendationFanOut}
  */
 @Service
 public class CombinedRecommendationService implements MetaRecommendationService {
@@ -27,17 +28,20 @@ public class CombinedRecommendationService implements MetaRecommendationService
     private final WaterRecommendationService waterService;
     private final ElectricityRecommendationService electricityService;
     private final TransportRecommendationService transportService;
+    private final RecommendationFanOut fanOut;
 
     @Autowired
     public CombinedRecommendationService(
             ConsumptionAnalyticsService analyticsService,
             WaterRecommendationService waterService,
             ElectricityRecommendationService electricityService,
-            TransportRecommendationService transportService) {
+            TransportRecommendationService transportService,
+            RecommendationFanOut fanOut) {
         this.analyticsService = analyticsService;
         this.waterService = waterService;
         this.electricityService = electricityService;
         this.transportService = transportService;
+        this.fanOut = fanOut;
     }
 
     @Override
@@ -45,14 +49,33 @@ public class CombinedRecommendationService implements MetaRecommendationService
         List<MetaRecommendationDTO> recommendations = new ArrayList<>();
 
         try {
-            // Obtener datos de análisis de agua y electricidad
-            ConsumptionAnalyticsDTO waterAnalytics = analyticsService.getWaterAnalytics(user);
-            ConsumptionAnalyticsDTO electricityAnalytics = analyticsService.getElectricityAnalytics(user);
+            // Análisis de agua y electricidad y ahorro de cada tipo, en paralelo
+            RecommendationFanOut.Branch<ConsumptionAnalyticsDTO> waterBranch =
+                    fanOut.fork("combinada/analisis_agua", () -> analyticsService.getWaterAnalytics(user), () -> null);
+            RecommendationFanOut.Branch<ConsumptionAnalyticsDTO> electricityBranch =
+                    fanOut.fork("combinada/analisis_electricidad", () -> analyticsService.getElectricityAnalytics(user), () -> null);
+            RecommendationFanOut.Branch<Double> ahorroAguaBranch =
+                    fanOut.fork("combinada/ahorro_agua", () -> waterService.calculatePotentialSavings(user), () -> null);
+            RecommendationFanOut.Branch<Double> ahorroElectricidadBranch =
+                    fanOut.fork("combinada/ahorro_electricidad", () -> electricityService.calculatePotentialSavings(user), () -> null);
+            RecommendationFanOut.Branch<Double> ahorroTransporteBranch =
+                    fanOut.fork("combinada/ahorro_transporte", () -> transportService.calculatePotentialSavings(user), () -> null);
+
+            ConsumptionAnalyticsDTO waterAnalytics = waterBranch.join();
+            ConsumptionAnalyticsDTO electricityAnalytics = electricityBranch.join();
+            Double ahorroAgua = ahorroAguaBranch.join();
+            Double ahorroElectricidad = ahorroElectricidadBranch.join();
+            Double ahorroTransporte = ahorroTransporteBranch.join();
+
+            // Con datos incompletos los objetivos no serían representativos
+            if (waterAnalytics == null || electricityAnalytics == null ||
+                    ahorroAgua == null || ahorroElectricidad == null || ahorroTransporte == null) {
+                logger.warn("Datos incompletos para las recomendaciones combinadas del usuario {}, se usan las predeterminadas",
+                        user.getId());
+                return generateDefaultRecommendations();
+            }
 
             // Calcular ahorro total actual
-            double ahorroAgua = waterService.calculatePotentialSavings(user);
-            double ahorroElectricidad = electricityService.calculatePotentialSavings(user);
-            double ahorroTransporte = transportService.calculatePotentialSavings(user);
             double ahorroTotal = ahorroAgua + ahorroElectricidad + ahorroTransporte;
 
             // Recomendación 1: Incrementar ahorro total
@@ -156,10 +179,16 @@ public class CombinedRecommendationService implements MetaRecommendationService
     @Override
     public double calculatePotentialSavings(User user) {
         try {
-            // Combinar ahorros potenciales de todos los servicios
-            double ahorroAgua = waterService.calculatePotentialSavings(user);
-            double ahorroElectricidad = electricityService.calculatePotentialSavings(user);
-            double ahorroTransporte = transportService.calculatePotentialSavings(user);
+            // Combinar ahorros potenciales de todos los servicios, calculados en paralelo
+            RecommendationFanOut.Branch<Double> ahorroAguaBranch =
+                    fanOut.fork("combinada/ahorro_agua", () -> waterService.calculatePotentialSavings(user), () -> 0.0);
+            RecommendationFanOut.Branch<Double> ahorroElectricidadBranch =
+                    fanOut.fork("combinada/ahorro_electricidad", () -> electricityService.calculatePotentialSavings(user), () -> 0.0);
+            RecommendationFanOut.Branch<Double> ahorroTransporteBranch =
+                    fanOut.fork("combinada/ahorro_transporte", () -> transportService.calculatePotentialSavings(user), () -> 0.0);
+            double ahorroAgua = ahorroAguaBranch.join();
+            double ahorroElectricidad = ahorroElectricidadBranch.join();
+            double ahorroTransporte = ahorroTransporteBranch.join();
 
             // Agregar un bonus del 5% por combinar múltiples estrategias
             double ahorroTotal = ahorroAgua + ahorroElectricidad + ahorroTransporte;
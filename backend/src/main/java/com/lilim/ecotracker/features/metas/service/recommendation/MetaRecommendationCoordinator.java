@@ -1,6 +1,8 @@
 package com.lilim.ecotracker.features.metas.service.recommendation;
 
 import com.lilim.ecotracker.features.metas.dto.MetaRecommendationDTO;
+import com.lilim.ecotracker.features.metas.service.registry.MetaMetricRegistry;
+import com.lilim.ecotracker.features.metas.service.registry.MetricDescriptor;
 import com.lilim.ecotracker.security.model.User;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,23 +11,28 @@ import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Servicio coordinador que orquesta las llamadas a los servicios de recomendaciones especializados
  * Actúa como punto de entrada único para todas las operaciones de generación de recomendaciones de metas
+ * El servicio de cada tipo se resuelve con {@link MetaMetricRegistry}
+ * Las recomendaciones de varios tipos se calculan en paralelo con {@link RecommendationFanOut}
  */
 @Service
 public class MetaRecommendationCoordinator {
 
     private static final Logger logger = LoggerFactory.getLogger(MetaRecommendationCoordinator.class);
 
-    private final List<MetaRecommendationService> recommendationServices;
+    private final MetaMetricRegistry metricRegistry;
+    private final RecommendationFanOut fanOut;
 
     @Autowired
-    public MetaRecommendationCoordinator(List<MetaRecommendationService> recommendationServices) {
-        this.recommendationServices = recommendationServices;
+    public MetaRecommendationCoordinator(MetaMetricRegistry metricRegistry, RecommendationFanOut fanOut) {
+        this.metricRegistry = metricRegistry;
+        this.fanOut = fanOut;
     }
 
     /**
@@ -35,7 +42,7 @@ public class MetaRecommendationCoordinator {
      * @return Mapa con las recomendaciones generadas
      */
     public Map<String, List<MetaRecommendationDTO>> getRecommendationsForTipo(String tipo, User user) {
-        logger.info("Generando recomendaciones para tipo '{}' y usuario '{}'", tipo, user.getUsername());
+        logger.info("Generando recomendaciones para tipo '{}' y usuario {}", tipo, user.getId());
 
         List<MetaRecommendationDTO> recommendations = new ArrayList<>();
 
@@ -79,31 +86,39 @@ public class MetaRecommendationCoordinator {
 
     /**
      * Obtiene recomendaciones combinadas de todos los tipos disponibles
+     * Los tipos se calculan en paralelo; un tipo que falla o vence su plazo usa sus recomendaciones predeterminadas
      * @param user Usuario
      * @return Mapa con recomendaciones de todos los tipos
      */
     public Map<String, Map<String, List<MetaRecommendationDTO>>> getAllRecommendations(User user) {
-        Map<String, Map<String, List<MetaRecommendationDTO>>> allRecommendations = new HashMap<>();
+        Map<String, RecommendationFanOut.Branch<Map<String, List<MetaRecommendationDTO>>>> branches = new LinkedHashMap<>();
+        for (String tipo : List.of("agua", "electricidad", "transporte")) {
+            branches.put(tipo, fanOut.fork(tipo, () -> getRecommendationsForTipo(tipo, user),
+                    () -> defaultRecommendationsResult(tipo)));
+        }
 
-        // Obtener recomendaciones para cada tipo
-        allRecommendations.put("agua", getRecommendationsForTipo("agua", user));
-        allRecommendations.put("electricidad", getRecommendationsForTipo("electricidad", user));
-        allRecommendations.put("transporte", getRecommendationsForTipo("transporte", user));
+        Map<String, Map<String, List<MetaRecommendationDTO>>> allRecommendations = new HashMap<>();
+        // Las metas combinadas reparten su propio cálculo en el pool, por lo que se calculan en este hilo
         allRecommendations.put("combinada", getRecommendationsForTipo("combinada", user));
+        branches.forEach((tipo, branch) -> allRecommendations.put(tipo, branch.join()));
 
         return allRecommendations;
     }
 
+    private Map<String, List<MetaRecommendationDTO>> defaultRecommendationsResult(String tipo) {
+        Map<String, List<MetaRecommendationDTO>> result = new HashMap<>();
+        result.put("recommendations", generateDefaultRecommendationsForType(tipo));
+        return result;
+    }
+
     /**
      * Busca el servicio de recomendaciones apropiado para un tipo de meta
      * @param tipo Tipo de meta
      * @return Servicio de recomendaciones o null si no se encuentra
      */
     private MetaRecommendationService findServiceForType(String tipo) {
-        return recommendationServices.stream()
-                .filter(service -> service.canHandle(tipo))
-                .findFirst()
-                .orElse(null);
+        MetricDescriptor descriptor = metricRegistry.findByTipo(tipo);
+        return descriptor != null ? descriptor.getRecommendationSource() : null;
     }
 
     /**
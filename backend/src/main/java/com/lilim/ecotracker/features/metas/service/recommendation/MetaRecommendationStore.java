@@ -0,0 +1,260 @@
+package com.lilim.ecotracker.features.metas.service.recommendation;
+
+import com.lilim.ecotracker.common.cache.BoundedTtlCache;
+import com.lilim.ecotracker.common.cache.CacheStats;
+import com.lilim.ecotracker.common.event.ConsumptionChangedEvent;
+import com.lilim.ecotracker.common.model.ResourceType;
+import com.lilim.ecotracker.features.metas.dto.MetaRecommendationDTO;
+import com.lilim.ecotracker.features.summary.service.ConsumptionRollupService;
+import com.lilim.ecotracker.security.model.User;
+import com.lilim.ecotracker.security.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Almacén de recomendaciones de metas precalculadas por usuario y tipo.
+ * <p>
+ * Cada entrada guarda las recomendaciones junto con la versión de los datos de consumo con la
+ * que se calcularon ({@link ConsumptionRollupService#getDataVersion}). La lectura solo calcula
+ * en el primer acceso del usuario al tipo; después devuelve siempre la entrada guardada y, si la
+ * versión de los datos cambió o la entrada superó su antigüedad máxima, programa su recálculo en
+ * segundo plano (stale-while-revalidate). Las entradas también se recalculan al confirmarse un
+ * cambio de consumo del usuario y periódicamente, agrupando los cambios de una misma ventana
+ * como {@link com.lilim.ecotracker.features.metas.service.automation.MetaRefreshScheduler}.
+ * </p>
+ *
+ * @author EcoTracker Team
+ * @version 1.0
+ */
+@Component
+public class MetaRecommendationStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetaRecommendationStore.class);
+
+    private static final String COMBINADA = "combinada";
+
+    private final MetaRecommendationCoordinator recommendationCoordinator;
+    private final ConsumptionRollupService rollupService;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration maxAge;
+    private final Duration window;
+    private final BoundedTtlCache<Key, StoredRecommendations> store;
+    private final ScheduledThreadPoolExecutor executor;
+
+    private final Set<Key> pending = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public MetaRecommendationStore(
+            MetaRecommendationCoordinator recommendationCoordinator,
+            ConsumptionRollupService rollupService,
+            UserRepository userRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${ecotracker.metas.recommendations.max-size:10000}") int maxSize,
+            @Value("${ecotracker.metas.recommendations.retention:24h}") Duration retention,
+            @Value("${ecotracker.metas.recommendations.max-age:30m}") Duration maxAge,
+            @Value("${ecotracker.metas.recommendations.window:2s}") Duration window,
+            @Value("${ecotracker.metas.recommendations.threads:2}") int threads) {
+        this.recommendationCoordinator = recommendationCoordinator;
+        this.rollupService = rollupService;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.maxAge = maxAge;
+        this.window = window;
+        this.store = new BoundedTtlCache<>(maxSize, retention);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ScheduledThreadPoolExecutor(threads,
+                runnable -> new Thread(runnable, "meta-recommendations-" + threadNumber.incrementAndGet()));
+    }
+
+    /**
+     * Obtiene las recomendaciones de un usuario para un tipo de meta.
+     * <p>
+     * Si no hay recomendaciones guardadas se calculan en el momento; si las guardadas están
+     * desactualizadas se devuelven igualmente y se programa su recálculo.
+     * </p>
+     *
+     * @param user Usuario para el que se obtienen las recomendaciones
+     * @param tipo Tipo de meta
+     * @return Mapa con las recomendaciones
+     */
+    public Map<String, List<MetaRecommendationDTO>> get(User user, String tipo) {
+        Key key = new Key(user.getId(), tipo);
+        StoredRecommendations stored = store.getIfPresent(key);
+        if (stored == null) {
+            stored = compute(key, user);
+        } else if (stored.dataVersion != dataVersion(key) || stored.isOlderThan(maxAge)) {
+            scheduleRefresh(key, 0);
+        }
+
+        Map<String, List<MetaRecommendationDTO>> result = new HashMap<>();
+        result.put("recommendations", stored.recommendations);
+        return result;
+    }
+
+    /**
+     * Programa el recálculo de las recomendaciones guardadas del usuario para el tipo del
+     * recurso modificado y para las metas combinadas.
+     *
+     * @param event Cambio de consumo confirmado
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onConsumptionChanged(ConsumptionChangedEvent event) {
+        for (String tipo : List.of(event.getResource().getTipoMeta(), COMBINADA)) {
+            Key key = new Key(event.getUserId(), tipo);
+            if (store.getIfPresent(key) != null) {
+                scheduleRefresh(key, window.toMillis());
+            }
+        }
+    }
+
+    /**
+     * Recalcula periódicamente las entradas que superaron su antigüedad máxima
+     */
+    @Scheduled(fixedDelayString = "${ecotracker.metas.recommendations.refresh-interval:5m}",
+            initialDelayString = "${ecotracker.metas.recommendations.refresh-interval:5m}")
+    public void refreshExpired() {
+        int scheduled = 0;
+        for (Key key : store.keys()) {
+            StoredRecommendations stored = store.getIfPresent(key);
+            if (stored != null && stored.isOlderThan(maxAge) && scheduleRefresh(key, 0)) {
+                scheduled++;
+            }
+        }
+        if (scheduled > 0) {
+            logger.debug("Recálculo de {} recomendaciones de metas programado", scheduled);
+        }
+    }
+
+    /**
+     * Número de pares (usuario, tipo) con recálculo pendiente
+     *
+     * @return Recálculos programados que aún no han comenzado
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    public CacheStats stats() {
+        return store.stats();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private boolean scheduleRefresh(Key key, long delayMillis) {
+        if (!pending.add(key)) {
+            return false;
+        }
+        executor.schedule(() -> refresh(key), delayMillis, TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    private void refresh(Key key) {
+        // Se retira antes de recalcular: un cambio confirmado durante el recálculo programa otro
+        pending.remove(key);
+        try {
+            transactionTemplate.executeWithoutResult(status -> userRepository.findById(key.userId)
+                    .ifPresent(user -> compute(key, user)));
+        } catch (RuntimeException e) {
+            logger.error("Error recalculando recomendaciones de tipo '{}' para usuario {}: {}",
+                    key.tipo, key.userId, e.getMessage());
+        }
+    }
+
+    /**
+     * Calcula y guarda las recomendaciones. La versión se lee antes de calcular, de modo que
+     * un cambio confirmado durante el cálculo deja la entrada desactualizada.
+     */
+    private StoredRecommendations compute(Key key, User user) {
+        long version = dataVersion(key);
+        List<MetaRecommendationDTO> recommendations = recommendationCoordinator
+                .getRecommendationsForTipo(key.tipo, user)
+                .get("recommendations");
+        StoredRecommendations stored = new StoredRecommendations(List.copyOf(recommendations), version);
+        store.put(key, stored);
+        logger.debug("Recomendaciones de tipo '{}' calculadas para usuario {} (versión {})",
+                key.tipo, key.userId, version);
+        return stored;
+    }
+
+    private long dataVersion(Key key) {
+        return rollupService.getDataVersion(key.userId, resourcesFor(key.tipo));
+    }
+
+    /**
+     * Recursos de los que dependen las recomendaciones de un tipo de meta
+     */
+    private static Set<ResourceType> resourcesFor(String tipo) {
+        if (COMBINADA.equals(tipo)) {
+            return EnumSet.allOf(ResourceType.class);
+        }
+        for (ResourceType resource : ResourceType.values()) {
+            if (resource.getTipoMeta().equals(tipo)) {
+                return EnumSet.of(resource);
+            }
+        }
+        return EnumSet.noneOf(ResourceType.class);
+    }
+
+    private static final class StoredRecommendations {
+        private final List<MetaRecommendationDTO> recommendations;
+        private final long dataVersion;
+        private final long computedAt = System.nanoTime();
+
+        private StoredRecommendations(List<MetaRecommendationDTO> recommendations, long dataVersion) {
+            this.recommendations = recommendations;
+            this.dataVersion = dataVersion;
+        }
+
+        private boolean isOlderThan(Duration age) {
+            return System.nanoTime() - computedAt > age.toNanos();
+        }
+    }
+
+    private static final class Key {
+        private final Long userId;
+        private final String tipo;
+
+        private Key(Long userId, String tipo) {
+            this.userId = userId;
+            this.tipo = tipo;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return userId.equals(other.userId) && Objects.equals(tipo, other.tipo);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, tipo);
+        }
+    }
+}
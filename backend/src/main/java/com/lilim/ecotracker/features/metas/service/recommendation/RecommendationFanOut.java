@@ -0,0 +1,114 @@
+package com.lilim.ecotracker.features.metas.service.recommendation;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta en paralelo los cálculos independientes de las recomendaciones de metas.
+ * <p>
+ * Cada rama se lanza con {@link #fork} en el pool propio del componente y se recoge con
+ * {@link Branch#join()}. El plazo de cada rama empieza al lanzarla, de modo que la latencia total
+ * de un grupo de ramas es la de la más lenta y nunca supera el plazo configurado. Una rama que
+ * falla o vence devuelve su valor de respaldo. El pool y su cola están acotados: cuando la cola
+ * se llena, la rama se ejecuta en el hilo que la lanza en lugar de acumular trabajo en memoria.
+ * </p>
+ * <p>
+ * Las ramas no deben esperar a otras ramas lanzadas en este mismo pool, para no ocupar sus hilos
+ * esperando trabajo que está detrás en la cola.
+ * </p>
+ *
+ * @author EcoTracker Team
+ * @version 1.0
+ */
+@Component
+public class RecommendationFanOut {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationFanOut.class);
+
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+
+    @Autowired
+    public RecommendationFanOut(
+            @Value("${ecotracker.metas.recommendations.fan-out.threads:8}") int threads,
+            @Value("${ecotracker.metas.recommendations.fan-out.queue-capacity:64}") int queueCapacity,
+            @Value("${ecotracker.metas.recommendations.fan-out.timeout:3s}") Duration timeout) {
+        this.timeout = timeout;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "meta-fan-out-" + threadNumber.incrementAndGet()),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Lanza una rama en el pool
+     *
+     * @param name Nombre de la rama para los registros
+     * @param task Cálculo de la rama
+     * @param fallback Valor si la rama falla o vence su plazo
+     * @return Rama en ejecución
+     */
+    public <T> Branch<T> fork(String name, Supplier<T> task, Supplier<T> fallback) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        return new Branch<>(name, CompletableFuture.supplyAsync(task, executor), fallback, deadline);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Rama lanzada con {@link #fork}
+     */
+    public static final class Branch<T> {
+        private final String name;
+        private final CompletableFuture<T> future;
+        private final Supplier<T> fallback;
+        private final long deadline;
+
+        private Branch(String name, CompletableFuture<T> future, Supplier<T> fallback, long deadline) {
+            this.name = name;
+            this.future = future;
+            this.fallback = fallback;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Espera el resultado de la rama hasta su plazo
+         *
+         * @return Resultado de la rama, o el valor de respaldo si falló o venció
+         */
+        public T join() {
+            try {
+                return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                logger.warn("Rama '{}' de recomendaciones sin respuesta en el plazo, se usa el valor de respaldo", name);
+            } catch (ExecutionException e) {
+                logger.error("Error en la rama '{}' de recomendaciones: {}", name, e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                logger.warn("Espera de la rama '{}' de recomendaciones interrumpida", name);
+            }
+            return fallback.get();
+        }
+    }
+}
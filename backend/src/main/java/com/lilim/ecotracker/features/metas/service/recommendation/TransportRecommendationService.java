@@ -1,7 +1,7 @@
 package com.lilim.ecotracker.features.metas.service.recommendation;
 
 import com.lilim.ecotracker.features.metas.dto.MetaRecommendationDTO;
-import com.lilim.ecotracker.features.transport.model.Transport;
+import com.lilim.ecotracker.features.transport.dto.TransportBreakdown;
 import com.lilim.ecotracker.features.transport.repository.TransportRepository;
 import com.lilim.ecotracker.security.model.User;
 import org.slf4j.Logger;
@@ -36,16 +36,11 @@ public class TransportRecommendationService implements MetaRecommendationService
 
         try {
             // Obtener datos de transporte de los últimos 3 meses
-            LocalDateTime startDate = LocalDateTime.now().minus(3, ChronoUnit.MONTHS);
-            List<Transport> transportes = transportRepository.findByUserIdAndDateBetween(
-                    user.getId(), startDate, LocalDateTime.now());
+            TransportBreakdown transportes = lastThreeMonths(user);
 
             if (!transportes.isEmpty()) {
                 // Calcular kilómetros actuales en auto
-                double kilometrosAuto = transportes.stream()
-                        .filter(t -> "car".equals(t.getTransportType()))
-                        .mapToDouble(Transport::getKilometers)
-                        .sum();
+                double kilometrosAuto = transportes.getKilometers(TransportBreakdown.COMBUSTION);
 
                 if (kilometrosAuto > 0) {
                     // Recomendación 1: Reducir 10%
@@ -77,17 +72,8 @@ public class TransportRecommendationService implements MetaRecommendationService
                 }
 
                 // Agregar recomendaciones de transporte sostenible
-                double kmTotales = transportes.stream()
-                        .mapToDouble(Transport::getKilometers)
-                        .sum();
-
-                if (kmTotales > 0) {
-                    double kmSostenibles = transportes.stream()
-                            .filter(t -> "bicycle".equals(t.getTransportType()) || "walk".equals(t.getTransportType()))
-                            .mapToDouble(Transport::getKilometers)
-                            .sum();
-
-                    double porcentajeActual = (kmSostenibles / kmTotales) * 100;
+                if (transportes.getKilometers() > 0) {
+                    double porcentajeActual = transportes.getSustainablePercentage();
 
                     // Recomendación para incrementar transporte sostenible
                     //double objetivoPorcentaje = Math.min(100, porcentajeActual + 20); // Incrementar 20%
@@ -155,28 +141,18 @@ public class TransportRecommendationService implements MetaRecommendationService
     public double calculatePotentialSavings(User user) {
         try {
             // Obtener datos de los últimos 3 meses
-            LocalDateTime startDate = LocalDateTime.now().minus(3, ChronoUnit.MONTHS);
-            List<Transport> transportes = transportRepository.findByUserIdAndDateBetween(
-                    user.getId(), startDate, LocalDateTime.now());
+            TransportBreakdown transportes = lastThreeMonths(user);
 
             if (!transportes.isEmpty()) {
                 // Calcular ahorro potencial del uso de transporte sostenible
-                double kmSostenible = transportes.stream()
-                        .filter(t -> "bicycle".equals(t.getTransportType()) || "walk".equals(t.getTransportType()))
-                        .mapToDouble(Transport::getKilometers)
-                        .sum();
+                double kmSostenible = transportes.getSustainableKilometers();
 
                 // Calcular el costo promedio por kilómetro basado en datos históricos
-                double costoPorKm = transportes.stream()
-                        .filter(t -> t.getCost() > 0 && t.getKilometers() > 0)
-                        .mapToDouble(t -> t.getCost() / t.getKilometers())
-                        .average()
-                        .orElse(0.1); // Usar un valor mínimo si no hay datos históricos
+                // (valor mínimo si no hay datos históricos)
+                double costoPorKm = transportes.getAverageCostPerKm(0.1);
 
                 // Estimar ahorro adicional por incrementar 20% el transporte sostenible
-                double kmTotales = transportes.stream()
-                        .mapToDouble(Transport::getKilometers)
-                        .sum();
+                double kmTotales = transportes.getKilometers();
 
                 double ahorroAdicional = (kmTotales * 0.2) * costoPorKm; // 20% más de uso sostenible
 
@@ -188,4 +164,13 @@ public class TransportRecommendationService implements MetaRecommendationService
 
         return 0.0;
     }
-} 
\ No newline at end of file
+
+    /**
+     * Totales de transporte del usuario por tipo en los últimos 3 meses (una sola consulta agrupada)
+     */
+    private TransportBreakdown lastThreeMonths(User user) {
+        LocalDateTime ahora = LocalDateTime.now();
+        return TransportBreakdown.of(transportRepository.sumByTransportType(
+                user.getId(), ahora.minus(3, ChronoUnit.MONTHS), ahora));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,166 @@
+package com.lilim.ecotracker.features.metas.service.registry;
+
+import com.lilim.ecotracker.features.metas.service.automation.MetaAutomationService;
+import com.lilim.ecotracker.features.metas.service.calculation.MetaProgressCalculationService;
+import com.lilim.ecotracker.features.metas.service.recommendation.MetaRecommendationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+import static com.lilim.ecotracker.features.metas.service.registry.MetricDirection.INCREMENTO;
+import static com.lilim.ecotracker.features.metas.service.registry.MetricDirection.REDUCCION;
+
+/**
+ * Registro de las métricas de metas admitidas.
+ * <p>
+ * Asocia cada combinación (tipo, métrica) a un {@link MetricDescriptor} inmutable con su dirección,
+ * unidad y servicios de cálculo, evaluación de estado y recomendaciones. El catálogo es fijo y los
+ * servicios se enlazan una sola vez al terminar de crear los singletons, de modo que cada consulta
+ * es una búsqueda en un mapa en lugar de comparar cadenas o recorrer las listas de servicios.
+ * Las combinaciones desconocidas lanzan {@link UnknownMetricException}.
+ * </p>
+ * <p>
+ * Los servicios se obtienen mediante {@link ObjectProvider} para que los coordinadores y los propios
+ * servicios puedan depender del registro sin crear dependencias circulares.
+ * </p>
+ */
+@Component
+public class MetaMetricRegistry implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetaMetricRegistry.class);
+
+    /**
+     * Catálogo de métricas por tipo; la primera métrica de cada tipo es la que se usa cuando la meta no define una
+     */
+    private static final List<MetricDescriptor> CATALOGO = List.of(
+            metrica("agua", "consumo_total", REDUCCION, "m3"),
+            metrica("agua", "promedio_movil", REDUCCION, "m3"),
+            metrica("agua", "costo_unitario", REDUCCION, "costo"),
+            metrica("agua", "emisiones", REDUCCION, "co2"),
+            metrica("agua", "benchmark", INCREMENTO, "porcentaje"),
+
+            metrica("electricidad", "consumo_total", REDUCCION, "kwh"),
+            metrica("electricidad", "promedio_movil", REDUCCION, "kwh"),
+            metrica("electricidad", "costo_unitario", REDUCCION, "costo"),
+            metrica("electricidad", "emisiones", REDUCCION, "co2"),
+            metrica("electricidad", "benchmark", INCREMENTO, "porcentaje"),
+
+            metrica("transporte", "reduccion_combustion", REDUCCION, "km"),
+            metrica("transporte", "emisiones", REDUCCION, "co2"),
+            metrica("transporte", "eficiencia", REDUCCION, "co2"),
+            metrica("transporte", "costo", REDUCCION, "costo"),
+            metrica("transporte", "porcentaje_sostenible", INCREMENTO, "porcentaje"),
+            metrica("transporte", "km_bicicleta", INCREMENTO, "km"),
+            metrica("transporte", "uso_bicicleta", INCREMENTO, "km"),
+
+            metrica("combinada", "huella_carbono", REDUCCION, "co2"),
+            metrica("combinada", "sostenibilidad", INCREMENTO, "porcentaje"),
+            metrica("combinada", "ahorro_total", INCREMENTO, "costo"),
+            metrica("combinada", "reduccion_total", INCREMENTO, "porcentaje"),
+
+            metrica("otro", "personalizada", INCREMENTO, "unidad")
+    );
+
+    private final ObjectProvider<MetaProgressCalculationService> calculationServices;
+    private final ObjectProvider<MetaAutomationService> automationServices;
+    private final ObjectProvider<MetaRecommendationService> recommendationServices;
+
+    // Clave "tipo/metrica" -> descriptor, y tipo -> descriptor de su métrica por defecto
+    private volatile Map<String, MetricDescriptor> descriptores;
+    private volatile Map<String, MetricDescriptor> porTipo;
+
+    @Autowired
+    public MetaMetricRegistry(
+            ObjectProvider<MetaProgressCalculationService> calculationServices,
+            ObjectProvider<MetaAutomationService> automationServices,
+            ObjectProvider<MetaRecommendationService> recommendationServices) {
+        this.calculationServices = calculationServices;
+        this.automationServices = automationServices;
+        this.recommendationServices = recommendationServices;
+        // Hasta enlazar los servicios, la dirección y la unidad ya están disponibles
+        index(CATALOGO);
+    }
+
+    /**
+     * Enlaza cada métrica del catálogo con los servicios que manejan su tipo
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<MetaProgressCalculationService> calculators = calculationServices.orderedStream().toList();
+        List<MetaAutomationService> evaluators = automationServices.orderedStream().toList();
+        List<MetaRecommendationService> sources = recommendationServices.orderedStream().toList();
+
+        List<MetricDescriptor> enlazados = CATALOGO.stream()
+                .map(descriptor -> descriptor.bind(
+                        findFor(calculators, MetaProgressCalculationService::canHandle, descriptor.getTipo()),
+                        findFor(evaluators, MetaAutomationService::canHandle, descriptor.getTipo()),
+                        findFor(sources, MetaRecommendationService::canHandle, descriptor.getTipo())))
+                .toList();
+        index(enlazados);
+
+        logger.info("Registro de métricas de metas inicializado: {} métricas en {} tipos",
+                descriptores.size(), porTipo.size());
+    }
+
+    /**
+     * Obtiene el descriptor de una combinación (tipo, métrica)
+     * @param tipo Tipo de meta
+     * @param metrica Métrica; si es nula o vacía se usa la métrica por defecto del tipo
+     * @return Descriptor registrado
+     * @throws UnknownMetricException si la combinación no está registrada
+     */
+    public MetricDescriptor get(String tipo, String metrica) {
+        if (tipo == null) {
+            throw new UnknownMetricException(null, metrica);
+        }
+        MetricDescriptor descriptor = metrica == null || metrica.isEmpty()
+                ? porTipo.get(tipo)
+                : descriptores.get(tipo + "/" + metrica);
+        if (descriptor == null) {
+            throw new UnknownMetricException(tipo, metrica);
+        }
+        return descriptor;
+    }
+
+    /**
+     * Obtiene el descriptor de la métrica por defecto de un tipo, para las operaciones que
+     * dependen solo del tipo (recomendaciones, actualización por tipo)
+     * @param tipo Tipo de meta
+     * @return Descriptor o null si el tipo no está registrado
+     */
+    public MetricDescriptor findByTipo(String tipo) {
+        return tipo != null ? porTipo.get(tipo) : null;
+    }
+
+    private void index(List<MetricDescriptor> catalogo) {
+        Map<String, MetricDescriptor> porClave = new HashMap<>();
+        Map<String, MetricDescriptor> porDefecto = new HashMap<>();
+        for (MetricDescriptor descriptor : catalogo) {
+            porClave.put(descriptor.getTipo() + "/" + descriptor.getMetrica(), descriptor);
+            porDefecto.putIfAbsent(descriptor.getTipo(), descriptor);
+        }
+        this.descriptores = Map.copyOf(porClave);
+        this.porTipo = Map.copyOf(porDefecto);
+    }
+
+    private static <T> T findFor(List<T> services, BiPredicate<T, String> canHandle, String tipo) {
+        for (T service : services) {
+            if (canHandle.test(service, tipo)) {
+                return service;
+            }
+        }
+        return null;
+    }
+
+    private static MetricDescriptor metrica(String tipo, String metrica, MetricDirection direction, String unidad) {
+        return new MetricDescriptor(tipo, metrica, direction, unidad, null, null, null);
+    }
+}
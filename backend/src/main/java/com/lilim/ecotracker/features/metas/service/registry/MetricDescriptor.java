@@ -0,0 +1,47 @@
+package com.lilim.ecotracker.features.metas.service.registry;
+
+import com.lilim.ecotracker.features.metas.service.automation.MetaAutomationService;
+import com.lilim.ecotracker.features.metas.service.calculation.MetaProgressCalculationService;
+import com.lilim.ecotracker.features.metas.service.recommendation.MetaRecommendationService;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Descripción inmutable de una combinación (tipo, métrica) de meta.
+ * <p>
+ * Reúne en un solo objeto todo lo que antes se decidía comparando cadenas o recorriendo
+ * las listas de servicios: la dirección de la métrica, su unidad por defecto y los servicios
+ * que calculan su valor, evalúan su estado y generan sus recomendaciones. Los servicios son
+ * {@code null} cuando el tipo no tiene uno (p. ej. las metas combinadas no tienen servicio de
+ * cálculo y las de tipo "otro" son manuales).
+ * </p>
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public final class MetricDescriptor {
+
+    private final String tipo;
+    private final String metrica;
+    private final MetricDirection direction;
+    private final String unidad;
+    private final MetaProgressCalculationService calculator;
+    private final MetaAutomationService stateEvaluator;
+    private final MetaRecommendationService recommendationSource;
+
+    /**
+     * @return true si la métrica es de reducción (menor es mejor)
+     */
+    public boolean isReduction() {
+        return direction.isReduction();
+    }
+
+    /**
+     * Crea una copia del descriptor enlazada a los servicios del tipo
+     */
+    MetricDescriptor bind(MetaProgressCalculationService calculator,
+                          MetaAutomationService stateEvaluator,
+                          MetaRecommendationService recommendationSource) {
+        return new MetricDescriptor(tipo, metrica, direction, unidad, calculator, stateEvaluator, recommendationSource);
+    }
+}
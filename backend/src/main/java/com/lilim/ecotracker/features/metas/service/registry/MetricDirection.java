@@ -0,0 +1,17 @@
+package com.lilim.ecotracker.features.metas.service.registry;
+
+/**
+ * Sentido en el que una métrica de meta se considera mejor
+ */
+public enum MetricDirection {
+
+    /** Menor es mejor: consumo, emisiones, costo */
+    REDUCCION,
+
+    /** Mayor es mejor: uso de bicicleta, ahorro, índices de sostenibilidad */
+    INCREMENTO;
+
+    public boolean isReduction() {
+        return this == REDUCCION;
+    }
+}
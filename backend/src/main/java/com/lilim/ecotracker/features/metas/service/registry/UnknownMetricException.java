@@ -0,0 +1,11 @@
+package com.lilim.ecotracker.features.metas.service.registry;
+
+/**
+ * Se lanza cuando una combinación (tipo, métrica) no está registrada en {@link MetaMetricRegistry}
+ */
+public class UnknownMetricException extends IllegalArgumentException {
+
+    public UnknownMetricException(String tipo, String metrica) {
+        super("Métrica '" + metrica + "' no válida para metas de tipo '" + tipo + "'");
+    }
+}
@@ -1,11 +1,17 @@
 package com.lilim.ecotracker.features.summary.controller;
 
+import com.lilim.ecotracker.common.cache.CacheStats;
 import com.lilim.ecotracker.features.summary.dto.ConsumptionAnalyticsDTO;
+import com.lilim.ecotracker.features.summary.service.AnalyticsCache;
 import com.lilim.ecotracker.features.summary.service.ConsumptionAnalyticsService;
+import com.lilim.ecotracker.features.summary.service.ConsumptionRollupService;
+import com.lilim.ecotracker.security.dto.MessageResponse;
 import com.lilim.ecotracker.security.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -18,13 +24,19 @@ import org.springframework.web.bind.annotation.RestController;
 public class ConsumptionAnalyticsController {
 
     private final ConsumptionAnalyticsService analyticsService;
+    private final ConsumptionRollupService rollupService;
+    private final AnalyticsCache analyticsCache;
     private final UserService userService;
 
     @Autowired
     public ConsumptionAnalyticsController(
             ConsumptionAnalyticsService analyticsService,
+            ConsumptionRollupService rollupService,
+            AnalyticsCache analyticsCache,
             UserService userService) {
         this.analyticsService = analyticsService;
+        this.rollupService = rollupService;
+        this.analyticsCache = analyticsCache;
         this.userService = userService;
     }
 
@@ -34,7 +46,7 @@ public class ConsumptionAnalyticsController {
      */
     @GetMapping("/water")
     public ResponseEntity<ConsumptionAnalyticsDTO> getWaterAnalytics() {
-        ConsumptionAnalyticsDTO analytics = analyticsService.getWaterAnalytics(userService.getCurrentUser());
+        ConsumptionAnalyticsDTO analytics = analyticsService.getWaterAnalytics(userService.getCurrentUserReference());
         return ResponseEntity.ok(analytics);
     }
 
@@ -44,7 +56,7 @@ public class ConsumptionAnalyticsController {
      */
     @GetMapping("/electricity")
     public ResponseEntity<ConsumptionAnalyticsDTO> getElectricityAnalytics() {
-        ConsumptionAnalyticsDTO analytics = analyticsService.getElectricityAnalytics(userService.getCurrentUser());
+        ConsumptionAnalyticsDTO analytics = analyticsService.getElectricityAnalytics(userService.getCurrentUserReference());
         return ResponseEntity.ok(analytics);
     }
 
@@ -54,7 +66,28 @@ public class ConsumptionAnalyticsController {
      */
     @GetMapping("/transport")
     public ResponseEntity<ConsumptionAnalyticsDTO> getTransportAnalytics() {
-        ConsumptionAnalyticsDTO analytics = analyticsService.getTransportAnalytics(userService.getCurrentUser());
+        ConsumptionAnalyticsDTO analytics = analyticsService.getTransportAnalytics(userService.getCurrentUserReference());
         return ResponseEntity.ok(analytics);
     }
+
+    /**
+     * Rebuild the precomputed bimonthly totals of every user from the consumption tables
+     * @return Number of users processed
+     */
+    @PostMapping("/rollups/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MessageResponse> rebuildRollups() {
+        int users = rollupService.rebuildAll();
+        return ResponseEntity.ok(new MessageResponse("Totales reconstruidos para " + users + " usuarios"));
+    }
+
+    /**
+     * Get hit, miss and eviction counters of the analytics cache
+     * @return Analytics cache statistics
+     */
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CacheStats> getCacheStats() {
+        return ResponseEntity.ok(analyticsCache.stats());
+    }
 }
\ No newline at end of file
@@ -1,88 +1,74 @@
 package com.lilim.ecotracker.features.summary.controller;
 
-import com.lilim.ecotracker.features.electricity.repository.ElectricityRepository;
+import com.lilim.ecotracker.common.model.ResourceType;
 import com.lilim.ecotracker.features.summary.dto.ConsumptionSummaryDTO;
-import com.lilim.ecotracker.features.transport.repository.TransportRepository;
-import com.lilim.ecotracker.features.water.repository.WaterRepository;
+import com.lilim.ecotracker.features.summary.service.ConsumptionSummaryService;
 import com.lilim.ecotracker.security.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.ArrayList;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
+/**
+ * Controlador del resumen de consumo por recurso usado en las gráficas del dashboard.
+ */
 @RestController
 @RequestMapping("/api/summary")
 public class SummaryController {
 
-    private final ElectricityRepository electricityRepository;
-    private final WaterRepository waterRepository;
-    private final TransportRepository transportRepository;
+    private final ConsumptionSummaryService summaryService;
     private final UserService userService;
 
     @Autowired
     public SummaryController(
-            ElectricityRepository electricityRepository,
-            WaterRepository waterRepository,
-            TransportRepository transportRepository,
+            ConsumptionSummaryService summaryService,
             UserService userService) {
-        this.electricityRepository = electricityRepository;
-        this.waterRepository = waterRepository;
-        this.transportRepository = transportRepository;
+        this.summaryService = summaryService;
         this.userService = userService;
     }
 
+    /**
+     * Obtiene el total consumido de cada recurso y su porcentaje.
+     *
+     * @param desde Fecha inicial del rango (inclusive), opcional
+     * @param hasta Fecha final del rango (inclusive), opcional
+     * @param tipo Recursos a incluir ("agua", "electricidad", "transporte"); todos si se omite
+     * @return Lista con el resumen por recurso
+     */
     @GetMapping
-    public ResponseEntity<List<ConsumptionSummaryDTO>> getSummary() {
-        Long userId = userService.getCurrentUser().getId();
+    public ResponseEntity<List<ConsumptionSummaryDTO>> getSummary(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) List<String> tipo) {
+        Long userId = userService.getCurrentUserId();
 
-        // Calcular la suma de cada tipo de consumo para el usuario actual
-        double electricityTotal = electricityRepository.findByUserId(userId).stream()
-                .mapToDouble(e -> e.getKilowatts())
-                .sum();
-
-        double waterTotal = waterRepository.findByUserId(userId).stream()
-                .mapToDouble(w -> w.getLiters())
-                .sum();
-
-        double transportTotal = transportRepository.findByUserId(userId).stream()
-                .mapToDouble(t -> t.getKilometers())
-                .sum();
-
-        // Calcular el total general
-        double total = electricityTotal + waterTotal + transportTotal;
-
-        List<ConsumptionSummaryDTO> summary = new ArrayList<>();
-
-        // Si no hay datos, devolver datos de ejemplo
-        if (total == 0) {
-            summary.add(new ConsumptionSummaryDTO("Elemento 1", 100, 20));
-            summary.add(new ConsumptionSummaryDTO("Elemento 2", 100, 20));
-            summary.add(new ConsumptionSummaryDTO("Elemento 3", 100, 20));
-            summary.add(new ConsumptionSummaryDTO("Elemento 4", 100, 20));
-            summary.add(new ConsumptionSummaryDTO("Elemento 5", 100, 20));
-        } else {
-            // Añadir datos reales
-            if (electricityTotal > 0) {
-                int percentage = (int) Math.round((electricityTotal / total) * 100);
-                summary.add(new ConsumptionSummaryDTO("Electricidad", electricityTotal, percentage));
-            }
-
-            if (waterTotal > 0) {
-                int percentage = (int) Math.round((waterTotal / total) * 100);
-                summary.add(new ConsumptionSummaryDTO("Agua", waterTotal, percentage));
-            }
-
-            if (transportTotal > 0) {
-                int percentage = (int) Math.round((transportTotal / total) * 100);
-                summary.add(new ConsumptionSummaryDTO("Transporte", transportTotal, percentage));
+        Set<ResourceType> resources = EnumSet.allOf(ResourceType.class);
+        if (tipo != null && !tipo.isEmpty()) {
+            resources = EnumSet.noneOf(ResourceType.class);
+            try {
+                for (String t : tipo) {
+                    resources.add(ResourceType.fromTipoMeta(t));
+                }
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
             }
         }
 
+        List<ConsumptionSummaryDTO> summary = summaryService.getSummary(userId,
+                desde != null ? desde.atStartOfDay() : null,
+                hasta != null ? hasta.atTime(LocalTime.MAX) : null,
+                resources);
+
         return new ResponseEntity<>(summary, HttpStatus.OK);
     }
-}
\ No newline at end of file
+}
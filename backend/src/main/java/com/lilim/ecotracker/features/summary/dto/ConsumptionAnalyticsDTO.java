@@ -53,6 +53,11 @@ public class ConsumptionAnalyticsDTO {
      */
     private List<ConsumptionDataPointDTO> historicalData;
 
+    /**
+     * Breakdown per transport type (transport analytics only, null for other resources)
+     */
+    private List<TransportTypeAnalyticsDTO> transportTypes;
+
     /**
      * DTO for bimonthly consumption metrics
      */
@@ -167,4 +172,22 @@ public class ConsumptionAnalyticsDTO {
         private double cost;
         private double co2Emissions;
     }
+
+    /**
+     * DTO for the analytics of a single transport type
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TransportTypeAnalyticsDTO {
+        private String transportType;
+        private double co2Factor; // kg CO2 per km
+        private double currentKilometers;
+        private double currentCost;
+        private double currentCo2Emissions;
+        private double kilometerShare; // Percentage of the current period kilometers
+        private double percentChange;
+        private List<ConsumptionDataPointDTO> historicalData;
+    }
 }
\ No newline at end of file
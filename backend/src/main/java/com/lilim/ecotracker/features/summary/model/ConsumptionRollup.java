@@ -0,0 +1,80 @@
+package com.lilim.ecotracker.features.summary.model;
+
+import com.lilim.ecotracker.common.model.ResourceType;
+import com.lilim.ecotracker.security.model.User;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Totales precalculados de consumo de un usuario por recurso y período bimestral.
+ * <p>
+ * Se actualiza en la misma transacción que cada registro de consumo, de modo que el análisis
+ * y el resumen leen un número de filas proporcional a los períodos y no a los registros.
+ * El período usa la clave {@code año * 6 + mes / 2}.
+ * </p>
+ */
+@Entity
+@Table(name = "consumption_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_rollup_user_resource_period",
+                columnNames = {"user_id", "resource", "period"}))
+@Getter
+@Setter
+@NoArgsConstructor
+public class ConsumptionRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ResourceType resource;
+
+    @Column(nullable = false)
+    private Integer period;
+
+    /**
+     * Suma de la cantidad consumida (litros, kilowatts o kilómetros)
+     */
+    @Column(nullable = false)
+    private Double total;
+
+    @Column(nullable = false)
+    private Double cost;
+
+    @Column(nullable = false)
+    private Long records;
+
+    /**
+     * Fecha del primer registro del período
+     */
+    @Column(nullable = false)
+    private LocalDateTime firstDate;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    /**
+     * Número de cambios acumulados en el período; su suma por usuario y recurso es la versión
+     * de los datos con la que se comparan los resultados precalculados a partir de ellos
+     */
+    @Column(nullable = false)
+    private Long revision;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+        if (revision == null) {
+            revision = 1L;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.lilim.ecotracker.features.summary.repository;
+
+import com.lilim.ecotracker.common.model.ResourceType;
+import com.lilim.ecotracker.common.projection.BimonthlyTotal;
+import com.lilim.ecotracker.common.projection.ResourceTotal;
+import com.lilim.ecotracker.features.summary.model.ConsumptionRollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositorio para los totales bimestrales precalculados de consumo.
+ */
+@Repository
+public interface ConsumptionRollupRepository extends JpaRepository<ConsumptionRollup, Long> {
+
+    /**
+     * Obtiene los totales bimestrales de un recurso en orden cronológico.
+     *
+     * @param userId   ID del usuario
+     * @param resource Recurso de consumo
+     * @return Un total por período bimestral
+     */
+    @Query("SELECT r.user.id AS userId, r.period AS period, r.total AS total, r.cost AS cost, " +
+            "r.records AS records, r.firstDate AS firstDate " +
+            "FROM ConsumptionRollup r WHERE r.user.id = :userId AND r.resource = :resource ORDER BY r.period")
+    List<BimonthlyTotal> findBimonthlyTotals(@Param("userId") Long userId, @Param("resource") ResourceType resource);
+
+    /**
+     * Suma la cantidad consumida de cada recurso de un usuario.
+     *
+     * @param userId ID del usuario
+     * @return Un total por recurso con registros
+     */
+    @Query("SELECT r.resource AS resource, SUM(r.total) AS total " +
+            "FROM ConsumptionRollup r WHERE r.user.id = :userId GROUP BY r.resource")
+    List<ResourceTotal> sumTotalsByUserId(@Param("userId") Long userId);
+
+    /**
+     * Suma la cantidad consumida de cada recurso en un rango de fechas.
+     * <p>
+     * Los totales bimestrales no permiten rangos arbitrarios, por lo que esta consulta agrega
+     * directamente las tablas de consumo en una sola sentencia, sin cargar entidades.
+     * </p>
+     *
+     * @param userId ID del usuario
+     * @param from   Fecha inicial (inclusive)
+     * @param to     Fecha final (inclusive)
+     * @return Un total por recurso; la suma es nula si el recurso no tiene registros en el rango
+     */
+    @Query("SELECT 'WATER' AS resource, SUM(w.liters) AS total FROM Water w " +
+            "WHERE w.user.id = :userId AND w.date BETWEEN :from AND :to " +
+            "UNION ALL " +
+            "SELECT 'ELECTRICITY' AS resource, SUM(e.kilowatts) AS total FROM Electricity e " +
+            "WHERE e.user.id = :userId AND e.date BETWEEN :from AND :to " +
+            "UNION ALL " +
+            "SELECT 'TRANSPORT' AS resource, SUM(t.kilometers) AS total FROM Transport t " +
+            "WHERE t.user.id = :userId AND t.date BETWEEN :from AND :to")
+    List<ResourceTotal> sumTotalsByUserIdAndDateBetween(@Param("userId") Long userId,
+                                                        @Param("from") LocalDateTime from,
+                                                        @Param("to") LocalDateTime to);
+
+    /**
+     * Acumula un registro en el período existente de un usuario y recurso.
+     *
+     * @param userId   ID del usuario
+     * @param resource Recurso de consumo
+     * @param period   Clave del período bimestral
+     * @param amount   Cantidad consumida
+     * @param cost     Costo del registro
+     * @param records  Número de registros acumulados
+     * @param date     Fecha del registro
+     * @param now      Fecha de actualización
+     * @return Número de períodos actualizados (0 si el período aún no existe)
+     */
+    @Modifying
+    @Query("UPDATE ConsumptionRollup r SET r.total = r.total + :amount, r.cost = r.cost + :cost, " +
+            "r.records = r.records + :records, r.revision = r.revision + 1, " +
+            "r.firstDate = CASE WHEN :date < r.firstDate THEN :date ELSE r.firstDate END, r.updatedAt = :now " +
+            "WHERE r.user.id = :userId AND r.resource = :resource AND r.period = :period")
+    int addToPeriod(@Param("userId") Long userId, @Param("resource") ResourceType resource,
+                    @Param("period") Integer period, @Param("amount") Double amount, @Param("cost") Double cost,
+                    @Param("records") Long records, @Param("date") LocalDateTime date, @Param("now") LocalDateTime now);
+
+    /**
+     * Obtiene la versión de los datos de consumo de un usuario en varios recursos.
+     * <p>
+     * Cada registro acumulado incrementa la revisión de su período (o crea el período con
+     * revisión 1), de modo que la suma crece con cada cambio de consumo.
+     * </p>
+     *
+     * @param userId    ID del usuario
+     * @param resources Recursos incluidos
+     * @return Suma de las revisiones; 0 si el usuario no tiene totales de esos recursos
+     */
+    @Query("SELECT COALESCE(SUM(r.revision), 0) FROM ConsumptionRollup r " +
+            "WHERE r.user.id = :userId AND r.resource IN :resources")
+    long sumRevisions(@Param("userId") Long userId, @Param("resources") Collection<ResourceType> resources);
+
+    /**
+     * Obtiene, por lotes de IDs ordenados, los usuarios con consumo de algún recurso sin totales
+     * de ese recurso (datos anteriores a la tabla de totales o cargados por otras vías).
+     *
+     * @param afterId Último ID del lote anterior
+     * @param pageable Tamaño del lote
+     * @return IDs de usuarios en orden ascendente
+     */
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId AND (" +
+            "(EXISTS (SELECT w.id FROM Water w WHERE w.user.id = u.id) AND NOT EXISTS " +
+            "(SELECT r.id FROM ConsumptionRollup r WHERE r.user.id = u.id AND r.resource = com.lilim.ecotracker.common.model.ResourceType.WATER)) OR " +
+            "(EXISTS (SELECT e.id FROM Electricity e WHERE e.user.id = u.id) AND NOT EXISTS " +
+            "(SELECT r.id FROM ConsumptionRollup r WHERE r.user.id = u.id AND r.resource = com.lilim.ecotracker.common.model.ResourceType.ELECTRICITY)) OR " +
+            "(EXISTS (SELECT t.id FROM Transport t WHERE t.user.id = u.id) AND NOT EXISTS " +
+            "(SELECT r.id FROM ConsumptionRollup r WHERE r.user.id = u.id AND r.resource = com.lilim.ecotracker.common.model.ResourceType.TRANSPORT))) " +
+            "ORDER BY u.id")
+    List<Long> findUserIdsMissingRollupsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM ConsumptionRollup r WHERE r.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
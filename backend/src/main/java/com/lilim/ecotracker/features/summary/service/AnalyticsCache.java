@@ -0,0 +1,97 @@
+package com.lilim.ecotracker.features.summary.service;
+
+import com.lilim.ecotracker.common.cache.BoundedTtlCache;
+import com.lilim.ecotracker.common.cache.CacheStats;
+import com.lilim.ecotracker.common.event.ConsumptionChangedEvent;
+import com.lilim.ecotracker.common.model.ResourceType;
+import com.lilim.ecotracker.features.summary.dto.ConsumptionAnalyticsDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Caché de los análisis de consumo por usuario y recurso.
+ * <p>
+ * Evita recalcular el mismo análisis cuando varias metas o recomendaciones de un usuario lo
+ * consultan en la misma operación. La entrada de un usuario y recurso se invalida en cuanto se
+ * guarda, modifica o elimina uno de sus registros, y nuevamente al confirmarse la transacción
+ * para descartar lecturas concurrentes anteriores al commit.
+ * </p>
+ *
+ * @author EcoTracker Team
+ * @version 1.0
+ */
+@Component
+public class AnalyticsCache {
+
+    private final BoundedTtlCache<Key, ConsumptionAnalyticsDTO> cache;
+
+    public AnalyticsCache(
+            @Value("${ecotracker.analytics.cache.max-size:1000}") int maxSize,
+            @Value("${ecotracker.analytics.cache.ttl:10m}") Duration ttl) {
+        this.cache = new BoundedTtlCache<>(maxSize, ttl);
+    }
+
+    /**
+     * Obtiene el análisis de un usuario y recurso, calculándolo si no está en caché.
+     *
+     * @param userId ID del usuario
+     * @param resource Recurso analizado
+     * @param loader Cálculo del análisis en caso de fallo
+     * @return Análisis cacheado o recién calculado
+     */
+    public ConsumptionAnalyticsDTO get(Long userId, ResourceType resource, Supplier<ConsumptionAnalyticsDTO> loader) {
+        return cache.get(new Key(userId, resource), loader);
+    }
+
+    public void invalidate(Long userId, ResourceType resource) {
+        cache.invalidate(new Key(userId, resource));
+    }
+
+    public void invalidateUser(Long userId) {
+        cache.invalidateIf(key -> key.userId.equals(userId));
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @EventListener
+    public void onConsumptionChanged(ConsumptionChangedEvent event) {
+        invalidate(event.getUserId(), event.getResource());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onConsumptionCommitted(ConsumptionChangedEvent event) {
+        invalidate(event.getUserId(), event.getResource());
+    }
+
+    private static final class Key {
+        private final Long userId;
+        private final ResourceType resource;
+
+        private Key(Long userId, ResourceType resource) {
+            this.userId = userId;
+            this.resource = resource;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return userId.equals(key.userId) && resource == key.resource;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, resource);
+        }
+    }
+}
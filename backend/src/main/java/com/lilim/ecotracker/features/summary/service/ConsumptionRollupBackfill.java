@@ -0,0 +1,69 @@
+package com.lilim.ecotracker.features.summary.service;
+
+import com.lilim.ecotracker.features.summary.repository.ConsumptionRollupRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Reconstruye al arrancar los totales bimestrales de los usuarios que tienen consumo sin totales
+ * (bases de datos anteriores a la tabla de totales), para que el resumen y el análisis no lean
+ * cero tras el despliegue.
+ * <p>
+ * Se ejecuta durante la inicialización del contexto, antes de que el servidor acepte peticiones,
+ * de modo que ningún registro nuevo crea un total parcial que haga parecer completo a un usuario
+ * pendiente. Los usuarios se recorren por lotes de IDs y cada uno se reconstruye en su propia
+ * transacción; si todos tienen sus totales, el costo es una consulta por lote.
+ * </p>
+ */
+@Component
+public class ConsumptionRollupBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsumptionRollupBackfill.class);
+
+    private final ConsumptionRollupRepository rollupRepository;
+    private final ConsumptionRollupService rollupService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    @Autowired
+    public ConsumptionRollupBackfill(
+            ConsumptionRollupRepository rollupRepository,
+            ConsumptionRollupService rollupService,
+            TransactionTemplate transactionTemplate,
+            @Value("${ecotracker.rollups.backfill.batch-size:500}") int batchSize) {
+        this.rollupRepository = rollupRepository;
+        this.rollupService = rollupService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    public void backfill() {
+        int users = 0;
+        long afterId = 0L;
+        List<Long> userIds = rollupRepository.findUserIdsMissingRollupsAfter(afterId, PageRequest.of(0, batchSize));
+        while (!userIds.isEmpty()) {
+            for (Long userId : userIds) {
+                try {
+                    transactionTemplate.execute(status -> rollupService.rebuildForUser(userId));
+                    users++;
+                } catch (RuntimeException e) {
+                    logger.error("Error reconstruyendo los totales de consumo del usuario {}: {}", userId, e.getMessage());
+                }
+            }
+            afterId = userIds.get(userIds.size() - 1);
+            userIds = rollupRepository.findUserIdsMissingRollupsAfter(afterId, PageRequest.of(0, batchSize));
+        }
+        if (users > 0) {
+            logger.info("Totales de consumo reconstruidos al arrancar para {} usuarios sin totales", users);
+        }
+    }
+}
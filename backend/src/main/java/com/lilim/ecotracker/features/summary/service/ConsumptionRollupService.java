@@ -0,0 +1,278 @@
+package com.lilim.ecotracker.features.summary.service;
+
+import com.lilim.ecotracker.common.model.ResourceType;
+import com.lilim.ecotracker.common.projection.BimonthlyTotal;
+import com.lilim.ecotracker.common.projection.ResourceTotal;
+import com.lilim.ecotracker.features.electricity.repository.ElectricityRepository;
+import com.lilim.ecotracker.features.summary.model.ConsumptionRollup;
+import com.lilim.ecotracker.features.summary.repository.ConsumptionRollupRepository;
+import com.lilim.ecotracker.features.summary.service.analytics.BimonthlySeries;
+import com.lilim.ecotracker.features.transport.repository.TransportRepository;
+import com.lilim.ecotracker.features.water.repository.WaterRepository;
+import com.lilim.ecotracker.security.model.User;
+import com.lilim.ecotracker.security.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Servicio que mantiene los totales bimestrales precalculados de consumo.
+ * <p>
+ * Cada registro de agua, electricidad o transporte se acumula en su período dentro de la
+ * misma transacción en la que se guarda, por lo que el análisis y el resumen leen los totales
+ * sin recorrer las tablas de consumo. La reconstrucción recalcula los totales desde las tablas
+ * de consumo para poblar la tabla por primera vez o corregir datos cargados por otras vías.
+ * </p>
+ * <p>
+ * Las escrituras de los totales de un usuario (acumular y reconstruir) bloquean primero la fila
+ * del usuario, de modo que se serializan entre sí: la creación de un período nuevo no compite con
+ * otra creación del mismo período y una reconstrucción no borra ni duplica los totales que otra
+ * transacción está acumulando.
+ * </p>
+ *
+ * @author EcoTracker Team
+ * @version 1.0
+ */
+@Service
+public class ConsumptionRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConsumptionRollupService.class);
+
+    /**
+     * Extremos usados cuando el rango de fechas solo tiene un límite
+     */
+    private static final LocalDateTime RANGE_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime RANGE_END = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final ConsumptionRollupRepository rollupRepository;
+    private final WaterRepository waterRepository;
+    private final ElectricityRepository electricityRepository;
+    private final TransportRepository transportRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AnalyticsCache analyticsCache;
+
+    @Autowired
+    public ConsumptionRollupService(
+            ConsumptionRollupRepository rollupRepository,
+            WaterRepository waterRepository,
+            ElectricityRepository electricityRepository,
+            TransportRepository transportRepository,
+            UserRepository userRepository,
+            TransactionTemplate transactionTemplate,
+            AnalyticsCache analyticsCache) {
+        this.rollupRepository = rollupRepository;
+        this.waterRepository = waterRepository;
+        this.electricityRepository = electricityRepository;
+        this.transportRepository = transportRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.analyticsCache = analyticsCache;
+    }
+
+    /**
+     * Acumula un registro de consumo en el total de su período.
+     * <p>
+     * Debe llamarse en la transacción que guarda el registro. Si el período aún no existe se crea;
+     * el bloqueo del usuario hace que dos registros del mismo período nuevo se acumulen uno tras
+     * otro en lugar de intentar crear el período dos veces.
+     * </p>
+     *
+     * @param user Usuario propietario del registro
+     * @param resource Recurso de consumo
+     * @param date Fecha del registro
+     * @param amount Cantidad consumida
+     * @param cost Costo del registro
+     */
+    @Transactional
+    public void record(User user, ResourceType resource, LocalDateTime date, double amount, double cost) {
+        recordPeriod(user, resource, BimonthlySeries.bimonthKey(date), amount, cost, 1L, date);
+    }
+
+    /**
+     * Acumula varios registros ya agrupados de un mismo período.
+     * <p>
+     * Lo usan las importaciones masivas para actualizar cada período una sola vez en lugar de
+     * una vez por registro.
+     * </p>
+     *
+     * @param user Usuario propietario de los registros
+     * @param resource Recurso de consumo
+     * @param period Clave del período bimestral
+     * @param amount Cantidad consumida en el período
+     * @param cost Costo de los registros
+     * @param records Número de registros
+     * @param firstDate Fecha del registro más antiguo
+     */
+    @Transactional
+    public void recordPeriod(User user, ResourceType resource, int period, double amount, double cost,
+                             long records, LocalDateTime firstDate) {
+        userRepository.lockById(user.getId());
+        int updated = rollupRepository.addToPeriod(user.getId(), resource, period, amount, cost, records,
+                firstDate, LocalDateTime.now());
+        if (updated == 0) {
+            ConsumptionRollup rollup = new ConsumptionRollup();
+            rollup.setUser(user);
+            rollup.setResource(resource);
+            rollup.setPeriod(period);
+            rollup.setTotal(amount);
+            rollup.setCost(cost);
+            rollup.setRecords(records);
+            rollup.setFirstDate(firstDate);
+            rollupRepository.save(rollup);
+        }
+    }
+
+    /**
+     * Obtiene los totales bimestrales de un recurso en orden cronológico.
+     *
+     * @param userId ID del usuario
+     * @param resource Recurso de consumo
+     * @return Un total por período
+     */
+    @Transactional(readOnly = true)
+    public List<BimonthlyTotal> getBimonthlyTotals(Long userId, ResourceType resource) {
+        return rollupRepository.findBimonthlyTotals(userId, resource);
+    }
+
+    /**
+     * Obtiene la cantidad total consumida de cada recurso.
+     *
+     * @param userId ID del usuario
+     * @return Total por recurso; los recursos sin registros valen 0
+     */
+    @Transactional(readOnly = true)
+    public Map<ResourceType, Double> getTotalsByResource(Long userId) {
+        Map<ResourceType, Double> totals = new EnumMap<>(ResourceType.class);
+        for (ResourceType resource : ResourceType.values()) {
+            totals.put(resource, 0.0);
+        }
+        for (ResourceTotal total : rollupRepository.sumTotalsByUserId(userId)) {
+            totals.put(total.getResource(), total.getTotal() != null ? total.getTotal() : 0.0);
+        }
+        return totals;
+    }
+
+    /**
+     * Obtiene la cantidad total consumida de cada recurso en un rango de fechas.
+     * <p>
+     * Sin rango se leen los totales precalculados; con rango se agregan las tablas de consumo
+     * en una sola consulta. Un extremo ausente deja el rango abierto por ese lado.
+     * </p>
+     *
+     * @param userId ID del usuario
+     * @param from Fecha inicial (inclusive), o {@code null}
+     * @param to Fecha final (inclusive), o {@code null}
+     * @return Total por recurso; los recursos sin registros valen 0
+     */
+    @Transactional(readOnly = true)
+    public Map<ResourceType, Double> getTotalsByResource(Long userId, LocalDateTime from, LocalDateTime to) {
+        if (from == null && to == null) {
+            return getTotalsByResource(userId);
+        }
+        Map<ResourceType, Double> totals = new EnumMap<>(ResourceType.class);
+        for (ResourceTotal total : rollupRepository.sumTotalsByUserIdAndDateBetween(userId,
+                from != null ? from : RANGE_START, to != null ? to : RANGE_END)) {
+            totals.put(total.getResource(), total.getTotal() != null ? total.getTotal() : 0.0);
+        }
+        return totals;
+    }
+
+    /**
+     * Obtiene la versión de los datos de consumo de un usuario en varios recursos.
+     * <p>
+     * Aumenta con cada registro acumulado y con cada reconstrucción, por lo que un resultado
+     * calculado con una versión anterior está desactualizado.
+     * </p>
+     *
+     * @param userId ID del usuario
+     * @param resources Recursos incluidos
+     * @return Versión de los datos; 0 si no hay consumo de esos recursos
+     */
+    @Transactional(readOnly = true)
+    public long getDataVersion(Long userId, Collection<ResourceType> resources) {
+        return resources.isEmpty() ? 0L : rollupRepository.sumRevisions(userId, resources);
+    }
+
+    /**
+     * Recalcula los totales de un usuario a partir de las tablas de consumo.
+     *
+     * @param userId ID del usuario
+     * @return Número de períodos generados
+     */
+    @Transactional
+    public int rebuildForUser(Long userId) {
+        // Antes de cualquier lectura: los registros confirmados por quien tenía el bloqueo ya son visibles
+        userRepository.lockById(userId);
+        Map<ResourceType, Long> versions = new EnumMap<>(ResourceType.class);
+        for (ResourceType resource : ResourceType.values()) {
+            versions.put(resource, getDataVersion(userId, EnumSet.of(resource)));
+        }
+        rollupRepository.deleteByUserId(userId);
+        User user = userRepository.getReferenceById(userId);
+
+        List<ConsumptionRollup> rollups = new ArrayList<>();
+        addRollups(rollups, user, ResourceType.WATER, waterRepository.findBimonthlyTotalsByUserId(userId),
+                versions.get(ResourceType.WATER));
+        addRollups(rollups, user, ResourceType.ELECTRICITY, electricityRepository.findBimonthlyTotalsByUserId(userId),
+                versions.get(ResourceType.ELECTRICITY));
+        addRollups(rollups, user, ResourceType.TRANSPORT, transportRepository.findBimonthlyTotalsByUserId(userId),
+                versions.get(ResourceType.TRANSPORT));
+        rollupRepository.saveAll(rollups);
+        analyticsCache.invalidateUser(userId);
+        return rollups.size();
+    }
+
+    /**
+     * Recalcula los totales de todos los usuarios.
+     * <p>
+     * Cada usuario se reconstruye en su propia transacción para no mantener una transacción
+     * abierta durante toda la reconstrucción.
+     * </p>
+     *
+     * @return Número de usuarios procesados
+     */
+    public int rebuildAll() {
+        List<Long> userIds = userRepository.findAllIds();
+        int periods = 0;
+        for (Long userId : userIds) {
+            Integer rebuilt = transactionTemplate.execute(status -> rebuildForUser(userId));
+            periods += rebuilt != null ? rebuilt : 0;
+        }
+        logger.info("Totales de consumo reconstruidos: {} usuarios, {} períodos", userIds.size(), periods);
+        return userIds.size();
+    }
+
+    /**
+     * El primer período reconstruido arrastra la versión anterior del recurso para que
+     * la versión de los datos no retroceda al reconstruir
+     */
+    private void addRollups(List<ConsumptionRollup> rollups, User user, ResourceType resource,
+                            List<BimonthlyTotal> totals, long previousVersion) {
+        long revision = previousVersion + 1;
+        for (BimonthlyTotal total : totals) {
+            ConsumptionRollup rollup = new ConsumptionRollup();
+            rollup.setUser(user);
+            rollup.setResource(resource);
+            rollup.setPeriod(total.getPeriod());
+            rollup.setTotal(total.getTotal() != null ? total.getTotal() : 0.0);
+            rollup.setCost(total.getCost() != null ? total.getCost() : 0.0);
+            rollup.setRecords(total.getRecords());
+            rollup.setFirstDate(total.getFirstDate());
+            rollup.setRevision(revision);
+            rollups.add(rollup);
+            revision = 1L;
+        }
+    }
+}
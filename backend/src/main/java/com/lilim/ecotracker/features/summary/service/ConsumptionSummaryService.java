@@ -0,0 +1,89 @@
+package com.lilim.ecotracker.features.summary.service;
+
+import com.lilim.ecotracker.common.model.ResourceType;
+import com.lilim.ecotracker.features.summary.dto.ConsumptionSummaryDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Servicio que construye el resumen de consumo mostrado en las gráficas del dashboard.
+ * <p>
+ * Trabaja únicamente con sumas agregadas por recurso: nunca carga los registros de consumo.
+ * </p>
+ *
+ * @author EcoTracker Team
+ * @version 1.0
+ */
+@Service
+public class ConsumptionSummaryService {
+
+    /**
+     * Orden en que se muestran los recursos en el resumen
+     */
+    private static final List<ResourceType> DISPLAY_ORDER =
+            List.of(ResourceType.ELECTRICITY, ResourceType.WATER, ResourceType.TRANSPORT);
+
+    private final ConsumptionRollupService rollupService;
+
+    @Autowired
+    public ConsumptionSummaryService(ConsumptionRollupService rollupService) {
+        this.rollupService = rollupService;
+    }
+
+    /**
+     * Genera el resumen de consumo de un usuario.
+     *
+     * @param userId ID del usuario
+     * @param from Fecha inicial (inclusive), o {@code null} para no limitar
+     * @param to Fecha final (inclusive), o {@code null} para no limitar
+     * @param resources Recursos incluidos en el resumen
+     * @return Total y porcentaje de cada recurso con consumo, o datos de ejemplo si no hay consumo
+     */
+    public List<ConsumptionSummaryDTO> getSummary(Long userId, LocalDateTime from, LocalDateTime to, Set<ResourceType> resources) {
+        Map<ResourceType, Double> totals = rollupService.getTotalsByResource(userId, from, to);
+
+        // Calcular el total general de los recursos seleccionados
+        double total = 0;
+        for (ResourceType resource : resources) {
+            total += totals.getOrDefault(resource, 0.0);
+        }
+
+        List<ConsumptionSummaryDTO> summary = new ArrayList<>();
+
+        // Si no hay datos, devolver datos de ejemplo
+        if (total == 0) {
+            summary.add(new ConsumptionSummaryDTO("Elemento 1", 100, 20));
+            summary.add(new ConsumptionSummaryDTO("Elemento 2", 100, 20));
+            summary.add(new ConsumptionSummaryDTO("Elemento 3", 100, 20));
+            summary.add(new ConsumptionSummaryDTO("Elemento 4", 100, 20));
+            summary.add(new ConsumptionSummaryDTO("Elemento 5", 100, 20));
+            return summary;
+        }
+
+        for (ResourceType resource : DISPLAY_ORDER) {
+            double resourceTotal = totals.getOrDefault(resource, 0.0);
+            if (resources.contains(resource) && resourceTotal > 0) {
+                int percentage = (int) Math.round((resourceTotal / total) * 100);
+                summary.add(new ConsumptionSummaryDTO(getLabel(resource), resourceTotal, percentage));
+            }
+        }
+        return summary;
+    }
+
+    private String getLabel(ResourceType resource) {
+        switch (resource) {
+            case ELECTRICITY:
+                return "Electricidad";
+            case WATER:
+                return "Agua";
+            default:
+                return "Transporte";
+        }
+    }
+}
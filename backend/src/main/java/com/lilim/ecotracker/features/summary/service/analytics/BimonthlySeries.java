@@ -0,0 +1,193 @@
+package com.lilim.ecotracker.features.summary.service.analytics;
+
+import com.lilim.ecotracker.common.projection.BimonthlyTotal;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Serie de períodos bimestrales (Ene-Feb, Mar-Abr, etc.) con acumuladores primitivos.
+ * <p>
+ * Cada período guarda la suma de consumo, la suma de costo, el número de registros y la fecha
+ * del primer registro. Se construye a partir de los totales que calcula la base de datos o
+ * plegando registros en un solo recorrido; en ese caso deben llegar ordenados cronológicamente:
+ * un registro cuyo bimestre difiere del último período abre un período nuevo.
+ * </p>
+ * <p>
+ * Las emisiones de CO2 de cada período se derivan del consumo y del factor del recurso, salvo que
+ * la serie se construya con {@link #accumulate}, que recibe las emisiones ya calculadas (p. ej. el
+ * transporte, cuyo factor depende del tipo de transporte de cada viaje).
+ * </p>
+ *
+ * @author EcoTracker Team
+ * @version 1.0
+ */
+public final class BimonthlySeries {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] keys = new int[INITIAL_CAPACITY];
+    private double[] consumption = new double[INITIAL_CAPACITY];
+    private double[] cost = new double[INITIAL_CAPACITY];
+    private int[] count = new int[INITIAL_CAPACITY];
+    private LocalDateTime[] firstDate = new LocalDateTime[INITIAL_CAPACITY];
+    private double[] emissions = new double[INITIAL_CAPACITY];
+    private boolean explicitEmissions;
+    private int size;
+
+    /**
+     * Calcula la clave del período bimestral de una fecha (Ene-Feb = 0, Mar-Abr = 1, etc.)
+     *
+     * @param date Fecha del registro
+     * @return Clave del bimestre, creciente en el tiempo
+     */
+    public static int bimonthKey(LocalDateTime date) {
+        return date.getMonthValue() / 2 + (date.getYear() * 6);
+    }
+
+    /**
+     * Construye la serie a partir de los totales bimestrales calculados en la base de datos.
+     *
+     * @param totals Totales por período, ordenados cronológicamente
+     * @return Serie bimestral con un período por total
+     */
+    public static BimonthlySeries fromTotals(List<? extends BimonthlyTotal> totals) {
+        BimonthlySeries series = new BimonthlySeries();
+        for (BimonthlyTotal total : totals) {
+            series.addPeriod(total.getPeriod(), total.getFirstDate(),
+                    valueOrZero(total.getTotal()), valueOrZero(total.getCost()), total.getRecords().intValue());
+        }
+        return series;
+    }
+
+    /**
+     * Acumula un registro en la serie.
+     *
+     * @param date Fecha del registro
+     * @param amount Cantidad consumida
+     * @param recordCost Costo del registro
+     */
+    public void add(LocalDateTime date, double amount, double recordCost) {
+        int key = bimonthKey(date);
+        if (size == 0 || keys[size - 1] != key) {
+            openPeriod(key, date);
+        }
+        int last = size - 1;
+        consumption[last] += amount;
+        cost[last] += recordCost;
+        count[last]++;
+    }
+
+    /**
+     * Agrega un período ya acumulado al final de la serie.
+     *
+     * @param key Clave del bimestre
+     * @param date Fecha del primer registro del período
+     * @param amount Consumo total del período
+     * @param periodCost Costo total del período
+     * @param records Número de registros del período
+     */
+    public void addPeriod(int key, LocalDateTime date, double amount, double periodCost, int records) {
+        openPeriod(key, date);
+        int last = size - 1;
+        consumption[last] = amount;
+        cost[last] = periodCost;
+        count[last] = records;
+    }
+
+    /**
+     * Acumula totales ya agrupados con sus emisiones de CO2; si el bimestre coincide con el
+     * último período se suman a él, si no se abre un período nuevo.
+     *
+     * @param key Clave del bimestre
+     * @param date Fecha del primer registro de los totales
+     * @param amount Consumo total
+     * @param periodCost Costo total
+     * @param records Número de registros
+     * @param co2 Emisiones de CO2 de los totales (kg)
+     */
+    public void accumulate(int key, LocalDateTime date, double amount, double periodCost, int records, double co2) {
+        explicitEmissions = true;
+        if (size == 0 || keys[size - 1] != key) {
+            openPeriod(key, date);
+        }
+        int last = size - 1;
+        if (date.isBefore(firstDate[last])) {
+            firstDate[last] = date;
+        }
+        consumption[last] += amount;
+        cost[last] += periodCost;
+        count[last] += records;
+        emissions[last] += co2;
+    }
+
+    static double valueOrZero(Double value) {
+        return value != null ? value : 0;
+    }
+
+    private void openPeriod(int key, LocalDateTime date) {
+        if (size == keys.length) {
+            int capacity = size * 2;
+            keys = Arrays.copyOf(keys, capacity);
+            consumption = Arrays.copyOf(consumption, capacity);
+            cost = Arrays.copyOf(cost, capacity);
+            count = Arrays.copyOf(count, capacity);
+            firstDate = Arrays.copyOf(firstDate, capacity);
+            emissions = Arrays.copyOf(emissions, capacity);
+        }
+        keys[size] = key;
+        firstDate[size] = date;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int key(int period) {
+        return keys[period];
+    }
+
+    public double consumption(int period) {
+        return consumption[period];
+    }
+
+    public double cost(int period) {
+        return cost[period];
+    }
+
+    public int count(int period) {
+        return count[period];
+    }
+
+    public LocalDateTime firstDate(int period) {
+        return firstDate[period];
+    }
+
+    /**
+     * Emisiones de CO2 de un período
+     *
+     * @param period Índice del período
+     * @param co2Factor Factor de emisión del recurso, usado si la serie no trae emisiones propias
+     * @return Emisiones en kg de CO2
+     */
+    public double emissions(int period, double co2Factor) {
+        return explicitEmissions ? emissions[period] : consumption[period] * co2Factor;
+    }
+
+    /**
+     * Busca un período por su clave
+     *
+     * @param key Clave del bimestre
+     * @return Índice del período o -1 si la serie no lo contiene
+     */
+    public int indexOf(int key) {
+        int index = Arrays.binarySearch(keys, 0, size, key);
+        return index >= 0 ? index : -1;
+    }
+}
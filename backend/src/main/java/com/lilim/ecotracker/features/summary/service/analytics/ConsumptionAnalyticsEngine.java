@@ -0,0 +1,374 @@
+package com.lilim.ecotracker.features.summary.service.analytics;
+
+import com.lilim.ecotracker.features.summary.dto.ConsumptionAnalyticsDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Motor genérico de análisis de consumo.
+ * <p>
+ * Recorre una sola vez la {@link BimonthlySeries} de un recurso y construye todas las secciones
+ * del {@link ConsumptionAnalyticsDTO}: consumo bimestral, métricas de costo, promedio móvil,
+ * benchmark, anomalías, emisiones de CO2, pronóstico e histórico. Las diferencias entre recursos
+ * (unidades, factor de emisión y benchmarks) se describen mediante un {@link ResourceProfile}.
+ * </p>
+ * <p>
+ * El transporte usa el mismo análisis sobre la serie total de kilómetros y añade el desglose
+ * por tipo de transporte a partir de una {@link TransportSeries}.
+ * </p>
+ *
+ * @author EcoTracker Team
+ * @version 1.0
+ */
+@Component
+public class ConsumptionAnalyticsEngine {
+
+    /**
+     * Número de períodos considerados en el promedio móvil (actual y dos anteriores)
+     */
+    private static final int MOVING_AVERAGE_WINDOW = 3;
+
+    /**
+     * Factor sobre el promedio móvil a partir del cual un período se considera anómalo
+     */
+    private static final double ANOMALY_THRESHOLD = 1.2;
+
+    /**
+     * Genera el análisis completo de una serie bimestral.
+     * <p>
+     * Si la serie está vacía se devuelve el análisis vacío del perfil.
+     * </p>
+     *
+     * @param series Serie bimestral en orden cronológico
+     * @param profile Perfil del recurso analizado
+     * @return DTO con el análisis completo
+     */
+    public ConsumptionAnalyticsDTO analyze(BimonthlySeries series, ResourceProfile profile) {
+        int periods = series.size();
+        if (periods == 0) {
+            return createEmptyAnalytics(profile);
+        }
+
+        List<Double> movingAverages = new ArrayList<>(periods);
+        List<ConsumptionAnalyticsDTO.AnomalyDetailDTO> anomalyDetails = new ArrayList<>();
+        List<ConsumptionAnalyticsDTO.ConsumptionDataPointDTO> historicalData = new ArrayList<>(periods);
+        double unitCostSum = 0;
+        int unitCostCount = 0;
+        double emissionsMovingAvg = 0;
+
+        // Single pass over the periods: moving average, unit costs, anomalies and history
+        for (int i = 0; i < periods; i++) {
+            double consumption = series.consumption(i);
+            double cost = series.cost(i);
+
+            int windowStart = Math.max(0, i - (MOVING_AVERAGE_WINDOW - 1));
+            double windowSum = 0;
+            double windowEmissions = 0;
+            for (int j = windowStart; j <= i; j++) {
+                windowSum += series.consumption(j);
+                windowEmissions += series.emissions(j, profile.getCo2Factor());
+            }
+            double movingAvg = windowSum / (i - windowStart + 1);
+            movingAverages.add(movingAvg);
+            emissionsMovingAvg = windowEmissions / (i - windowStart + 1);
+
+            if (consumption > 0) {
+                unitCostSum += cost / consumption;
+                unitCostCount++;
+            }
+
+            // Consumptions >20% above the moving average are anomalies
+            if (consumption > movingAvg * ANOMALY_THRESHOLD) {
+                anomalyDetails.add(
+                        ConsumptionAnalyticsDTO.AnomalyDetailDTO.builder()
+                                .date(series.firstDate(i))
+                                .value(consumption)
+                                .expectedValue(movingAvg)
+                                .percentDeviation(((consumption - movingAvg) / movingAvg) * 100)
+                                .build()
+                );
+            }
+
+            historicalData.add(
+                    ConsumptionAnalyticsDTO.ConsumptionDataPointDTO.builder()
+                            .date(series.firstDate(i))
+                            .consumption(consumption)
+                            .cost(cost)
+                            .co2Emissions(series.emissions(i, profile.getCo2Factor()))
+                            .build()
+            );
+        }
+
+        // Metrics for the current bimonthly period
+        double currentConsumption = series.consumption(periods - 1);
+        double previousConsumption = periods > 1 ? series.consumption(periods - 2) : currentConsumption;
+        double percentChange = previousConsumption > 0 ?
+                ((currentConsumption - previousConsumption) / previousConsumption) * 100 : 0;
+
+        double currentCost = series.cost(periods - 1);
+        double currentUnitCost = currentConsumption > 0 ? currentCost / currentConsumption : 0;
+        double avgHistoricalUnitCost = unitCostCount > 0 ? unitCostSum / unitCostCount : 0;
+        double unitCostPercentChange = avgHistoricalUnitCost > 0 ?
+                ((currentUnitCost - avgHistoricalUnitCost) / avgHistoricalUnitCost) * 100 : 0;
+
+        double currentMovingAvg = movingAverages.get(periods - 1);
+        double movingAvgDeviation = currentMovingAvg > 0 ?
+                ((currentConsumption - currentMovingAvg) / currentMovingAvg) * 100 : 0;
+
+        String efficiencyRating = !profile.hasBenchmark() ? "no data" :
+                currentConsumption < profile.getStateBenchmark() ? "more efficient" :
+                currentConsumption > profile.getNationalBenchmark() ? "less efficient" : "average";
+        String benchmarkStatus = !profile.hasBenchmark() ? "neutral" :
+                getStatusFromBenchmark(currentConsumption, profile.getStateBenchmark(), profile.getNationalBenchmark());
+
+        // Emissions below their moving average are savings
+        double co2Savings = Math.max(0, emissionsMovingAvg - series.emissions(periods - 1, profile.getCo2Factor()));
+
+        // Forecast next period
+        double avgTrend = periods >= 3 ?
+                ((currentConsumption - series.consumption(periods - 3)) / series.consumption(periods - 3)) / 2 * 100 :
+                percentChange;
+        double forecastConsumption = currentConsumption * (1 + avgTrend / 100);
+
+        int anomalyCount = anomalyDetails.size();
+
+        return ConsumptionAnalyticsDTO.builder()
+                .bimonthlyConsumption(
+                        ConsumptionAnalyticsDTO.BimonthlyConsumptionDTO.builder()
+                                .currentValue(currentConsumption)
+                                .unit(profile.getUnit())
+                                .percentChange(percentChange)
+                                .status(getStatusFromPercentChange(percentChange, false))
+                                .build()
+                )
+                .costMetrics(
+                        ConsumptionAnalyticsDTO.CostMetricsDTO.builder()
+                                .totalCost(currentCost)
+                                .unitCost(currentUnitCost)
+                                .unitCostUnit(profile.getUnitCostUnit())
+                                .unitCostPercentChange(unitCostPercentChange)
+                                .historicalAverageUnitCost(avgHistoricalUnitCost)
+                                .build()
+                )
+                .movingAverage(
+                        ConsumptionAnalyticsDTO.MovingAverageDTO.builder()
+                                .value(currentMovingAvg)
+                                .unit(profile.getUnit())
+                                .percentDeviation(movingAvgDeviation)
+                                .status(getStatusFromDeviation(movingAvgDeviation))
+                                .historicalValues(movingAverages)
+                                .build()
+                )
+                .benchmark(
+                        ConsumptionAnalyticsDTO.BenchmarkDTO.builder()
+                                .currentValue(currentConsumption)
+                                .stateAverage(profile.getStateBenchmark())
+                                .nationalAverage(profile.getNationalBenchmark())
+                                .status(benchmarkStatus)
+                                .efficiencyRating(efficiencyRating)
+                                .build()
+                )
+                .anomalies(
+                        ConsumptionAnalyticsDTO.AnomaliesDTO.builder()
+                                .count(anomalyCount)
+                                .status(getStatusFromAnomalyCount(anomalyCount))
+                                .details(anomalyDetails)
+                                .build()
+                )
+                .co2Metrics(
+                        ConsumptionAnalyticsDTO.CO2MetricsDTO.builder()
+                                .co2Savings(co2Savings)
+                                .forecastValue(forecastConsumption)
+                                .forecastUnit(profile.getUnit())
+                                .forecastPercentChange(avgTrend)
+                                .status(getStatusFromPercentChange(avgTrend, false))
+                                .build()
+                )
+                .historicalData(historicalData)
+                .build();
+    }
+
+    /**
+     * Genera el análisis de transporte: el análisis completo de los kilómetros totales
+     * más el desglose del último bimestre y el histórico de cada tipo de transporte.
+     *
+     * @param series Series bimestrales total y por tipo de transporte
+     * @param profile Perfil del transporte
+     * @return DTO con el análisis completo y el desglose por tipo
+     */
+    public ConsumptionAnalyticsDTO analyzeTransport(TransportSeries series, ResourceProfile profile) {
+        BimonthlySeries total = series.total();
+        ConsumptionAnalyticsDTO analytics = analyze(total, profile);
+        if (total.isEmpty()) {
+            analytics.setTransportTypes(Collections.emptyList());
+            return analytics;
+        }
+
+        int currentKey = total.key(total.size() - 1);
+        double currentKilometers = total.consumption(total.size() - 1);
+        List<ConsumptionAnalyticsDTO.TransportTypeAnalyticsDTO> transportTypes = new ArrayList<>(series.byType().size());
+
+        for (Map.Entry<String, BimonthlySeries> entry : series.byType().entrySet()) {
+            BimonthlySeries typeSeries = entry.getValue();
+            double co2Factor = series.co2Factor(entry.getKey());
+
+            List<ConsumptionAnalyticsDTO.ConsumptionDataPointDTO> historicalData = new ArrayList<>(typeSeries.size());
+            for (int i = 0; i < typeSeries.size(); i++) {
+                historicalData.add(
+                        ConsumptionAnalyticsDTO.ConsumptionDataPointDTO.builder()
+                                .date(typeSeries.firstDate(i))
+                                .consumption(typeSeries.consumption(i))
+                                .cost(typeSeries.cost(i))
+                                .co2Emissions(typeSeries.emissions(i, co2Factor))
+                                .build()
+                );
+            }
+
+            // A type without trips in the current period counts as zero
+            int current = typeSeries.indexOf(currentKey);
+            double kilometers = current >= 0 ? typeSeries.consumption(current) : 0;
+            int previous = (current >= 0 ? current : typeSeries.size()) - 1;
+            double previousKilometers = previous >= 0 ? typeSeries.consumption(previous) : 0;
+
+            transportTypes.add(
+                    ConsumptionAnalyticsDTO.TransportTypeAnalyticsDTO.builder()
+                            .transportType(entry.getKey())
+                            .co2Factor(co2Factor)
+                            .currentKilometers(kilometers)
+                            .currentCost(current >= 0 ? typeSeries.cost(current) : 0)
+                            .currentCo2Emissions(current >= 0 ? typeSeries.emissions(current, co2Factor) : 0)
+                            .kilometerShare(currentKilometers > 0 ? (kilometers / currentKilometers) * 100 : 0)
+                            .percentChange(previousKilometers > 0 ?
+                                    ((kilometers - previousKilometers) / previousKilometers) * 100 : 0)
+                            .historicalData(historicalData)
+                            .build()
+            );
+        }
+
+        analytics.setTransportTypes(transportTypes);
+        return analytics;
+    }
+
+    /**
+     * Crea un objeto DTO de análisis vacío para un recurso.
+     * <p>
+     * Se utiliza para usuarios que no tienen registros del recurso. Proporciona una estructura
+     * completa pero con valores inicializados a cero o listas vacías.
+     * </p>
+     *
+     * @param profile Perfil del recurso
+     * @return DTO de análisis con valores predeterminados
+     */
+    public ConsumptionAnalyticsDTO createEmptyAnalytics(ResourceProfile profile) {
+        return ConsumptionAnalyticsDTO.builder()
+                .bimonthlyConsumption(
+                        ConsumptionAnalyticsDTO.BimonthlyConsumptionDTO.builder()
+                                .currentValue(0)
+                                .unit(profile.getUnit())
+                                .percentChange(0)
+                                .status("neutral")
+                                .build()
+                )
+                .costMetrics(
+                        ConsumptionAnalyticsDTO.CostMetricsDTO.builder()
+                                .totalCost(0)
+                                .unitCost(0)
+                                .unitCostUnit(profile.getUnitCostUnit())
+                                .unitCostPercentChange(0)
+                                .historicalAverageUnitCost(0)
+                                .build()
+                )
+                .movingAverage(
+                        ConsumptionAnalyticsDTO.MovingAverageDTO.builder()
+                                .value(0)
+                                .unit(profile.getUnit())
+                                .percentDeviation(0)
+                                .status("neutral")
+                                .historicalValues(Collections.emptyList())
+                                .build()
+                )
+                .benchmark(
+                        ConsumptionAnalyticsDTO.BenchmarkDTO.builder()
+                                .currentValue(0)
+                                .stateAverage(profile.getStateBenchmark())
+                                .nationalAverage(profile.getNationalBenchmark())
+                                .status("neutral")
+                                .efficiencyRating("no data")
+                                .build()
+                )
+                .anomalies(
+                        ConsumptionAnalyticsDTO.AnomaliesDTO.builder()
+                                .count(0)
+                                .status("neutral")
+                                .details(Collections.emptyList())
+                                .build()
+                )
+                .co2Metrics(
+                        ConsumptionAnalyticsDTO.CO2MetricsDTO.builder()
+                                .co2Savings(0)
+                                .forecastValue(0)
+                                .forecastUnit(profile.getUnit())
+                                .forecastPercentChange(0)
+                                .status("neutral")
+                                .build()
+                )
+                .historicalData(Collections.emptyList())
+                .build();
+    }
+
+    /**
+     * Determina el estado basado en el porcentaje de cambio.
+     * <p>
+     * El comportamiento puede invertirse según el parámetro isPositive para métricas
+     * donde un aumento es deseable.
+     * </p>
+     *
+     * @param percentChange Porcentaje de cambio a evaluar
+     * @param isPositive Indica si un cambio positivo se considera favorable
+     * @return Cadena de estado ("success", "warning", "danger")
+     */
+    private String getStatusFromPercentChange(double percentChange, boolean isPositive) {
+        if (isPositive) {
+            return percentChange > 10 ? "success" : percentChange < 0 ? "danger" : "warning";
+        } else {
+            return percentChange < 0 ? "success" : percentChange > 10 ? "danger" : "warning";
+        }
+    }
+
+    /**
+     * Determina el estado basado en la desviación del promedio móvil.
+     *
+     * @param deviation Porcentaje de desviación del promedio móvil
+     * @return Cadena de estado ("success", "warning")
+     */
+    private String getStatusFromDeviation(double deviation) {
+        return Math.abs(deviation) <= 10 ? "success" : "warning";
+    }
+
+    /**
+     * Determina el estado basado en la comparación con benchmarks.
+     *
+     * @param value Valor actual a comparar
+     * @param stateBenchmark Valor de referencia estatal
+     * @param nationalBenchmark Valor de referencia nacional
+     * @return Cadena de estado ("success", "warning", "danger")
+     */
+    private String getStatusFromBenchmark(double value, double stateBenchmark, double nationalBenchmark) {
+        return value < stateBenchmark ? "success" :
+                value > nationalBenchmark ? "danger" : "warning";
+    }
+
+    /**
+     * Determina el estado basado en el número de anomalías detectadas.
+     *
+     * @param count Número de anomalías detectadas
+     * @return Cadena de estado ("success", "warning", "danger")
+     */
+    private String getStatusFromAnomalyCount(int count) {
+        return count == 0 ? "success" : count > 2 ? "danger" : "warning";
+    }
+}
@@ -0,0 +1,53 @@
+package com.lilim.ecotracker.features.summary.service.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Describe las características de un recurso (agua, electricidad, transporte) necesarias
+ * para construir su análisis de consumo.
+ * <p>
+ * Permite que {@link ConsumptionAnalyticsEngine} sea independiente del recurso: las unidades,
+ * el factor de emisión y los benchmarks se toman de este perfil en lugar de estar repetidos
+ * en cada método de análisis.
+ * </p>
+ *
+ * @author EcoTracker Team
+ * @version 1.0
+ */
+@Getter
+@AllArgsConstructor
+public final class ResourceProfile {
+
+    /**
+     * Unidad de consumo (por ejemplo "m³" o "kWh")
+     */
+    private final String unit;
+
+    /**
+     * Unidad del costo unitario (por ejemplo "MXN/m³")
+     */
+    private final String unitCostUnit;
+
+    /**
+     * Factor de emisión de CO2 por unidad consumida (kg CO2 por unidad)
+     */
+    private final double co2Factor;
+
+    /**
+     * Consumo de referencia a nivel estatal
+     */
+    private final double stateBenchmark;
+
+    /**
+     * Consumo de referencia a nivel nacional
+     */
+    private final double nationalBenchmark;
+
+    /**
+     * @return true si el recurso tiene consumos de referencia con los cuales compararse
+     */
+    public boolean hasBenchmark() {
+        return stateBenchmark > 0 || nationalBenchmark > 0;
+    }
+}
@@ -0,0 +1,80 @@
+package com.lilim.ecotracker.features.summary.service.analytics;
+
+import com.lilim.ecotracker.common.projection.TransportBimonthlyTotal;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Series bimestrales de transporte: la serie total del usuario y una serie por tipo de transporte.
+ * <p>
+ * Se pliegan en un solo recorrido de los totales por (bimestre, tipo) que calcula la base de datos,
+ * de modo que el costo del análisis depende del número de bimestres y tipos, no del número de viajes.
+ * Las emisiones de cada total se calculan con el factor de su tipo de transporte y se acumulan
+ * en ambas series.
+ * </p>
+ *
+ * @author EcoTracker Team
+ * @version 1.0
+ */
+public final class TransportSeries {
+
+    private final BimonthlySeries total;
+    private final Map<String, BimonthlySeries> byType;
+    private final Map<String, Double> co2Factors;
+
+    private TransportSeries(BimonthlySeries total, Map<String, BimonthlySeries> byType, Map<String, Double> co2Factors) {
+        this.total = total;
+        this.byType = byType;
+        this.co2Factors = co2Factors;
+    }
+
+    /**
+     * Construye las series a partir de los totales por bimestre y tipo de transporte.
+     *
+     * @param totals Totales ordenados de forma que los de un mismo bimestre queden contiguos
+     * @param co2Factors Factor de emisión por tipo de transporte (kg CO2 por km)
+     * @param defaultCo2Factor Factor para los tipos que no están en el mapa
+     * @return Series de transporte
+     */
+    public static TransportSeries fromTotals(List<? extends TransportBimonthlyTotal> totals,
+                                             Map<String, Double> co2Factors, double defaultCo2Factor) {
+        BimonthlySeries total = new BimonthlySeries();
+        Map<String, BimonthlySeries> byType = new LinkedHashMap<>();
+        Map<String, Double> factors = new LinkedHashMap<>();
+
+        for (TransportBimonthlyTotal row : totals) {
+            String type = row.getTransportType();
+            double factor = factors.computeIfAbsent(type, t -> co2Factors.getOrDefault(t, defaultCo2Factor));
+            double kilometers = BimonthlySeries.valueOrZero(row.getTotal());
+            double cost = BimonthlySeries.valueOrZero(row.getCost());
+            int records = row.getRecords().intValue();
+            double co2 = kilometers * factor;
+
+            total.accumulate(row.getPeriod(), row.getFirstDate(), kilometers, cost, records, co2);
+            byType.computeIfAbsent(type, t -> new BimonthlySeries())
+                    .accumulate(row.getPeriod(), row.getFirstDate(), kilometers, cost, records, co2);
+        }
+        return new TransportSeries(total, Collections.unmodifiableMap(byType), Collections.unmodifiableMap(factors));
+    }
+
+    /**
+     * @return Serie con los totales de todos los tipos de transporte
+     */
+    public BimonthlySeries total() {
+        return total;
+    }
+
+    /**
+     * @return Serie de cada tipo de transporte, en orden de aparición
+     */
+    public Map<String, BimonthlySeries> byType() {
+        return byType;
+    }
+
+    public double co2Factor(String transportType) {
+        return co2Factors.getOrDefault(transportType, 0.0);
+    }
+}
@@ -0,0 +1,150 @@
+package com.lilim.ecotracker.features.transport.dto;
+
+import com.lilim.ecotracker.common.projection.TransportTypeTotal;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Desglose inmutable del transporte de un usuario por tipo de transporte en una ventana de tiempo.
+ * <p>
+ * Se construye a partir de una sola consulta agrupada
+ * ({@link com.lilim.ecotracker.features.transport.repository.TransportRepository#sumByTransportType})
+ * y con él se calculan las métricas de las metas y las recomendaciones de transporte sin cargar los registros.
+ * </p>
+ */
+public final class TransportBreakdown {
+
+    /** Tipo de transporte en vehículo de combustión */
+    public static final String COMBUSTION = "car";
+
+    public static final String BICICLETA = "bicycle";
+
+    /** Tipos de transporte considerados sostenibles */
+    public static final Set<String> SOSTENIBLES = Set.of(BICICLETA, "walk");
+
+    private static final TransportBreakdown EMPTY = new TransportBreakdown(Map.of());
+
+    private final Map<String, TypeTotals> porTipo;
+    private final double kilometers;
+    private final double cost;
+    private final long trips;
+
+    private TransportBreakdown(Map<String, TypeTotals> porTipo) {
+        this.porTipo = porTipo;
+        double km = 0;
+        double costo = 0;
+        long viajes = 0;
+        for (TypeTotals totals : porTipo.values()) {
+            km += totals.getKilometers();
+            costo += totals.getCost();
+            viajes += totals.getTrips();
+        }
+        this.kilometers = km;
+        this.cost = costo;
+        this.trips = viajes;
+    }
+
+    public static TransportBreakdown of(List<TransportTypeTotal> totals) {
+        if (totals.isEmpty()) {
+            return EMPTY;
+        }
+        Map<String, TypeTotals> porTipo = new HashMap<>();
+        for (TransportTypeTotal total : totals) {
+            porTipo.put(total.getTransportType(), new TypeTotals(
+                    valueOf(total.getKilometers()), valueOf(total.getCost()),
+                    total.getTrips() != null ? total.getTrips() : 0L,
+                    valueOf(total.getCostPerKmSum()),
+                    total.getCostPerKmTrips() != null ? total.getCostPerKmTrips() : 0L));
+        }
+        return new TransportBreakdown(Map.copyOf(porTipo));
+    }
+
+    public static TransportBreakdown empty() {
+        return EMPTY;
+    }
+
+    public boolean isEmpty() {
+        return trips == 0;
+    }
+
+    public double getKilometers() {
+        return kilometers;
+    }
+
+    public double getCost() {
+        return cost;
+    }
+
+    public long getTrips() {
+        return trips;
+    }
+
+    /**
+     * @return Totales del tipo de transporte, o ceros si no hay viajes de ese tipo
+     */
+    public TypeTotals get(String transportType) {
+        return porTipo.getOrDefault(transportType, TypeTotals.NONE);
+    }
+
+    public Set<String> getTransportTypes() {
+        return porTipo.keySet();
+    }
+
+    public double getKilometers(String transportType) {
+        return get(transportType).getKilometers();
+    }
+
+    public double getSustainableKilometers() {
+        double km = 0;
+        for (String tipo : SOSTENIBLES) {
+            km += getKilometers(tipo);
+        }
+        return km;
+    }
+
+    /**
+     * @return Porcentaje de kilómetros recorridos en transporte sostenible (0 si no hay kilómetros)
+     */
+    public double getSustainablePercentage() {
+        return kilometers > 0 ? (getSustainableKilometers() / kilometers) * 100 : 0.0;
+    }
+
+    /**
+     * Promedio del costo por kilómetro de los viajes con costo y kilómetros positivos
+     * @param defaultValue Valor si no hay viajes con costo
+     */
+    public double getAverageCostPerKm(double defaultValue) {
+        double suma = 0;
+        long viajes = 0;
+        for (TypeTotals totals : porTipo.values()) {
+            suma += totals.getCostPerKmSum();
+            viajes += totals.getCostPerKmTrips();
+        }
+        return viajes > 0 ? suma / viajes : defaultValue;
+    }
+
+    private static double valueOf(Double value) {
+        return value != null ? value : 0.0;
+    }
+
+    /**
+     * Totales de un tipo de transporte
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class TypeTotals {
+
+        static final TypeTotals NONE = new TypeTotals(0, 0, 0, 0, 0);
+
+        private final double kilometers;
+        private final double cost;
+        private final long trips;
+        private final double costPerKmSum;
+        private final long costPerKmTrips;
+    }
+}
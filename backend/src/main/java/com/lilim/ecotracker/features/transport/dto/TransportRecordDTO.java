@@ -0,0 +1,32 @@
+package com.lilim.ecotracker.features.transport.dto;
+
+import com.lilim.ecotracker.features.transport.model.Transport;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de transporte devuelto en los listados y al guardarlo, sin las relaciones de la entidad
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransportRecordDTO {
+    private Long id;
+    private LocalDateTime date;
+    private Double kilometers;
+    private String transportType;
+    private Double cost;
+
+    /**
+     * Crea el DTO a partir de un registro guardado, sin acceder a su usuario
+     */
+    public static TransportRecordDTO of(Transport transport) {
+        return new TransportRecordDTO(transport.getId(), transport.getDate(), transport.getKilometers(),
+                transport.getTransportType(), transport.getCost());
+    }
+}
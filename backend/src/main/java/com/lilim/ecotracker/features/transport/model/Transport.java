@@ -1,14 +1,19 @@
 package com.lilim.ecotracker.features.transport.model;
 
 import com.lilim.ecotracker.common.model.BaseEntity;
+import com.lilim.ecotracker.common.model.ResourceType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
 
 @Entity
-@Table(name = "transport_usage")
+@Table(name = "transport_usage", indexes = {
+        @Index(name = "idx_transport_usage_user_date", columnList = "user_id, date"),
+        @Index(name = "idx_transport_usage_user_type_date", columnList = "user_id, transport_type, date")
+})
 @Getter
 @Setter
 public class Transport extends BaseEntity {
@@ -18,4 +23,9 @@ public class Transport extends BaseEntity {
     
     @Column(nullable = false)
     private String transportType;
-}
\ No newline at end of file
+
+    @Override
+    public ResourceType resourceType() {
+        return ResourceType.TRANSPORT;
+    }
+}
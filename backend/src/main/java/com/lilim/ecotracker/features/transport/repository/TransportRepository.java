@@ -1,6 +1,12 @@
 package com.lilim.ecotracker.features.transport.repository;
 
+import com.lilim.ecotracker.common.projection.BimonthlyTotal;
+import com.lilim.ecotracker.common.projection.TransportBimonthlyTotal;
+import com.lilim.ecotracker.common.projection.TransportTypeTotal;
+import com.lilim.ecotracker.features.transport.dto.TransportRecordDTO;
 import com.lilim.ecotracker.features.transport.model.Transport;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -44,4 +50,38 @@ public interface TransportRepository extends JpaRepository<Transport, Long> {
     // Sumatoria de kilómetros por tipo de transporte y fecha
     @Query("SELECT SUM(t.kilometers) FROM Transport t WHERE t.user.id = :userId AND t.transportType = :type AND t.date > :date")
     Double sumKilometersByUserIdAndTypeAndDateAfter(@Param("userId") Long userId, @Param("type") String type, @Param("date") LocalDateTime date);
-}
\ No newline at end of file
+
+    // Kilómetros, costo y viajes por tipo de transporte en una ventana de tiempo; base de TransportBreakdown
+    @Query("SELECT t.transportType AS transportType, SUM(t.kilometers) AS kilometers, SUM(t.cost) AS cost, COUNT(t) AS trips, " +
+            "SUM(CASE WHEN t.cost > 0 AND t.kilometers > 0 THEN t.cost / t.kilometers ELSE 0 END) AS costPerKmSum, " +
+            "SUM(CASE WHEN t.cost > 0 AND t.kilometers > 0 THEN 1 ELSE 0 END) AS costPerKmTrips " +
+            "FROM Transport t WHERE t.user.id = :userId AND t.date BETWEEN :startDate AND :endDate " +
+            "GROUP BY t.transportType")
+    List<TransportTypeTotal> sumByTransportType(@Param("userId") Long userId, @Param("startDate") LocalDateTime startDate,
+                                                @Param("endDate") LocalDateTime endDate);
+
+    // Totales por período bimestral (año * 6 + mes / 2) calculados en la base de datos
+    @Query("SELECT t.user.id AS userId, YEAR(t.date) * 6 + FLOOR(MONTH(t.date) / 2) AS period, " +
+            "SUM(t.kilometers) AS total, SUM(t.cost) AS cost, COUNT(t) AS records, MIN(t.date) AS firstDate " +
+            "FROM Transport t WHERE t.user.id = :userId " +
+            "GROUP BY t.user.id, YEAR(t.date) * 6 + FLOOR(MONTH(t.date) / 2) " +
+            "ORDER BY MIN(t.date)")
+    List<BimonthlyTotal> findBimonthlyTotalsByUserId(@Param("userId") Long userId);
+
+    // Totales por período bimestral y tipo de transporte; los períodos quedan contiguos al ordenar por la primera fecha
+    @Query("SELECT t.user.id AS userId, YEAR(t.date) * 6 + FLOOR(MONTH(t.date) / 2) AS period, t.transportType AS transportType, " +
+            "SUM(t.kilometers) AS total, SUM(t.cost) AS cost, COUNT(t) AS records, MIN(t.date) AS firstDate " +
+            "FROM Transport t WHERE t.user.id = :userId " +
+            "GROUP BY t.user.id, YEAR(t.date) * 6 + FLOOR(MONTH(t.date) / 2), t.transportType " +
+            "ORDER BY MIN(t.date)")
+    List<TransportBimonthlyTotal> findBimonthlyTypeTotalsByUserId(@Param("userId") Long userId);
+
+    // Página de registros anteriores a la posición (beforeDate, beforeId), del más reciente al más antiguo
+    @Query("SELECT new com.lilim.ecotracker.features.transport.dto.TransportRecordDTO(t.id, t.date, t.kilometers, t.transportType, t.cost) " +
+            "FROM Transport t WHERE t.user.id = :userId AND t.date >= :from " +
+            "AND (t.date < :beforeDate OR (t.date = :beforeDate AND t.id < :beforeId)) " +
+            "ORDER BY t.date DESC, t.id DESC")
+    Slice<TransportRecordDTO> findSliceByUserIdAndDateBefore(@Param("userId") Long userId, @Param("from") LocalDateTime from,
+                                                     @Param("beforeDate") LocalDateTime beforeDate,
+                                                     @Param("beforeId") Long beforeId, Pageable pageable);
+}
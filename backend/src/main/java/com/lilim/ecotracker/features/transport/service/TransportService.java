@@ -1,9 +1,16 @@
 package com.lilim.ecotracker.features.transport.service;
 
+import com.lilim.ecotracker.common.imports.ImportFormat;
+import com.lilim.ecotracker.common.imports.ImportResultDTO;
+import com.lilim.ecotracker.common.pagination.CursorPage;
+import com.lilim.ecotracker.features.transport.dto.TransportRecordDTO;
 import com.lilim.ecotracker.features.transport.model.Transport;
-import java.util.List;
+
+import java.io.InputStream;
+import java.time.LocalDate;
 
 public interface TransportService {
     Transport saveUsage(Transport transport);
-    List<Transport> getAllUsage();
+    CursorPage<TransportRecordDTO> getUsage(LocalDate from, LocalDate to, String cursor, Integer limit);
+    ImportResultDTO importUsage(InputStream input, ImportFormat format);
 }
\ No newline at end of file
@@ -1,52 +1,84 @@
 package com.lilim.ecotracker.features.transport.service;
 
-import com.lilim.ecotracker.features.metas.service.MetaService;
+import com.lilim.ecotracker.common.imports.ConsumptionImportService;
+import com.lilim.ecotracker.common.imports.ConsumptionImportSpec;
+import com.lilim.ecotracker.common.imports.ImportFormat;
+import com.lilim.ecotracker.common.imports.ImportResultDTO;
+import com.lilim.ecotracker.common.model.ResourceType;
+import com.lilim.ecotracker.common.pagination.CursorPage;
+import com.lilim.ecotracker.common.pagination.KeysetPageRequest;
+import com.lilim.ecotracker.features.transport.dto.TransportRecordDTO;
 import com.lilim.ecotracker.features.transport.model.Transport;
 import com.lilim.ecotracker.features.transport.repository.TransportRepository;
+import com.lilim.ecotracker.features.summary.service.ConsumptionRollupService;
 import com.lilim.ecotracker.security.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.List;
+import java.io.InputStream;
+import java.time.LocalDate;
 
 // En backend/src/main/java/com/lilim/ecotracker/features/transport/service/TransportServiceImpl.java
 
 @Service
 public class TransportServiceImpl implements TransportService {
 
+    private static final ConsumptionImportSpec<Transport> IMPORT_SPEC = ConsumptionImportSpec.of(
+            ResourceType.TRANSPORT, Transport.class, Transport::new, "kilometers", Transport::getKilometers, Transport::setKilometers)
+            .withTextField("transportType", Transport::getTransportType, Transport::setTransportType,
+                    "car", "bus", "bicycle", "walk", "other");
+
     private final TransportRepository transportRepository;
     private final UserService userService;
-    private final MetaService metaService; // Añadir esta referencia
+    private final ConsumptionRollupService rollupService;
+    private final TransactionTemplate transactionTemplate;
+    private final ConsumptionImportService importService;
 
     @Autowired
     public TransportServiceImpl(
             TransportRepository transportRepository,
             UserService userService,
-            MetaService metaService) { // Añadir parámetro
+            ConsumptionRollupService rollupService,
+            TransactionTemplate transactionTemplate,
+            ConsumptionImportService importService) {
         this.transportRepository = transportRepository;
         this.userService = userService;
-        this.metaService = metaService; // Inicializar
+        this.rollupService = rollupService;
+        this.transactionTemplate = transactionTemplate;
+        this.importService = importService;
     }
 
     @Override
     public Transport saveUsage(Transport transport) {
-        transport.setUser(userService.getCurrentUser());
-        Transport savedTransport = transportRepository.save(transport);
-
-        // Actualizar automáticamente las metas de transporte
-        try {
-            metaService.updateAutomaticMetasForType("transporte");
-            System.out.println("Metas de transporte actualizadas automáticamente tras nuevo registro");
-        } catch (Exception e) {
-            System.err.println("Error al actualizar metas de transporte: " + e.getMessage());
-            e.printStackTrace();
+        // Se valida antes de guardar: la base de datos rechaza estos campos nulos y el total bimestral los necesita
+        if (transport.getDate() == null || transport.getKilometers() == null || transport.getCost() == null || transport.getTransportType() == null) {
+            throw new IllegalArgumentException("Los campos 'date', 'kilometers', 'cost' y 'transportType' son obligatorios");
         }
+        transport.setUser(userService.getCurrentUserReference());
+
+        // Guardar el registro y acumularlo en su total bimestral en la misma transacción
+        // Las metas automáticas se recalculan en segundo plano al confirmarse (MetaRefreshScheduler)
+        Transport savedTransport = transactionTemplate.execute(status -> {
+            Transport saved = transportRepository.save(transport);
+            rollupService.record(saved.getUser(), ResourceType.TRANSPORT, saved.getDate(), saved.getKilometers(), saved.getCost());
+            return saved;
+        });
 
         return savedTransport;
     }
 
     @Override
-    public List<Transport> getAllUsage() {
-        return transportRepository.findByUserId(userService.getCurrentUser().getId());
+    public CursorPage<TransportRecordDTO> getUsage(LocalDate from, LocalDate to, String cursor, Integer limit) {
+        KeysetPageRequest page = KeysetPageRequest.of(from, to, cursor, limit);
+        Slice<TransportRecordDTO> slice = transportRepository.findSliceByUserIdAndDateBefore(userService.getCurrentUserId(),
+                page.getFrom(), page.getBeforeDate(), page.getBeforeId(), page.pageable());
+        return CursorPage.of(slice, TransportRecordDTO::getDate, TransportRecordDTO::getId);
+    }
+
+    @Override
+    public ImportResultDTO importUsage(InputStream input, ImportFormat format) {
+        return importService.importRecords(input, format, IMPORT_SPEC, userService.getCurrentUserReference());
     }
 }
@@ -1,13 +1,20 @@
 package com.lilim.ecotracker.features.water.controller;
 
+import com.lilim.ecotracker.common.imports.ImportFormat;
+import com.lilim.ecotracker.common.imports.ImportResultDTO;
+import com.lilim.ecotracker.common.pagination.CursorPage;
+import com.lilim.ecotracker.features.water.dto.WaterRecordDTO;
 import com.lilim.ecotracker.features.water.model.Water;
 import com.lilim.ecotracker.features.water.service.WaterService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.InputStream;
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("/api/water")
@@ -21,14 +28,49 @@ public class WaterController {
     }
 
     @PostMapping
-    public ResponseEntity<Water> saveConsumption(@RequestBody Water water) {
-        Water savedConsumption = waterService.saveConsumption(water);
-        return new ResponseEntity<>(savedConsumption, HttpStatus.CREATED);
+    public ResponseEntity<WaterRecordDTO> saveConsumption(@RequestBody Water water) {
+        try {
+            Water savedConsumption = waterService.saveConsumption(water);
+            return new ResponseEntity<>(WaterRecordDTO.of(savedConsumption), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
+    /**
+     * Lista los registros del usuario del más reciente al más antiguo, por páginas.
+     *
+     * @param from Fecha inicial (inclusive), opcional
+     * @param to Fecha final (inclusive), opcional
+     * @param cursor Cursor devuelto en la página anterior; se omite para la primera página
+     * @param limit Tamaño de la página (por defecto 100, máximo 500)
+     * @return Página de registros y cursor de la siguiente, o 400 si el cursor no es válido
+     */
     @GetMapping
-    public ResponseEntity<List<Water>> getAllConsumption() {
-        List<Water> consumptions = waterService.getAllConsumption();
-        return new ResponseEntity<>(consumptions, HttpStatus.OK);
+    public ResponseEntity<CursorPage<WaterRecordDTO>> getConsumption(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return new ResponseEntity<>(waterService.getConsumption(from, to, cursor, limit), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportResultDTO> importJson(InputStream body) {
+        return importResponse(waterService.importConsumption(body, ImportFormat.JSON));
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ImportResultDTO> importCsv(InputStream body) {
+        return importResponse(waterService.importConsumption(body, ImportFormat.CSV));
+    }
+
+    private ResponseEntity<ImportResultDTO> importResponse(ImportResultDTO result) {
+        HttpStatus status = result.getErrors().isEmpty() ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST;
+        return new ResponseEntity<>(result, status);
     }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.lilim.ecotracker.features.water.dto;
+
+import com.lilim.ecotracker.features.water.model.Water;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro de agua devuelto en los listados y al guardarlo, sin las relaciones de la entidad
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaterRecordDTO {
+    private Long id;
+    private LocalDateTime date;
+    private Double liters;
+    private Double cost;
+
+    /**
+     * Crea el DTO a partir de un registro guardado, sin acceder a su usuario
+     */
+    public static WaterRecordDTO of(Water water) {
+        return new WaterRecordDTO(water.getId(), water.getDate(), water.getLiters(), water.getCost());
+    }
+}
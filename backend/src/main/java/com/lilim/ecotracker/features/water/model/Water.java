@@ -1,18 +1,25 @@
 package com.lilim.ecotracker.features.water.model;
 
 import com.lilim.ecotracker.common.model.BaseEntity;
+import com.lilim.ecotracker.common.model.ResourceType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
 
 @Entity
-@Table(name = "water_consumption")
+@Table(name = "water_consumption", indexes = @Index(name = "idx_water_consumption_user_date", columnList = "user_id, date"))
 @Getter
 @Setter
 public class Water extends BaseEntity {
     
     @Column(nullable = false)
     private Double liters;
-}
\ No newline at end of file
+
+    @Override
+    public ResourceType resourceType() {
+        return ResourceType.WATER;
+    }
+}
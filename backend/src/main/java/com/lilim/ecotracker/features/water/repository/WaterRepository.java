@@ -1,11 +1,18 @@
 package com.lilim.ecotracker.features.water.repository;
 
+import com.lilim.ecotracker.common.projection.BimonthlyTotal;
+import com.lilim.ecotracker.features.water.dto.WaterRecordDTO;
 import com.lilim.ecotracker.features.water.model.Water;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface WaterRepository extends JpaRepository<Water, Long> {
@@ -14,4 +21,23 @@ public interface WaterRepository extends JpaRepository<Water, Long> {
     List<Water> findByUserIdAndDateBetween(Long userId, LocalDateTime dateStart, LocalDateTime dateEnd);
 
     List<Water> findByUserIdOrderByDateDesc(Long id);
-}
\ No newline at end of file
+
+    Optional<Water> findFirstByUserIdOrderByDateDesc(Long userId);
+
+    // Totales por período bimestral (año * 6 + mes / 2) calculados en la base de datos
+    @Query("SELECT w.user.id AS userId, YEAR(w.date) * 6 + FLOOR(MONTH(w.date) / 2) AS period, " +
+            "SUM(w.liters) AS total, SUM(w.cost) AS cost, COUNT(w) AS records, MIN(w.date) AS firstDate " +
+            "FROM Water w WHERE w.user.id = :userId " +
+            "GROUP BY w.user.id, YEAR(w.date) * 6 + FLOOR(MONTH(w.date) / 2) " +
+            "ORDER BY MIN(w.date)")
+    List<BimonthlyTotal> findBimonthlyTotalsByUserId(@Param("userId") Long userId);
+
+    // Página de registros anteriores a la posición (beforeDate, beforeId), del más reciente al más antiguo
+    @Query("SELECT new com.lilim.ecotracker.features.water.dto.WaterRecordDTO(w.id, w.date, w.liters, w.cost) " +
+            "FROM Water w WHERE w.user.id = :userId AND w.date >= :from " +
+            "AND (w.date < :beforeDate OR (w.date = :beforeDate AND w.id < :beforeId)) " +
+            "ORDER BY w.date DESC, w.id DESC")
+    Slice<WaterRecordDTO> findSliceByUserIdAndDateBefore(@Param("userId") Long userId, @Param("from") LocalDateTime from,
+                                                     @Param("beforeDate") LocalDateTime beforeDate,
+                                                     @Param("beforeId") Long beforeId, Pageable pageable);
+}
@@ -1,9 +1,16 @@
 package com.lilim.ecotracker.features.water.service;
 
+import com.lilim.ecotracker.common.imports.ImportFormat;
+import com.lilim.ecotracker.common.imports.ImportResultDTO;
+import com.lilim.ecotracker.common.pagination.CursorPage;
+import com.lilim.ecotracker.features.water.dto.WaterRecordDTO;
 import com.lilim.ecotracker.features.water.model.Water;
-import java.util.List;
+
+import java.io.InputStream;
+import java.time.LocalDate;
 
 public interface WaterService {
     Water saveConsumption(Water water);
-    List<Water> getAllConsumption();
+    CursorPage<WaterRecordDTO> getConsumption(LocalDate from, LocalDate to, String cursor, Integer limit);
+    ImportResultDTO importConsumption(InputStream input, ImportFormat format);
 }
\ No newline at end of file
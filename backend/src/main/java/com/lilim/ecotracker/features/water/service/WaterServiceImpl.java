@@ -1,52 +1,82 @@
 package com.lilim.ecotracker.features.water.service;
 
-import com.lilim.ecotracker.features.metas.service.MetaService;
+import com.lilim.ecotracker.common.imports.ConsumptionImportService;
+import com.lilim.ecotracker.common.imports.ConsumptionImportSpec;
+import com.lilim.ecotracker.common.imports.ImportFormat;
+import com.lilim.ecotracker.common.imports.ImportResultDTO;
+import com.lilim.ecotracker.common.model.ResourceType;
+import com.lilim.ecotracker.common.pagination.CursorPage;
+import com.lilim.ecotracker.common.pagination.KeysetPageRequest;
+import com.lilim.ecotracker.features.water.dto.WaterRecordDTO;
 import com.lilim.ecotracker.features.water.repository.WaterRepository;
 import com.lilim.ecotracker.features.water.model.Water;
+import com.lilim.ecotracker.features.summary.service.ConsumptionRollupService;
 import com.lilim.ecotracker.security.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.List;
+import java.io.InputStream;
+import java.time.LocalDate;
 
 // En backend/src/main/java/com/lilim/ecotracker/features/water/service/WaterServiceImpl.java
 
 @Service
 public class WaterServiceImpl implements WaterService {
 
+    private static final ConsumptionImportSpec<Water> IMPORT_SPEC = ConsumptionImportSpec.of(
+            ResourceType.WATER, Water.class, Water::new, "liters", Water::getLiters, Water::setLiters);
+
     private final WaterRepository waterRepository;
     private final UserService userService;
-    private final MetaService metaService; // Añadir esta referencia
+    private final ConsumptionRollupService rollupService;
+    private final TransactionTemplate transactionTemplate;
+    private final ConsumptionImportService importService;
 
     @Autowired
     public WaterServiceImpl(
             WaterRepository waterRepository,
             UserService userService,
-            MetaService metaService) { // Añadir parámetro
+            ConsumptionRollupService rollupService,
+            TransactionTemplate transactionTemplate,
+            ConsumptionImportService importService) {
         this.waterRepository = waterRepository;
         this.userService = userService;
-        this.metaService = metaService; // Inicializar
+        this.rollupService = rollupService;
+        this.transactionTemplate = transactionTemplate;
+        this.importService = importService;
     }
 
     @Override
     public Water saveConsumption(Water water) {
-        water.setUser(userService.getCurrentUser());
-        Water savedWater = waterRepository.save(water);
-
-        // Actualizar automáticamente las metas de agua
-        try {
-            metaService.updateAutomaticMetasForType("agua");
-            System.out.println("Metas de agua actualizadas automáticamente tras nuevo registro");
-        } catch (Exception e) {
-            System.err.println("Error al actualizar metas de agua: " + e.getMessage());
-            e.printStackTrace();
+        // Se valida antes de guardar: la base de datos rechaza estos campos nulos y el total bimestral los necesita
+        if (water.getDate() == null || water.getLiters() == null || water.getCost() == null) {
+            throw new IllegalArgumentException("Los campos 'date', 'liters' y 'cost' son obligatorios");
         }
+        water.setUser(userService.getCurrentUserReference());
+
+        // Guardar el registro y acumularlo en su total bimestral en la misma transacción
+        // Las metas automáticas se recalculan en segundo plano al confirmarse (MetaRefreshScheduler)
+        Water savedWater = transactionTemplate.execute(status -> {
+            Water saved = waterRepository.save(water);
+            rollupService.record(saved.getUser(), ResourceType.WATER, saved.getDate(), saved.getLiters(), saved.getCost());
+            return saved;
+        });
 
         return savedWater;
     }
 
     @Override
-    public List<Water> getAllConsumption() {
-        return waterRepository.findByUserId(userService.getCurrentUser().getId());
+    public CursorPage<WaterRecordDTO> getConsumption(LocalDate from, LocalDate to, String cursor, Integer limit) {
+        KeysetPageRequest page = KeysetPageRequest.of(from, to, cursor, limit);
+        Slice<WaterRecordDTO> slice = waterRepository.findSliceByUserIdAndDateBefore(userService.getCurrentUserId(),
+                page.getFrom(), page.getBeforeDate(), page.getBeforeId(), page.pageable());
+        return CursorPage.of(slice, WaterRecordDTO::getDate, WaterRecordDTO::getId);
+    }
+
+    @Override
+    public ImportResultDTO importConsumption(InputStream input, ImportFormat format) {
+        return importService.importRecords(input, format, IMPORT_SPEC, userService.getCurrentUserReference());
     }
 }
\ No newline at end of file
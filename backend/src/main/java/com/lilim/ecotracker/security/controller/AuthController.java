@@ -1,29 +1,42 @@
 package com.lilim.ecotracker.security.controller;
 
 import com.lilim.ecotracker.security.dto.JwtResponse;
+import com.lilim.ecotracker.security.dto.LoginBulkheadStats;
 import com.lilim.ecotracker.security.dto.LoginRequest;
 import com.lilim.ecotracker.security.dto.MessageResponse;
 import com.lilim.ecotracker.security.dto.SignupRequest;
 import com.lilim.ecotracker.security.jwt.JwtUtils;
+import com.lilim.ecotracker.security.jwt.TokenRevocationList;
+import com.lilim.ecotracker.security.jwt.VerifiedTokenCache;
 import com.lilim.ecotracker.security.model.User;
 import com.lilim.ecotracker.security.repository.UserRepository;
+import com.lilim.ecotracker.security.service.LoginBulkhead;
+import com.lilim.ecotracker.security.service.LoginThrottle;
 import com.lilim.ecotracker.security.service.UserService;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @CrossOrigin(origins = "http://localhost:4200", maxAge = 3600, allowCredentials = "true")
@@ -37,26 +50,48 @@ public class AuthController {
     private final PasswordEncoder encoder;
     private final JwtUtils jwtUtils;
     private final UserService userService;
+    private final LoginBulkhead loginBulkhead;
+    private final LoginThrottle loginThrottle;
+    private final TokenRevocationList revocationList;
+    private final VerifiedTokenCache tokenCache;
 
     public AuthController(AuthenticationManager authenticationManager, 
                          UserRepository userRepository, 
                          PasswordEncoder encoder, 
                          JwtUtils jwtUtils,
-                         UserService userService) {
+                         UserService userService,
+                         LoginBulkhead loginBulkhead,
+                         LoginThrottle loginThrottle,
+                         TokenRevocationList revocationList,
+                         VerifiedTokenCache tokenCache) {
         this.authenticationManager = authenticationManager;
         this.userRepository = userRepository;
         this.encoder = encoder;
         this.jwtUtils = jwtUtils;
         this.userService = userService;
+        this.loginBulkhead = loginBulkhead;
+        this.loginThrottle = loginThrottle;
+        this.revocationList = revocationList;
+        this.tokenCache = tokenCache;
     }
 
+    /**
+     * Iniciar sesión
+     * La verificación BCrypt se ejecuta en el pool de autenticación; responde 429 si el usuario o
+     * la IP superan su límite de intentos o si el pool está saturado
+     */
     @PostMapping("/signin")
-    public ResponseEntity<?> authenticateUser(@RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@RequestBody LoginRequest loginRequest,
+                                                                 HttpServletRequest request) {
+        return throttled(loginRequest.getUsername(), request, () -> signin(loginRequest));
+    }
+
+    private ResponseEntity<?> signin(LoginRequest loginRequest) {
         try {
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
 
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+            // Sin SecurityContextHolder: la autenticación corre en un hilo del pool y el token es la sesión
             String jwt = jwtUtils.generateJwtToken(authentication);
 
             UserDetails userDetails = (UserDetails) authentication.getPrincipal();
@@ -68,19 +103,30 @@ public class AuthController {
             User user = userRepository.findByUsername(userDetails.getUsername())
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
-            // Asegúrate de que el token no sea null y lo estés pasando correctamente
-            System.out.println("Token generado: " + jwt.substring(0, 20) + "...");
-
             return ResponseEntity.ok(new JwtResponse(jwt, user.getId(), user.getUsername(), user.getEmail(), roles));
+        } catch (AuthenticationException e) {
+            // Credenciales incorrectas: es un error del cliente, sin traza
+            logger.debug("Inicio de sesión fallido para {}: {}", loginRequest.getUsername(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new MessageResponse("Error: " + e.getMessage()));
         } catch (Exception e) {
-            e.printStackTrace();
+            logger.error("Error al iniciar sesión: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new MessageResponse("Error: " + e.getMessage()));
         }
     }
 
+    /**
+     * Registrar un usuario
+     * El hash de la contraseña se calcula en el pool de autenticación con límite de intentos por IP
+     */
     @PostMapping("/signup")
-    public ResponseEntity<?> registerUser(@RequestBody SignupRequest signUpRequest) {
+    public CompletableFuture<ResponseEntity<?>> registerUser(@RequestBody SignupRequest signUpRequest,
+                                                             HttpServletRequest request) {
+        return throttled(null, request, () -> signup(signUpRequest));
+    }
+
+    private ResponseEntity<?> signup(SignupRequest signUpRequest) {
         if (userRepository.existsByUsername(signUpRequest.getUsername())) {
             return ResponseEntity
                     .badRequest()
@@ -115,6 +161,60 @@ public class AuthController {
         return ResponseEntity.ok(new MessageResponse("Usuario registrado exitosamente"));
     }
 
+    /**
+     * Cerrar sesión
+     * Revoca el token recibido hasta su expiración; un token ausente o ya inválido no tiene
+     * efecto, de modo que la operación es idempotente
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<MessageResponse> logoutUser(HttpServletRequest request) {
+        String headerAuth = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")) {
+            String token = headerAuth.substring(7);
+            Claims claims = jwtUtils.parseVerifiedClaims(token);
+            if (claims != null) {
+                revocationList.revoke(claims.getId(), claims.getExpiration());
+                tokenCache.invalidate(token);
+            }
+        }
+        return ResponseEntity.ok(new MessageResponse("Sesión cerrada exitosamente"));
+    }
+
+    /**
+     * Obtener las métricas del pool de autenticación: profundidad de cola, rechazos y latencia del hash
+     */
+    @GetMapping("/bulkhead/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<LoginBulkheadStats> getBulkheadStats() {
+        return ResponseEntity.ok(loginBulkhead.stats(loginThrottle.getRejectedCount()));
+    }
+
+    /**
+     * Aplica el limitador de intentos y ejecuta la operación en el pool de autenticación
+     */
+    private CompletableFuture<ResponseEntity<?>> throttled(String username, HttpServletRequest request,
+                                                           Supplier<ResponseEntity<?>> operation) {
+        Duration wait = loginThrottle.tryAcquire(username, request.getRemoteAddr());
+        if (!wait.isZero()) {
+            return CompletableFuture.completedFuture(tooManyRequests(wait,
+                    "Error: Demasiados intentos, inténtelo de nuevo más tarde"));
+        }
+        try {
+            return loginBulkhead.submit(operation);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Pool de autenticación saturado, solicitud rechazada");
+            return CompletableFuture.completedFuture(tooManyRequests(Duration.ofSeconds(1),
+                    "Error: El servicio está ocupado, inténtelo de nuevo en unos segundos"));
+        }
+    }
+
+    private ResponseEntity<?> tooManyRequests(Duration retryAfter, String message) {
+        long seconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+                .body(new MessageResponse(message));
+    }
+
     /**
      * Obtener la puntuación actual del usuario
      */
@@ -0,0 +1,21 @@
+package com.lilim.ecotracker.security.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Métricas del pool de autenticación y del limitador de intentos
+ */
+@Getter
+@AllArgsConstructor
+public class LoginBulkheadStats {
+    private int threads;
+    private int active;
+    private int queueDepth;
+    private int queueCapacity;
+    private long completed;
+    private long rejected;
+    private long throttled;
+    private double averageHashLatencyMs;
+    private double maxHashLatencyMs;
+}
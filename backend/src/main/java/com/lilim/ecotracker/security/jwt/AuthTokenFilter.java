@@ -1,11 +1,16 @@
 package com.lilim.ecotracker.security.jwt;
 
+import com.lilim.ecotracker.common.logging.LogSampler;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.CredentialsContainer;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -14,11 +19,12 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
 public class AuthTokenFilter extends OncePerRequestFilter {
-    private static final Logger logger = Logger.getLogger(AuthTokenFilter.class.getName());
+    private static final Logger logger = LoggerFactory.getLogger(AuthTokenFilter.class);
+
+    // Se ejecuta en cada petición: los eventos de depuración se muestrean
+    private static final LogSampler debugSampler = new LogSampler(0.01);
 
     @Autowired
     private JwtUtils jwtUtils;
@@ -26,48 +32,75 @@ public class AuthTokenFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private VerifiedTokenCache tokenCache;
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
 
-            // Log para depuración
-            logger.info("Request path: " + request.getRequestURI());
-            logger.info("Authorization header: " + request.getHeader("Authorization"));
-            logger.info("JWT extraído: " + (jwt != null ? jwt.substring(0, Math.min(10, jwt.length())) + "..." : "null"));
-
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
-                logger.info("JWT válido para el usuario: " + username);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            UserDetails userDetails = jwt != null ? authenticate(jwt) : null;
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
-                logger.info("Usuario autenticado correctamente: " + username);
-            } else if (jwt != null) {
-                logger.warning("JWT no válido o expirado");
-            } else {
-                logger.info("No se encontró JWT en la solicitud");
+                if (logger.isDebugEnabled() && debugSampler.sample()) {
+                    logger.debug("Usuario autenticado: {}", userDetails.getUsername());
+                }
+            } else if (jwt != null && logger.isDebugEnabled() && debugSampler.sample()) {
+                logger.debug("JWT no válido, expirado o revocado en {}", request.getRequestURI());
             }
         } catch (Exception e) {
-            logger.log(Level.SEVERE, "Cannot set user authentication: " + e.getMessage(), e);
+            logger.error("Cannot set user authentication: {}", e.getMessage(), e);
         }
 
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Obtiene el principal del token, verificándolo solo si no está en caché
+     * El principal se construye con los claims del token; solo los tokens sin ID de usuario
+     * requieren cargar el usuario de la base de datos. La revocación se comprueba siempre, también
+     * con el token en caché, porque pudo revocarse en otra instancia
+     *
+     * @param jwt Token recibido
+     * @return Principal autenticado, o null si el token no es válido o fue revocado
+     */
+    private UserDetails authenticate(String jwt) {
+        VerifiedTokenCache.VerifiedToken cached = tokenCache.get(jwt);
+        if (cached != null) {
+            return revocationList.isRevoked(cached.getJti()) ? null : cached.getPrincipal();
+        }
+
+        Claims claims = jwtUtils.parseVerifiedClaims(jwt);
+        if (claims == null || revocationList.isRevoked(claims.getId())) {
+            return null;
+        }
+
+        UserDetails userDetails = jwtUtils.toPrincipal(claims);
+        if (userDetails == null) {
+            userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+            // El principal queda en caché: no debe conservar el hash de la contraseña
+            if (userDetails instanceof CredentialsContainer credentials) {
+                credentials.eraseCredentials();
+            }
+        }
+        tokenCache.put(jwt, claims.getExpiration(), claims.getId(), userDetails);
+        return userDetails;
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
-        logger.info("Header Authorization raw: " + headerAuth);
 
         if (StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")) {
-            String token = headerAuth.substring(7);
-            logger.info("Token extraído del header: " + token.substring(0, Math.min(10, token.length())) + "...");
-            return token;
+            return headerAuth.substring(7);
         }
 
         return null;
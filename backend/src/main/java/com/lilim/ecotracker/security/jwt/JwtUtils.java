@@ -1,87 +1,130 @@
 package com.lilim.ecotracker.security.jwt;
 
+import com.lilim.ecotracker.common.logging.LogSampler;
+import com.lilim.ecotracker.security.model.AuthenticatedUser;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
+import java.security.Key;
+import java.util.Collection;
 import java.util.Date;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.util.List;
+import java.util.UUID;
 
 @Component
 public class JwtUtils {
-    private static final Logger logger = Logger.getLogger(JwtUtils.class.getName());
+    private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
-    // Generamos una clave segura para HS256 al iniciar la aplicación
-    private final SecretKey jwtSecret = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+    // Los tokens rechazados (expirados, de claves retiradas...) llegan con cada petición: se muestrean
+    private static final LogSampler rejectionSampler = new LogSampler(0.01);
+
+    // Claims con la identidad del usuario, para autenticar sin consultar la base de datos
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLES_CLAIM = "roles";
+
+    // Claves de firma persistidas y compartidas entre instancias; cada token indica su clave en 'kid'
+    private final SigningKeyring keyring;
+
+    // El parser es inmutable y seguro entre hilos: se construye una sola vez y resuelve la clave por 'kid'
+    private final JwtParser jwtParser;
 
     @Value("${ecotracker.app.jwtExpirationMs}")
     private int jwtExpirationMs;
 
+    @Autowired
+    public JwtUtils(SigningKeyring keyring) {
+        this.keyring = keyring;
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        Key key = keyring.getVerificationKey(header.getKeyId());
+                        if (key == null) {
+                            throw new SignatureException("Clave de firma desconocida o retirada: " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
+
     public String generateJwtToken(Authentication authentication) {
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
-        logger.info("Generando token JWT para el usuario: " + userPrincipal.getUsername());
 
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
-        logger.info("Token válido desde: " + now + " hasta: " + expiryDate);
 
-        String token = Jwts.builder()
-                .setSubject(userPrincipal.getUsername())
+        SigningKeyring.ActiveKey signingKey = keyring.getActiveKey();
+        JwtBuilder builder = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, signingKey.getKid())
+                .setSubject(userPrincipal.getUsername());
+        if (userPrincipal instanceof AuthenticatedUser authenticatedUser) {
+            builder.claim(USER_ID_CLAIM, authenticatedUser.getId())
+                    .claim(ROLES_CLAIM, authenticatedUser.getRoles());
+        }
+
+        // 'jti' identifica el token para poder revocarlo al cerrar sesión
+        return builder
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(jwtSecret)  // Usa la clave generada
+                .signWith(signingKey.getKey(), SignatureAlgorithm.HS256)
                 .compact();
-
-        logger.info("Token generado: " + token.substring(0, 20) + "...");
-
-        return token;
     }
 
-    public String getUserNameFromJwtToken(String token) {
+    /**
+     * Verifica la firma y la expiración del token y devuelve sus claims en una sola pasada
+     *
+     * @param token JWT recibido
+     * @return Claims del token, o null si no es válido
+     */
+    public Claims parseVerifiedClaims(String token) {
         try {
-            String username = Jwts.parserBuilder()
-                    .setSigningKey(jwtSecret)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody()
-                    .getSubject();
-
-            logger.info("Username extraído del token: " + username);
-            return username;
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "Error al extraer username del token: " + e.getMessage(), e);
-            throw e;
-        }
-    }
-
-    public boolean validateJwtToken(String authToken) {
-        try {
-            Jwts.parserBuilder()
-                    .setSigningKey(jwtSecret)
-                    .build()
-                    .parseClaimsJws(authToken);
-
-            logger.info("Token JWT válido");
-            return true;
+            return jwtParser.parseClaimsJws(token).getBody();
         } catch (SignatureException e) {
-            logger.severe("Firma JWT inválida: " + e.getMessage());
+            logRejected("Firma JWT inválida", e);
         } catch (MalformedJwtException e) {
-            logger.severe("Token JWT malformado: " + e.getMessage());
+            logRejected("Token JWT malformado", e);
         } catch (ExpiredJwtException e) {
-            logger.severe("Token JWT expirado: " + e.getMessage());
+            logRejected("Token JWT expirado", e);
         } catch (UnsupportedJwtException e) {
-            logger.severe("Token JWT no soportado: " + e.getMessage());
+            logRejected("Token JWT no soportado", e);
         } catch (IllegalArgumentException e) {
-            logger.severe("JWT claims string está vacío: " + e.getMessage());
+            logRejected("JWT claims string está vacío", e);
         } catch (Exception e) {
-            logger.severe("Error general validando JWT: " + e.getMessage());
+            logger.warn("Error general validando JWT: {}", e.getMessage());
+        }
+
+        return null;
+    }
+
+    private static void logRejected(String reason, Exception e) {
+        if (logger.isDebugEnabled() && rejectionSampler.sample()) {
+            logger.debug("{}: {}", reason, e.getMessage());
         }
+    }
 
-        return false;
+    /**
+     * Construye el principal a partir de los claims de identidad del token
+     *
+     * @param claims Claims verificados
+     * @return Principal sin contraseña, o null si el token no incluye el ID del usuario
+     */
+    public AuthenticatedUser toPrincipal(Claims claims) {
+        Number userId = claims.get(USER_ID_CLAIM, Number.class);
+        if (userId == null) {
+            return null;
+        }
+        Object roles = claims.get(ROLES_CLAIM);
+        List<String> roleNames = roles instanceof Collection<?> values
+                ? values.stream().map(String::valueOf).toList()
+                : List.of();
+        return new AuthenticatedUser(userId.longValue(), claims.getSubject(), null, roleNames);
     }
 }
\ No newline at end of file
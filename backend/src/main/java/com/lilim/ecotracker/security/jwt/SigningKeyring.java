@@ -0,0 +1,251 @@
+package com.lilim.ecotracker.security.jwt;
+
+import com.lilim.ecotracker.security.model.SigningKey;
+import com.lilim.ecotracker.security.repository.SigningKeyRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Conjunto de claves de firma de los JWT, persistido en la base de datos y compartido por todas
+ * las instancias de la aplicación.
+ * <p>
+ * Cada token lleva en la cabecera {@code kid} el identificador de la clave que lo firmó, de modo
+ * que cualquier instancia puede verificarlo y los tokens sobreviven a los reinicios. La clave
+ * activa se rota periódicamente: la anterior deja de firmar pero sigue verificando durante un
+ * período de gracia no menor que la vida de un token, y después se elimina. La rotación se decide
+ * con un UPDATE condicional, por lo que solo una instancia crea la clave siguiente; las demás la
+ * cargan en su siguiente refresco o al recibir un token con un {@code kid} desconocido. El
+ * material de las claves se guarda cifrado con AES-GCM usando la clave maestra
+ * {@code ecotracker.app.jwtSecret}.
+ * </p>
+ *
+ * @author EcoTracker Team
+ * @version 1.0
+ */
+@Component
+public class SigningKeyring {
+
+    private static final Logger logger = LoggerFactory.getLogger(SigningKeyring.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int KEY_BYTES = 32;
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+    private static final long UNKNOWN_KID_RELOAD_NANOS = Duration.ofSeconds(10).toNanos();
+
+    private final SigningKeyRepository keyRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final SecretKey masterKey;
+    private final Duration rotateAfter;
+    private final Duration grace;
+    private final SecureRandom random = new SecureRandom();
+
+    private volatile Keys keys = new Keys(null, null, Collections.emptyMap());
+    private volatile long lastReload;
+
+    @Autowired
+    public SigningKeyring(
+            SigningKeyRepository keyRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${ecotracker.app.jwtSecret}") String masterSecret,
+            @Value("${ecotracker.app.jwtExpirationMs}") long jwtExpirationMs,
+            @Value("${ecotracker.jwt.keys.rotate-after:7d}") Duration rotateAfter,
+            @Value("${ecotracker.jwt.keys.grace:48h}") Duration grace) {
+        this.keyRepository = keyRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.masterKey = deriveMasterKey(masterSecret);
+        this.rotateAfter = rotateAfter;
+        // Una clave retirada debe verificar al menos hasta que expire el último token que firmó
+        Duration tokenLifetime = Duration.ofMillis(jwtExpirationMs);
+        this.grace = grace.compareTo(tokenLifetime) < 0 ? tokenLifetime : grace;
+    }
+
+    @PostConstruct
+    public void init() {
+        maintain();
+    }
+
+    /**
+     * Rota la clave activa si superó su antigüedad, elimina las claves fuera del período de gracia
+     * y recarga las claves, incluidas las creadas por otras instancias
+     */
+    @Scheduled(fixedDelayString = "${ecotracker.jwt.keys.refresh-interval:5m}",
+            initialDelayString = "${ecotracker.jwt.keys.refresh-interval:5m}")
+    public void maintain() {
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime cutoff = now.minus(grace);
+
+            SigningKey active = null;
+            for (SigningKey key : keyRepository.findUsable(cutoff)) {
+                if (key.getRetiredAt() != null) {
+                    continue;
+                }
+                if (active == null && decrypt(key) != null) {
+                    active = key;
+                } else {
+                    // Claves activas sobrantes (arranques simultáneos) o que ya no se pueden descifrar
+                    keyRepository.retire(key.getKid(), now);
+                }
+            }
+
+            if (active == null) {
+                create(now);
+            } else if (active.getCreatedAt().isBefore(now.minus(rotateAfter))
+                    && keyRepository.retire(active.getKid(), now) == 1) {
+                create(now);
+                logger.info("Clave de firma {} rotada", active.getKid());
+            }
+
+            int purged = keyRepository.deleteRetiredBefore(cutoff);
+            if (purged > 0) {
+                logger.info("Eliminadas {} claves de firma fuera del período de gracia", purged);
+            }
+        });
+        reload();
+    }
+
+    /**
+     * Clave con la que se firman los tokens nuevos
+     *
+     * @return Identificador y clave activa
+     */
+    public ActiveKey getActiveKey() {
+        Keys current = keys;
+        if (current.activeKey == null) {
+            throw new IllegalStateException("No hay una clave de firma activa");
+        }
+        return new ActiveKey(current.activeKid, current.activeKey);
+    }
+
+    /**
+     * Clave que verifica los tokens firmados con el {@code kid} indicado
+     *
+     * @param kid Identificador de la cabecera del token
+     * @return Clave, o null si no existe o ya salió del período de gracia
+     */
+    public SecretKey getVerificationKey(String kid) {
+        if (kid == null) {
+            return null;
+        }
+        SecretKey key = keys.verification.get(kid);
+        if (key == null && System.nanoTime() - lastReload > UNKNOWN_KID_RELOAD_NANOS) {
+            // Puede ser una clave recién creada por otra instancia
+            reload();
+            key = keys.verification.get(kid);
+        }
+        return key;
+    }
+
+    private synchronized void reload() {
+        List<SigningKey> usable = transactionTemplate.execute(status ->
+                keyRepository.findUsable(LocalDateTime.now().minus(grace)));
+        Map<String, SecretKey> verification = new HashMap<>();
+        String activeKid = null;
+        SecretKey activeKey = null;
+        for (SigningKey key : usable != null ? usable : List.<SigningKey>of()) {
+            SecretKey secret = decrypt(key);
+            if (secret == null) {
+                continue;
+            }
+            verification.put(key.getKid(), secret);
+            if (activeKey == null && key.getRetiredAt() == null) {
+                activeKid = key.getKid();
+                activeKey = secret;
+            }
+        }
+        keys = new Keys(activeKid, activeKey, Map.copyOf(verification));
+        lastReload = System.nanoTime();
+    }
+
+    private void create(LocalDateTime now) {
+        byte[] material = new byte[KEY_BYTES];
+        random.nextBytes(material);
+        String kid = UUID.randomUUID().toString();
+        keyRepository.save(new SigningKey(kid, encrypt(material), now, null));
+        logger.info("Creada la clave de firma {}", kid);
+    }
+
+    private String encrypt(byte[] material) {
+        try {
+            byte[] iv = new byte[IV_BYTES];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, masterKey, new GCMParameterSpec(TAG_BITS, iv));
+            byte[] encrypted = cipher.doFinal(material);
+            return Base64.getEncoder().encodeToString(ByteBuffer.allocate(iv.length + encrypted.length)
+                    .put(iv).put(encrypted).array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("No se pudo cifrar la clave de firma", e);
+        }
+    }
+
+    private SecretKey decrypt(SigningKey key) {
+        try {
+            byte[] stored = Base64.getDecoder().decode(key.getSecret());
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, masterKey, new GCMParameterSpec(TAG_BITS, stored, 0, IV_BYTES));
+            return new SecretKeySpec(cipher.doFinal(stored, IV_BYTES, stored.length - IV_BYTES), ALGORITHM);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            logger.warn("No se pudo descifrar la clave de firma {}; ¿cambió la clave maestra?", key.getKid());
+            return null;
+        }
+    }
+
+    private static SecretKey deriveMasterKey(String masterSecret) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(masterSecret.getBytes(StandardCharsets.UTF_8));
+            return new SecretKeySpec(hash, "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 no está disponible", e);
+        }
+    }
+
+    /**
+     * Clave activa y su identificador
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class ActiveKey {
+        private final String kid;
+        private final SecretKey key;
+    }
+
+    private static final class Keys {
+        private final String activeKid;
+        private final SecretKey activeKey;
+        private final Map<String, SecretKey> verification;
+
+        private Keys(String activeKid, SecretKey activeKey, Map<String, SecretKey> verification) {
+            this.activeKid = activeKid;
+            this.activeKey = activeKey;
+            this.verification = verification;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.lilim.ecotracker.security.jwt;
+
+import com.lilim.ecotracker.common.cache.BloomFilter;
+import com.lilim.ecotracker.security.model.RevokedToken;
+import com.lilim.ecotracker.security.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Lista de tokens JWT revocados antes de su expiración.
+ * <p>
+ * Los identificadores ({@code jti}) revocados se persisten con la expiración del token y se
+ * reflejan en un filtro de Bloom en memoria que se consulta primero en cada petición: para un
+ * token no revocado, el caso habitual, el filtro responde sin consultar la base de datos. Solo
+ * si el filtro indica una posible revocación se confirma con la tabla, lo que descarta los
+ * falsos positivos.
+ * </p>
+ * <p>
+ * El filtro se reconstruye periódicamente con los tokens revocados que aún no han expirado:
+ * así se eliminan los expirados, se redimensiona según el número de revocaciones y se incorporan
+ * las revocaciones hechas en otras instancias, que en esta instancia se aplican con un retraso de
+ * como máximo un intervalo de reconstrucción.
+ * </p>
+ *
+ * @author EcoTracker Team
+ * @version 1.0
+ */
+@Component
+public class TokenRevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int expectedRevocations;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+
+    @Autowired
+    public TokenRevocationList(
+            RevokedTokenRepository revokedTokenRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${ecotracker.jwt.revocation.expected-revocations:10000}") int expectedRevocations,
+            @Value("${ecotracker.jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedRevocations, falsePositiveRate);
+    }
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    /**
+     * Revoca un token hasta su expiración
+     *
+     * @param jti Identificador del token
+     * @param expiration Expiración del token
+     */
+    public void revoke(String jti, Date expiration) {
+        if (jti == null || expiration == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        revokedTokenRepository.save(new RevokedToken(jti,
+                LocalDateTime.ofInstant(expiration.toInstant(), ZoneId.systemDefault()), now));
+        // Sincronizado con la reconstrucción: la revocación se confirmó antes de la lectura del
+        // filtro nuevo o se añade después de sustituirlo, nunca se pierde entre ambos
+        synchronized (this) {
+            filter.put(jti);
+        }
+    }
+
+    /**
+     * Indica si un token fue revocado
+     * Solo consulta la base de datos cuando el filtro de Bloom indica una posible revocación
+     *
+     * @param jti Identificador del token (null en tokens sin identificador)
+     * @return true si el token está revocado
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        return revokedTokenRepository.existsById(jti);
+    }
+
+    /**
+     * Elimina las revocaciones de tokens ya expirados y reconstruye el filtro con las vigentes,
+     * incluidas las registradas por otras instancias
+     */
+    @Scheduled(fixedDelayString = "${ecotracker.jwt.revocation.rebuild-interval:1m}",
+            initialDelayString = "${ecotracker.jwt.revocation.rebuild-interval:1m}")
+    public synchronized void rebuild() {
+        List<String> active = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            int purged = revokedTokenRepository.deleteExpired(now);
+            if (purged > 0) {
+                logger.debug("Eliminadas {} revocaciones de tokens expirados", purged);
+            }
+            return revokedTokenRepository.findActiveJtis(now);
+        });
+        List<String> jtis = active != null ? active : List.of();
+
+        // Holgura para las revocaciones que lleguen hasta la siguiente reconstrucción
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, jtis.size() * 2), falsePositiveRate);
+        jtis.forEach(rebuilt::put);
+        filter = rebuilt;
+    }
+}
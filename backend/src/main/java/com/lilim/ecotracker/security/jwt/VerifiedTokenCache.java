@@ -0,0 +1,99 @@
+package com.lilim.ecotracker.security.jwt;
+
+import com.lilim.ecotracker.common.cache.BoundedTtlCache;
+import com.lilim.ecotracker.common.cache.CacheStats;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Caché de tokens JWT ya verificados.
+ * <p>
+ * Asocia el resumen SHA-256 de cada token con el principal autenticado y el identificador
+ * ({@code jti}) del token, de modo que las peticiones que reutilizan el mismo token no vuelven a
+ * verificar la firma ni a consultar el usuario en la base de datos. Cada entrada caduca junto con
+ * el token y el número de entradas está acotado. Solo se guarda el resumen, nunca el token. La
+ * revocación se comprueba aparte en cada petición, también para los tokens en caché.
+ * </p>
+ *
+ * @author EcoTracker Team
+ * @version 1.0
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final BoundedTtlCache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(
+            @Value("${ecotracker.jwt.cache.max-size:10000}") int maxSize,
+            @Value("${ecotracker.app.jwtExpirationMs}") long jwtExpirationMs) {
+        this.cache = new BoundedTtlCache<>(maxSize, Duration.ofMillis(jwtExpirationMs));
+    }
+
+    /**
+     * Obtiene el principal de un token verificado previamente
+     *
+     * @param token JWT recibido
+     * @return Token verificado, o null si el token no está en caché o ya expiró
+     */
+    public VerifiedToken get(String token) {
+        return cache.getIfPresent(digest(token));
+    }
+
+    /**
+     * Guarda el principal de un token recién verificado hasta su expiración
+     *
+     * @param token JWT verificado
+     * @param expiration Expiración del token
+     * @param jti Identificador del token, para comprobar su revocación (puede ser null)
+     * @param principal Principal autenticado
+     */
+    public void put(String token, Date expiration, String jti, UserDetails principal) {
+        if (expiration == null) {
+            return;
+        }
+        cache.put(digest(token), new VerifiedToken(jti, principal),
+                Duration.between(Instant.now(), expiration.toInstant()));
+    }
+
+    public void invalidate(String token) {
+        cache.invalidate(digest(token));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no está disponible", e);
+        }
+    }
+
+    /**
+     * Principal de un token verificado y su identificador
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class VerifiedToken {
+        private final String jti;
+        private final UserDetails principal;
+    }
+}
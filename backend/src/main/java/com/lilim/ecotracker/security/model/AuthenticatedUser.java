@@ -0,0 +1,78 @@
+package com.lilim.ecotracker.security.model;
+
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Principal autenticado de una petición
+ * Contiene solo el ID, el nombre de usuario y los roles, de modo que puede construirse a partir
+ * de los claims del JWT sin consultar la base de datos. La contraseña solo está presente durante
+ * el inicio de sesión y se borra al completarse la autenticación.
+ */
+public class AuthenticatedUser implements UserDetails, CredentialsContainer {
+
+    private final Long id;
+    private final String username;
+    private final List<GrantedAuthority> authorities;
+    private String password;
+
+    public AuthenticatedUser(Long id, String username, String password, Collection<String> roles) {
+        this.id = id;
+        this.username = username;
+        this.password = password;
+        this.authorities = roles.stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * Crea el principal de un usuario cargado de la base de datos, incluyendo su contraseña
+     *
+     * @param user Usuario
+     * @return Principal para el inicio de sesión
+     */
+    public static AuthenticatedUser fromUser(User user) {
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getPassword(), user.getRoles());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Roles del usuario (ROLE_USER, ROLE_ADMIN, ...)
+     *
+     * @return Lista de roles
+     */
+    public List<String> getRoles() {
+        return authorities.stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public void eraseCredentials() {
+        password = null;
+    }
+}
@@ -0,0 +1,70 @@
+package com.lilim.ecotracker.security.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Movimiento del libro de puntos de un usuario.
+ * <p>
+ * El libro solo admite inserciones: cada punto otorgado queda registrado con su motivo, y
+ * {@link User#getPuntuacion()} es el total acumulado de los movimientos del usuario, que se
+ * actualiza con un incremento atómico en la misma transacción que el movimiento.
+ * Una meta solo puede premiarse una vez ({@code meta_id} único).
+ * </p>
+ */
+@Entity
+@Table(name = "points_ledger",
+        indexes = @Index(name = "idx_points_ledger_user", columnList = "user_id"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_points_ledger_meta", columnNames = "meta_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class PointsLedgerEntry {
+
+    /** Puntos otorgados por completar una meta */
+    public static final String MOTIVO_META_COMPLETADA = "meta_completada";
+
+    /** Puntos agregados directamente al usuario */
+    public static final String MOTIVO_AJUSTE = "ajuste";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false)
+    private Integer puntos;
+
+    @Column(nullable = false, length = 30)
+    private String motivo;
+
+    /**
+     * Meta premiada, si el movimiento corresponde a una meta
+     */
+    @Column(name = "meta_id")
+    private Long metaId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    public PointsLedgerEntry(User user, int puntos, String motivo, Long metaId) {
+        this.user = user;
+        this.puntos = puntos;
+        this.motivo = motivo;
+        this.metaId = metaId;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+}
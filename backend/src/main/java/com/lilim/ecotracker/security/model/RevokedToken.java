@@ -0,0 +1,45 @@
+package com.lilim.ecotracker.security.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Token JWT revocado antes de su expiración (cierre de sesión)
+ * Solo se guarda el identificador {@code jti} del token; la fila se elimina cuando el token expira,
+ * porque a partir de entonces el token ya se rechaza por su fecha.
+ */
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "idx_revoked_tokens_expires_at", columnList = "expiresAt")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+
+    /**
+     * Identificador del token (claim {@code jti})
+     */
+    @Id
+    @Column(length = 36)
+    private String jti;
+
+    /**
+     * Expiración del token; hasta entonces debe seguir rechazándose
+     */
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false)
+    private LocalDateTime revokedAt;
+}
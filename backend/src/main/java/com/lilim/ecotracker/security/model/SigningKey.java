@@ -0,0 +1,48 @@
+package com.lilim.ecotracker.security.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Clave de firma de los JWT compartida por todas las instancias de la aplicación
+ * El material de la clave se guarda cifrado con la clave maestra de la configuración.
+ * Una clave retirada ya no firma tokens, pero sigue verificándolos durante el período de gracia.
+ */
+@Entity
+@Table(name = "jwt_signing_keys")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SigningKey {
+
+    /**
+     * Identificador de la clave, enviado en la cabecera {@code kid} de cada token
+     */
+    @Id
+    @Column(length = 36)
+    private String kid;
+
+    /**
+     * Material de la clave cifrado con AES-GCM (IV + texto cifrado en Base64)
+     */
+    @Column(nullable = false, length = 255)
+    private String secret;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Momento en que la clave dejó de firmar tokens; null mientras es la clave activa
+     */
+    @Column
+    private LocalDateTime retiredAt;
+}
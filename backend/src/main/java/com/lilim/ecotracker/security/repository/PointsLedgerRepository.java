@@ -0,0 +1,38 @@
+package com.lilim.ecotracker.security.repository;
+
+import com.lilim.ecotracker.security.model.PointsLedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PointsLedgerRepository extends JpaRepository<PointsLedgerEntry, Long> {
+
+    // Metas completadas del lote que aún no tienen su movimiento en el libro de puntos
+    @Query("SELECT m.id FROM Meta m WHERE m.id IN :metaIds AND m.estado = 'completada' " +
+            "AND NOT EXISTS (SELECT p.id FROM PointsLedgerEntry p WHERE p.metaId = m.id)")
+    List<Long> findUnawardedCompletedMetaIds(@Param("metaIds") Collection<Long> metaIds);
+
+    // Registra en una sola sentencia un movimiento por cada meta completada del lote que aún no lo tenga
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO PointsLedgerEntry (user, puntos, motivo, metaId, createdAt) " +
+            "SELECT m.user, :puntos, '" + PointsLedgerEntry.MOTIVO_META_COMPLETADA + "', m.id, :ahora FROM Meta m " +
+            "WHERE m.id IN :metaIds AND m.estado = 'completada' " +
+            "AND NOT EXISTS (SELECT p.id FROM PointsLedgerEntry p WHERE p.metaId = m.id)")
+    int recordCompletedMetas(@Param("metaIds") Collection<Long> metaIds, @Param("puntos") int puntos,
+                             @Param("ahora") LocalDateTime ahora);
+
+    @Query("SELECT COALESCE(SUM(p.puntos), 0) FROM PointsLedgerEntry p WHERE p.user.id = :userId")
+    long sumPuntosByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT DISTINCT p.user.id FROM PointsLedgerEntry p WHERE p.metaId IN :metaIds")
+    List<Long> findUserIdsByMetaIdIn(@Param("metaIds") Collection<Long> metaIds);
+
+    long countByUserId(Long userId);
+}
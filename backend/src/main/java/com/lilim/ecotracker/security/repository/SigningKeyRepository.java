@@ -0,0 +1,28 @@
+package com.lilim.ecotracker.security.repository;
+
+import com.lilim.ecotracker.security.model.SigningKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SigningKeyRepository extends JpaRepository<SigningKey, String> {
+
+    // Claves que aún pueden verificar tokens: la activa y las retiradas dentro del período de gracia
+    @Query("SELECT k FROM SigningKey k WHERE k.retiredAt IS NULL OR k.retiredAt > :cutoff ORDER BY k.createdAt DESC")
+    List<SigningKey> findUsable(@Param("cutoff") LocalDateTime cutoff);
+
+    // Retira una clave activa; solo la instancia que obtiene 1 fila crea la clave siguiente
+    @Modifying
+    @Query("UPDATE SigningKey k SET k.retiredAt = :now WHERE k.kid = :kid AND k.retiredAt IS NULL")
+    int retire(@Param("kid") String kid, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM SigningKey k WHERE k.retiredAt IS NOT NULL AND k.retiredAt < :cutoff")
+    int deleteRetiredBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,9 +1,18 @@
 package com.lilim.ecotracker.security.repository;
 
+import com.lilim.ecotracker.common.projection.UserScore;
 import com.lilim.ecotracker.security.model.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +21,35 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     Boolean existsByUsername(String username);
     Boolean existsByEmail(String email);
+
+    @Query("SELECT u.id FROM User u ORDER BY u.id")
+    List<Long> findAllIds();
+
+    // Puntuaciones por lotes de IDs ordenados, para construir la tabla de clasificación sin cargar entidades
+    @Query("SELECT u.id AS id, u.username AS username, u.puntuacion AS puntuacion FROM User u " +
+            "WHERE u.id > :afterId ORDER BY u.id")
+    List<UserScore> findScoresAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT u.id AS id, u.username AS username, u.puntuacion AS puntuacion FROM User u WHERE u.id IN :ids")
+    List<UserScore> findScoresByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Bloquea la fila del usuario hasta el fin de la transacción para serializar las escrituras de sus totales
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u.id FROM User u WHERE u.id = :id")
+    Optional<Long> lockById(@Param("id") Long id);
+
+    @Query("SELECT u.puntuacion FROM User u WHERE u.id = :id")
+    Optional<Integer> findPuntuacionById(@Param("id") Long id);
+
+    // Incremento atómico: la fila queda bloqueada hasta el fin de la transacción, sin leer la puntuación antes
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE User u SET u.puntuacion = u.puntuacion + :puntos WHERE u.id = :id")
+    int addPoints(@Param("id") Long id, @Param("puntos") int puntos);
+
+    // Suma a sus usuarios, en una sola sentencia, los movimientos del libro de puntos de las metas indicadas
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.puntuacion = COALESCE(u.puntuacion, 0) + " +
+            "(SELECT SUM(p.puntos) FROM PointsLedgerEntry p WHERE p.user.id = u.id AND p.metaId IN :metaIds) " +
+            "WHERE u.id IN (SELECT p.user.id FROM PointsLedgerEntry p WHERE p.metaId IN :metaIds)")
+    int addPointsFromLedger(@Param("metaIds") Collection<Long> metaIds);
 }
\ No newline at end of file
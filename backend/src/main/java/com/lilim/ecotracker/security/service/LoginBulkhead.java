@@ -0,0 +1,105 @@
+package com.lilim.ecotracker.security.service;
+
+import com.lilim.ecotracker.security.dto.LoginBulkheadStats;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Pool aislado para las operaciones de autenticación que calculan hashes BCrypt.
+ * <p>
+ * El inicio de sesión y el registro verifican o generan un hash BCrypt, deliberadamente costoso
+ * en CPU. Ejecutarlos en un pool propio, con hilos y cola acotados, evita que una ráfaga de
+ * intentos ocupe los hilos de Tomcat que atienden al resto de la aplicación: cuando la cola está
+ * llena la tarea se rechaza de inmediato con {@link RejectedExecutionException}, que el
+ * controlador traduce a 429.
+ * </p>
+ *
+ * @author EcoTracker Team
+ * @version 1.0
+ */
+@Component
+public class LoginBulkhead {
+
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    @Autowired
+    public LoginBulkhead(
+            @Value("${ecotracker.auth.bulkhead.threads:2}") int threads,
+            @Value("${ecotracker.auth.bulkhead.queue-capacity:32}") int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "auth-bulkhead-" + threadNumber.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Ejecuta una operación de autenticación en el pool
+     *
+     * @param task Operación que calcula o verifica el hash
+     * @return Resultado de la operación
+     * @throws RejectedExecutionException si la cola del pool está llena
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long start = System.nanoTime();
+                try {
+                    return task.get();
+                } finally {
+                    long latency = System.nanoTime() - start;
+                    completed.incrementAndGet();
+                    totalLatencyNanos.addAndGet(latency);
+                    maxLatencyNanos.accumulateAndGet(latency, Math::max);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Obtiene el estado del pool y la latencia de las operaciones completadas
+     *
+     * @param throttled Intentos rechazados por el limitador antes de llegar al pool
+     * @return Instantánea de las métricas
+     */
+    public LoginBulkheadStats stats(long throttled) {
+        long count = completed.get();
+        return new LoginBulkheadStats(
+                executor.getMaximumPoolSize(),
+                executor.getActiveCount(),
+                executor.getQueue().size(),
+                queueCapacity,
+                count,
+                rejected.get(),
+                throttled,
+                count == 0 ? 0 : totalLatencyNanos.get() / count / 1_000_000.0,
+                maxLatencyNanos.get() / 1_000_000.0);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,119 @@
+package com.lilim.ecotracker.security.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Limitador de intentos de inicio de sesión y registro por nombre de usuario y por IP.
+ * <p>
+ * Cada clave tiene un token bucket implementado con GCRA (generic cell rate algorithm): en lugar
+ * de guardar tokens y fecha de recarga, cada cubeta guarda un único {@code long} con el instante
+ * teórico de la próxima llegada, y se actualiza con CAS sin bloqueos. Las cubetas están en arreglos
+ * de tamaño fijo indexados por un hash con semilla aleatoria, de modo que la memoria no crece con
+ * el número de usuarios o IPs distintos. Dos claves que comparten cubeta se limitan juntas, lo que
+ * solo puede hacer el límite más estricto, nunca más permisivo.
+ * </p>
+ *
+ * @author EcoTracker Team
+ * @version 1.0
+ */
+@Component
+public class LoginThrottle {
+
+    private final Buckets usernames;
+    private final Buckets addresses;
+    private final AtomicLong rejected = new AtomicLong();
+
+    @Autowired
+    public LoginThrottle(
+            @Value("${ecotracker.auth.throttle.slots:16384}") int slots,
+            @Value("${ecotracker.auth.throttle.username.burst:5}") int usernameBurst,
+            @Value("${ecotracker.auth.throttle.username.interval:12s}") Duration usernameInterval,
+            @Value("${ecotracker.auth.throttle.ip.burst:20}") int ipBurst,
+            @Value("${ecotracker.auth.throttle.ip.interval:3s}") Duration ipInterval) {
+        SecureRandom random = new SecureRandom();
+        this.usernames = new Buckets(slots, usernameBurst, usernameInterval, random.nextInt());
+        this.addresses = new Buckets(slots, ipBurst, ipInterval, random.nextInt());
+    }
+
+    /**
+     * Consume un intento para la IP y, si se indica, para el nombre de usuario
+     *
+     * @param username Nombre de usuario del intento (puede ser null)
+     * @param address IP del cliente
+     * @return Tiempo de espera hasta el próximo intento permitido; {@link Duration#ZERO} si se permite
+     */
+    public Duration tryAcquire(String username, String address) {
+        long now = System.nanoTime();
+        long wait = addresses.tryAcquire(address != null ? address : "", now);
+        if (wait == 0 && username != null) {
+            wait = usernames.tryAcquire(username.trim().toLowerCase(Locale.ROOT), now);
+        }
+        if (wait > 0) {
+            rejected.incrementAndGet();
+        }
+        return Duration.ofNanos(wait);
+    }
+
+    /**
+     * Número de intentos rechazados desde el arranque
+     *
+     * @return Intentos limitados
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * Cubetas GCRA de tamaño fijo
+     */
+    private static final class Buckets {
+        private final AtomicLongArray arrivals;
+        private final int mask;
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        private final int seed;
+
+        private Buckets(int slots, int burst, Duration interval, int seed) {
+            // Tamaño potencia de dos para indexar con una máscara
+            int size = Integer.highestOneBit(Math.max(slots - 1, 1)) << 1;
+            this.arrivals = new AtomicLongArray(size);
+            this.mask = size - 1;
+            this.intervalNanos = interval.toNanos();
+            this.toleranceNanos = intervalNanos * (burst - 1);
+            this.seed = seed;
+        }
+
+        /**
+         * @return 0 si se permite el intento; si no, nanosegundos hasta que se permita
+         */
+        private long tryAcquire(String key, long now) {
+            int slot = index(key);
+            while (true) {
+                long arrival = arrivals.get(slot);
+                // Una cubeta sin usar (0) o que se llenó de nuevo parte del instante actual
+                long theoretical = arrival == 0 || arrival - now < 0 ? now : arrival;
+                long wait = theoretical - toleranceNanos - now;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (arrivals.compareAndSet(slot, arrival, theoretical + intervalNanos)) {
+                    return 0;
+                }
+            }
+        }
+
+        private int index(String key) {
+            int hash = key.hashCode() ^ seed;
+            hash *= 0x9E3779B9;
+            return (hash ^ (hash >>> 16)) & mask;
+        }
+    }
+}
@@ -1,39 +1,88 @@
 package com.lilim.ecotracker.security.service;
 
+import com.lilim.ecotracker.common.event.ScoreChangedEvent;
+import com.lilim.ecotracker.security.model.AuthenticatedUser;
+import com.lilim.ecotracker.security.model.PointsLedgerEntry;
 import com.lilim.ecotracker.security.model.User;
+import com.lilim.ecotracker.security.repository.PointsLedgerRepository;
 import com.lilim.ecotracker.security.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Service
 public class UserService {
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
-    private static final int PUNTOS_POR_META_COMPLETADA = 10;
-    
+    public static final int PUNTOS_POR_META_COMPLETADA = 10;
+
     private final UserRepository userRepository;
+    private final PointsLedgerRepository pointsLedgerRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, PointsLedgerRepository pointsLedgerRepository,
+                       ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
+        this.pointsLedgerRepository = pointsLedgerRepository;
+        this.eventPublisher = eventPublisher;
     }
 
+    /**
+     * Carga la entidad completa del usuario actual
+     * Usar solo cuando se necesitan sus campos (puntuación, email...); para filtrar o asociar
+     * registros basta con {@link #getCurrentUserId()} o {@link #getCurrentUserReference()}
+     * @return usuario actual
+     */
     public User getCurrentUser() {
+        return userRepository.findById(getCurrentUserId())
+                .orElseThrow(() -> new RuntimeException("No se encontró el usuario actual"));
+    }
+
+    /**
+     * Obtener el ID del usuario actual desde el principal autenticado, sin consultar la base de datos
+     * @return ID del usuario actual
+     */
+    public Long getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String currentUsername = authentication.getName();
-        return userRepository.findByUsername(currentUsername)
+        if (authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+            return principal.getId();
+        }
+        return userRepository.findByUsername(authentication.getName())
+                .map(User::getId)
                 .orElseThrow(() -> new RuntimeException("No se encontró el usuario actual"));
     }
 
+    /**
+     * Obtener el nombre del usuario actual desde el principal autenticado
+     * @return nombre de usuario
+     */
+    public String getCurrentUsername() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+
+    /**
+     * Obtener una referencia perezosa al usuario actual para asociarla a entidades nuevas
+     * No ejecuta ninguna consulta salvo que se acceda a campos distintos del ID
+     * @return referencia al usuario actual
+     */
+    public User getCurrentUserReference() {
+        return userRepository.getReferenceById(getCurrentUserId());
+    }
+
     /**
      * Obtener la puntuación actual del usuario
      * @return puntuación del usuario actual
      */
     public Integer getCurrentUserScore() {
-        User user = getCurrentUser();
-        return user.getPuntuacion() != null ? user.getPuntuacion() : 0;
+        return userRepository.findPuntuacionById(getCurrentUserId())
+                .orElseThrow(() -> new RuntimeException("No se encontró el usuario actual"));
     }
 
     /**
@@ -43,29 +92,58 @@ public class UserService {
      */
     @Transactional
     public Integer addPointsToCurrentUser(int puntos) {
-        User user = getCurrentUser();
-        int nuevaPuntuacion = (user.getPuntuacion() != null ? user.getPuntuacion() : 0) + puntos;
-        user.setPuntuacion(nuevaPuntuacion);
-        userRepository.save(user);
-        
-        logger.info("Usuario {} recibió {} puntos. Nueva puntuación: {}", 
-                user.getUsername(), puntos, nuevaPuntuacion);
-        
+        int nuevaPuntuacion = addPoints(getCurrentUserId(), puntos, PointsLedgerEntry.MOTIVO_AJUSTE, null);
+
+        logger.info("Usuario {} recibió {} puntos. Nueva puntuación: {}",
+                getCurrentUsername(), puntos, nuevaPuntuacion);
+
         return nuevaPuntuacion;
     }
 
     /**
-     * Otorgar puntos por completar una meta
+     * Agregar puntos a un usuario: registra el movimiento en el libro de puntos e incrementa la
+     * puntuación con una sentencia {@code UPDATE} atómica, sin cargar el usuario, de modo que los
+     * premios concurrentes al mismo usuario no se pisan.
+     * Una entidad {@link User} ya cargada en la transacción no refleja el incremento.
+     * @param userId ID del usuario
+     * @param puntos cantidad de puntos a agregar
+     * @param motivo motivo del movimiento ({@code PointsLedgerEntry.MOTIVO_*})
+     * @param metaId meta premiada, o null si el movimiento no corresponde a una meta
      * @return nueva puntuación total
      */
     @Transactional
-    public Integer awardPointsForCompletedGoal() {
-        int nuevaPuntuacion = addPointsToCurrentUser(PUNTOS_POR_META_COMPLETADA);
-        
-        User user = getCurrentUser();
-        logger.info("¡Meta completada! Usuario {} recibió {} puntos por completar una meta. Puntuación total: {}", 
-                user.getUsername(), PUNTOS_POR_META_COMPLETADA, nuevaPuntuacion);
-        
-        return nuevaPuntuacion;
+    public Integer addPoints(Long userId, int puntos, String motivo, Long metaId) {
+        if (userRepository.addPoints(userId, puntos) == 0) {
+            throw new RuntimeException("No se encontró el usuario " + userId);
+        }
+        pointsLedgerRepository.save(new PointsLedgerEntry(userRepository.getReferenceById(userId), puntos, motivo, metaId));
+        eventPublisher.publishEvent(new ScoreChangedEvent(List.of(userId)));
+        // Lee la fila bloqueada por el incremento: incluye este movimiento y los confirmados antes
+        return userRepository.findPuntuacionById(userId).orElseThrow();
+    }
+
+    /**
+     * Otorgar en bloque los puntos de las metas completadas de un lote
+     * Solo premia las metas completadas que aún no tienen su movimiento en el libro de puntos, y el
+     * incremento de cada usuario se calcula a partir de los movimientos recién registrados, de modo
+     * que libro y puntuación siempre coinciden y repetir la llamada no vuelve a premiar
+     * @param metaIds metas del lote, en cualquier estado
+     * @param ahora fecha de los movimientos
+     * @return número de usuarios cuya puntuación se actualizó
+     */
+    @Transactional
+    public int awardPointsForCompletedMetas(Collection<Long> metaIds, LocalDateTime ahora) {
+        if (metaIds.isEmpty()) {
+            return 0;
+        }
+        List<Long> pendientes = pointsLedgerRepository.findUnawardedCompletedMetaIds(metaIds);
+        if (pendientes.isEmpty()) {
+            return 0;
+        }
+        pointsLedgerRepository.recordCompletedMetas(pendientes, PUNTOS_POR_META_COMPLETADA, ahora);
+        int updated = userRepository.addPointsFromLedger(pendientes);
+        eventPublisher.publishEvent(new ScoreChangedEvent(pointsLedgerRepository.findUserIdsByMetaIdIn(pendientes)));
+        logger.debug("Puntos otorgados por {} metas completadas a {} usuarios", pendientes.size(), updated);
+        return updated;
     }
 }
\ No newline at end of file
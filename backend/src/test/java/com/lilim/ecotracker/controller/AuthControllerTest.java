@@ -0,0 +1,53 @@
+package com.lilim.ecotracker.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lilim.ecotracker.security.dto.LoginRequest;
+import com.lilim.ecotracker.security.dto.SignupRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class AuthControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Test responder 401 a un inicio de sesión con credenciales incorrectas")
+    void testSigninWithBadCredentialsReturnsUnauthorized() throws Exception {
+        // Arrange
+        String username = "auth" + System.nanoTime();
+        perform("/api/auth/signup", new SignupRequest(username, username + "@example.com", "password", "Auth User", null))
+                .andExpect(status().isOk());
+
+        // Act & Assert
+        perform("/api/auth/signin", new LoginRequest(username, "incorrecta")).andExpect(status().isUnauthorized());
+        perform("/api/auth/signin", new LoginRequest(username, "password")).andExpect(status().isOk());
+    }
+
+    /**
+     * Las operaciones de autenticación responden de forma asíncrona desde su pool
+     */
+    private ResultActions perform(String path, Object body) throws Exception {
+        MvcResult started = mockMvc.perform(post(path)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started));
+    }
+}
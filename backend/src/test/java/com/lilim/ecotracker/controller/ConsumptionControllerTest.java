@@ -0,0 +1,115 @@
+package com.lilim.ecotracker.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lilim.ecotracker.features.electricity.dto.ElectricityRecordDTO;
+import com.lilim.ecotracker.features.transport.dto.TransportRecordDTO;
+import com.lilim.ecotracker.features.water.dto.WaterRecordDTO;
+import com.lilim.ecotracker.security.dto.JwtResponse;
+import com.lilim.ecotracker.security.dto.LoginRequest;
+import com.lilim.ecotracker.security.dto.SignupRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ConsumptionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String token;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String username = "consumer" + System.nanoTime();
+        perform(post("/api/auth/signup"), new SignupRequest(username, username + "@example.com", "password", "Consumer", null));
+        MvcResult signin = perform(post("/api/auth/signin"), new LoginRequest(username, "password"));
+        token = objectMapper.readValue(signin.getResponse().getContentAsString(), JwtResponse.class).getToken();
+    }
+
+    @Test
+    @DisplayName("Test guardar consumos por la API y recibir el registro guardado")
+    void testSaveConsumptionReturnsRecord() throws Exception {
+        // Act
+        WaterRecordDTO water = save("/api/water",
+                Map.of("date", "2026-10-01T08:00:00", "liters", 120.0, "cost", 15.0), WaterRecordDTO.class);
+        ElectricityRecordDTO electricity = save("/api/electricity",
+                Map.of("date", "2026-10-01T08:00:00", "kilowatts", 80.0, "cost", 40.0), ElectricityRecordDTO.class);
+        TransportRecordDTO transport = save("/api/transport",
+                Map.of("date", "2026-10-01T08:00:00", "kilometers", 12.0, "transportType", "bus", "cost", 2.5),
+                TransportRecordDTO.class);
+
+        // Assert
+        assertNotNull(water.getId());
+        assertEquals(120.0, water.getLiters());
+        assertEquals(15.0, water.getCost());
+        assertNotNull(electricity.getId());
+        assertEquals(80.0, electricity.getKilowatts());
+        assertNotNull(transport.getId());
+        assertEquals("bus", transport.getTransportType());
+        assertEquals(12.0, transport.getKilometers());
+        mockMvc.perform(get("/api/water").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Test rechazar con 400 los consumos sin fecha, cantidad o costo")
+    void testSaveConsumptionWithMissingFields() throws Exception {
+        // Act & Assert
+        postRecord("/api/water", Map.of("date", "2026-10-02T08:00:00", "liters", 50.0)).andExpect(status().isBadRequest());
+        postRecord("/api/electricity", Map.of("date", "2026-10-02T08:00:00", "cost", 10.0)).andExpect(status().isBadRequest());
+        postRecord("/api/transport", Map.of("kilometers", 3.0, "transportType", "bus", "cost", 1.0))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/water").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isEmpty());
+    }
+
+    private <T> T save(String path, Map<String, Object> body, Class<T> type) throws Exception {
+        MvcResult result = postRecord(path, body)
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), type);
+    }
+
+    private ResultActions postRecord(String path, Map<String, Object> body) throws Exception {
+        return mockMvc.perform(post(path)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)));
+    }
+
+    /**
+     * Las operaciones de autenticación responden de forma asíncrona desde su pool
+     */
+    private MvcResult perform(MockHttpServletRequestBuilder request,
+                              Object body) throws Exception {
+        MvcResult started = mockMvc.perform(request
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk()).andReturn();
+    }
+}
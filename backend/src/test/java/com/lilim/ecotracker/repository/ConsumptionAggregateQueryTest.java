@@ -0,0 +1,165 @@
+package com.lilim.ecotracker.repository;
+
+import com.lilim.ecotracker.common.model.ResourceType;
+import com.lilim.ecotracker.common.projection.BimonthlyTotal;
+import com.lilim.ecotracker.common.projection.ResourceTotal;
+import com.lilim.ecotracker.features.summary.model.ConsumptionRollup;
+import com.lilim.ecotracker.features.summary.repository.ConsumptionRollupRepository;
+import com.lilim.ecotracker.features.water.model.Water;
+import com.lilim.ecotracker.features.water.repository.WaterRepository;
+import com.lilim.ecotracker.security.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class ConsumptionAggregateQueryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private WaterRepository waterRepository;
+
+    @Autowired
+    private ConsumptionRollupRepository rollupRepository;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setUsername("testuser");
+        testUser.setEmail("test@example.com");
+        testUser.setPassword("password");
+        testUser.setName("Test User");
+        entityManager.persist(testUser);
+    }
+
+    @Test
+    @DisplayName("Test agrupar consumo de agua por bimestre en la base de datos")
+    void testFindBimonthlyTotalsByUserId() {
+        // Arrange
+        persistWater(LocalDateTime.of(2023, 12, 15, 0, 0), 8.0, 80.0);
+        persistWater(LocalDateTime.of(2024, 1, 20, 0, 0), 5.0, 50.0);
+        persistWater(LocalDateTime.of(2024, 3, 10, 0, 0), 10.0, 100.0);
+        persistWater(LocalDateTime.of(2024, 3, 2, 0, 0), 4.0, 40.0);
+        entityManager.flush();
+
+        // Act
+        List<BimonthlyTotal> totals = waterRepository.findBimonthlyTotalsByUserId(testUser.getId());
+
+        // Assert
+        assertEquals(2, totals.size());
+        assertEquals(testUser.getId(), totals.get(0).getUserId());
+        assertEquals(2023 * 6 + 6, totals.get(0).getPeriod());
+        assertEquals(13.0, totals.get(0).getTotal());
+        assertEquals(130.0, totals.get(0).getCost());
+        assertEquals(2L, totals.get(0).getRecords());
+        assertEquals(LocalDateTime.of(2023, 12, 15, 0, 0), totals.get(0).getFirstDate());
+        assertEquals(2024 * 6 + 1, totals.get(1).getPeriod());
+        assertEquals(14.0, totals.get(1).getTotal());
+        assertEquals(LocalDateTime.of(2024, 3, 2, 0, 0), totals.get(1).getFirstDate());
+    }
+
+    @Test
+    @DisplayName("Test acumular un registro en el total bimestral existente")
+    void testAddToPeriod() {
+        // Arrange
+        ConsumptionRollup rollup = new ConsumptionRollup();
+        rollup.setUser(testUser);
+        rollup.setResource(ResourceType.WATER);
+        rollup.setPeriod(2024 * 6 + 1);
+        rollup.setTotal(10.0);
+        rollup.setCost(100.0);
+        rollup.setRecords(1L);
+        rollup.setFirstDate(LocalDateTime.of(2024, 3, 10, 0, 0));
+        entityManager.persistAndFlush(rollup);
+        long versionInicial = rollupRepository.sumRevisions(testUser.getId(), EnumSet.of(ResourceType.WATER));
+
+        // Act
+        int updated = rollupRepository.addToPeriod(testUser.getId(), ResourceType.WATER, 2024 * 6 + 1,
+                4.0, 40.0, 1L, LocalDateTime.of(2024, 3, 2, 0, 0), LocalDateTime.now());
+        int missing = rollupRepository.addToPeriod(testUser.getId(), ResourceType.WATER, 2024 * 6 + 2,
+                4.0, 40.0, 1L, LocalDateTime.of(2024, 5, 2, 0, 0), LocalDateTime.now());
+        entityManager.clear();
+        List<BimonthlyTotal> totals = rollupRepository.findBimonthlyTotals(testUser.getId(), ResourceType.WATER);
+        long version = rollupRepository.sumRevisions(testUser.getId(), EnumSet.of(ResourceType.WATER));
+
+        // Assert
+        assertEquals(1, updated);
+        assertEquals(versionInicial + 1, version);
+        assertEquals(0L, rollupRepository.sumRevisions(testUser.getId(), EnumSet.of(ResourceType.TRANSPORT)));
+        assertEquals(0, missing);
+        assertEquals(1, totals.size());
+        assertEquals(14.0, totals.get(0).getTotal());
+        assertEquals(140.0, totals.get(0).getCost());
+        assertEquals(2L, totals.get(0).getRecords());
+        assertEquals(LocalDateTime.of(2024, 3, 2, 0, 0), totals.get(0).getFirstDate());
+    }
+
+    @Test
+    @DisplayName("Test sumar consumo por recurso en un rango de fechas")
+    void testSumTotalsByUserIdAndDateBetween() {
+        // Arrange
+        persistWater(LocalDateTime.of(2024, 1, 20, 0, 0), 5.0, 50.0);
+        persistWater(LocalDateTime.of(2024, 3, 10, 0, 0), 10.0, 100.0);
+        persistWater(LocalDateTime.of(2024, 6, 10, 0, 0), 20.0, 200.0);
+        entityManager.flush();
+
+        // Act
+        List<ResourceTotal> totals = rollupRepository.sumTotalsByUserIdAndDateBetween(testUser.getId(),
+                LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 3, 31, 23, 59));
+
+        // Assert
+        assertEquals(3, totals.size());
+        ResourceTotal water = totals.stream().filter(t -> t.getResource() == ResourceType.WATER).findFirst().orElseThrow();
+        assertEquals(15.0, water.getTotal());
+        assertTrue(totals.stream().filter(t -> t.getResource() != ResourceType.WATER).allMatch(t -> t.getTotal() == null));
+    }
+
+    @Test
+    @DisplayName("Test encontrar los usuarios con consumo sin totales bimestrales")
+    void testFindUserIdsMissingRollupsAfter() {
+        // Arrange
+        persistWater(LocalDateTime.of(2024, 3, 10, 0, 0), 10.0, 100.0);
+        entityManager.flush();
+        List<Long> pendientes = rollupRepository.findUserIdsMissingRollupsAfter(0L, PageRequest.of(0, 10));
+
+        ConsumptionRollup rollup = new ConsumptionRollup();
+        rollup.setUser(testUser);
+        rollup.setResource(ResourceType.WATER);
+        rollup.setPeriod(2024 * 6 + 1);
+        rollup.setTotal(10.0);
+        rollup.setCost(100.0);
+        rollup.setRecords(1L);
+        rollup.setFirstDate(LocalDateTime.of(2024, 3, 10, 0, 0));
+        entityManager.persistAndFlush(rollup);
+
+        // Act
+        List<Long> restantes = rollupRepository.findUserIdsMissingRollupsAfter(0L, PageRequest.of(0, 10));
+
+        // Assert
+        assertTrue(pendientes.contains(testUser.getId()));
+        assertFalse(restantes.contains(testUser.getId()));
+    }
+
+    private void persistWater(LocalDateTime date, double liters, double cost) {
+        Water water = new Water();
+        water.setUser(testUser);
+        water.setDate(date);
+        water.setLiters(liters);
+        water.setCost(cost);
+        entityManager.persist(water);
+    }
+}
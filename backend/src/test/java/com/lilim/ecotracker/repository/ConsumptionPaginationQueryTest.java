@@ -0,0 +1,113 @@
+package com.lilim.ecotracker.repository;
+
+import com.lilim.ecotracker.common.pagination.CursorPage;
+import com.lilim.ecotracker.common.pagination.KeysetPageRequest;
+import com.lilim.ecotracker.features.water.dto.WaterRecordDTO;
+import com.lilim.ecotracker.features.water.model.Water;
+import com.lilim.ecotracker.features.water.repository.WaterRepository;
+import com.lilim.ecotracker.security.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class ConsumptionPaginationQueryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private WaterRepository waterRepository;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setUsername("testuser");
+        testUser.setEmail("test@example.com");
+        testUser.setPassword("password");
+        testUser.setName("Test User");
+        entityManager.persist(testUser);
+
+        // Dos registros por día para comprobar el desempate por ID
+        for (int day = 1; day <= 5; day++) {
+            persistWater(LocalDateTime.of(2024, 3, day, 0, 0), day);
+            persistWater(LocalDateTime.of(2024, 3, day, 0, 0), day + 0.5);
+        }
+        entityManager.flush();
+    }
+
+    @Test
+    @DisplayName("Test recorrer todas las páginas sin repetir ni omitir registros")
+    void testWalkAllPages() {
+        // Arrange
+        List<WaterRecordDTO> all = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+
+        // Act
+        do {
+            CursorPage<WaterRecordDTO> page = fetch(null, null, cursor, 3);
+            all.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // Assert
+        assertEquals(4, pages);
+        assertEquals(10, all.size());
+        assertEquals(10, all.stream().map(WaterRecordDTO::getId).distinct().count());
+        for (int i = 1; i < all.size(); i++) {
+            WaterRecordDTO previous = all.get(i - 1);
+            WaterRecordDTO current = all.get(i);
+            assertTrue(previous.getDate().isAfter(current.getDate())
+                    || (previous.getDate().equals(current.getDate()) && previous.getId() > current.getId()));
+        }
+    }
+
+    @Test
+    @DisplayName("Test filtrar por rango de fechas inclusivo")
+    void testDateRange() {
+        // Act
+        CursorPage<WaterRecordDTO> page = fetch(LocalDate.of(2024, 3, 2), LocalDate.of(2024, 3, 3), null, 10);
+
+        // Assert
+        assertEquals(4, page.getItems().size());
+        assertNull(page.getNextCursor());
+        assertEquals(LocalDateTime.of(2024, 3, 3, 0, 0), page.getItems().get(0).getDate());
+        assertEquals(LocalDateTime.of(2024, 3, 2, 0, 0), page.getItems().get(3).getDate());
+    }
+
+    @Test
+    @DisplayName("Test rechazar un cursor mal formado")
+    void testInvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetPageRequest.of(null, null, "no-es-un-cursor", 10));
+    }
+
+    private CursorPage<WaterRecordDTO> fetch(LocalDate from, LocalDate to, String cursor, int limit) {
+        KeysetPageRequest request = KeysetPageRequest.of(from, to, cursor, limit);
+        return CursorPage.of(waterRepository.findSliceByUserIdAndDateBefore(testUser.getId(), request.getFrom(),
+                request.getBeforeDate(), request.getBeforeId(), request.pageable()),
+                WaterRecordDTO::getDate, WaterRecordDTO::getId);
+    }
+
+    private void persistWater(LocalDateTime date, double liters) {
+        Water water = new Water();
+        water.setUser(testUser);
+        water.setDate(date);
+        water.setLiters(liters);
+        water.setCost(liters * 10);
+        entityManager.persist(water);
+    }
+}
@@ -0,0 +1,149 @@
+package com.lilim.ecotracker.repository;
+
+import com.lilim.ecotracker.common.model.ResourceType;
+import com.lilim.ecotracker.common.projection.BimonthlyTotal;
+import com.lilim.ecotracker.features.electricity.repository.ElectricityRepository;
+import com.lilim.ecotracker.features.summary.repository.ConsumptionRollupRepository;
+import com.lilim.ecotracker.features.summary.service.AnalyticsCache;
+import com.lilim.ecotracker.features.summary.service.ConsumptionRollupService;
+import com.lilim.ecotracker.features.transport.repository.TransportRepository;
+import com.lilim.ecotracker.features.water.model.Water;
+import com.lilim.ecotracker.features.water.repository.WaterRepository;
+import com.lilim.ecotracker.security.model.User;
+import com.lilim.ecotracker.security.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cada registro se confirma en su propia transacción, por lo que la prueba no se ejecuta dentro
+ * de la transacción de {@link DataJpaTest} y limpia sus datos al terminar.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ConsumptionRollupConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int SAVES_PER_THREAD = 10;
+    private static final LocalDateTime DATE = LocalDateTime.of(2024, 3, 10, 0, 0);
+
+    @Autowired
+    private ConsumptionRollupRepository rollupRepository;
+
+    @Autowired
+    private WaterRepository waterRepository;
+
+    @Autowired
+    private ElectricityRepository electricityRepository;
+
+    @Autowired
+    private TransportRepository transportRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private ConsumptionRollupService rollupService;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        rollupService = new ConsumptionRollupService(rollupRepository, waterRepository, electricityRepository,
+                transportRepository, userRepository, transactionTemplate, new AnalyticsCache(100, Duration.ofMinutes(1)));
+
+        testUser = new User();
+        testUser.setUsername("rollup-user");
+        testUser.setEmail("rollup@example.com");
+        testUser.setPassword("password");
+        testUser.setName("Rollup User");
+        testUser = userRepository.save(testUser);
+    }
+
+    @AfterEach
+    void tearDown() {
+        transactionTemplate.executeWithoutResult(status -> {
+            rollupRepository.deleteByUserId(testUser.getId());
+            waterRepository.deleteAll(waterRepository.findAll());
+        });
+        userRepository.deleteById(testUser.getId());
+    }
+
+    @Test
+    @DisplayName("Test acumular registros concurrentes de un período nuevo mientras se reconstruyen los totales")
+    void testConcurrentFirstWritesAndRebuild() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            tasks.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < SAVES_PER_THREAD; j++) {
+                    saveWater(1.0, 2.0);
+                }
+                return null;
+            }));
+        }
+        tasks.add(executor.submit(() -> {
+            start.await();
+            for (int j = 0; j < 5; j++) {
+                transactionTemplate.execute(status -> rollupService.rebuildForUser(testUser.getId()));
+            }
+            return null;
+        }));
+
+        // Act
+        start.countDown();
+        for (Future<?> task : tasks) {
+            task.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Assert
+        List<BimonthlyTotal> totals = rollupService.getBimonthlyTotals(testUser.getId(), ResourceType.WATER);
+        assertEquals(1, totals.size());
+        assertEquals(THREADS * SAVES_PER_THREAD, totals.get(0).getRecords());
+        assertEquals(THREADS * SAVES_PER_THREAD * 1.0, totals.get(0).getTotal());
+        assertEquals(THREADS * SAVES_PER_THREAD * 2.0, totals.get(0).getCost());
+    }
+
+    /**
+     * Guarda un registro y lo acumula en la misma transacción, como el servicio de agua
+     */
+    private void saveWater(double liters, double cost) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Water water = new Water();
+            water.setUser(userRepository.getReferenceById(testUser.getId()));
+            water.setDate(DATE);
+            water.setLiters(liters);
+            water.setCost(cost);
+            Water saved = waterRepository.save(water);
+            rollupService.record(saved.getUser(), ResourceType.WATER, saved.getDate(), liters, cost);
+        });
+    }
+}
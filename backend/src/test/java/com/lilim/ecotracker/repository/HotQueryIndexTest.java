@@ -0,0 +1,74 @@
+package com.lilim.ecotracker.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Comprueba con EXPLAIN de H2 que las consultas más frecuentes por usuario usan los índices
+ * declarados en las entidades en lugar de recorrer la tabla completa.
+ */
+@DataJpaTest
+public class HotQueryIndexTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    @DisplayName("Test metas por usuario, tipo, evaluación y estado")
+    void testMetasByUserTipoEvaluacionEstado() {
+        assertUsesIndex("idx_metas_user_tipo_evaluacion_estado",
+                "SELECT * FROM metas WHERE user_id = 1 AND tipo = 'agua' " +
+                        "AND tipo_evaluacion = 'automatica' AND estado = 'en_progreso'");
+    }
+
+    @Test
+    @DisplayName("Test usuarios con metas automáticas en progreso por lotes")
+    void testMetasUserIdsByEvaluacionEstado() {
+        assertUsesIndex("idx_metas_evaluacion_estado_user",
+                "SELECT DISTINCT user_id FROM metas WHERE tipo_evaluacion = 'automatica' " +
+                        "AND estado = 'en_progreso' AND user_id > 0 ORDER BY user_id");
+    }
+
+    @Test
+    @DisplayName("Test bitácoras por usuario y categoría")
+    void testBitacorasByUserCategoria() {
+        assertUsesIndex("idx_bitacoras_user_categoria_fecha",
+                "SELECT * FROM bitacoras WHERE user_id = 1 AND categoria = 'reciclaje' ORDER BY fecha DESC");
+    }
+
+    @Test
+    @DisplayName("Test transporte por usuario, tipo y rango de fechas")
+    void testTransportByUserTypeAndDate() {
+        assertUsesIndex("idx_transport_usage_user_type_date",
+                "SELECT * FROM transport_usage WHERE user_id = 1 AND transport_type = 'bicycle' " +
+                        "AND date BETWEEN TIMESTAMP '2024-01-01 00:00:00' AND TIMESTAMP '2024-02-01 00:00:00'");
+    }
+
+    @Test
+    @DisplayName("Test consumos de agua y electricidad por usuario y rango de fechas")
+    void testConsumptionByUserAndDate() {
+        assertUsesIndex("idx_water_consumption_user_date",
+                "SELECT * FROM water_consumption WHERE user_id = 1 AND date >= TIMESTAMP '2024-01-01 00:00:00' " +
+                        "ORDER BY date DESC, id DESC");
+        assertUsesIndex("idx_electricity_consumption_user_date",
+                "SELECT * FROM electricity_consumption WHERE user_id = 1 " +
+                        "AND date BETWEEN TIMESTAMP '2024-01-01 00:00:00' AND TIMESTAMP '2024-02-01 00:00:00'");
+    }
+
+    private void assertUsesIndex(String index, String sql) {
+        String plan = String.valueOf(entityManager.getEntityManager()
+                .createNativeQuery("EXPLAIN " + sql)
+                .getSingleResult());
+        String normalized = plan.toLowerCase(Locale.ROOT);
+
+        assertFalse(normalized.contains("tablescan"), () -> "Recorrido completo de la tabla:\n" + plan);
+        assertTrue(normalized.contains(index), () -> "Se esperaba el índice " + index + ":\n" + plan);
+    }
+}
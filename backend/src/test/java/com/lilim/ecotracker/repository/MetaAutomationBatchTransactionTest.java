@@ -0,0 +1,153 @@
+package com.lilim.ecotracker.repository;
+
+import com.lilim.ecotracker.features.metas.model.Meta;
+import com.lilim.ecotracker.features.metas.repository.MetaRepository;
+import com.lilim.ecotracker.features.metas.service.automation.MetaAutomationBatchService;
+import com.lilim.ecotracker.features.metas.service.automation.MetaAutomationCoordinator;
+import com.lilim.ecotracker.features.metas.service.automation.MetaAutomationRunStats;
+import com.lilim.ecotracker.features.metas.service.calculation.MetaProgressCalculator;
+import com.lilim.ecotracker.features.metas.service.registry.MetaMetricRegistry;
+import com.lilim.ecotracker.security.model.User;
+import com.lilim.ecotracker.security.repository.PointsLedgerRepository;
+import com.lilim.ecotracker.security.repository.UserRepository;
+import com.lilim.ecotracker.security.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Cada meta se confirma en su propia transacción, por lo que la prueba no se ejecuta dentro
+ * de la transacción de {@link DataJpaTest} y limpia sus datos al terminar.
+ */
+@DataJpaTest
+@Import({MetaProgressCalculator.class, MetaMetricRegistry.class, UserService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class MetaAutomationBatchTransactionTest {
+
+    @Autowired
+    private MetaRepository metaRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PointsLedgerRepository pointsLedgerRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private MetaAutomationBatchService batchService;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setUsername("batch-user");
+        testUser.setEmail("batch@example.com");
+        testUser.setPassword("password");
+        testUser.setName("Batch User");
+        testUser = userRepository.save(testUser);
+
+        // Reproduce updateMetaProgress (@Transactional): se une a la transacción en curso y falla para una meta
+        MetaAutomationCoordinator coordinator = mock(MetaAutomationCoordinator.class);
+        TransactionTemplate required = new TransactionTemplate(transactionManager);
+        doAnswer(invocation -> {
+            Meta meta = invocation.getArgument(0);
+            required.executeWithoutResult(status -> {
+                if ("Meta fallida".equals(meta.getTitulo())) {
+                    throw new IllegalStateException("sin datos");
+                }
+                meta.setValorActual(12.0);
+                if ("Meta completada".equals(meta.getTitulo())) {
+                    meta.setValorActual(9.0);
+                    meta.setEstado("completada");
+                }
+                metaRepository.save(meta);
+            });
+            return null;
+        }).when(coordinator).updateMetaProgress(any(Meta.class));
+
+        batchService = new MetaAutomationBatchService(metaRepository, coordinator, userService, transactionManager, 1, 10, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchService.shutdown();
+        pointsLedgerRepository.deleteAll(pointsLedgerRepository.findAll());
+        metaRepository.deleteAll(metaRepository.findByUserIdAndTipoEvaluacion(testUser.getId(), "automatica"));
+        userRepository.deleteById(testUser.getId());
+    }
+
+    @Test
+    @DisplayName("Test conservar las metas actualizadas cuando otra meta del mismo grupo falla")
+    void testFailingGoalDoesNotRollBackOthers() {
+        // Arrange
+        Meta primera = persistMeta("Meta primera");
+        persistMeta("Meta fallida");
+        Meta tercera = persistMeta("Meta tercera");
+
+        // Act
+        MetaAutomationRunStats stats = batchService.runBatch().orElseThrow();
+
+        // Assert
+        assertEquals(1, stats.getUsers());
+        assertEquals(2, stats.getGoals());
+        assertEquals(1, stats.getFailures());
+        assertEquals(12.0, metaRepository.findById(primera.getId()).orElseThrow().getValorActual());
+        assertEquals(12.0, metaRepository.findById(tercera.getId()).orElseThrow().getValorActual());
+    }
+
+    @Test
+    @DisplayName("Test otorgar en bloque los puntos de las metas que completa el grupo")
+    void testCompletedGoalsAreAwarded() {
+        // Arrange
+        Meta completada = persistMeta("Meta completada");
+        persistMeta("Meta fallida");
+        persistMeta("Meta primera");
+
+        // Act
+        batchService.runBatch().orElseThrow();
+
+        // Assert
+        assertEquals("completada", metaRepository.findById(completada.getId()).orElseThrow().getEstado());
+        assertEquals(1, pointsLedgerRepository.countByUserId(testUser.getId()));
+        assertEquals(10, pointsLedgerRepository.sumPuntosByUserId(testUser.getId()));
+        assertEquals(10, userRepository.findPuntuacionById(testUser.getId()).orElseThrow());
+    }
+
+    private Meta persistMeta(String titulo) {
+        Meta meta = new Meta();
+        meta.setTitulo(titulo);
+        meta.setTipo("agua");
+        meta.setMetrica("consumo_total");
+        meta.setUnidad("litros");
+        meta.setValorInicial(20.0);
+        meta.setValorObjetivo(10.0);
+        meta.setValorActual(20.0);
+        meta.setFechaInicio(LocalDateTime.now().minusDays(10));
+        meta.setFechaFin(LocalDateTime.now().plusDays(20));
+        meta.setTipoEvaluacion("automatica");
+        meta.setEstado("en_progreso");
+        meta.setUser(testUser);
+        return metaRepository.save(meta);
+    }
+}
@@ -0,0 +1,183 @@
+package com.lilim.ecotracker.repository;
+
+import com.lilim.ecotracker.features.metas.model.Meta;
+import com.lilim.ecotracker.features.metas.repository.MetaRepository;
+import com.lilim.ecotracker.features.metas.service.automation.MetaExpirationRunStats;
+import com.lilim.ecotracker.features.metas.service.automation.MetaExpirationSweeper;
+import com.lilim.ecotracker.features.metas.service.calculation.MetaProgressCalculator;
+import com.lilim.ecotracker.features.metas.service.registry.MetaMetricRegistry;
+import com.lilim.ecotracker.security.model.PointsLedgerEntry;
+import com.lilim.ecotracker.security.model.User;
+import com.lilim.ecotracker.security.repository.PointsLedgerRepository;
+import com.lilim.ecotracker.security.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+@Import({MetaProgressCalculator.class, MetaMetricRegistry.class, UserService.class})
+public class MetaExpirationSweepTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private MetaRepository metaRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PointsLedgerRepository pointsLedgerRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private MetaExpirationSweeper sweeper;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setUsername("testuser");
+        testUser.setEmail("test@example.com");
+        testUser.setPassword("password");
+        testUser.setName("Test User");
+        entityManager.persist(testUser);
+
+        sweeper = new MetaExpirationSweeper(metaRepository, userService, new TransactionTemplate(transactionManager), 2);
+    }
+
+    @Test
+    @DisplayName("Test cerrar por lotes las metas vencidas y premiar las completadas con sentencias UPDATE")
+    void testSweepClosesExpiredMetasInBatches() {
+        // Arrange
+        LocalDateTime vencida = LocalDateTime.now().minusDays(1);
+        Meta reduccionAlcanzada = persistMeta("agua", "consumo_total", 20.0, 10.0, 9.0, vencida);
+        Meta incrementoNoAlcanzado = persistMeta("transporte", "km_bicicleta", 0.0, 100.0, 40.0, vencida);
+        Meta otraAlcanzada = persistMeta("electricidad", "consumo_total", 200.0, 150.0, 140.0, vencida);
+        Meta vigente = persistMeta("agua", "consumo_total", 20.0, 10.0, 9.0, LocalDateTime.now().plusDays(5));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        MetaExpirationRunStats stats = sweeper.sweep().orElseThrow();
+
+        // Assert
+        assertEquals(2, stats.getBatches());
+        assertEquals(2, stats.getCompleted());
+        assertEquals(1, stats.getFailed());
+        // Las dos metas completadas caen en lotes distintos
+        assertEquals(2, stats.getScoreUpdates());
+        assertEquals(3, stats.getRows());
+        assertEquals("completada", estadoDe(reduccionAlcanzada));
+        assertEquals("fallida", estadoDe(incrementoNoAlcanzado));
+        assertEquals("completada", estadoDe(otraAlcanzada));
+        assertEquals("en_progreso", estadoDe(vigente));
+        assertEquals(20, entityManager.find(User.class, testUser.getId()).getPuntuacion());
+        assertEquals(2, pointsLedgerRepository.countByUserId(testUser.getId()));
+        assertEquals(20, pointsLedgerRepository.sumPuntosByUserId(testUser.getId()));
+        assertTrue(pointsLedgerRepository.findAll().stream()
+                .allMatch(entry -> PointsLedgerEntry.MOTIVO_META_COMPLETADA.equals(entry.getMotivo())));
+    }
+
+    @Test
+    @DisplayName("Test no volver a cerrar ni premiar metas ya cerradas")
+    void testSweepIsIdempotent() {
+        // Arrange
+        persistMeta("agua", "consumo_total", 20.0, 10.0, 9.0, LocalDateTime.now().minusDays(1));
+        entityManager.flush();
+        sweeper.sweep();
+
+        // Act
+        MetaExpirationRunStats stats = sweeper.sweep().orElseThrow();
+
+        // Assert
+        assertEquals(0, stats.getRows());
+        assertEquals(0, stats.getBatches());
+        assertEquals(10, entityManager.find(User.class, testUser.getId()).getPuntuacion());
+        assertEquals(1, pointsLedgerRepository.countByUserId(testUser.getId()));
+        assertSame(stats, sweeper.getLastRun().orElseThrow());
+    }
+
+    @Test
+    @DisplayName("Test premiar solo las metas que completa el cierre, no las completadas tras leer el lote")
+    void testSweepAwardsOnlyMetasItCloses() {
+        // Arrange
+        LocalDateTime vencida = LocalDateTime.now().minusDays(1);
+        Meta premiadaPorAutomatizacion = persistMeta("agua", "consumo_total", 20.0, 10.0, 9.0, vencida);
+        Meta completadaManualmente = persistMeta("electricidad", "consumo_total", 200.0, 150.0, 140.0, vencida);
+        Meta alcanzada = persistMeta("agua", "consumo_total", 20.0, 10.0, 8.0, vencida);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Otro proceso completa dos metas del lote después de leer sus IDs; solo una recibe su premio
+        MetaRepository concurrentRepository = mock(MetaRepository.class, delegatesTo(metaRepository));
+        doAnswer(invocation -> {
+            List<Long> ids = metaRepository.findExpiredIdsAfter(invocation.getArgument(0), invocation.getArgument(1),
+                    invocation.getArgument(2));
+            if (!ids.isEmpty()) {
+                entityManager.getEntityManager()
+                        .createQuery("UPDATE Meta m SET m.estado = 'completada' WHERE m.id IN :ids")
+                        .setParameter("ids", List.of(premiadaPorAutomatizacion.getId(), completadaManualmente.getId()))
+                        .executeUpdate();
+                userService.awardPointsForCompletedMetas(List.of(premiadaPorAutomatizacion.getId()), LocalDateTime.now());
+            }
+            return ids;
+        }).when(concurrentRepository).findExpiredIdsAfter(any(LocalDateTime.class), any(Long.class), any(Pageable.class));
+        MetaExpirationSweeper concurrentSweeper = new MetaExpirationSweeper(concurrentRepository, userService,
+                new TransactionTemplate(transactionManager), 10);
+
+        // Act
+        MetaExpirationRunStats stats = concurrentSweeper.sweep().orElseThrow();
+        entityManager.clear();
+
+        // Assert
+        assertEquals(1, stats.getCompleted());
+        assertEquals(0, stats.getFailed());
+        assertEquals(1, stats.getScoreUpdates());
+        assertEquals("completada", estadoDe(alcanzada));
+        assertEquals("completada", estadoDe(completadaManualmente));
+        assertEquals(2, pointsLedgerRepository.countByUserId(testUser.getId()));
+        assertEquals(20, pointsLedgerRepository.sumPuntosByUserId(testUser.getId()));
+        assertEquals(20, entityManager.find(User.class, testUser.getId()).getPuntuacion());
+    }
+
+    private String estadoDe(Meta meta) {
+        return entityManager.find(Meta.class, meta.getId()).getEstado();
+    }
+
+    private Meta persistMeta(String tipo, String metrica, double valorInicial, double valorObjetivo,
+                             double valorActual, LocalDateTime fechaFin) {
+        Meta meta = new Meta();
+        meta.setTitulo("Meta de " + tipo);
+        meta.setTipo(tipo);
+        meta.setMetrica(metrica);
+        meta.setUnidad("u");
+        meta.setValorInicial(valorInicial);
+        meta.setValorObjetivo(valorObjetivo);
+        meta.setValorActual(valorActual);
+        meta.setFechaInicio(fechaFin.minusDays(30));
+        meta.setFechaFin(fechaFin);
+        meta.setTipoEvaluacion("automatica");
+        meta.setUser(testUser);
+        return entityManager.persist(meta);
+    }
+}
@@ -0,0 +1,140 @@
+package com.lilim.ecotracker.repository;
+
+import com.lilim.ecotracker.features.metas.dto.MetaDTO;
+import com.lilim.ecotracker.features.metas.model.Meta;
+import com.lilim.ecotracker.features.metas.repository.MetaRepository;
+import com.lilim.ecotracker.features.metas.service.calculation.MetaProgressBackfill;
+import com.lilim.ecotracker.features.metas.service.calculation.MetaProgressCalculator;
+import com.lilim.ecotracker.features.metas.service.registry.MetaMetricRegistry;
+import com.lilim.ecotracker.security.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({MetaProgressCalculator.class, MetaMetricRegistry.class})
+public class MetaProjectionQueryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private MetaRepository metaRepository;
+
+    @Autowired
+    private MetaProgressCalculator progressCalculator;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setUsername("testuser");
+        testUser.setEmail("test@example.com");
+        testUser.setPassword("password");
+        testUser.setName("Test User");
+        entityManager.persist(testUser);
+    }
+
+    @Test
+    @DisplayName("Test persistir el progreso al guardar y recalcularlo al cambiar el valor actual")
+    void testProgressPersistedOnChange() {
+        // Arrange
+        Meta meta = persistMeta("agua", "consumo_total", 20.0, 10.0, 15.0);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        MetaDTO inicial = metaRepository.findDTOByIdAndUserId(meta.getId(), testUser.getId()).orElseThrow();
+        Meta managed = entityManager.find(Meta.class, meta.getId());
+        managed.setValorActual(12.0);
+        entityManager.flush();
+        entityManager.clear();
+        MetaDTO actualizada = metaRepository.findDTOByIdAndUserId(meta.getId(), testUser.getId()).orElseThrow();
+
+        // Assert
+        assertEquals(50.0, inicial.getProgreso());
+        assertTrue(inicial.getEsReduccion());
+        assertEquals(80.0, actualizada.getProgreso());
+    }
+
+    @Test
+    @DisplayName("Test proyectar las metas del usuario a DTO con valores redondeados y el progreso persistido")
+    void testFindDTOsByUserId() {
+        // Arrange
+        persistMeta("transporte", "km_bicicleta", 0.0, 100.0, 25.456);
+        persistMeta("electricidad", "consumo_total", 200.0, 150.0, 175.0);
+        entityManager.flush();
+
+        // Act
+        List<MetaDTO> metas = metaRepository.findDTOsByUserId(testUser.getId());
+        List<MetaDTO> transporte = metaRepository.findDTOsByUserIdAndTipo(testUser.getId(), "transporte");
+
+        // Assert
+        assertEquals(2, metas.size());
+        assertEquals(1, transporte.size());
+        MetaDTO bicicleta = transporte.get(0);
+        assertEquals(25.46, bicicleta.getValorActual());
+        assertEquals(25.46, bicicleta.getProgreso());
+        assertFalse(bicicleta.getEsReduccion());
+        assertTrue(metas.stream().anyMatch(m -> "electricidad".equals(m.getTipo()) && m.getProgreso() == 50.0));
+    }
+
+    @Test
+    @DisplayName("Test calcular por lotes el progreso de las metas que no lo tienen persistido")
+    void testBackfillInBatches() {
+        // Arrange
+        Meta agua = persistMeta("agua", "consumo_total", 20.0, 10.0, 15.0);
+        persistMeta("electricidad", "consumo_total", 200.0, 150.0, 175.0);
+        persistMeta("transporte", "km_bicicleta", 0.0, 100.0, 40.0);
+        entityManager.flush();
+        entityManager.getEntityManager()
+                .createQuery("UPDATE Meta m SET m.progreso = NULL, m.esReduccion = NULL WHERE m.user.id = :userId")
+                .setParameter("userId", testUser.getId())
+                .executeUpdate();
+        entityManager.clear();
+        List<Long> pendientes = metaRepository.findIdsWithoutProgresoAfter(0L, PageRequest.of(0, 10));
+
+        // Act
+        new MetaProgressBackfill(metaRepository, progressCalculator, transactionTemplate, 2).backfill();
+        entityManager.flush();
+        entityManager.clear();
+
+        // Assert
+        assertEquals(3, pendientes.size());
+        assertTrue(metaRepository.findIdsWithoutProgresoAfter(0L, PageRequest.of(0, 10)).isEmpty());
+        MetaDTO dto = metaRepository.findDTOByIdAndUserId(agua.getId(), testUser.getId()).orElseThrow();
+        assertEquals(50.0, dto.getProgreso());
+        assertTrue(dto.getEsReduccion());
+    }
+
+    private Meta persistMeta(String tipo, String metrica, double valorInicial, double valorObjetivo, double valorActual) {
+        Meta meta = new Meta();
+        meta.setTitulo("Meta de " + tipo);
+        meta.setTipo(tipo);
+        meta.setMetrica(metrica);
+        meta.setUnidad("u");
+        meta.setValorInicial(valorInicial);
+        meta.setValorObjetivo(valorObjetivo);
+        meta.setValorActual(valorActual);
+        meta.setFechaInicio(LocalDateTime.now().minusDays(10));
+        meta.setFechaFin(LocalDateTime.now().plusDays(20));
+        meta.setTipoEvaluacion("automatica");
+        meta.setUser(testUser);
+        return entityManager.persist(meta);
+    }
+}
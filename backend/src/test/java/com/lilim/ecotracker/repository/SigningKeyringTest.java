@@ -0,0 +1,103 @@
+package com.lilim.ecotracker.repository;
+
+import com.lilim.ecotracker.security.jwt.JwtUtils;
+import com.lilim.ecotracker.security.jwt.SigningKeyring;
+import com.lilim.ecotracker.security.model.AuthenticatedUser;
+import com.lilim.ecotracker.security.repository.SigningKeyRepository;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class SigningKeyringTest {
+
+    private static final String MASTER_SECRET = "clave-maestra-de-prueba";
+    private static final long TOKEN_LIFETIME_MS = 60_000;
+
+    @Autowired
+    private SigningKeyRepository keyRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("Test verificar en una instancia los tokens firmados por otra")
+    void testTokensAreValidAcrossNodes() {
+        // Arrange
+        SigningKeyring firstNode = keyring(MASTER_SECRET, Duration.ofDays(7));
+        SigningKeyring secondNode = keyring(MASTER_SECRET, Duration.ofDays(7));
+
+        // Act
+        String token = generate(jwtUtils(firstNode));
+        Claims claims = jwtUtils(secondNode).parseVerifiedClaims(token);
+
+        // Assert
+        assertEquals(1, keyRepository.count());
+        assertEquals(firstNode.getActiveKey().getKid(), secondNode.getActiveKey().getKid());
+        assertNotNull(claims);
+        assertEquals("testuser", claims.getSubject());
+    }
+
+    @Test
+    @DisplayName("Test rotar la clave activa manteniendo válidos los tokens firmados antes")
+    void testRotationKeepsOldTokensDuringGrace() {
+        // Arrange
+        SigningKeyring keyring = keyring(MASTER_SECRET, Duration.ZERO);
+        String oldKid = keyring.getActiveKey().getKid();
+        JwtUtils jwtUtils = jwtUtils(keyring);
+        String oldToken = generate(jwtUtils);
+
+        // Act
+        keyring.maintain();
+
+        // Assert
+        assertNotEquals(oldKid, keyring.getActiveKey().getKid());
+        assertEquals(2, keyRepository.count());
+        assertNotNull(jwtUtils.parseVerifiedClaims(oldToken));
+        assertNotNull(jwtUtils.parseVerifiedClaims(generate(jwtUtils)));
+    }
+
+    @Test
+    @DisplayName("Test crear una clave nueva si las guardadas no se pueden descifrar")
+    void testChangedMasterSecret() {
+        // Arrange
+        SigningKeyring original = keyring(MASTER_SECRET, Duration.ofDays(7));
+        String token = generate(jwtUtils(original));
+
+        // Act
+        SigningKeyring changed = keyring("otra-clave-maestra", Duration.ofDays(7));
+
+        // Assert
+        assertNotEquals(original.getActiveKey().getKid(), changed.getActiveKey().getKid());
+        assertNull(jwtUtils(changed).parseVerifiedClaims(token));
+    }
+
+    private SigningKeyring keyring(String masterSecret, Duration rotateAfter) {
+        SigningKeyring keyring = new SigningKeyring(keyRepository, new TransactionTemplate(transactionManager),
+                masterSecret, TOKEN_LIFETIME_MS, rotateAfter, Duration.ofHours(1));
+        keyring.init();
+        return keyring;
+    }
+
+    private JwtUtils jwtUtils(SigningKeyring keyring) {
+        JwtUtils jwtUtils = new JwtUtils(keyring);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", (int) TOKEN_LIFETIME_MS);
+        return jwtUtils;
+    }
+
+    private String generate(JwtUtils jwtUtils) {
+        AuthenticatedUser user = new AuthenticatedUser(1L, "testuser", null, List.of("ROLE_USER"));
+        return jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+}
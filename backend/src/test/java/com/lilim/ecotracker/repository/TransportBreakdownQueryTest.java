@@ -0,0 +1,143 @@
+package com.lilim.ecotracker.repository;
+
+import com.lilim.ecotracker.features.summary.dto.ConsumptionAnalyticsDTO;
+import com.lilim.ecotracker.features.summary.service.analytics.ConsumptionAnalyticsEngine;
+import com.lilim.ecotracker.features.summary.service.analytics.ResourceProfile;
+import com.lilim.ecotracker.features.summary.service.analytics.TransportSeries;
+import com.lilim.ecotracker.features.transport.dto.TransportBreakdown;
+import com.lilim.ecotracker.features.transport.model.Transport;
+import com.lilim.ecotracker.features.transport.repository.TransportRepository;
+import com.lilim.ecotracker.security.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class TransportBreakdownQueryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TransportRepository transportRepository;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setUsername("testuser");
+        testUser.setEmail("test@example.com");
+        testUser.setPassword("password");
+        testUser.setName("Test User");
+        entityManager.persist(testUser);
+    }
+
+    @Test
+    @DisplayName("Test agrupar kilómetros, costo y viajes por tipo de transporte en la ventana indicada")
+    void testSumByTransportType() {
+        // Arrange
+        LocalDateTime inicio = LocalDateTime.of(2024, 3, 1, 0, 0);
+        persistTransport(inicio.plusDays(1), "car", 40.0, 80.0);
+        persistTransport(inicio.plusDays(2), "car", 10.0, 40.0);
+        persistTransport(inicio.plusDays(3), "bicycle", 15.0, 0.0);
+        persistTransport(inicio.plusDays(4), "walk", 5.0, 0.0);
+        persistTransport(inicio.minusDays(1), "car", 100.0, 200.0);
+        entityManager.flush();
+
+        // Act
+        TransportBreakdown breakdown = TransportBreakdown.of(
+                transportRepository.sumByTransportType(testUser.getId(), inicio, inicio.plusMonths(1)));
+
+        // Assert
+        assertEquals(4, breakdown.getTrips());
+        assertEquals(70.0, breakdown.getKilometers());
+        assertEquals(120.0, breakdown.getCost());
+        assertEquals(50.0, breakdown.getKilometers(TransportBreakdown.COMBUSTION));
+        assertEquals(2, breakdown.get("car").getTrips());
+        assertEquals(20.0, breakdown.getSustainableKilometers());
+        assertEquals(20.0 / 70.0 * 100, breakdown.getSustainablePercentage(), 1e-9);
+        // Promedio por viaje con costo: (80/40 + 40/10) / 2
+        assertEquals(3.0, breakdown.getAverageCostPerKm(0.1), 1e-9);
+        assertEquals(0.0, breakdown.getKilometers("bus"));
+    }
+
+    @Test
+    @DisplayName("Test devolver un desglose vacío cuando no hay viajes en la ventana")
+    void testEmptyWindow() {
+        // Act
+        TransportBreakdown breakdown = TransportBreakdown.of(transportRepository.sumByTransportType(
+                testUser.getId(), LocalDateTime.now().minusDays(7), LocalDateTime.now()));
+
+        // Assert
+        assertTrue(breakdown.isEmpty());
+        assertEquals(0.0, breakdown.getSustainablePercentage());
+        assertEquals(0.1, breakdown.getAverageCostPerKm(0.1));
+    }
+
+    @Test
+    @DisplayName("Test construir el análisis de transporte desde los totales por bimestre y tipo")
+    void testTransportAnalyticsFromBimonthlyTypeTotals() {
+        // Arrange
+        persistTransport(LocalDateTime.of(2024, 3, 5, 8, 0), "car", 100.0, 200.0);
+        persistTransport(LocalDateTime.of(2024, 3, 20, 8, 0), "bicycle", 20.0, 0.0);
+        persistTransport(LocalDateTime.of(2024, 5, 10, 8, 0), "car", 100.0, 200.0);
+        persistTransport(LocalDateTime.of(2024, 5, 12, 8, 0), "bus", 50.0, 30.0);
+        persistTransport(LocalDateTime.of(2024, 7, 10, 8, 0), "car", 100.0, 200.0);
+        persistTransport(LocalDateTime.of(2024, 7, 10, 18, 0), "car", 100.0, 200.0);
+        persistTransport(LocalDateTime.of(2024, 7, 11, 8, 0), "walk", 10.0, 0.0);
+        entityManager.flush();
+        Map<String, Double> factors = Map.of("car", 0.192, "bus", 0.105, "bicycle", 0.0, "walk", 0.0);
+
+        // Act
+        TransportSeries series = TransportSeries.fromTotals(
+                transportRepository.findBimonthlyTypeTotalsByUserId(testUser.getId()), factors, 0.150);
+        ConsumptionAnalyticsDTO result = new ConsumptionAnalyticsEngine()
+                .analyzeTransport(series, new ResourceProfile("km", "MXN/km", 0.192, 0, 0));
+
+        // Assert
+        assertEquals(3, series.total().size());
+        assertEquals(210.0, result.getBimonthlyConsumption().getCurrentValue(), 1e-9);
+        assertEquals(400.0, result.getCostMetrics().getTotalCost(), 1e-9);
+        assertEquals(160.0, result.getMovingAverage().getValue(), 1e-9);
+        assertEquals(1, result.getAnomalies().getCount());
+        assertEquals("no data", result.getBenchmark().getEfficiencyRating());
+        // Emisiones con el factor de cada tipo: 100 km en auto + 50 km en autobús
+        assertEquals(100 * 0.192 + 50 * 0.105, result.getHistoricalData().get(1).getCo2Emissions(), 1e-9);
+
+        assertEquals(4, result.getTransportTypes().size());
+        ConsumptionAnalyticsDTO.TransportTypeAnalyticsDTO car = findType(result, "car");
+        assertEquals(200.0, car.getCurrentKilometers(), 1e-9);
+        assertEquals(200 * 0.192, car.getCurrentCo2Emissions(), 1e-9);
+        assertEquals(200.0 / 210.0 * 100, car.getKilometerShare(), 1e-9);
+        assertEquals(100.0, car.getPercentChange(), 1e-9);
+        assertEquals(3, car.getHistoricalData().size());
+        assertEquals(0.0, findType(result, "bus").getCurrentKilometers());
+        assertEquals(0.0, findType(result, "bicycle").getCo2Factor());
+    }
+
+    private ConsumptionAnalyticsDTO.TransportTypeAnalyticsDTO findType(ConsumptionAnalyticsDTO analytics, String type) {
+        return analytics.getTransportTypes().stream()
+                .filter(t -> t.getTransportType().equals(type))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private void persistTransport(LocalDateTime date, String type, double kilometers, double cost) {
+        Transport transport = new Transport();
+        transport.setUser(testUser);
+        transport.setDate(date);
+        transport.setTransportType(type);
+        transport.setKilometers(kilometers);
+        transport.setCost(cost);
+        entityManager.persist(transport);
+    }
+}
@@ -0,0 +1,115 @@
+package com.lilim.ecotracker.repository;
+
+import com.lilim.ecotracker.security.model.PointsLedgerEntry;
+import com.lilim.ecotracker.security.model.User;
+import com.lilim.ecotracker.security.repository.PointsLedgerRepository;
+import com.lilim.ecotracker.security.repository.UserRepository;
+import com.lilim.ecotracker.security.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cada premio se confirma en su propia transacción, por lo que la prueba no se ejecuta dentro
+ * de la transacción de {@link DataJpaTest} y limpia sus datos al terminar.
+ */
+@DataJpaTest
+@Import(UserService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class UserScoreConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int AWARDS = 640;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PointsLedgerRepository pointsLedgerRepository;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setUsername("score-user");
+        testUser.setEmail("score@example.com");
+        testUser.setPassword("password");
+        testUser.setName("Score User");
+        testUser = userRepository.save(testUser);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pointsLedgerRepository.deleteAll();
+        userRepository.deleteById(testUser.getId());
+    }
+
+    @Test
+    @DisplayName("Test sumar puntos en paralelo sin perder actualizaciones")
+    void testConcurrentAwardsAreNotLost() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < AWARDS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return userService.addPoints(testUser.getId(), 1, PointsLedgerEntry.MOTIVO_AJUSTE, null);
+            }));
+        }
+
+        // Act
+        start.countDown();
+        Set<Integer> puntuaciones = new HashSet<>();
+        for (Future<Integer> result : results) {
+            puntuaciones.add(result.get(30, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        // Assert
+        int puntuacion = userRepository.findPuntuacionById(testUser.getId()).orElseThrow();
+        assertEquals(AWARDS, puntuacion);
+        assertEquals(AWARDS, pointsLedgerRepository.countByUserId(testUser.getId()));
+        assertEquals(AWARDS, pointsLedgerRepository.sumPuntosByUserId(testUser.getId()));
+        // Cada premio vio su propio incremento: las puntuaciones devueltas son 1..AWARDS sin repetir
+        assertEquals(AWARDS, puntuaciones.size());
+    }
+
+    @Test
+    @DisplayName("Test no premiar dos veces la misma meta")
+    void testMetaIsAwardedOnce() {
+        // Arrange
+        userService.addPoints(testUser.getId(), UserService.PUNTOS_POR_META_COMPLETADA,
+                PointsLedgerEntry.MOTIVO_META_COMPLETADA, 42L);
+
+        // Act & Assert
+        assertThrows(DataIntegrityViolationException.class, () -> userService.addPoints(testUser.getId(),
+                UserService.PUNTOS_POR_META_COMPLETADA, PointsLedgerEntry.MOTIVO_META_COMPLETADA, 42L));
+        assertEquals(UserService.PUNTOS_POR_META_COMPLETADA,
+                userRepository.findPuntuacionById(testUser.getId()).orElseThrow());
+        assertEquals(1, pointsLedgerRepository.countByUserId(testUser.getId()));
+    }
+}
@@ -0,0 +1,81 @@
+package com.lilim.ecotracker.service;
+
+import com.lilim.ecotracker.common.model.ResourceType;
+import com.lilim.ecotracker.features.summary.dto.ConsumptionAnalyticsDTO;
+import com.lilim.ecotracker.features.summary.service.AnalyticsCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AnalyticsCacheTest {
+
+    private AnalyticsCache analyticsCache;
+
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        analyticsCache = new AnalyticsCache(100, Duration.ofMinutes(1));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("Test conservar el cálculo en curso cuando se invalida otro usuario")
+    void testInvalidationOfOtherUserKeepsLoad() {
+        // Act
+        analyticsCache.get(1L, ResourceType.WATER, () -> {
+            analyticsCache.invalidate(2L, ResourceType.WATER);
+            analyticsCache.invalidate(1L, ResourceType.ELECTRICITY);
+            return load();
+        });
+        analyticsCache.get(1L, ResourceType.WATER, this::load);
+
+        // Assert
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Test descartar el cálculo en curso cuando se invalida la misma clave")
+    void testInvalidationOfSameKeyDiscardsLoad() {
+        // Act
+        ConsumptionAnalyticsDTO first = analyticsCache.get(1L, ResourceType.WATER, () -> {
+            analyticsCache.invalidate(1L, ResourceType.WATER);
+            return load();
+        });
+        analyticsCache.get(1L, ResourceType.WATER, () -> {
+            analyticsCache.invalidateUser(1L);
+            return load();
+        });
+        analyticsCache.get(1L, ResourceType.WATER, this::load);
+        analyticsCache.get(1L, ResourceType.WATER, this::load);
+
+        // Assert
+        assertNotNull(first);
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    @DisplayName("Test no dejar marcas pendientes cuando el cálculo falla")
+    void testFailedLoadIsNotCached() {
+        // Act
+        assertThrows(IllegalStateException.class, () -> analyticsCache.get(1L, ResourceType.WATER, () -> {
+            throw new IllegalStateException("fallo");
+        }));
+        analyticsCache.get(1L, ResourceType.WATER, this::load);
+        analyticsCache.get(1L, ResourceType.WATER, this::load);
+
+        // Assert
+        assertEquals(1, loads.get());
+        assertEquals(1, analyticsCache.stats().getSize());
+    }
+
+    private ConsumptionAnalyticsDTO load() {
+        loads.incrementAndGet();
+        return ConsumptionAnalyticsDTO.builder().build();
+    }
+}
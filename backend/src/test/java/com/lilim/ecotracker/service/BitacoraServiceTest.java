@@ -92,7 +92,7 @@ public class BitacoraServiceTest {
     @DisplayName("Test crear bitácora exitosamente sin imagen")
     void testCreateBitacoraWithoutImage() throws IOException {
         // Arrange
-        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(userService.getCurrentUserReference()).thenReturn(testUser);
         when(objectMapper.writeValueAsString(any())).thenReturn("{\"especie\":\"Pino\",\"cantidad\":5}");
         when(bitacoraRepository.save(any(Bitacora.class))).thenReturn(testBitacora);
         when(objectMapper.readValue(anyString(), eq(Map.class))).thenReturn(testBitacoraDTO.getCamposAdicionales());
@@ -107,7 +107,7 @@ public class BitacoraServiceTest {
         assertNotNull(result.getCamposAdicionales());
         assertEquals(2, result.getCamposAdicionales().size());
         
-        verify(userService, times(1)).getCurrentUser();
+        verify(userService, times(1)).getCurrentUserReference();
         verify(bitacoraRepository, times(1)).save(any(Bitacora.class));
         verify(imagenService, never()).storeImage(any(MultipartFile.class));
     }
@@ -117,7 +117,7 @@ public class BitacoraServiceTest {
     void testCreateBitacoraWithImage() throws IOException {
         // Arrange
         String imagePath = "test-image-path.jpg";
-        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(userService.getCurrentUserReference()).thenReturn(testUser);
         when(objectMapper.writeValueAsString(any())).thenReturn("{\"especie\":\"Pino\",\"cantidad\":5}");
         when(imagenService.storeImage(any(MultipartFile.class))).thenReturn(imagePath);
         
@@ -133,7 +133,7 @@ public class BitacoraServiceTest {
         assertEquals(testBitacoraDTO.getTitulo(), result.getTitulo());
         assertEquals(imagePath, result.getImagenUrl());
         
-        verify(userService, times(1)).getCurrentUser();
+        verify(userService, times(1)).getCurrentUserReference();
         verify(imagenService, times(1)).storeImage(any(MultipartFile.class));
         verify(bitacoraRepository, times(1)).save(any(Bitacora.class));
     }
@@ -142,7 +142,7 @@ public class BitacoraServiceTest {
     @DisplayName("Test manejo de error al procesar imagen")
     void testImageProcessingError() throws IOException {
         // Arrange
-        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(userService.getCurrentUserReference()).thenReturn(testUser);
         when(imagenService.storeImage(any(MultipartFile.class))).thenThrow(new IOException("Error al procesar imagen"));
 
         // Act & Assert
@@ -159,7 +159,7 @@ public class BitacoraServiceTest {
     void testGetBitacoraById() throws JsonProcessingException {
         // Arrange
         Long bitacoraId = 1L;
-        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(userService.getCurrentUserId()).thenReturn(testUser.getId());
         when(bitacoraRepository.findByIdAndUserId(bitacoraId, testUser.getId())).thenReturn(Optional.of(testBitacora));
         when(objectMapper.readValue(anyString(), eq(Map.class))).thenReturn(testBitacoraDTO.getCamposAdicionales());
 
@@ -180,7 +180,7 @@ public class BitacoraServiceTest {
         String imagePath = "test-image-path.jpg";
         testBitacora.setImagenUrl(imagePath);
         
-        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(userService.getCurrentUserId()).thenReturn(testUser.getId());
         when(bitacoraRepository.findByIdAndUserId(bitacoraId, testUser.getId())).thenReturn(Optional.of(testBitacora));
         when(imagenService.deleteImage(imagePath)).thenReturn(true);
 
@@ -198,7 +198,7 @@ public class BitacoraServiceTest {
     void testDeleteNonExistentBitacora() {
         // Arrange
         Long bitacoraId = 999L;
-        when(userService.getCurrentUser()).thenReturn(testUser);
+        when(userService.getCurrentUserId()).thenReturn(testUser.getId());
         when(bitacoraRepository.findByIdAndUserId(bitacoraId, testUser.getId())).thenReturn(Optional.empty());
 
         // Act & Assert
@@ -0,0 +1,78 @@
+package com.lilim.ecotracker.service;
+
+import com.lilim.ecotracker.features.summary.dto.ConsumptionAnalyticsDTO;
+import com.lilim.ecotracker.features.summary.service.analytics.BimonthlySeries;
+import com.lilim.ecotracker.features.summary.service.analytics.ConsumptionAnalyticsEngine;
+import com.lilim.ecotracker.features.summary.service.analytics.ResourceProfile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConsumptionAnalyticsEngineTest {
+
+    private static final ResourceProfile PROFILE = new ResourceProfile("m³", "MXN/m³", 0.376, 13.8, 14.4);
+
+    private final ConsumptionAnalyticsEngine engine = new ConsumptionAnalyticsEngine();
+
+    @Test
+    @DisplayName("Test agrupar registros consecutivos en el mismo bimestre")
+    void testBimonthlySeriesGroupsSamePeriod() {
+        // Arrange
+        BimonthlySeries series = new BimonthlySeries();
+
+        // Act
+        series.add(LocalDateTime.of(2024, 3, 5, 0, 0), 10, 100);
+        series.add(LocalDateTime.of(2024, 3, 20, 0, 0), 5, 50);
+        series.add(LocalDateTime.of(2024, 4, 2, 0, 0), 7, 70);
+
+        // Assert
+        assertEquals(2, series.size());
+        assertEquals(15, series.consumption(0));
+        assertEquals(150, series.cost(0));
+        assertEquals(2, series.count(0));
+        assertEquals(LocalDateTime.of(2024, 3, 5, 0, 0), series.firstDate(0));
+        assertEquals(7, series.consumption(1));
+    }
+
+    @Test
+    @DisplayName("Test calcular métricas de la serie en un solo recorrido")
+    void testAnalyzeComputesAllSections() {
+        // Arrange
+        BimonthlySeries series = new BimonthlySeries();
+        series.add(LocalDateTime.of(2024, 1, 10, 0, 0), 10, 100);
+        series.add(LocalDateTime.of(2024, 3, 10, 0, 0), 10, 100);
+        series.add(LocalDateTime.of(2024, 5, 10, 0, 0), 20, 300);
+
+        // Act
+        ConsumptionAnalyticsDTO result = engine.analyze(series, PROFILE);
+
+        // Assert
+        assertEquals(20, result.getBimonthlyConsumption().getCurrentValue());
+        assertEquals(100, result.getBimonthlyConsumption().getPercentChange(), 1e-9);
+        assertEquals(15, result.getCostMetrics().getUnitCost(), 1e-9);
+        assertEquals(35.0 / 3, result.getCostMetrics().getHistoricalAverageUnitCost(), 1e-9);
+        assertEquals(40.0 / 3, result.getMovingAverage().getValue(), 1e-9);
+        assertEquals(3, result.getMovingAverage().getHistoricalValues().size());
+        assertEquals(1, result.getAnomalies().getCount());
+        assertEquals(LocalDateTime.of(2024, 5, 10, 0, 0), result.getAnomalies().getDetails().get(0).getDate());
+        assertEquals(50, result.getCo2Metrics().getForecastPercentChange(), 1e-9);
+        assertEquals(30, result.getCo2Metrics().getForecastValue(), 1e-9);
+        assertEquals("less efficient", result.getBenchmark().getEfficiencyRating());
+        assertEquals(3, result.getHistoricalData().size());
+    }
+
+    @Test
+    @DisplayName("Test devolver análisis vacío sin registros")
+    void testAnalyzeEmptySeries() {
+        // Act
+        ConsumptionAnalyticsDTO result = engine.analyze(new BimonthlySeries(), PROFILE);
+
+        // Assert
+        assertEquals("neutral", result.getBimonthlyConsumption().getStatus());
+        assertEquals("no data", result.getBenchmark().getEfficiencyRating());
+        assertTrue(result.getHistoricalData().isEmpty());
+    }
+}
@@ -0,0 +1,200 @@
+package com.lilim.ecotracker.service;
+
+import com.lilim.ecotracker.common.event.ConsumptionChangedEvent;
+import com.lilim.ecotracker.common.imports.ConsumptionImportService;
+import com.lilim.ecotracker.common.imports.ConsumptionImportSpec;
+import com.lilim.ecotracker.common.imports.ImportFormat;
+import com.lilim.ecotracker.common.imports.ImportResultDTO;
+import com.lilim.ecotracker.common.model.ResourceType;
+import com.lilim.ecotracker.common.projection.BimonthlyTotal;
+import com.lilim.ecotracker.features.summary.service.ConsumptionRollupService;
+import com.lilim.ecotracker.features.transport.model.Transport;
+import com.lilim.ecotracker.features.transport.repository.TransportRepository;
+import com.lilim.ecotracker.features.water.model.Water;
+import com.lilim.ecotracker.features.water.repository.WaterRepository;
+import com.lilim.ecotracker.security.model.User;
+import com.lilim.ecotracker.security.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@RecordApplicationEvents
+public class ConsumptionImportServiceTest {
+
+    private static final ConsumptionImportSpec<Water> WATER_SPEC = ConsumptionImportSpec.of(
+            ResourceType.WATER, Water.class, Water::new, "liters", Water::getLiters, Water::setLiters);
+
+    private static final ConsumptionImportSpec<Transport> TRANSPORT_SPEC = ConsumptionImportSpec.of(
+            ResourceType.TRANSPORT, Transport.class, Transport::new, "kilometers", Transport::getKilometers, Transport::setKilometers)
+            .withTextField("transportType", Transport::getTransportType, Transport::setTransportType, "car", "bus");
+
+    @Autowired
+    private ConsumptionImportService importService;
+
+    @Autowired
+    private ConsumptionRollupService rollupService;
+
+    @Autowired
+    private WaterRepository waterRepository;
+
+    @Autowired
+    private TransportRepository transportRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        testUser = new User();
+        testUser.setUsername("import-" + suffix);
+        testUser.setEmail("import-" + suffix + "@example.com");
+        testUser.setPassword("password");
+        testUser.setName("Import User");
+        testUser = userRepository.save(testUser);
+    }
+
+    @Test
+    @DisplayName("Test importar un arreglo JSON y acumular los totales bimestrales")
+    void testImportJson() {
+        // Arrange
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 120; i++) {
+            json.append(i > 0 ? "," : "")
+                    .append("{\"date\":\"2024-0").append(1 + i % 4).append("-10T00:00:00\",\"liters\":1.5,\"cost\":10}");
+        }
+        json.append("]");
+
+        // Act
+        ImportResultDTO result = importService.importRecords(stream(json.toString()), ImportFormat.JSON, WATER_SPEC, testUser);
+
+        // Assert
+        assertEquals(120, result.getImported());
+        assertTrue(result.getErrors().isEmpty());
+        assertEquals(120, waterRepository.findByUserId(testUser.getId()).size());
+        List<BimonthlyTotal> totals = rollupService.getBimonthlyTotals(testUser.getId(), ResourceType.WATER);
+        assertEquals(3, totals.size());
+        assertEquals(30L, totals.get(0).getRecords());
+        assertEquals(45.0, totals.get(0).getTotal(), 1e-9);
+        assertEquals(LocalDateTime.of(2024, 1, 10, 0, 0), totals.get(0).getFirstDate());
+        assertEquals(60L, totals.get(1).getRecords());
+    }
+
+    @Test
+    @DisplayName("Test importar un CSV con fechas, comillas y columnas en cualquier orden")
+    void testImportCsv() {
+        // Arrange
+        String csv = "cost,date,kilometers,transportType\n" +
+                "25.5,2024-05-01,12,car\n" +
+                "\n" +
+                "\"8\",2024-05-02T08:30:00,4.5,\"bus\"\n";
+
+        // Act
+        ImportResultDTO result = importService.importRecords(stream(csv), ImportFormat.CSV, TRANSPORT_SPEC, testUser);
+
+        // Assert
+        assertEquals(2, result.getImported());
+        List<Transport> usages = transportRepository.findByUserIdOrderByDateDesc(testUser.getId());
+        assertEquals(2, usages.size());
+        assertEquals("bus", usages.get(0).getTransportType());
+        assertEquals(4.5, usages.get(0).getKilometers());
+        assertEquals(LocalDateTime.of(2024, 5, 1, 0, 0), usages.get(1).getDate());
+    }
+
+    @Test
+    @DisplayName("Test rechazar toda la importación si algún registro es inválido")
+    void testImportRejectsInvalidRows() {
+        // Arrange
+        String csv = "date,kilometers,cost,transportType\n" +
+                "2024-05-01,12,25.5,car\n" +
+                "2024-05-02,-3,10,car\n" +
+                "2024-05-03,5,10,plane\n" +
+                "fecha,5,10,car\n";
+
+        // Act
+        ImportResultDTO result = importService.importRecords(stream(csv), ImportFormat.CSV, TRANSPORT_SPEC, testUser);
+
+        // Assert
+        assertEquals(0, result.getImported());
+        assertEquals(3, result.getRejected());
+        assertEquals(3, result.getErrors().get(0).getRow());
+        assertEquals(5, result.getErrors().get(2).getRow());
+        assertTrue(transportRepository.findByUserId(testUser.getId()).isEmpty());
+        assertTrue(rollupService.getBimonthlyTotals(testUser.getId(), ResourceType.TRANSPORT).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test rechazar un CSV sin las columnas obligatorias")
+    void testImportCsvMissingColumn() {
+        // Act
+        ImportResultDTO result = importService.importRecords(stream("date,cost\n2024-01-01,3\n"), ImportFormat.CSV, WATER_SPEC, testUser);
+
+        // Assert
+        assertEquals(0, result.getImported());
+        assertEquals(1, result.getErrors().size());
+        assertTrue(result.getErrors().get(0).getMessage().contains("liters"));
+    }
+
+    @Test
+    @DisplayName("Test publicar un solo evento de cambio por importación en lugar de uno por registro")
+    void testImportPublishesSingleEvent() {
+        // Arrange
+        StringBuilder csv = new StringBuilder("date,liters,cost\n");
+        for (int i = 0; i < 120; i++) {
+            csv.append("2024-03-").append(10 + i % 10).append(",2,5\n");
+        }
+
+        // Act
+        ImportResultDTO result = importService.importRecords(stream(csv.toString()), ImportFormat.CSV, WATER_SPEC, testUser);
+
+        // Assert
+        assertEquals(120, result.getImported());
+        List<ConsumptionChangedEvent> published = events.stream(ConsumptionChangedEvent.class).toList();
+        assertEquals(1, published.size());
+        assertEquals(testUser.getId(), published.get(0).getUserId());
+        assertEquals(ResourceType.WATER, published.get(0).getResource());
+
+        // Un guardado individual posterior vuelve a publicar su propio evento
+        Water water = new Water();
+        water.setDate(LocalDateTime.of(2024, 3, 25, 0, 0));
+        water.setLiters(1.0);
+        water.setCost(1.0);
+        water.setUser(testUser);
+        waterRepository.save(water);
+        assertEquals(2, events.stream(ConsumptionChangedEvent.class).count());
+    }
+
+    @Test
+    @DisplayName("Test no publicar eventos de cambio si la importación se rechaza")
+    void testRejectedImportPublishesNoEvents() {
+        // Act
+        importService.importRecords(stream("date,liters,cost\n2024-01-01,3,1\n2024-01-02,-1,1\n"),
+                ImportFormat.CSV, WATER_SPEC, testUser);
+
+        // Assert
+        assertEquals(0, events.stream(ConsumptionChangedEvent.class).count());
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,67 @@
+package com.lilim.ecotracker.service;
+
+import com.lilim.ecotracker.security.jwt.JwtUtils;
+import com.lilim.ecotracker.security.jwt.SigningKeyring;
+import com.lilim.ecotracker.security.model.AuthenticatedUser;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class JwtPrincipalTest {
+
+    private JwtUtils jwtUtils;
+
+    @BeforeEach
+    void setUp() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        SigningKeyring keyring = mock(SigningKeyring.class);
+        when(keyring.getActiveKey()).thenReturn(new SigningKeyring.ActiveKey("k1", key));
+        when(keyring.getVerificationKey("k1")).thenReturn(key);
+
+        jwtUtils = new JwtUtils(keyring);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 60_000);
+    }
+
+    @Test
+    @DisplayName("Test construir el principal desde los claims del token sin contraseña")
+    void testPrincipalFromClaims() {
+        // Arrange
+        AuthenticatedUser user = new AuthenticatedUser(42L, "testuser", "hash", List.of("ROLE_USER", "ROLE_ADMIN"));
+        String token = jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+
+        // Act
+        Claims claims = jwtUtils.parseVerifiedClaims(token);
+        AuthenticatedUser principal = jwtUtils.toPrincipal(claims);
+
+        // Assert
+        assertNotNull(principal);
+        assertEquals(42L, principal.getId());
+        assertEquals("testuser", principal.getUsername());
+        assertNull(principal.getPassword());
+        assertEquals(List.of("ROLE_USER", "ROLE_ADMIN"), principal.getRoles());
+    }
+
+    @Test
+    @DisplayName("Test rechazar un token con la firma alterada")
+    void testTamperedToken() {
+        // Arrange
+        AuthenticatedUser user = new AuthenticatedUser(1L, "testuser", null, List.of("ROLE_USER"));
+        String token = jwtUtils.generateJwtToken(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        // Act & Assert
+        assertNull(jwtUtils.parseVerifiedClaims(tampered));
+    }
+}
@@ -0,0 +1,144 @@
+package com.lilim.ecotracker.service;
+
+import com.lilim.ecotracker.common.event.ScoreChangedEvent;
+import com.lilim.ecotracker.common.projection.UserScore;
+import com.lilim.ecotracker.features.leaderboard.dto.LeaderboardDTO;
+import com.lilim.ecotracker.features.leaderboard.dto.LeaderboardEntryDTO;
+import com.lilim.ecotracker.features.leaderboard.service.LeaderboardService;
+import com.lilim.ecotracker.features.leaderboard.service.RankedScoreIndex;
+import com.lilim.ecotracker.security.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LeaderboardServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private LeaderboardService leaderboardService;
+
+    @BeforeEach
+    void setUp() {
+        leaderboardService = new LeaderboardService(userRepository, 2);
+    }
+
+    @Test
+    @DisplayName("Test mantener el orden y las posiciones del índice frente a un ordenamiento completo")
+    void testRankedIndexMatchesSortedScores() {
+        // Arrange
+        Random random = new Random(42);
+        RankedScoreIndex index = new RankedScoreIndex();
+        Map<Long, Integer> scores = new HashMap<>();
+
+        // Act
+        for (int i = 0; i < 2000; i++) {
+            long userId = random.nextInt(300);
+            if (random.nextInt(10) == 0) {
+                assertEquals(scores.remove(userId) != null, index.remove(userId));
+            } else {
+                int score = random.nextInt(50);
+                index.put(userId, "user" + userId, score);
+                scores.put(userId, score);
+            }
+        }
+
+        // Assert
+        List<Long> expected = new ArrayList<>(scores.keySet());
+        expected.sort(Comparator.comparing((Long id) -> -scores.get(id)).thenComparing(id -> id));
+        assertEquals(expected.size(), index.size());
+        assertEquals(expected, index.range(0, expected.size()).stream().map(RankedScoreIndex.Entry::getUserId).toList());
+        for (int position = 0; position < expected.size(); position++) {
+            long userId = expected.get(position);
+            assertEquals(position, index.indexOf(userId));
+            long above = scores.values().stream().filter(score -> score > scores.get(userId)).count();
+            assertEquals(above, index.countAbove(scores.get(userId)));
+        }
+        assertEquals(expected.subList(10, 15),
+                index.range(10, 5).stream().map(RankedScoreIndex.Entry::getUserId).toList());
+        assertEquals(-1, index.indexOf(1000L));
+    }
+
+    @Test
+    @DisplayName("Test construir la clasificación por lotes y compartir posición en los empates")
+    void testTopSharesRankOnTies() {
+        // Arrange
+        when(userRepository.findScoresAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(score(1L, "ana", 30), score(2L, "beto", 50)));
+        when(userRepository.findScoresAfter(eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(score(3L, "carla", 30), score(4L, "dani", 10)));
+        when(userRepository.findScoresAfter(eq(4L), any(Pageable.class))).thenReturn(List.of());
+        leaderboardService.rebuild();
+
+        // Act
+        LeaderboardDTO top = leaderboardService.getTop(3, 3L);
+
+        // Assert
+        assertEquals(4, top.getTotalUsers());
+        assertEquals(List.of("beto", "ana", "carla"), top.getEntries().stream().map(LeaderboardEntryDTO::getUsername).toList());
+        assertEquals(List.of(1, 2, 2), top.getEntries().stream().map(LeaderboardEntryDTO::getRank).toList());
+        assertTrue(top.getEntries().get(2).isCurrentUser());
+        assertFalse(top.getEntries().get(0).isCurrentUser());
+    }
+
+    @Test
+    @DisplayName("Test actualizar la posición al cambiar la puntuación e incorporar usuarios nuevos")
+    void testAroundReflectsScoreChanges() {
+        // Arrange
+        when(userRepository.findScoresAfter(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(score(1L, "ana", 30), score(2L, "beto", 50)));
+        when(userRepository.findScoresAfter(eq(2L), any(Pageable.class))).thenReturn(List.of());
+        leaderboardService.rebuild();
+        when(userRepository.findScoresByIdIn(List.of(1L))).thenReturn(List.of(score(1L, "ana", 60)));
+        when(userRepository.findScoresByIdIn(List.of(5L))).thenReturn(List.of(score(5L, "eva", 0)));
+
+        // Act
+        leaderboardService.onScoreChanged(new ScoreChangedEvent(List.of(1L)));
+        LeaderboardDTO around = leaderboardService.getAround(5L, 1);
+
+        // Assert
+        assertEquals(3, around.getTotalUsers());
+        assertEquals(List.of("beto", "eva"), around.getEntries().stream().map(LeaderboardEntryDTO::getUsername).toList());
+        assertEquals(List.of(2, 3), around.getEntries().stream().map(LeaderboardEntryDTO::getRank).toList());
+        assertTrue(around.getEntries().get(1).isCurrentUser());
+        assertEquals(1, leaderboardService.getTop(1, null).getEntries().get(0).getRank());
+        assertEquals("ana", leaderboardService.getTop(1, null).getEntries().get(0).getUsername());
+        verify(userRepository, times(1)).findScoresByIdIn(List.of(5L));
+    }
+
+    private static UserScore score(Long id, String username, Integer puntuacion) {
+        return new UserScore() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getUsername() {
+                return username;
+            }
+
+            @Override
+            public Integer getPuntuacion() {
+                return puntuacion;
+            }
+        };
+    }
+}
@@ -0,0 +1,83 @@
+package com.lilim.ecotracker.service;
+
+import com.lilim.ecotracker.security.service.LoginBulkhead;
+import com.lilim.ecotracker.security.service.LoginThrottle;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoginThrottleTest {
+
+    @Test
+    @DisplayName("Test limitar los intentos por usuario sin afectar a otros usuarios")
+    void testUsernameBucket() {
+        // Arrange
+        LoginThrottle throttle = new LoginThrottle(65536, 3, Duration.ofMinutes(1), 100, Duration.ofMillis(1));
+
+        // Act & Assert
+        for (int i = 0; i < 3; i++) {
+            assertTrue(throttle.tryAcquire("TestUser", "10.0.0." + i).isZero());
+        }
+        Duration wait = throttle.tryAcquire("testuser ", "10.0.0.9");
+        assertFalse(wait.isZero());
+        assertTrue(wait.compareTo(Duration.ofMinutes(1)) <= 0);
+        assertTrue(throttle.tryAcquire("otheruser", "10.0.0.9").isZero());
+        assertEquals(1, throttle.getRejectedCount());
+    }
+
+    @Test
+    @DisplayName("Test limitar los intentos por IP y recuperar la capacidad con el tiempo")
+    void testAddressBucketRefills() throws InterruptedException {
+        // Arrange
+        LoginThrottle throttle = new LoginThrottle(1024, 100, Duration.ofMillis(1), 2, Duration.ofMillis(200));
+
+        // Act & Assert
+        assertTrue(throttle.tryAcquire("a", "10.0.0.1").isZero());
+        assertTrue(throttle.tryAcquire("b", "10.0.0.1").isZero());
+        assertFalse(throttle.tryAcquire(null, "10.0.0.1").isZero());
+        assertTrue(throttle.tryAcquire(null, "10.0.0.2").isZero());
+        Thread.sleep(250);
+        assertTrue(throttle.tryAcquire("c", "10.0.0.1").isZero());
+    }
+
+    @Test
+    @DisplayName("Test rechazar de inmediato cuando el pool de autenticación está saturado")
+    void testBulkheadRejectsWhenFull() throws Exception {
+        // Arrange
+        LoginBulkhead bulkhead = new LoginBulkhead(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            CompletableFuture<String> running = bulkhead.submit(() -> {
+                await(release);
+                return "first";
+            });
+            CompletableFuture<String> queued = bulkhead.submit(() -> "second");
+
+            // Act & Assert
+            assertThrows(RejectedExecutionException.class, () -> bulkhead.submit(() -> "third"));
+            assertEquals(1, bulkhead.stats(0).getRejected());
+            release.countDown();
+            assertEquals("first", running.get(2, TimeUnit.SECONDS));
+            assertEquals("second", queued.get(2, TimeUnit.SECONDS));
+            assertEquals(2, bulkhead.stats(0).getCompleted());
+            assertEquals(0, bulkhead.stats(0).getQueueDepth());
+        } finally {
+            bulkhead.shutdown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.lilim.ecotracker.service;
+
+import com.lilim.ecotracker.features.metas.model.Meta;
+import com.lilim.ecotracker.features.metas.repository.MetaRepository;
+import com.lilim.ecotracker.features.metas.service.automation.MetaAutomationBatchService;
+import com.lilim.ecotracker.features.metas.service.automation.MetaAutomationCoordinator;
+import com.lilim.ecotracker.features.metas.service.automation.MetaAutomationRunStats;
+import com.lilim.ecotracker.security.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MetaAutomationBatchServiceTest {
+
+    @Mock
+    private MetaRepository metaRepository;
+
+    @Mock
+    private MetaAutomationCoordinator automationCoordinator;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MetaAutomationBatchService batchService;
+
+    @BeforeEach
+    void setUp() {
+        batchService = new MetaAutomationBatchService(metaRepository, automationCoordinator, userService, transactionManager, 2, 3, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test procesar todas las páginas de usuarios y contar metas fallidas")
+    void testRunBatchProcessesAllPages() {
+        // Arrange
+        when(metaRepository.findUserIdsByTipoEvaluacionAndEstadoAfter(eq("automatica"), eq("en_progreso"), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L, 3L));
+        when(metaRepository.findUserIdsByTipoEvaluacionAndEstadoAfter(eq("automatica"), eq("en_progreso"), eq(3L), any(Pageable.class)))
+                .thenReturn(List.of(4L));
+        when(metaRepository.findUserIdsByTipoEvaluacionAndEstadoAfter(eq("automatica"), eq("en_progreso"), eq(4L), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+        when(metaRepository.findByUserIdInAndTipoEvaluacionAndEstado(anyCollection(), eq("automatica"), eq("en_progreso")))
+                .thenAnswer(invocation -> {
+                    Collection<Long> userIds = invocation.getArgument(0);
+                    return userIds.stream().map(this::createMeta).collect(Collectors.toList());
+                });
+        doAnswer(invocation -> {
+            Meta meta = invocation.getArgument(0);
+            if (meta.getId() == 2L) {
+                throw new IllegalStateException("sin datos");
+            }
+            return null;
+        }).when(automationCoordinator).updateMetaProgress(any(Meta.class));
+
+        // Act
+        Optional<MetaAutomationRunStats> result = batchService.runBatch();
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(4, result.get().getUsers());
+        assertEquals(3, result.get().getGoals());
+        assertEquals(1, result.get().getFailures());
+        assertSame(result.get(), batchService.getLastRun().orElse(null));
+        verify(automationCoordinator, times(4)).updateMetaProgress(any(Meta.class));
+        // Una transacción por meta: la fallida se revierte sola
+        verify(transactionManager, times(4)).getTransaction(any());
+        verify(transactionManager, times(3)).commit(any());
+        verify(transactionManager, times(1)).rollback(any());
+    }
+
+    private Meta createMeta(Long userId) {
+        Meta meta = new Meta();
+        meta.setId(userId);
+        meta.setTipo("agua");
+        meta.setTipoEvaluacion("automatica");
+        meta.setEstado("en_progreso");
+        return meta;
+    }
+}
@@ -0,0 +1,109 @@
+package com.lilim.ecotracker.service;
+
+import com.lilim.ecotracker.features.metas.service.automation.MetaAutomationService;
+import com.lilim.ecotracker.features.metas.service.calculation.MetaProgressCalculationService;
+import com.lilim.ecotracker.features.metas.service.recommendation.MetaRecommendationService;
+import com.lilim.ecotracker.features.metas.service.registry.MetaMetricRegistry;
+import com.lilim.ecotracker.features.metas.service.registry.MetricDescriptor;
+import com.lilim.ecotracker.features.metas.service.registry.MetricDirection;
+import com.lilim.ecotracker.features.metas.service.registry.UnknownMetricException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class MetaMetricRegistryTest {
+
+    @Mock
+    private MetaProgressCalculationService transportCalculator;
+
+    @Mock
+    private MetaAutomationService standardEvaluator;
+
+    @Mock
+    private MetaRecommendationService combinedRecommendations;
+
+    private MetaMetricRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of(
+                "transportCalculator", transportCalculator,
+                "standardEvaluator", standardEvaluator,
+                "combinedRecommendations", combinedRecommendations));
+        registry = new MetaMetricRegistry(
+                beanFactory.getBeanProvider(MetaProgressCalculationService.class),
+                beanFactory.getBeanProvider(MetaAutomationService.class),
+                beanFactory.getBeanProvider(MetaRecommendationService.class));
+    }
+
+    @Test
+    @DisplayName("Test resolver la dirección y la unidad de cada métrica y la métrica por defecto del tipo")
+    void testDirectionAndDefaults() {
+        // Act
+        MetricDescriptor bicicleta = registry.get("transporte", "km_bicicleta");
+        MetricDescriptor combustion = registry.get("transporte", "reduccion_combustion");
+        MetricDescriptor benchmark = registry.get("agua", "benchmark");
+        MetricDescriptor huella = registry.get("combinada", "huella_carbono");
+        MetricDescriptor porDefecto = registry.get("electricidad", null);
+
+        // Assert
+        assertEquals(MetricDirection.INCREMENTO, bicicleta.getDirection());
+        assertTrue(combustion.isReduction());
+        assertFalse(benchmark.isReduction());
+        assertTrue(huella.isReduction());
+        assertFalse(registry.get("combinada", "ahorro_total").isReduction());
+        assertEquals("consumo_total", porDefecto.getMetrica());
+        assertEquals("kwh", porDefecto.getUnidad());
+        assertEquals("km", combustion.getUnidad());
+    }
+
+    @Test
+    @DisplayName("Test rechazar combinaciones de tipo y métrica no registradas")
+    void testUnknownCombinationFailsFast() {
+        // Act & Assert
+        assertThrows(UnknownMetricException.class, () -> registry.get("agua", "km_bicicleta"));
+        assertThrows(UnknownMetricException.class, () -> registry.get("transporte", "inexistente"));
+        assertThrows(UnknownMetricException.class, () -> registry.get("gas", "consumo_total"));
+        assertThrows(UnknownMetricException.class, () -> registry.get(null, "consumo_total"));
+        assertNull(registry.findByTipo("gas"));
+    }
+
+    @Test
+    @DisplayName("Test enlazar una sola vez los servicios que manejan cada tipo")
+    void testServicesBoundByTipo() {
+        // Arrange
+        when(transportCalculator.canHandle(anyString())).thenAnswer(inv -> "transporte".equals(inv.getArgument(0)));
+        when(standardEvaluator.canHandle(anyString())).thenAnswer(inv -> !"combinada".equals(inv.getArgument(0))
+                && !"otro".equals(inv.getArgument(0)));
+        when(combinedRecommendations.canHandle(anyString())).thenAnswer(inv -> "combinada".equals(inv.getArgument(0)));
+
+        // Act
+        registry.afterSingletonsInstantiated();
+        MetricDescriptor costo = registry.get("transporte", "costo");
+        MetricDescriptor agua = registry.get("agua", "consumo_total");
+        MetricDescriptor sostenibilidad = registry.get("combinada", "sostenibilidad");
+        MetricDescriptor personalizada = registry.findByTipo("otro");
+
+        // Assert
+        assertSame(transportCalculator, costo.getCalculator());
+        assertSame(standardEvaluator, costo.getStateEvaluator());
+        assertNull(agua.getCalculator());
+        assertSame(standardEvaluator, agua.getStateEvaluator());
+        assertSame(combinedRecommendations, sostenibilidad.getRecommendationSource());
+        assertNull(sostenibilidad.getStateEvaluator());
+        assertEquals("personalizada", personalizada.getMetrica());
+        assertNull(personalizada.getStateEvaluator());
+        assertTrue(costo.isReduction());
+    }
+}
@@ -0,0 +1,142 @@
+package com.lilim.ecotracker.service;
+
+import com.lilim.ecotracker.common.event.ConsumptionChangedEvent;
+import com.lilim.ecotracker.common.model.ResourceType;
+import com.lilim.ecotracker.features.metas.dto.MetaRecommendationDTO;
+import com.lilim.ecotracker.features.metas.service.recommendation.MetaRecommendationCoordinator;
+import com.lilim.ecotracker.features.metas.service.recommendation.MetaRecommendationStore;
+import com.lilim.ecotracker.features.summary.service.ConsumptionRollupService;
+import com.lilim.ecotracker.security.model.User;
+import com.lilim.ecotracker.security.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MetaRecommendationStoreTest {
+
+    @Mock
+    private MetaRecommendationCoordinator recommendationCoordinator;
+
+    @Mock
+    private ConsumptionRollupService rollupService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private MetaRecommendationStore recommendationStore;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        recommendationStore = new MetaRecommendationStore(recommendationCoordinator, rollupService, userRepository,
+                transactionTemplate, 100, Duration.ofHours(1), Duration.ofHours(1), Duration.ofMillis(100), 1);
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("testuser");
+
+        when(recommendationCoordinator.getRecommendationsForTipo("agua", testUser))
+                .thenReturn(recommendations("Reducir consumo de agua a 12 m³"))
+                .thenReturn(recommendations("Reducir consumo de agua a 10 m³"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        recommendationStore.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test calcular las recomendaciones una vez y leerlas del almacén mientras la versión no cambie")
+    void testReadsStoredRecommendationsWhileVersionUnchanged() {
+        // Arrange
+        when(rollupService.getDataVersion(1L, EnumSet.of(ResourceType.WATER))).thenReturn(5L);
+
+        // Act
+        Map<String, List<MetaRecommendationDTO>> primera = recommendationStore.get(testUser, "agua");
+        Map<String, List<MetaRecommendationDTO>> segunda = recommendationStore.get(testUser, "agua");
+
+        // Assert
+        assertEquals(primera, segunda);
+        assertEquals("Reducir consumo de agua a 12 m³", segunda.get("recommendations").get(0).getDescripcion());
+        assertEquals(0, recommendationStore.getPendingCount());
+        verify(recommendationCoordinator, times(1)).getRecommendationsForTipo("agua", testUser);
+    }
+
+    @Test
+    @DisplayName("Test devolver la entrada desactualizada y recalcularla en segundo plano al cambiar la versión")
+    void testStaleWhileRevalidate() {
+        // Arrange
+        stubTransactionTemplate();
+        when(rollupService.getDataVersion(1L, EnumSet.of(ResourceType.WATER))).thenReturn(5L, 6L);
+        recommendationStore.get(testUser, "agua");
+
+        // Act
+        Map<String, List<MetaRecommendationDTO>> desactualizada = recommendationStore.get(testUser, "agua");
+        verify(recommendationCoordinator, timeout(2000).times(2)).getRecommendationsForTipo("agua", testUser);
+        Map<String, List<MetaRecommendationDTO>> recalculada = recommendationStore.get(testUser, "agua");
+
+        // Assert
+        assertEquals("Reducir consumo de agua a 12 m³", desactualizada.get("recommendations").get(0).getDescripcion());
+        assertEquals("Reducir consumo de agua a 10 m³", recalculada.get("recommendations").get(0).getDescripcion());
+    }
+
+    @Test
+    @DisplayName("Test recalcular las recomendaciones guardadas del usuario al confirmarse un cambio de consumo")
+    void testConsumptionChangeRefreshesStoredEntries() {
+        // Arrange
+        stubTransactionTemplate();
+        when(rollupService.getDataVersion(eq(1L), any())).thenReturn(5L);
+        recommendationStore.get(testUser, "agua");
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            recommendationStore.onConsumptionChanged(new ConsumptionChangedEvent(1L, ResourceType.WATER));
+        }
+
+        // Assert
+        assertEquals(1, recommendationStore.getPendingCount());
+        verify(recommendationCoordinator, timeout(2000).times(2)).getRecommendationsForTipo("agua", testUser);
+        verify(recommendationCoordinator, never()).getRecommendationsForTipo(eq("combinada"), any());
+    }
+
+    private void stubTransactionTemplate() {
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+    }
+
+    private static Map<String, List<MetaRecommendationDTO>> recommendations(String descripcion) {
+        return Map.of("recommendations", List.of(MetaRecommendationDTO.builder()
+                .descripcion(descripcion)
+                .valor(10.0)
+                .unidad("m3")
+                .metrica("consumo_total")
+                .build()));
+    }
+}
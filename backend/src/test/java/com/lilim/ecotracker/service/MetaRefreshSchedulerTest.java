@@ -0,0 +1,119 @@
+package com.lilim.ecotracker.service;
+
+import com.lilim.ecotracker.common.event.ConsumptionChangedEvent;
+import com.lilim.ecotracker.common.model.ResourceType;
+import com.lilim.ecotracker.features.metas.dto.MetaDTO;
+import com.lilim.ecotracker.features.metas.service.automation.MetaAutomationCoordinator;
+import com.lilim.ecotracker.features.metas.service.automation.MetaRefreshScheduler;
+import com.lilim.ecotracker.security.model.User;
+import com.lilim.ecotracker.security.repository.UserRepository;
+import com.lilim.ecotracker.security.service.UserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class MetaRefreshSchedulerTest {
+
+    @Mock
+    private MetaAutomationCoordinator automationCoordinator;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private MetaRefreshScheduler refreshScheduler;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        refreshScheduler = new MetaRefreshScheduler(automationCoordinator, userRepository, userService, transactionTemplate,
+                Duration.ofMillis(100), 1);
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("testuser");
+
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(automationCoordinator.updateMetasByType(eq(testUser), any())).thenReturn(Collections.emptyList());
+    }
+
+    @AfterEach
+    void tearDown() {
+        refreshScheduler.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test agrupar una ráfaga de cambios en un recálculo por usuario y tipo")
+    void testBurstIsCoalescedPerUserAndType() {
+        // Act
+        for (int i = 0; i < 100; i++) {
+            refreshScheduler.onConsumptionChanged(new ConsumptionChangedEvent(1L, ResourceType.WATER));
+        }
+        refreshScheduler.onConsumptionChanged(new ConsumptionChangedEvent(1L, ResourceType.TRANSPORT));
+
+        // Assert
+        assertEquals(2, refreshScheduler.getPendingCount());
+        verify(automationCoordinator, timeout(2000)).updateMetasByType(testUser, "agua");
+        verify(automationCoordinator, timeout(2000)).updateMetasByType(testUser, "transporte");
+        verify(automationCoordinator, after(300).times(2)).updateMetasByType(eq(testUser), any());
+        assertEquals(0, refreshScheduler.getPendingCount());
+    }
+
+    @Test
+    @DisplayName("Test programar un nuevo recálculo para cambios posteriores al anterior")
+    void testChangeAfterRefreshSchedulesAnotherRun() {
+        // Act
+        refreshScheduler.onConsumptionChanged(new ConsumptionChangedEvent(1L, ResourceType.ELECTRICITY));
+        verify(automationCoordinator, timeout(2000)).updateMetasByType(testUser, "electricidad");
+        refreshScheduler.onConsumptionChanged(new ConsumptionChangedEvent(1L, ResourceType.ELECTRICITY));
+
+        // Assert
+        verify(automationCoordinator, timeout(2000).times(2)).updateMetasByType(testUser, "electricidad");
+    }
+
+    @Test
+    @DisplayName("Test otorgar en bloque los puntos de las metas que completa el recálculo")
+    void testRefreshAwardsCompletedMetas() {
+        // Arrange
+        when(automationCoordinator.updateMetasByType(testUser, "agua")).thenReturn(List.of(
+                MetaDTO.builder().id(10L).estado("completada").build(),
+                MetaDTO.builder().id(11L).estado("en_progreso").build(),
+                MetaDTO.builder().id(12L).estado("completada").build()));
+
+        // Act
+        refreshScheduler.onConsumptionChanged(new ConsumptionChangedEvent(1L, ResourceType.WATER));
+
+        // Assert
+        verify(userService, timeout(2000)).awardPointsForCompletedMetas(eq(List.of(10L, 12L)), any(LocalDateTime.class));
+    }
+}
@@ -0,0 +1,79 @@
+package com.lilim.ecotracker.service;
+
+import com.lilim.ecotracker.features.metas.service.recommendation.RecommendationFanOut;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecommendationFanOutTest {
+
+    private RecommendationFanOut fanOut;
+
+    @BeforeEach
+    void setUp() {
+        fanOut = new RecommendationFanOut(4, 8, Duration.ofMillis(500));
+    }
+
+    @AfterEach
+    void tearDown() {
+        fanOut.shutdown();
+    }
+
+    @Test
+    @DisplayName("Test ejecutar las ramas en paralelo con la latencia de la más lenta")
+    void testBranchesRunConcurrently() {
+        // Arrange
+        long start = System.nanoTime();
+        List<RecommendationFanOut.Branch<Integer>> branches = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 4; i++) {
+            int value = i;
+            branches.add(fanOut.fork("rama-" + i, () -> sleepAndReturn(200, value), () -> -1));
+        }
+        List<Integer> results = branches.stream().map(RecommendationFanOut.Branch::join).toList();
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        // Assert
+        assertEquals(List.of(0, 1, 2, 3), results);
+        assertTrue(elapsedMs < 500, "Las ramas deberían solaparse, duración: " + elapsedMs + " ms");
+    }
+
+    @Test
+    @DisplayName("Test usar el valor de respaldo cuando una rama vence su plazo o falla")
+    void testFallbackOnTimeoutAndFailure() {
+        // Arrange
+        RecommendationFanOut.Branch<String> lenta = fanOut.fork("lenta", () -> sleepAndReturn(2000, "tarde"), () -> "respaldo");
+        RecommendationFanOut.Branch<String> fallida = fanOut.fork("fallida", () -> {
+            throw new IllegalStateException("sin datos");
+        }, () -> "respaldo");
+        RecommendationFanOut.Branch<String> rapida = fanOut.fork("rapida", () -> "ok", () -> "respaldo");
+
+        // Act
+        long start = System.nanoTime();
+        String resultadoLenta = lenta.join();
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        // Assert
+        assertEquals("respaldo", resultadoLenta);
+        assertTrue(elapsedMs < 1500, "La espera debería cortarse en el plazo, duración: " + elapsedMs + " ms");
+        assertEquals("respaldo", fallida.join());
+        assertEquals("ok", rapida.join());
+    }
+
+    private static <T> T sleepAndReturn(long millis, T value) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return value;
+    }
+}
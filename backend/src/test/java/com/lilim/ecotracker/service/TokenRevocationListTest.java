@@ -0,0 +1,109 @@
+package com.lilim.ecotracker.service;
+
+import com.lilim.ecotracker.common.cache.BloomFilter;
+import com.lilim.ecotracker.security.jwt.TokenRevocationList;
+import com.lilim.ecotracker.security.model.RevokedToken;
+import com.lilim.ecotracker.security.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenRevocationListTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        revocationList = new TokenRevocationList(revokedTokenRepository,
+                new TransactionTemplate(transactionManager), 1000, 0.01);
+    }
+
+    @Test
+    @DisplayName("Test rechazar un token revocado sin consultar la base de datos para los no revocados")
+    void testRevokedTokenIsRejected() {
+        // Arrange
+        String revoked = UUID.randomUUID().toString();
+        when(revokedTokenRepository.existsById(revoked)).thenReturn(true);
+
+        // Act
+        revocationList.revoke(revoked, new Date(System.currentTimeMillis() + 60_000));
+
+        // Assert
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+        assertTrue(revocationList.isRevoked(revoked));
+        assertFalse(revocationList.isRevoked(null));
+        int falsePositives = 0;
+        for (int i = 0; i < 1000; i++) {
+            String other = UUID.randomUUID().toString();
+            if (revocationList.isRevoked(other)) {
+                falsePositives++;
+            }
+        }
+        assertEquals(0, falsePositives);
+        // Con una sola revocación el filtro descarta todos los demás tokens sin consultar la tabla
+        verify(revokedTokenRepository, times(1)).existsById(anyString());
+    }
+
+    @Test
+    @DisplayName("Test reconstruir el filtro solo con las revocaciones vigentes, incluidas las de otras instancias")
+    void testRebuildKeepsOnlyActiveRevocations() {
+        // Arrange
+        String expired = UUID.randomUUID().toString();
+        String fromOtherNode = UUID.randomUUID().toString();
+        revocationList.revoke(expired, new Date(System.currentTimeMillis() + 60_000));
+        when(revokedTokenRepository.deleteExpired(any())).thenReturn(1);
+        when(revokedTokenRepository.findActiveJtis(any())).thenReturn(List.of(fromOtherNode));
+        when(revokedTokenRepository.existsById(fromOtherNode)).thenReturn(true);
+
+        // Act
+        revocationList.rebuild();
+
+        // Assert
+        assertFalse(revocationList.isRevoked(expired));
+        assertTrue(revocationList.isRevoked(fromOtherNode));
+        verify(revokedTokenRepository, never()).existsById(expired);
+    }
+
+    @Test
+    @DisplayName("Test mantener la tasa de falsos positivos del filtro de Bloom dentro de lo configurado")
+    void testBloomFilterFalsePositiveRate() {
+        // Arrange
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("revocado-" + i);
+        }
+
+        // Act
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("revocado-" + i));
+            if (filter.mightContain("vigente-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Assert
+        assertTrue(falsePositives < 200, "Falsos positivos: " + falsePositives);
+    }
+}
@@ -0,0 +1,58 @@
+package com.lilim.ecotracker.service;
+
+import com.lilim.ecotracker.security.jwt.VerifiedTokenCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VerifiedTokenCacheTest {
+
+    private VerifiedTokenCache tokenCache;
+
+    private UserDetails principal;
+
+    @BeforeEach
+    void setUp() {
+        tokenCache = new VerifiedTokenCache(2, 60_000);
+        principal = new User("testuser", "", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+    }
+
+    @Test
+    @DisplayName("Test devolver el principal de un token verificado hasta su expiración")
+    void testEntryExpiresWithToken() throws InterruptedException {
+        // Act
+        tokenCache.put("token-a", new Date(System.currentTimeMillis() + 150), "jti-a", principal);
+
+        // Assert
+        assertSame(principal, tokenCache.get("token-a").getPrincipal());
+        assertEquals("jti-a", tokenCache.get("token-a").getJti());
+        assertNull(tokenCache.get("token-b"));
+        Thread.sleep(250);
+        assertNull(tokenCache.get("token-a"));
+    }
+
+    @Test
+    @DisplayName("Test no guardar tokens expirados y acotar el número de entradas")
+    void testExpiredTokensAndBound() {
+        // Act
+        tokenCache.put("expirado", new Date(System.currentTimeMillis() - 1000), null, principal);
+        Date expiration = new Date(System.currentTimeMillis() + 60_000);
+        tokenCache.put("token-1", expiration, null, principal);
+        tokenCache.put("token-2", expiration, null, principal);
+        tokenCache.put("token-3", expiration, null, principal);
+
+        // Assert
+        assertNull(tokenCache.get("expirado"));
+        assertNull(tokenCache.get("token-1"));
+        assertNotNull(tokenCache.get("token-3"));
+        assertEquals(2, tokenCache.stats().getSize());
+    }
+}
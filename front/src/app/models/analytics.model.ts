@@ -42,6 +42,7 @@ export interface ConsumptionAnalyticsDTO {
     status: string;
   };
   historicalData?: ConsumptionDataPointDTO[];
+  transportTypes?: TransportTypeAnalyticsDTO[];
 }
 
 /**
@@ -63,3 +64,17 @@ export interface ConsumptionDataPointDTO {
   cost: number;
   co2Emissions: number;
 }
+
+/**
+ * Interface for the analytics of a single transport type
+ */
+export interface TransportTypeAnalyticsDTO {
+  transportType: string;
+  co2Factor: number;
+  currentKilometers: number;
+  currentCost: number;
+  currentCo2Emissions: number;
+  kilometerShare: number;
+  percentChange: number;
+  historicalData: ConsumptionDataPointDTO[];
+}
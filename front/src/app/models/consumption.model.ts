@@ -37,3 +37,22 @@ export interface ConsumptionSummary {
   value: number;
   percentage: number;
 }
+
+/**
+ * Page of a keyset-paginated listing (newest first).
+ * nextCursor is sent back as `cursor` to fetch the next page; null on the last page.
+ */
+export interface CursorPage<T> {
+  items: T[];
+  nextCursor: string | null;
+}
+
+/**
+ * Filters for consumption listings. Dates are ISO yyyy-MM-dd and inclusive.
+ */
+export interface ConsumptionPageQuery {
+  from?: string;
+  to?: string;
+  cursor?: string;
+  limit?: number;
+}
@@ -19,6 +19,7 @@ export interface Meta {
   createdAt?: Date;
   updatedAt?: Date;
   progreso?: number;
+  esReduccion?: boolean;
 }
 
 /**
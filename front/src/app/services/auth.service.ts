@@ -94,6 +94,14 @@ export class AuthService {
 
   logout(): void {
     console.log('Ejecutando logout...');
+
+    // Revocar el token en el servidor; se envía antes de limpiar el localStorage para que el
+    // interceptor añada el token. Un fallo no impide cerrar la sesión local
+    if (this.currentUserValue?.token) {
+      this.http.post(`${this.API_URL}/logout`, {}).subscribe({
+        error: err => console.warn('No se pudo revocar el token en el servidor', err)
+      });
+    }
     
     // Limpiar TODO el localStorage para asegurar que no queden datos antiguos
     localStorage.clear();
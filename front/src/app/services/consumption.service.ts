@@ -1,8 +1,10 @@
 import { Injectable } from '@angular/core';
-import { HttpClient, HttpErrorResponse } from '@angular/common/http';
-import { ElectricityConsumption, WaterConsumption, TransportUsage, ConsumptionSummary } from '../models/consumption.model';
-import { Observable, throwError } from 'rxjs';
-import { map, catchError, tap } from 'rxjs/operators'; // Añadido 'tap'
+import { HttpClient, HttpErrorResponse, HttpParams } from '@angular/common/http';
+import {
+  ElectricityConsumption, WaterConsumption, TransportUsage, ConsumptionSummary, BaseConsumption, CursorPage, ConsumptionPageQuery
+} from '../models/consumption.model';
+import { EMPTY, Observable, throwError } from 'rxjs';
+import { map, catchError, tap, expand, reduce } from 'rxjs/operators'; // Añadido 'tap'
 import { AuthService } from './auth.service';
 import { Router } from '@angular/router';
 import { environment } from '../../environments/environment';
@@ -14,6 +16,12 @@ import { MetaService } from './meta.service'; // Importar MetaService
 export class ConsumptionService {
   private readonly API_URL = environment.apiUrl;
 
+  /**
+   * Months of history loaded by the dashboards and page size used to load them
+   */
+  private readonly HISTORY_MONTHS = 24;
+  private readonly HISTORY_PAGE_SIZE = 500;
+
   constructor(
     private http: HttpClient,
     private authService: AuthService,
@@ -72,18 +80,11 @@ export class ConsumptionService {
   }
 
   /**
-   * Get all electricity consumption entries
+   * Get the electricity consumption entries of the last HISTORY_MONTHS months
    * @returns Observable of electricity consumption array
    */
   getElectricityConsumption(): Observable<ElectricityConsumption[]> {
-    return this.http.get<ElectricityConsumption[]>(`${this.API_URL}/electricity`)
-      .pipe(
-        map(items => items.map(item => ({
-          ...item,
-          date: new Date(item.date)
-        }))),
-        catchError(this.handleError.bind(this))
-      );
+    return this.getRecentHistory<ElectricityConsumption>('electricity');
   }
 
   /**
@@ -104,18 +105,11 @@ export class ConsumptionService {
   }
 
   /**
-   * Get all water consumption entries
+   * Get the water consumption entries of the last HISTORY_MONTHS months
    * @returns Observable of water consumption array
    */
   getWaterConsumption(): Observable<WaterConsumption[]> {
-    return this.http.get<WaterConsumption[]>(`${this.API_URL}/water`)
-      .pipe(
-        map(items => items.map(item => ({
-          ...item,
-          date: new Date(item.date)
-        }))),
-        catchError(this.handleError.bind(this))
-      );
+    return this.getRecentHistory<WaterConsumption>('water');
   }
 
   /**
@@ -136,20 +130,59 @@ export class ConsumptionService {
   }
 
   /**
-   * Get all transport usage entries
+   * Get the transport usage entries of the last HISTORY_MONTHS months
    * @returns Observable of transport usage array
    */
   getTransportUsage(): Observable<TransportUsage[]> {
-    return this.http.get<TransportUsage[]>(`${this.API_URL}/transport`)
+    return this.getRecentHistory<TransportUsage>('transport');
+  }
+
+  /**
+   * Get one page of consumption entries, newest first
+   * @param resource 'water', 'electricity' or 'transport'
+   * @param query Date range, cursor of the previous page and page size
+   * @returns Observable of the page
+   */
+  getConsumptionPage<T extends BaseConsumption>(resource: string, query: ConsumptionPageQuery = {}): Observable<CursorPage<T>> {
+    let params = new HttpParams();
+    Object.entries(query).forEach(([key, value]) => {
+      if (value !== undefined && value !== null) {
+        params = params.set(key, String(value));
+      }
+    });
+
+    return this.http.get<CursorPage<T>>(`${this.API_URL}/${resource}`, { params })
       .pipe(
-        map(items => items.map(item => ({
-          ...item,
-          date: new Date(item.date)
-        }))),
+        map(page => ({
+          ...page,
+          items: page.items.map(item => ({
+            ...item,
+            date: new Date(item.date)
+          }))
+        })),
         catchError(this.handleError.bind(this))
       );
   }
 
+  /**
+   * Load every page of the last HISTORY_MONTHS months, following the cursors
+   */
+  private getRecentHistory<T extends BaseConsumption>(resource: string): Observable<T[]> {
+    const since = new Date();
+    since.setMonth(since.getMonth() - this.HISTORY_MONTHS);
+    const query: ConsumptionPageQuery = {
+      from: since.toISOString().substring(0, 10),
+      limit: this.HISTORY_PAGE_SIZE
+    };
+
+    return this.getConsumptionPage<T>(resource, query).pipe(
+      expand(page => page.nextCursor
+        ? this.getConsumptionPage<T>(resource, { ...query, cursor: page.nextCursor })
+        : EMPTY),
+      reduce((items, page) => items.concat(page.items), [] as T[])
+    );
+  }
+
   /**
    * Get mock data if API fails or for development
    * @returns Array of mock consumption data
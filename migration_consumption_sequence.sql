@@ -0,0 +1,37 @@
+-- Migración de los IDs de los registros de consumo a la secuencia consumption_seq
+-- Agua, electricidad y transporte comparten una secuencia con asignación en bloques de 50
+-- (BaseEntity) en lugar de columnas AUTO_INCREMENT, para que Hibernate agrupe los INSERT en lotes.
+-- EcoTracker v1.2 - Importación masiva de consumo
+
+-- Ejecutar antes de desplegar la versión con la secuencia sobre una base con registros existentes:
+-- sin ella los nuevos IDs empiezan en 1 y chocan con los ya asignados por AUTO_INCREMENT.
+
+-- MySQL no tiene secuencias: Hibernate las emula con una tabla de una fila (columna next_val)
+CREATE TABLE IF NOT EXISTS consumption_seq (
+    next_val BIGINT NOT NULL
+);
+
+-- Sembrar la secuencia por encima del mayor ID existente de las tres tablas.
+-- Con asignación en bloques, Hibernate reserva los 50 IDs que terminan en el valor leído,
+-- por lo que el valor inicial debe superar el máximo en al menos 50 (+51)
+DELETE FROM consumption_seq;
+
+INSERT INTO consumption_seq (next_val)
+SELECT GREATEST(
+    COALESCE((SELECT MAX(id) FROM water_consumption), 0),
+    COALESCE((SELECT MAX(id) FROM electricity_consumption), 0),
+    COALESCE((SELECT MAX(id) FROM transport_usage), 0)
+) + 51;
+
+-- En bases con secuencias nativas (PostgreSQL, H2) usar en su lugar, con <max_id> el mayor ID
+-- de las tres tablas:
+-- CREATE SEQUENCE IF NOT EXISTS consumption_seq START WITH 1 INCREMENT BY 50;
+-- ALTER SEQUENCE consumption_seq RESTART WITH <max_id + 51>;
+
+-- Verificar la migración
+SELECT
+    next_val,
+    (SELECT MAX(id) FROM water_consumption) AS max_water_id,
+    (SELECT MAX(id) FROM electricity_consumption) AS max_electricity_id,
+    (SELECT MAX(id) FROM transport_usage) AS max_transport_id
+FROM consumption_seq;